@@ -0,0 +1,142 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The generation of a whole document of 1M rows x 20 columns (floats, ints, strings, dates)
+ * through the three writers: the named direct writer (rows flushed by the producer), the writer
+ * adapter (rows written by a consumer thread) and the anonymous writer (rows kept in memory
+ * until the save).
+ * <p>
+ * The anonymous writer needs a large heap: java -Xmx4g -jar benchmarks.jar EndToEnd
+ *
+ * @author J. Férard
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class EndToEndBenchmark {
+    private static final int COLS = 20;
+
+    /**
+     * The number of rows
+     */
+    @Param({"1000000"})
+    public int rows;
+
+    /**
+     * The writer: direct, adapter or anonymous
+     */
+    @Param({"direct", "adapter", "anonymous"})
+    public String writer;
+
+    private Logger logger;
+    private OdsFactory odsFactory;
+    private File file;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Iteration)
+    public void setUp() throws IOException {
+        this.logger = Logger.getLogger("bench");
+        this.logger.setLevel(Level.WARNING);
+        this.odsFactory = OdsFactory.create(this.logger, Locale.US);
+        this.file = File.createTempFile("fastods-bench-", ".ods");
+        this.file.delete(); // the named writers don't overwrite a file
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Iteration)
+    public void tearDown() {
+        this.file.delete();
+    }
+
+    @Benchmark
+    public void generate() throws IOException {
+        if (this.writer.equals("direct")) {
+            final NamedOdsFileWriter writer = this.odsFactory.createWriter(this.file);
+            final NamedOdsDocument document = writer.document();
+            this.fill(document.addTable("bench", this.rows, COLS));
+            document.save();
+        } else if (this.writer.equals("adapter")) {
+            this.generateWithAdapter();
+        } else {
+            final AnonymousOdsFileWriter writer = this.odsFactory.createWriter();
+            this.fill(writer.document().addTable("bench", this.rows, COLS));
+            writer.saveAs(this.file);
+        }
+    }
+
+    private void generateWithAdapter() throws IOException {
+        final OdsFileWriterAdapter writerAdapter = this.odsFactory.createWriterAdapter(this.file);
+        final NamedOdsDocument document = writerAdapter.document();
+        this.fill(document.addTable("bench", this.rows, COLS));
+        document.save();
+        writerAdapter.close();
+    }
+
+    private void fill(final Table table) throws IOException {
+        final TableCellWalker walker = table.getWalker();
+        for (int r = 0; r < this.rows; r++) {
+            for (int c = 0; c < COLS; c++) {
+                switch (c % 4) {
+                    case 0:
+                        walker.setFloatValue(r * 0.25 + c);
+                        break;
+                    case 1:
+                        walker.setFloatValue(r + c);
+                        break;
+                    case 2:
+                        walker.setStringValue("value " + (r & 1023));
+                        break;
+                    default:
+                        walker.setDateValue(1234567891011L + r * 1000L);
+                        break;
+                }
+                walker.next();
+            }
+            walker.nextRow();
+        }
+    }
+}
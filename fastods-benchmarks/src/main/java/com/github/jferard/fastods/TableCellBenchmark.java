@@ -0,0 +1,126 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * The setters of the cells. The cells of a row are reused: this measures the setter and the
+ * style lookup, not the creation of the cells.
+ *
+ * @author J. Férard
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TableCellBenchmark {
+    private static final int CELLS = 1024;
+
+    /**
+     * The regular cells or the compact rows
+     */
+    @Param({"false", "true"})
+    public boolean compactRows;
+
+    private TableCell[] cells;
+    private int i;
+
+    @Setup
+    public void setUp() throws IOException {
+        OdsFactory odsFactory = OdsFactory.create(Logger.getLogger("bench"), Locale.US);
+        if (this.compactRows) {
+            odsFactory = odsFactory.compactRows();
+        }
+        final Table table = odsFactory.createWriter().document().addTable("bench");
+        final TableRowImpl row = table.getRow(0);
+        this.cells = new TableCell[CELLS];
+        for (int c = 0; c < CELLS; c++) {
+            this.cells[c] = row.getOrCreateCell(c);
+        }
+    }
+
+    private TableCell nextCell() {
+        this.i = (this.i + 1) & (CELLS - 1);
+        return this.cells[this.i];
+    }
+
+    @Benchmark
+    public void setFloatValueInt() {
+        this.nextCell().setFloatValue(this.i);
+    }
+
+    @Benchmark
+    public void setFloatValueFloat() {
+        this.nextCell().setFloatValue(this.i * 0.25f);
+    }
+
+    @Benchmark
+    public void setFloatValueDouble() {
+        this.nextCell().setFloatValue(this.i * 0.25);
+    }
+
+    @Benchmark
+    public void setFloatValueNumber() {
+        this.nextCell().setFloatValue(BigDecimal.valueOf(this.i, 2));
+    }
+
+    @Benchmark
+    public void setCurrencyValueDouble() {
+        this.nextCell().setCurrencyValue(this.i * 0.25, "EUR");
+    }
+
+    @Benchmark
+    public void setDateValueDate() {
+        this.nextCell().setDateValue(new Date(1234567891011L + this.i));
+    }
+
+    @Benchmark
+    public void setDateValueMillis() {
+        this.nextCell().setDateValue(1234567891011L + this.i);
+    }
+
+    @Benchmark
+    public void setStringValue() {
+        this.nextCell().setStringValue("value");
+    }
+
+    @Benchmark
+    public void setBooleanValue() {
+        this.nextCell().setBooleanValue((this.i & 1) == 0);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.XMLUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * The serialization of a row of 20 cells (floats, strings, dates) to a StringBuilder.
+ *
+ * @author J. Férard
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class TableRowBenchmark {
+    private static final int COLS = 20;
+
+    /**
+     * The regular cells or the compact rows
+     */
+    @Param({"false", "true"})
+    public boolean compactRows;
+
+    /**
+     * LibreOffice mode: a style name for every cell
+     */
+    @Param({"false", "true"})
+    public boolean libreOfficeMode;
+
+    private XMLUtil xmlUtil;
+    private TableRowImpl row;
+    private StringBuilder sb;
+
+    @Setup
+    public void setUp() throws IOException {
+        OdsFactory odsFactory = OdsFactory.create(Logger.getLogger("bench"), Locale.US);
+        if (this.compactRows) {
+            odsFactory = odsFactory.compactRows();
+        }
+        if (!this.libreOfficeMode) {
+            odsFactory = odsFactory.noLibreOfficeMode();
+        }
+        final Table table = odsFactory.createWriter().document().addTable("bench");
+        this.row = table.getRow(0);
+        for (int c = 0; c < COLS; c++) {
+            final TableCell cell = this.row.getOrCreateCell(c);
+            switch (c % 4) {
+                case 0:
+                    cell.setFloatValue(c * 1000.25);
+                    break;
+                case 1:
+                    cell.setFloatValue(c);
+                    break;
+                case 2:
+                    cell.setStringValue("<value & " + c + ">");
+                    break;
+                default:
+                    cell.setDateValue(1234567891011L + c);
+                    break;
+            }
+        }
+        this.xmlUtil = XMLUtil.create();
+        this.sb = new StringBuilder(4096);
+    }
+
+    @Benchmark
+    public StringBuilder appendXMLToTable() throws IOException {
+        this.sb.setLength(0);
+        this.row.appendXMLToTable(this.xmlUtil, this.sb);
+        return this.sb;
+    }
+}
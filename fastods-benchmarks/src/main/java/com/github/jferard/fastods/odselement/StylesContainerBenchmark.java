@@ -0,0 +1,87 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.odselement;
+
+import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.datastyle.DataStyles;
+import com.github.jferard.fastods.datastyle.DataStylesBuilder;
+import com.github.jferard.fastods.style.TableCellStyle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * The resolution of the child cell styles, called by every setter of a typed value. The
+ * (style, data style) pairs are already known: this is the lookup path.
+ *
+ * @author J. Férard
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class StylesContainerBenchmark {
+    /**
+     * The number of distinct cell styles
+     */
+    @Param({"1", "64"})
+    public int cellStyles;
+
+    private StylesContainerImpl stylesContainer;
+    private TableCellStyle[] styles;
+    private DataStyle[] dataStyles;
+    private int i;
+
+    @Setup
+    public void setUp() {
+        this.stylesContainer = new StylesContainerImpl(Logger.getLogger("bench"));
+        this.styles = new TableCellStyle[this.cellStyles];
+        for (int s = 0; s < this.cellStyles; s++) {
+            this.styles[s] = TableCellStyle.builder("style" + s).fontWeightBold().build();
+        }
+        final DataStyles ds = DataStylesBuilder.create(Locale.US).build();
+        this.dataStyles = new DataStyle[]{ds.getFloatDataStyle(), ds.getDateDataStyle(),
+                ds.getPercentageDataStyle(), ds.getCurrencyDataStyle()};
+        for (final TableCellStyle style : this.styles) {
+            for (final DataStyle dataStyle : this.dataStyles) {
+                this.stylesContainer.addChildCellStyle(style, dataStyle);
+            }
+        }
+    }
+
+    @Benchmark
+    public TableCellStyle addChildCellStyle() {
+        this.i++;
+        return this.stylesContainer.addChildCellStyle(this.styles[this.i % this.cellStyles],
+                this.dataStyles[this.i & 3]);
+    }
+}
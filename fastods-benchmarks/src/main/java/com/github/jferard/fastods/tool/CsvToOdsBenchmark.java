@@ -0,0 +1,143 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.NamedOdsDocument;
+import com.github.jferard.fastods.NamedOdsFileWriter;
+import com.github.jferard.fastods.OdsFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * The conversion of a generated CSV file (1 GB by default: ints, decimals, percentages, dates
+ * and strings) to a table of a named document, with one parser thread or one parser thread per
+ * processor.
+ * <p>
+ * The file is generated once per trial: java -jar benchmarks.jar CsvToOds
+ *
+ * @author J. Férard
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class CsvToOdsBenchmark {
+    /**
+     * The size of the CSV file, in MB
+     */
+    @Param({"1024"})
+    public int megabytes;
+
+    /**
+     * The number of parser threads, 0 for one per processor
+     */
+    @Param({"1", "0"})
+    public int threads;
+
+    private OdsFactory odsFactory;
+    private File csvFile;
+    private File odsFile;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        final Logger logger = Logger.getLogger("bench");
+        logger.setLevel(java.util.logging.Level.WARNING);
+        this.odsFactory = OdsFactory.create(logger, Locale.US);
+        this.csvFile = File.createTempFile("fastods-bench-", ".csv");
+        final long size = this.megabytes * 1024L * 1024L;
+        final Writer writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(this.csvFile), "UTF-8"), 1 << 16);
+        try {
+            writer.write("id,amount,rate,day,label,comment\n");
+            long written = 0;
+            long r = 0;
+            while (written < size) {
+                final String line = r + "," + (r % 10000) * 0.25 + "," + (r % 100) + "%,2020-0" +
+                        (r % 9 + 1) + "-" + (r % 18 + 10) + ",label " + (r & 1023) +
+                        ",\"a, \"\"quoted\"\" comment " + r + "\"\n";
+                writer.write(line);
+                written += line.length();
+                r++;
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCsv() {
+        this.csvFile.delete();
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        this.odsFile = File.createTempFile("fastods-bench-", ".ods");
+        this.odsFile.delete(); // the named writers don't overwrite a file
+        this.executor = Executors.newFixedThreadPool(
+                this.threads == 0 ? Runtime.getRuntime().availableProcessors() : this.threads);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        this.executor.shutdown();
+        this.odsFile.delete();
+    }
+
+    @Benchmark
+    public int convert() throws IOException {
+        final NamedOdsFileWriter writer = this.odsFactory.createWriter(this.odsFile);
+        final NamedOdsDocument document = writer.document();
+        final int count = CsvToOdsConverter.builder().executor(this.executor, 8).build()
+                .convert(this.csvFile, document.addTable("csv"));
+        document.save();
+        writer.close();
+        return count;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The escaper, with or without cache, on repetitive data (a few distinct strings) and on high
+ * cardinality data (every string is distinct).
+ *
+ * @author J. Férard
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FastOdsXMLEscaperBenchmark {
+    private static final int STRINGS = 65536;
+
+    /**
+     * The size of the caches (0: no cache)
+     */
+    @Param({"0", "4096"})
+    public int cacheSize;
+
+    /**
+     * The number of distinct strings
+     */
+    @Param({"16", "65536"})
+    public int distinctStrings;
+
+    private FastOdsXMLEscaper escaper;
+    private String[] strings;
+    private int i;
+
+    @Setup
+    public void setUp() {
+        this.escaper = FastOdsXMLEscaper.create(this.cacheSize);
+        this.strings = new String[STRINGS];
+        for (int s = 0; s < STRINGS; s++) {
+            final int n = s % this.distinctStrings;
+            if (n % 2 == 0) {
+                this.strings[s] = "A plain value, number " + n;
+            } else {
+                this.strings[s] = "A <special> value & number \"" + n + "\"";
+            }
+        }
+    }
+
+    private String nextString() {
+        this.i = (this.i + 1) & (STRINGS - 1);
+        return this.strings[this.i];
+    }
+
+    @Benchmark
+    public String escapeXMLContent() {
+        return this.escaper.escapeXMLContent(this.nextString());
+    }
+
+    @Benchmark
+    public String escapeXMLAttribute() {
+        return this.escaper.escapeXMLAttribute(this.nextString());
+    }
+}
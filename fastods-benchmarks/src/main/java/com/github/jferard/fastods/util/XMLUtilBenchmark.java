@@ -0,0 +1,105 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+
+/**
+ * The attributes of the cells: escaped strings, ints, longs, doubles and dates.
+ *
+ * @author J. Férard
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class XMLUtilBenchmark {
+    private XMLUtil xmlUtil;
+    private StringBuilder sb;
+    private int i;
+
+    @Setup
+    public void setUp() {
+        this.xmlUtil = XMLUtil.create();
+        this.sb = new StringBuilder(256);
+    }
+
+    private StringBuilder reset() {
+        this.i++;
+        this.sb.setLength(0);
+        return this.sb;
+    }
+
+    @Benchmark
+    public StringBuilder appendAttributeString() throws IOException {
+        this.xmlUtil.appendAttribute(this.reset(), "table:style-name", "ce1");
+        return this.sb;
+    }
+
+    @Benchmark
+    public StringBuilder appendEAttribute() throws IOException {
+        this.xmlUtil.appendEAttribute(this.reset(), "office:string-value", "<a & b>");
+        return this.sb;
+    }
+
+    @Benchmark
+    public StringBuilder appendAttributeInt() throws IOException {
+        this.xmlUtil.appendAttribute(this.reset(), "table:number-columns-repeated", this.i);
+        return this.sb;
+    }
+
+    @Benchmark
+    public StringBuilder appendAttributeLong() throws IOException {
+        this.xmlUtil.appendAttribute(this.reset(), "office:value", 1000000000000L + this.i);
+        return this.sb;
+    }
+
+    @Benchmark
+    public StringBuilder appendAttributeDouble() throws IOException {
+        this.xmlUtil.appendAttribute(this.reset(), "office:value", this.i * 0.01);
+        return this.sb;
+    }
+
+    @Benchmark
+    public StringBuilder appendAttributeDoubleToString() throws IOException {
+        this.xmlUtil.appendAttribute(this.reset(), "office:value",
+                Double.toString(this.i * 0.01));
+        return this.sb;
+    }
+
+    @Benchmark
+    public StringBuilder appendDateTimeAttribute() throws IOException {
+        this.xmlUtil.appendDateTimeAttribute(this.reset(), "office:date-value",
+                1234567891011L + this.i * 1000L);
+        return this.sb;
+    }
+}
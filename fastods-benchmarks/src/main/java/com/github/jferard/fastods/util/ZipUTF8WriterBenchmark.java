@@ -0,0 +1,98 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * A zip entry of about 10 MB of row fragments, written to a null output stream through the
+ * ZipUTF8Writer variants.
+ *
+ * @author J. Férard
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ZipUTF8WriterBenchmark {
+    private static final int ROWS = 50000;
+    private static final String[] FRAGMENTS = {"<table:table-row table:style-name=\"ro1\">",
+            "<table:table-cell office:value-type=\"float\" office:value=\"", "123.456",
+            "\" table:style-name=\"ce1\"/>", "<table:table-cell office:value-type=\"string\">",
+            "<text:p>", "Crème brûlée – 10 €", "</text:p>", "</table:table-cell>",
+            "</table:table-row>"};
+
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+        }
+    }
+
+    /**
+     * The writer: default, fast UTF-8 writer, parallel deflate
+     */
+    @Param({"default", "fastUTF8", "parallelDeflate"})
+    public String writer;
+
+    private ZipUTF8WriterBuilder builder;
+
+    @Setup
+    public void setUp() {
+        this.builder = ZipUTF8WriterImpl.builder();
+        if (this.writer.equals("fastUTF8")) {
+            this.builder.fastUTF8Writer();
+        } else if (this.writer.equals("parallelDeflate")) {
+            this.builder.parallelDeflate(Runtime.getRuntime().availableProcessors(), 128 * 1024);
+        }
+    }
+
+    @Benchmark
+    public void writeEntry() throws IOException {
+        final ZipUTF8Writer zipWriter = this.builder.build(new NullOutputStream());
+        zipWriter.putNextEntry(new ZipEntry("content.xml"));
+        for (int r = 0; r < ROWS; r++) {
+            for (final String fragment : FRAGMENTS) {
+                zipWriter.append(fragment);
+            }
+        }
+        zipWriter.closeEntry();
+        zipWriter.finish();
+        zipWriter.close();
+    }
+}
@@ -28,6 +28,7 @@ import com.github.jferard.fastods.odselement.ScriptEventListener;
 import com.github.jferard.fastods.util.AutoFilter;
 import com.github.jferard.fastods.util.Container;
 import com.github.jferard.fastods.util.PilotTable;
+import com.github.jferard.fastods.util.RawZipEntry;
 import com.github.jferard.fastods.util.XMLUtil;
 import com.github.jferard.fastods.util.ZipUTF8Writer;
 
@@ -114,6 +115,12 @@ public final class AnonymousOdsDocument implements OdsDocument {
         this.commonOdsDocument.addExtraFile(fullPath, mediaType, bytes);
     }
 
+    @Override
+    public void addExtraRawFile(final String fullPath, final String mediaType,
+                                final RawZipEntry rawEntry) {
+        this.commonOdsDocument.addExtraRawFile(fullPath, mediaType, rawEntry);
+    }
+
     @Override
     public void addExtraDir(final String fullPath) {
         this.commonOdsDocument.addExtraDir(fullPath);
@@ -197,6 +204,11 @@ public final class AnonymousOdsDocument implements OdsDocument {
         this.commonOdsDocument.freezeCells(table, rowCount, colCount);
     }
 
+    @Override
+    public void deleteTemporaryFiles() throws IOException {
+        this.commonOdsDocument.deleteTemporaryFiles();
+    }
+
     @Override
     public void setDataStylesMode(final Container.Mode mode) {
         this.commonOdsDocument.setDataStylesMode(mode);
@@ -231,14 +243,18 @@ public final class AnonymousOdsDocument implements OdsDocument {
      * @throws IOException if the document can't be saved
      */
     void save(final ZipUTF8Writer writer) throws IOException {
-        this.odsElements.createEmptyElements(writer);
-        this.odsElements.writeMimeType(this.xmlUtil, writer);
-        this.odsElements.writeMeta(this.xmlUtil, writer);
-        this.odsElements.writeStyles(this.xmlUtil, writer);
-        this.odsElements.writeContent(this.xmlUtil, writer);
-        this.odsElements.writeSettings(this.xmlUtil, writer);
-        this.odsElements.writeManifest(this.xmlUtil, writer);
-        this.odsElements.writeExtras(writer);
+        try {
+            this.odsElements.createEmptyElements(writer);
+            this.odsElements.writeMimeType(this.xmlUtil, writer);
+            this.odsElements.writeMeta(this.xmlUtil, writer);
+            this.odsElements.writeStyles(this.xmlUtil, writer);
+            this.odsElements.writeContent(this.xmlUtil, writer);
+            this.odsElements.writeSettings(this.xmlUtil, writer);
+            this.odsElements.writeManifest(this.xmlUtil, writer);
+            this.odsElements.writeExtras(writer);
+        } finally {
+            this.odsElements.deleteTemporaryFiles();
+        }
         this.logger.log(Level.FINE, "file saved");
     }
 }
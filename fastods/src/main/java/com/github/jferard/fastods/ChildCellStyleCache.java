@@ -0,0 +1,143 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.odselement.StylesContainer;
+import com.github.jferard.fastods.style.TableCellStyle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A cache of the child cell styles of a table, that is the styles created by
+ * StylesContainer.addChildCellStyle for a (TableCellStyle, DataStyle) pair.
+ * <p>
+ * The styles and the data styles are compared by identity and get stable integer ids: a
+ * resolved pair is stored in an array of arrays. The last pair of every column is kept
+ * aside: a cell whose style was already resolved in the same column costs one array read.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author J. Férard
+ */
+class ChildCellStyleCache {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final StylesContainer stylesContainer;
+    private final TableCellStyleIndex styleIndex;
+    private final List<DataStyle> dataStyles;
+    private final List<TableCellStyle[]> childStylesByStyleId;
+    private Resolution[] lastResolutionByColumn;
+
+    /**
+     * @param stylesContainer the container
+     */
+    ChildCellStyleCache(final StylesContainer stylesContainer) {
+        this.stylesContainer = stylesContainer;
+        this.styleIndex = new TableCellStyleIndex();
+        this.dataStyles = new ArrayList<DataStyle>();
+        this.childStylesByStyleId = new ArrayList<TableCellStyle[]>();
+        this.lastResolutionByColumn = new Resolution[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Add the data style and the child style to the container, unless it was already done.
+     *
+     * @param colIndex  the index of the column of the cell
+     * @param style     the parent style
+     * @param dataStyle the data style
+     * @return the child style
+     */
+    TableCellStyle getChildCellStyle(final int colIndex, final TableCellStyle style,
+                                     final DataStyle dataStyle) {
+        if (colIndex < this.lastResolutionByColumn.length) {
+            final Resolution resolution = this.lastResolutionByColumn[colIndex];
+            if (resolution != null && resolution.style == style &&
+                    resolution.dataStyle == dataStyle) {
+                return resolution.childStyle;
+            }
+        } else {
+            this.lastResolutionByColumn = Arrays.copyOf(this.lastResolutionByColumn,
+                    Math.max(colIndex + 1, this.lastResolutionByColumn.length * 2));
+        }
+
+        final TableCellStyle childStyle = this.getChildCellStyle(style, dataStyle);
+        this.lastResolutionByColumn[colIndex] = new Resolution(style, dataStyle, childStyle);
+        return childStyle;
+    }
+
+    private TableCellStyle getChildCellStyle(final TableCellStyle style,
+                                             final DataStyle dataStyle) {
+        final int styleId = this.styleIndex.indexOf(style);
+        final int dataStyleId = this.getDataStyleId(dataStyle);
+        while (this.childStylesByStyleId.size() <= styleId) {
+            this.childStylesByStyleId.add(null);
+        }
+        TableCellStyle[] childStyles = this.childStylesByStyleId.get(styleId);
+        if (childStyles == null || childStyles.length <= dataStyleId) {
+            childStyles = childStyles == null ? new TableCellStyle[this.dataStyles.size()] :
+                    Arrays.copyOf(childStyles, this.dataStyles.size());
+            this.childStylesByStyleId.set(styleId, childStyles);
+        }
+        TableCellStyle childStyle = childStyles[dataStyleId];
+        if (childStyle == null) {
+            this.stylesContainer.addDataStyle(dataStyle);
+            childStyle = this.stylesContainer.addChildCellStyle(style, dataStyle);
+            childStyles[dataStyleId] = childStyle;
+        }
+        return childStyle;
+    }
+
+    /**
+     * There are only a few data styles in a document: a linear search is enough.
+     */
+    private int getDataStyleId(final DataStyle dataStyle) {
+        final int size = this.dataStyles.size();
+        for (int i = 0; i < size; i++) {
+            if (this.dataStyles.get(i) == dataStyle) {
+                return i;
+            }
+        }
+        this.dataStyles.add(dataStyle);
+        return size;
+    }
+
+    /**
+     * The last resolution in a column
+     */
+    private static final class Resolution {
+        private final TableCellStyle style;
+        private final DataStyle dataStyle;
+        private final TableCellStyle childStyle;
+
+        private Resolution(final TableCellStyle style, final DataStyle dataStyle,
+                           final TableCellStyle childStyle) {
+            this.style = style;
+            this.dataStyle = dataStyle;
+            this.childStyle = childStyle;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.style.TableCellStyle;
+
+/**
+ * An immutable snapshot of the default cell styles of the columns of a table.
+ * <p>
+ * The rows serialized by a worker thread read this snapshot instead of the column styles of the
+ * table, since the table may still be modified by the producer thread.
+ *
+ * @author J. Férard
+ */
+class ColumnDefaultCellStyles {
+    private final TableCellStyle[] styles;
+    private final TableCellStyle blankStyle;
+
+    /**
+     * @param styles     the default cell styles of the used columns
+     * @param blankStyle the default cell style of the other columns
+     */
+    ColumnDefaultCellStyles(final TableCellStyle[] styles, final TableCellStyle blankStyle) {
+        this.styles = styles;
+        this.blankStyle = blankStyle;
+    }
+
+    /**
+     * @param columnIndex the column index
+     * @return the default cell style of the column, never null
+     */
+    public TableCellStyle get(final int columnIndex) {
+        if (columnIndex < this.styles.length) {
+            return this.styles[columnIndex];
+        }
+        return this.blankStyle;
+    }
+}
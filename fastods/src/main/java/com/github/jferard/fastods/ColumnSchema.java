@@ -0,0 +1,140 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.datastyle.DataStyles;
+import com.github.jferard.fastods.odselement.StylesContainer;
+import com.github.jferard.fastods.style.TableCellStyle;
+
+/**
+ * The types, cell styles and data styles of the columns of a table, declared once for all
+ * the rows. See Table.rowWriter.
+ *
+ * @author J. Férard
+ */
+public final class ColumnSchema {
+    /**
+     * @return a builder
+     */
+    public static ColumnSchemaBuilder builder() {
+        return new ColumnSchemaBuilder();
+    }
+
+    private final CellType[] types;
+    private final TableCellStyle[] styles;
+    private final DataStyle[] dataStyles;
+
+    /**
+     * @param types      the types of the columns
+     * @param styles     the cell styles of the columns, some may be null
+     * @param dataStyles the data styles of the columns, some may be null
+     */
+    ColumnSchema(final CellType[] types, final TableCellStyle[] styles,
+                 final DataStyle[] dataStyles) {
+        this.types = types;
+        this.styles = styles;
+        this.dataStyles = dataStyles;
+    }
+
+    /**
+     * @return the number of columns
+     */
+    public int size() {
+        return this.types.length;
+    }
+
+    /**
+     * @param colIndex the index of the column
+     * @return the type of the column
+     */
+    public CellType getType(final int colIndex) {
+        return this.types[colIndex];
+    }
+
+    /**
+     * Resolve the style of every column, as TableCellImpl does for every cell: set the style,
+     * then the value (and the implicit data style), then the data style.
+     *
+     * @param stylesContainer the container
+     * @param format          the default data styles
+     * @param table           the table
+     * @return the styles of the cells, some may be null
+     */
+    TableCellStyle[] resolveStyles(final StylesContainer stylesContainer,
+                                   final DataStyles format, final Table table) {
+        final int size = this.types.length;
+        final TableCellStyle[] resolvedStyles = new TableCellStyle[size];
+        for (int c = 0; c < size; c++) {
+            TableCellStyle style = this.styles[c];
+            if (style != null) {
+                stylesContainer.addContentFontFaceContainerStyle(style);
+            }
+            final DataStyle implicitDataStyle = this.getImplicitDataStyle(format, c);
+            if (implicitDataStyle != null) {
+                final TableCellStyle curStyle =
+                        style == null ? table.findDefaultCellStyle(c) : style;
+                final DataStyle curDataStyle = curStyle.getDataStyle();
+                if (curDataStyle == null) {
+                    stylesContainer.addDataStyle(implicitDataStyle);
+                    style = stylesContainer.addChildCellStyle(curStyle, implicitDataStyle);
+                } else {
+                    stylesContainer.addDataStyle(curDataStyle);
+                    style = stylesContainer
+                            .addChildCellStyle(curStyle.getParentCellStyle(), curDataStyle);
+                }
+            }
+            final DataStyle dataStyle = this.dataStyles[c];
+            if (dataStyle != null) {
+                stylesContainer.addDataStyle(dataStyle);
+                final TableCellStyle curStyle =
+                        style == null ? table.findDefaultCellStyle(c) : style;
+                if (curStyle.getDataStyle() == null) {
+                    style = stylesContainer.addChildCellStyle(curStyle, dataStyle);
+                } else {
+                    style = stylesContainer
+                            .addChildCellStyle(curStyle.getParentCellStyle(), dataStyle);
+                }
+            }
+            resolvedStyles[c] = style;
+        }
+        return resolvedStyles;
+    }
+
+    private DataStyle getImplicitDataStyle(final DataStyles format, final int colIndex) {
+        switch (this.types[colIndex]) {
+            case BOOLEAN:
+                return format.getBooleanDataStyle();
+            case DATE:
+                return format.getDateDataStyle();
+            case FLOAT:
+                return format.getFloatDataStyle();
+            case PERCENTAGE:
+                return format.getPercentageDataStyle();
+            default: // STRING
+                return null;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.style.TableCellStyle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A builder for a column schema
+ *
+ * @author J. Férard
+ */
+public class ColumnSchemaBuilder {
+    private final List<CellType> types;
+    private final List<TableCellStyle> styles;
+    private final List<DataStyle> dataStyles;
+
+    /**
+     * Create a new builder
+     */
+    public ColumnSchemaBuilder() {
+        this.types = new ArrayList<CellType>();
+        this.styles = new ArrayList<TableCellStyle>();
+        this.dataStyles = new ArrayList<DataStyle>();
+    }
+
+    /**
+     * Add a column with the default style and data style
+     *
+     * @param type the type of the values: boolean, date, float, percentage or string
+     * @return this for fluent style
+     */
+    public ColumnSchemaBuilder column(final CellType type) {
+        return this.column(type, null, null);
+    }
+
+    /**
+     * Add a column with the default data style
+     *
+     * @param type  the type of the values: boolean, date, float, percentage or string
+     * @param style the cell style, or null
+     * @return this for fluent style
+     */
+    public ColumnSchemaBuilder column(final CellType type, final TableCellStyle style) {
+        return this.column(type, style, null);
+    }
+
+    /**
+     * Add a column
+     *
+     * @param type      the type of the values: boolean, date, float, percentage or string
+     * @param style     the cell style, or null
+     * @param dataStyle the data style, or null
+     * @return this for fluent style
+     * @throws IllegalArgumentException if the type is not supported
+     */
+    public ColumnSchemaBuilder column(final CellType type, final TableCellStyle style,
+                                      final DataStyle dataStyle) {
+        switch (type) {
+            case BOOLEAN:
+            case DATE:
+            case FLOAT:
+            case PERCENTAGE:
+            case STRING:
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported column type: " + type);
+        }
+        this.types.add(type);
+        this.styles.add(style);
+        this.dataStyles.add(dataStyle);
+        return this;
+    }
+
+    /**
+     * @return the column schema
+     */
+    public ColumnSchema build() {
+        final int size = this.types.size();
+        return new ColumnSchema(this.types.toArray(new CellType[size]),
+                this.styles.toArray(new TableCellStyle[size]),
+                this.dataStyles.toArray(new DataStyle[size]));
+    }
+}
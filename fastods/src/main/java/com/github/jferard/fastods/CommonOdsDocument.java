@@ -33,6 +33,7 @@ import com.github.jferard.fastods.style.TableStyle;
 import com.github.jferard.fastods.util.AutoFilter;
 import com.github.jferard.fastods.util.Container;
 import com.github.jferard.fastods.util.PilotTable;
+import com.github.jferard.fastods.util.RawZipEntry;
 
 import java.io.IOException;
 import java.util.List;
@@ -197,6 +198,11 @@ class CommonOdsDocument implements OdsDocument {
         this.odsElements.freezeCells(table, rowCount, colCount);
     }
 
+    @Override
+    public void deleteTemporaryFiles() throws IOException {
+        this.odsElements.deleteTemporaryFiles();
+    }
+
     @Override
     public void setDataStylesMode(final Container.Mode mode) {
         this.odsElements.setDataStylesMode(mode);
@@ -228,6 +234,12 @@ class CommonOdsDocument implements OdsDocument {
         this.odsElements.addExtraFile(fullPath, mediaType, bytes);
     }
 
+    @Override
+    public void addExtraRawFile(final String fullPath, final String mediaType,
+                                final RawZipEntry rawEntry) {
+        this.odsElements.addExtraRawFile(fullPath, mediaType, rawEntry);
+    }
+
     @Override
     public void addExtraDir(final String fullPath) {
         this.odsElements.addExtraDir(fullPath);
@@ -0,0 +1,524 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.odselement.StylesContainer;
+import com.github.jferard.fastods.style.TableCellStyle;
+import com.github.jferard.fastods.util.CellTagFragments;
+import com.github.jferard.fastods.util.WriteUtil;
+import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.XmlByteWriter;
+
+import java.io.IOException;
+
+/**
+ * The cells of a compact row. Instead of a TableCellImpl per cell, the cells are stored in
+ * parallel arrays: type tags, primitive values and style indexes. Strings and cold cells are
+ * stored in side arrays that are created on demand.
+ * <p>
+ * The XML is the same as the XML of the TableCellImpl, but the data styles are the data styles
+ * of the row when the value is set (not when the cell is created).
+ *
+ * @author J. Férard
+ */
+final class CompactCells {
+    private static final CellType[] CELL_TYPES = CellType.values();
+    private static final byte NO_TYPE = 0;
+
+    private static final byte NO_VALUE = 0;
+    private static final byte STRING_VALUE = 1;
+    private static final byte FLOAT_VALUE = 2;
+    private static final byte LONG_VALUE = 3;
+    private static final byte BOOLEAN_VALUE = 4;
+    private static final byte DATE_VALUE = 5;
+    private static final byte DOUBLE_VALUE = 6;
+
+    private final TableRowImpl parentRow;
+    private final WriteUtil writeUtil;
+    private final XMLUtil xmlUtil;
+    private final StylesContainer stylesContainer;
+    private final boolean libreOfficeMode;
+    private final TableCellStyleIndex styleIndex;
+    private final int initialCapacity;
+    private byte[] types;
+    private byte[] valueKinds;
+    private long[] values;
+    private int[] styles;
+    private String[] strings;
+    private TableColdCell[] coldCells;
+    private int size;
+
+    /**
+     * @param parentRow       the row
+     * @param writeUtil       an util
+     * @param xmlUtil         an util
+     * @param stylesContainer the styles container
+     * @param libreOfficeMode try to get full compatibility with LO if true
+     * @param styleIndex      the index of the styles of the table
+     * @param columnCapacity  the initial capacity
+     */
+    CompactCells(final TableRowImpl parentRow, final WriteUtil writeUtil,
+                 final XMLUtil xmlUtil, final StylesContainer stylesContainer,
+                 final boolean libreOfficeMode, final TableCellStyleIndex styleIndex,
+                 final int columnCapacity) {
+        this.parentRow = parentRow;
+        this.writeUtil = writeUtil;
+        this.xmlUtil = xmlUtil;
+        this.stylesContainer = stylesContainer;
+        this.libreOfficeMode = libreOfficeMode;
+        this.styleIndex = styleIndex;
+        this.initialCapacity = Math.max(columnCapacity, 1);
+        this.size = 0;
+    }
+
+    /**
+     * @return the index of the last created cell + 1
+     */
+    int usedSize() {
+        return this.size;
+    }
+
+    /**
+     * @param colIndex the index of the cell
+     * @return a view on the cell, the cell is created if necessary
+     */
+    TableCell getOrCreateCell(final int colIndex) {
+        this.createCell(colIndex);
+        return new CompactTableCell(this, colIndex);
+    }
+
+    /**
+     * Create the cell if necessary and set a style that was resolved for a whole column: no
+     * style lookup. See TableRowWriter.
+     *
+     * @param colIndex the index of the cell
+     * @param style    the resolved style, may be null
+     */
+    void prepareCell(final int colIndex, final TableCellStyle style) {
+        this.createCell(colIndex);
+        this.setStyleAt(colIndex, style);
+    }
+
+    private void createCell(final int colIndex) {
+        this.ensureCapacity(colIndex);
+        if (colIndex >= this.size) {
+            this.size = colIndex + 1;
+        }
+    }
+
+    /**
+     * @return the parent row
+     */
+    TableRowImpl getParentRow() {
+        return this.parentRow;
+    }
+
+    private void ensureCapacity(final int colIndex) {
+        if (this.types == null) {
+            final int capacity = Math.max(this.initialCapacity, colIndex + 1);
+            this.types = new byte[capacity];
+            this.valueKinds = new byte[capacity];
+            this.values = new long[capacity];
+            this.styles = new int[capacity];
+        } else if (colIndex >= this.types.length) {
+            final int capacity = Math.max(this.types.length * 2, colIndex + 1);
+            this.types = this.copyOf(this.types, capacity);
+            this.valueKinds = this.copyOf(this.valueKinds, capacity);
+            final long[] newValues = new long[capacity];
+            System.arraycopy(this.values, 0, newValues, 0, this.values.length);
+            this.values = newValues;
+            final int[] newStyles = new int[capacity];
+            System.arraycopy(this.styles, 0, newStyles, 0, this.styles.length);
+            this.styles = newStyles;
+            if (this.strings != null) {
+                final String[] newStrings = new String[capacity];
+                System.arraycopy(this.strings, 0, newStrings, 0, this.strings.length);
+                this.strings = newStrings;
+            }
+            if (this.coldCells != null) {
+                final TableColdCell[] newColdCells = new TableColdCell[capacity];
+                System.arraycopy(this.coldCells, 0, newColdCells, 0, this.coldCells.length);
+                this.coldCells = newColdCells;
+            }
+        }
+    }
+
+    private byte[] copyOf(final byte[] arr, final int capacity) {
+        final byte[] newArr = new byte[capacity];
+        System.arraycopy(arr, 0, newArr, 0, arr.length);
+        return newArr;
+    }
+
+    /**
+     * @param colIndex the index of the cell
+     * @return true if the cell has a value or a cold part
+     */
+    boolean hasValue(final int colIndex) {
+        if (colIndex >= this.size) {
+            return false;
+        }
+        final byte valueKind = this.valueKinds[colIndex];
+        return valueKind != NO_VALUE &&
+                (valueKind != STRING_VALUE || this.strings[colIndex] != null) ||
+                this.getColdCell(colIndex) != null;
+    }
+
+    /**
+     * @param colIndex the index of the cell
+     * @return true if the cell is covered
+     */
+    boolean isCovered(final int colIndex) {
+        if (colIndex >= this.size) {
+            return false;
+        }
+        final TableColdCell coldCell = this.getColdCell(colIndex);
+        return coldCell != null && coldCell.isCovered();
+    }
+
+    /**
+     * See TableCellImpl.hasSameContent
+     *
+     * @param colIndex      the index of the cell
+     * @param otherColIndex the index of another cell
+     * @return true if the other cell has the same XML as the cell
+     */
+    boolean hasSameContent(final int colIndex, final int otherColIndex) {
+        if (otherColIndex >= this.size || this.getColdCell(colIndex) != null ||
+                this.getColdCell(otherColIndex) != null ||
+                this.types[colIndex] != this.types[otherColIndex] ||
+                this.valueKinds[colIndex] != this.valueKinds[otherColIndex] ||
+                this.values[colIndex] != this.values[otherColIndex]) {
+            return false;
+        }
+        if (this.strings != null) {
+            final String string = this.strings[colIndex];
+            final String otherString = this.strings[otherColIndex];
+            if (string == null ? otherString != null : !string.equals(otherString)) {
+                return false;
+            }
+        }
+        final String styleName = this.getStyleNameToWrite(colIndex);
+        final String otherStyleName = this.getStyleNameToWrite(otherColIndex);
+        return styleName == null ? otherStyleName == null : styleName.equals(otherStyleName);
+    }
+
+    /**
+     * Generate the XML for a run of identical cells, as TableCellImpl.appendXMLToTableRow does.
+     *
+     * @param colIndex the index of the cell
+     * @param util     an util.
+     * @param writer   the writer to fill
+     * @param repeated the number of identical cells, starting with this cell
+     * @throws IOException if an error occurs
+     */
+    void appendXMLToTableRow(final int colIndex, final XMLUtil util,
+                             final XmlByteWriter writer, final int repeated)
+            throws IOException {
+        final TableColdCell coldCell = this.getColdCell(colIndex);
+        if (coldCell != null && coldCell.isCovered()) {
+            writer.write(TableTagBytes.COVERED_CELL_OPEN);
+        } else {
+            writer.write(TableTagBytes.CELL_OPEN);
+        }
+        if (repeated > 1) {
+            writer.write(TableTagBytes.COLUMNS_REPEATED);
+            writer.writeInt(repeated);
+            writer.append('"');
+        }
+
+        final CellTagFragments fragments = util.getCellTagFragments();
+        final CellType type = this.getType(colIndex);
+        writer.write(fragments.getFragment(this.getStyleNameToWrite(colIndex), type));
+        if (type != null) {
+            this.appendValue(colIndex, util, writer);
+            writer.append('"');
+            if (type == CellType.CURRENCY) {
+                writer.write(fragments.getCurrencyFragment(coldCell.getCurrency()));
+            }
+        }
+
+        if (coldCell != null) {
+            coldCell.appendXMLToTable(util, writer);
+        } else {
+            writer.write(TableTagBytes.EMPTY_TAG_END);
+        }
+    }
+
+    private String getStyleNameToWrite(final int colIndex) {
+        final TableCellStyle style = this.getStyle(colIndex);
+        if (style != null) {
+            return style.getName();
+        } else if (this.libreOfficeMode) {
+            return this.getCurCellStyle(colIndex).getName();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Append the value, without the attribute name and the quotes.
+     */
+    private void appendValue(final int colIndex, final XMLUtil util, final XmlByteWriter writer)
+            throws IOException {
+        final long value = this.values[colIndex];
+        switch (this.valueKinds[colIndex]) {
+            case FLOAT_VALUE:
+                writer.append(Float.toString(Float.intBitsToFloat((int) value)));
+                break;
+            case LONG_VALUE:
+                writer.writeLong(value);
+                break;
+            case DOUBLE_VALUE:
+                writer.writeDouble(Double.longBitsToDouble(value));
+                break;
+            case BOOLEAN_VALUE:
+                writer.append(Boolean.toString(value != 0));
+                break;
+            case DATE_VALUE:
+                util.appendDateTimeAttributeValue(writer, value);
+                break;
+            default: // STRING_VALUE
+                writer.append(util.escapeXMLAttribute(this.strings[colIndex]));
+                break;
+        }
+    }
+
+    private CellType getType(final int colIndex) {
+        final byte type = this.types[colIndex];
+        if (type == NO_TYPE) {
+            return null;
+        }
+        return CELL_TYPES[type - 1];
+    }
+
+    private void setTypeAndValue(final int colIndex, final CellType type, final byte valueKind,
+                                 final long value) {
+        this.types[colIndex] = (byte) (type.ordinal() + 1);
+        this.valueKinds[colIndex] = valueKind;
+        this.values[colIndex] = value;
+        if (this.strings != null) {
+            this.strings[colIndex] = null;
+        }
+    }
+
+    /**
+     * @param colIndex the index of the cell
+     * @param type     the type
+     * @param value    the value as a string
+     */
+    void setStringValue(final int colIndex, final CellType type, final String value) {
+        this.parentRow.checkNotSealed();
+        this.setTypeAndValue(colIndex, type, STRING_VALUE, 0);
+        if (this.strings == null) {
+            this.strings = new String[this.types.length];
+        }
+        this.strings[colIndex] = value;
+    }
+
+    /**
+     * @param colIndex the index of the cell
+     * @param type     the type
+     * @param value    the value
+     */
+    void setFloatValue(final int colIndex, final CellType type, final float value) {
+        this.parentRow.checkNotSealed();
+        this.setTypeAndValue(colIndex, type, FLOAT_VALUE, Float.floatToIntBits(value));
+    }
+
+    /**
+     * @param colIndex the index of the cell
+     * @param type     the type
+     * @param value    the value
+     */
+    void setLongValue(final int colIndex, final CellType type, final long value) {
+        this.parentRow.checkNotSealed();
+        this.setTypeAndValue(colIndex, type, LONG_VALUE, value);
+    }
+
+    /**
+     * @param colIndex the index of the cell
+     * @param type     the type
+     * @param value    the value
+     */
+    void setDoubleValue(final int colIndex, final CellType type, final double value) {
+        this.parentRow.checkNotSealed();
+        this.setTypeAndValue(colIndex, type, DOUBLE_VALUE, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * @param colIndex the index of the cell
+     * @param value    the value
+     */
+    void setBooleanValue(final int colIndex, final boolean value) {
+        this.parentRow.checkNotSealed();
+        this.setTypeAndValue(colIndex, CellType.BOOLEAN, BOOLEAN_VALUE, value ? 1 : 0);
+    }
+
+    /**
+     * @param colIndex    the index of the cell
+     * @param epochMillis the date
+     */
+    void setDateValue(final int colIndex, final long epochMillis) {
+        this.parentRow.checkNotSealed();
+        this.setTypeAndValue(colIndex, CellType.DATE, DATE_VALUE, epochMillis);
+    }
+
+    /**
+     * @param colIndex the index of the cell
+     * @return the cold cell or null
+     */
+    TableColdCell getColdCell(final int colIndex) {
+        if (this.coldCells == null) {
+            return null;
+        }
+        return this.coldCells[colIndex];
+    }
+
+    /**
+     * @param colIndex the index of the cell
+     * @return the cold cell, created if necessary
+     */
+    TableColdCell ensureColdCell(final int colIndex) {
+        this.parentRow.checkNotSealed();
+        if (this.coldCells == null) {
+            this.coldCells = new TableColdCell[this.types.length];
+        }
+        TableColdCell coldCell = this.coldCells[colIndex];
+        if (coldCell == null) {
+            coldCell = TableColdCell.create(this.xmlUtil);
+            this.coldCells[colIndex] = coldCell;
+        }
+        return coldCell;
+    }
+
+    /**
+     * @param colIndex the index of the cell
+     * @return the style of the cell, or null
+     */
+    TableCellStyle getStyle(final int colIndex) {
+        return this.styleIndex.get(this.styles[colIndex]);
+    }
+
+    private void setStyleAt(final int colIndex, final TableCellStyle style) {
+        this.styles[colIndex] = this.styleIndex.indexOf(style);
+    }
+
+    /**
+     * @param colIndex the index of the cell
+     * @return the current cell style, eventually found in parent (row, column, table).
+     * Never null
+     */
+    private TableCellStyle getCurCellStyle(final int colIndex) {
+        final TableCellStyle style = this.getStyle(colIndex);
+        if (style == null) {
+            return this.parentRow.findDefaultCellStyle(colIndex);
+        } else {
+            return style;
+        }
+    }
+
+    /**
+     * See TableCellImpl.setImplicitDataStyle
+     *
+     * @param colIndex  the index of the cell
+     * @param dataStyle the data style
+     */
+    void setImplicitDataStyle(final int colIndex, final DataStyle dataStyle) {
+        assert dataStyle != null;
+
+        final TableCellStyle curStyle = this.getCurCellStyle(colIndex);
+        final DataStyle curDataStyle = curStyle.getDataStyle();
+        if (curDataStyle == null) {
+            this.setStyleAt(colIndex, this.getChildCellStyle(colIndex, curStyle, dataStyle));
+        } else {
+            this.setStyleAt(colIndex, this.getChildCellStyle(colIndex,
+                    curStyle.getParentCellStyle(), curDataStyle));
+        }
+    }
+
+    /**
+     * See TableCellImpl.setDataStyle
+     *
+     * @param colIndex  the index of the cell
+     * @param dataStyle the data style
+     */
+    void setDataStyle(final int colIndex, final DataStyle dataStyle) {
+        this.parentRow.checkNotSealed();
+        if (dataStyle == null) {
+            return;
+        }
+
+        final TableCellStyle curStyle = this.getCurCellStyle(colIndex);
+        final DataStyle curDataStyle = curStyle.getDataStyle();
+        if (curDataStyle == null) {
+            this.setStyleAt(colIndex, this.getChildCellStyle(colIndex, curStyle, dataStyle));
+        } else {
+            this.setStyleAt(colIndex, this.getChildCellStyle(colIndex,
+                    curStyle.getParentCellStyle(), dataStyle));
+        }
+    }
+
+    private TableCellStyle getChildCellStyle(final int colIndex, final TableCellStyle style,
+                                             final DataStyle dataStyle) {
+        return this.parentRow.getChildCellStyle(colIndex, style, dataStyle);
+    }
+
+    /**
+     * See TableCellImpl.setStyle
+     *
+     * @param colIndex the index of the cell
+     * @param style    the style
+     */
+    void setStyle(final int colIndex, final TableCellStyle style) {
+        this.parentRow.checkNotSealed();
+        if (style == null) {
+            return;
+        }
+
+        this.stylesContainer.addContentFontFaceContainerStyle(style);
+        final TableCellStyle curStyle = this.getStyle(colIndex);
+        if (curStyle == null || curStyle.getDataStyle() == null) {
+            this.setStyleAt(colIndex, style);
+        } else {
+            this.setStyleAt(colIndex,
+                    this.getChildCellStyle(colIndex, style, curStyle.getDataStyle()));
+        }
+    }
+
+    /**
+     * @return the styles container
+     */
+    StylesContainer getStylesContainer() {
+        return this.stylesContainer;
+    }
+
+    /**
+     * @return the xml util
+     */
+    XMLUtil getXmlUtil() {
+        return this.xmlUtil;
+    }
+}
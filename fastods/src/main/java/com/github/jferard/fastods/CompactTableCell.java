@@ -0,0 +1,344 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.attribute.Length;
+import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.datastyle.DataStyles;
+import com.github.jferard.fastods.style.TableCellStyle;
+import com.github.jferard.fastods.util.DateAppender;
+
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * A thin view on a cell of a compact row. The view has no state: two views on the same cell
+ * are equivalent.
+ *
+ * @author J. Férard
+ */
+class CompactTableCell implements TableCell {
+    private final CompactCells cells;
+    private final int columnIndex;
+
+    /**
+     * @param cells       the cells of the row
+     * @param columnIndex the index of the cell
+     */
+    CompactTableCell(final CompactCells cells, final int columnIndex) {
+        this.cells = cells;
+        this.columnIndex = columnIndex;
+    }
+
+    private DataStyles getDataStyles() {
+        return this.cells.getParentRow().getRowFormat();
+    }
+
+    @Override
+    public void markRowsSpanned(final int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Can't mark a negative number of rows");
+        } else if (n <= 1) {
+            return;
+        }
+
+        this.cells.ensureColdCell(this.columnIndex).setRowsSpanned(n);
+    }
+
+    @Override
+    public void setBooleanValue(final boolean value) {
+        this.cells.setBooleanValue(this.columnIndex, value);
+        this.cells.setImplicitDataStyle(this.columnIndex,
+                this.getDataStyles().getBooleanDataStyle());
+    }
+
+    @Override
+    public void setCellValue(final CellValue value) {
+        value.setToCell(this);
+    }
+
+    @Override
+    public void setCurrencyValue(final float value, final String currency) {
+        this.cells.setFloatValue(this.columnIndex, CellType.CURRENCY, value);
+        this.setCurrency(currency);
+    }
+
+    @Override
+    public void setCurrencyValue(final int value, final String currency) {
+        this.cells.setLongValue(this.columnIndex, CellType.CURRENCY, value);
+        this.setCurrency(currency);
+    }
+
+    @Override
+    public void setCurrencyValue(final double value, final String currency) {
+        this.cells.setDoubleValue(this.columnIndex, CellType.CURRENCY, value);
+        this.setCurrency(currency);
+    }
+
+    @Override
+    public void setCurrencyValue(final Number value, final String currency) {
+        this.cells.setStringValue(this.columnIndex, CellType.CURRENCY, value.toString());
+        this.setCurrency(currency);
+    }
+
+    private void setCurrency(final String currency) {
+        this.cells.setImplicitDataStyle(this.columnIndex,
+                this.getDataStyles().getCurrencyDataStyle());
+        this.cells.ensureColdCell(this.columnIndex).setCurrency(currency);
+    }
+
+    @Override
+    public void setDateValue(final Calendar cal) {
+        this.setDateValue(cal.getTimeInMillis());
+    }
+
+    @Override
+    public void setDateValue(final Date date) {
+        this.setDateValue(date.getTime());
+    }
+
+    @Override
+    public void setDateValue(final long epochMillis) {
+        this.cells.setDateValue(this.columnIndex, epochMillis);
+        this.cells.setImplicitDataStyle(this.columnIndex,
+                this.getDataStyles().getDateDataStyle());
+    }
+
+    @Override
+    public void setDateValue(final int year, final int month, final int day, final int hour,
+                             final int minute, final int second, final int millis) {
+        this.setDateValue(
+                DateAppender.toEpochMillis(year, month, day, hour, minute, second, millis));
+    }
+
+    @Override
+    public void setFloatValue(final float value) {
+        this.cells.setFloatValue(this.columnIndex, CellType.FLOAT, value);
+        this.setImplicitFloatDataStyle();
+    }
+
+    @Override
+    public void setFloatValue(final int value) {
+        this.cells.setLongValue(this.columnIndex, CellType.FLOAT, value);
+        this.setImplicitFloatDataStyle();
+    }
+
+    @Override
+    public void setFloatValue(final long value) {
+        this.cells.setLongValue(this.columnIndex, CellType.FLOAT, value);
+        this.setImplicitFloatDataStyle();
+    }
+
+    @Override
+    public void setFloatValue(final double value) {
+        this.cells.setDoubleValue(this.columnIndex, CellType.FLOAT, value);
+        this.setImplicitFloatDataStyle();
+    }
+
+    @Override
+    public void setFloatValue(final Number value) {
+        this.cells.setStringValue(this.columnIndex, CellType.FLOAT, value.toString());
+        this.setImplicitFloatDataStyle();
+    }
+
+    private void setImplicitFloatDataStyle() {
+        this.cells.setImplicitDataStyle(this.columnIndex,
+                this.getDataStyles().getFloatDataStyle());
+    }
+
+    @Override
+    public void setPercentageValue(final float value) {
+        this.cells.setFloatValue(this.columnIndex, CellType.PERCENTAGE, value);
+        this.setImplicitPercentageDataStyle();
+    }
+
+    @Override
+    public void setPercentageValue(final int value) {
+        this.cells.setLongValue(this.columnIndex, CellType.PERCENTAGE, value);
+        this.setImplicitPercentageDataStyle();
+    }
+
+    @Override
+    public void setPercentageValue(final double value) {
+        this.cells.setDoubleValue(this.columnIndex, CellType.PERCENTAGE, value);
+        this.setImplicitPercentageDataStyle();
+    }
+
+    @Override
+    public void setPercentageValue(final Number value) {
+        this.cells.setStringValue(this.columnIndex, CellType.PERCENTAGE, value.toString());
+        this.setImplicitPercentageDataStyle();
+    }
+
+    private void setImplicitPercentageDataStyle() {
+        this.cells.setImplicitDataStyle(this.columnIndex,
+                this.getDataStyles().getPercentageDataStyle());
+    }
+
+    @Override
+    public void setStringValue(final String value) {
+        this.cells.setStringValue(this.columnIndex, CellType.STRING, value);
+    }
+
+    @Override
+    public void setStyle(final TableCellStyle style) {
+        this.cells.setStyle(this.columnIndex, style);
+    }
+
+    @Override
+    public void setTimeValue(final long timeInMillis) {
+        final String value;
+        if (timeInMillis < 0) {
+            value = this.cells.getXmlUtil()
+                    .formatNegTimeInterval(0, 0, 0, 0, 0, (double) -timeInMillis / 1000);
+        } else {
+            value = this.cells.getXmlUtil()
+                    .formatTimeInterval(0, 0, 0, 0, 0, (double) timeInMillis / 1000);
+        }
+        this.setTimeValue(value);
+    }
+
+    @Override
+    public void setTimeValue(final long years, final long months, final long days,
+                             final long hours, final long minutes, final double seconds) {
+        this.setTimeValue(this.cells.getXmlUtil()
+                .formatTimeInterval(years, months, days, hours, minutes, seconds));
+    }
+
+    @Override
+    public void setNegTimeValue(final long years, final long months, final long days,
+                                final long hours, final long minutes, final double seconds) {
+        this.setTimeValue(this.cells.getXmlUtil()
+                .formatNegTimeInterval(years, months, days, hours, minutes, seconds));
+    }
+
+    private void setTimeValue(final String value) {
+        this.cells.setStringValue(this.columnIndex, CellType.TIME, value);
+        this.cells.setImplicitDataStyle(this.columnIndex,
+                this.getDataStyles().getTimeDataStyle());
+    }
+
+    @Override
+    public void setTooltip(final String tooltipText) {
+        this.cells.ensureColdCell(this.columnIndex).setTooltip(tooltipText);
+    }
+
+    @Override
+    public void setTooltip(final String tooltipText, final Length width, final Length height,
+                           final boolean visible) {
+        this.cells.ensureColdCell(this.columnIndex)
+                .setTooltip(tooltipText, width, height, visible);
+    }
+
+    @Override
+    public void setTooltip(final Tooltip tooltip) {
+        final TableColdCell coldCell = this.cells.ensureColdCell(this.columnIndex);
+        tooltip.addEmbeddedStyles(this.cells.getStylesContainer());
+        coldCell.setTooltip(tooltip);
+    }
+
+    @Override
+    public void setFormula(final String formula) {
+        this.cells.ensureColdCell(this.columnIndex).setFormula(formula);
+    }
+
+    @Override
+    public boolean isCovered() {
+        return this.cells.isCovered(this.columnIndex);
+    }
+
+    @Override
+    public void setCovered() {
+        this.cells.ensureColdCell(this.columnIndex).setCovered();
+    }
+
+    @Override
+    public void setColumnsSpanned(final int n) {
+        this.cells.getParentRow().setColumnsSpanned(this.columnIndex, n);
+    }
+
+    @Override
+    public void markColumnsSpanned(final int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Can't mark a negative number of columns");
+        } else if (n <= 1) {
+            return;
+        }
+
+        this.cells.ensureColdCell(this.columnIndex).setColumnsSpanned(n);
+    }
+
+    @Override
+    public void setRowsSpanned(final int n) throws IOException {
+        this.cells.getParentRow().setRowsSpanned(this.columnIndex, n);
+    }
+
+    @Override
+    public void setVoidValue() {
+        this.cells.setStringValue(this.columnIndex, CellType.VOID, "");
+    }
+
+    @Override
+    public void setMatrixFormula(final String formula) {
+        this.setMatrixFormula(formula, 1, 1);
+    }
+
+    @Override
+    public void setMatrixFormula(final String formula, final int matrixRowsSpanned,
+                                 final int matrixColumnsSpanned) {
+        final TableColdCell coldCell = this.cells.ensureColdCell(this.columnIndex);
+        coldCell.setFormula(formula);
+        coldCell.setMatrixRowsSpanned(matrixRowsSpanned);
+        coldCell.setMatrixColumnsSpanned(matrixColumnsSpanned);
+    }
+
+    @Override
+    public boolean hasValue() {
+        return this.cells.hasValue(this.columnIndex);
+    }
+
+    @Override
+    public void setText(final Text text) {
+        this.cells.ensureColdCell(this.columnIndex).setText(text);
+        this.cells.setStringValue(this.columnIndex, CellType.STRING, "");
+        text.addEmbeddedStylesFromCell(this.cells.getStylesContainer());
+    }
+
+    @Override
+    public void setCellMerge(final int rowMerge, final int columnMerge) throws IOException {
+        this.cells.getParentRow().setCellMerge(this.columnIndex, rowMerge, columnMerge);
+    }
+
+    @Override
+    public void setDataStyle(final DataStyle dataStyle) {
+        this.cells.setDataStyle(this.columnIndex, dataStyle);
+    }
+
+    @Override
+    public int colIndex() {
+        return this.columnIndex;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import java.io.File;
+
+/**
+ * The policy of an anonymous document that spills its rows to disk. When the estimated size of
+ * the rows of a table in memory reaches the threshold, the completed rows are converted to XML
+ * and written to a temporary file. The file is copied into the content.xml entry on save.
+ * <p>
+ * The spilled rows can't be modified anymore, and a document that has spilled rows can only be
+ * saved once.
+ *
+ * @author J. Férard
+ */
+public class DiskSpillPolicy {
+    /**
+     * @param memoryThreshold the estimated size of the rows of a table, in bytes, that triggers
+     *                        a spill
+     * @return a new policy
+     */
+    public static DiskSpillPolicy create(final long memoryThreshold) {
+        if (memoryThreshold <= 0) {
+            throw new IllegalArgumentException("The threshold must be positive");
+        }
+        return new DiskSpillPolicy(memoryThreshold);
+    }
+
+    private final long memoryThreshold;
+    private boolean deflated;
+    private File tempDirectory;
+
+    /**
+     * @param memoryThreshold the threshold in bytes
+     */
+    DiskSpillPolicy(final long memoryThreshold) {
+        this.memoryThreshold = memoryThreshold;
+        this.deflated = false;
+        this.tempDirectory = null;
+    }
+
+    /**
+     * Deflate the temporary files: they are smaller, but have to be inflated on save.
+     *
+     * @return this for fluent style
+     */
+    public DiskSpillPolicy deflated() {
+        this.deflated = true;
+        return this;
+    }
+
+    /**
+     * @param tempDirectory the directory of the temporary files, or null for the default
+     *                      temporary directory
+     * @return this for fluent style
+     */
+    public DiskSpillPolicy tempDirectory(final File tempDirectory) {
+        this.tempDirectory = tempDirectory;
+        return this;
+    }
+
+    /**
+     * @return the threshold in bytes
+     */
+    long getMemoryThreshold() {
+        return this.memoryThreshold;
+    }
+
+    /**
+     * @return true if the temporary files are deflated
+     */
+    boolean isDeflated() {
+        return this.deflated;
+    }
+
+    /**
+     * @return the directory of the temporary files, or null
+     */
+    File getTempDirectory() {
+        return this.tempDirectory;
+    }
+}
@@ -50,9 +50,12 @@ public class EndTableFlusher implements OdsAsyncFlusher {
 
     @Override
     public void flushInto(final XMLUtil xmlUtil, final ZipUTF8Writer writer) throws IOException {
+        final RepeatedRowsCompressor compressor = RepeatedRowsCompressor.create();
         for (final TableRowImpl row : this.rows) {
-            TableRowImpl.appendXMLToTable(row, xmlUtil, writer);
+            compressor.appendRow(xmlUtil, writer, row);
+            TableRowImpl.seal(row);
         }
+        compressor.flush();
         // free rows
         Collections.fill(this.rows, null);
         this.appender.appendPostamble(writer);
@@ -0,0 +1,136 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+/**
+ * The policy of a named writer that flushes the rows of a table. The completed rows are flushed
+ * as soon as one of the limits is reached: a number of rows, an estimated size in memory or a
+ * delay since the last flush. By default, the rows are flushed every 8192 rows.
+ * <p>
+ * The rows are flushed when a new row is created. For the row count limit, the index of the
+ * new row has to be a multiple of maxRows: the chunks are aligned, and a chunk has at most
+ * maxRows rows if the rows are created in order.
+ * <p>
+ * The size of a row is estimated from its number of cells when the next row is created: a
+ * memory budget keeps the heap stable for wide sheets, and avoids tiny chunks for narrow sheets.
+ *
+ * @author J. Férard
+ */
+public class FlushPolicy {
+    /**
+     * The default number of rows
+     */
+    public static final int DEFAULT_MAX_ROWS = 8 * 1024;
+
+    /**
+     * @return the default policy
+     */
+    public static FlushPolicy create() {
+        return FlushPolicy.rowCount(DEFAULT_MAX_ROWS);
+    }
+
+    /**
+     * @param maxRows the number of rows that triggers a flush
+     * @return a new policy
+     */
+    public static FlushPolicy rowCount(final int maxRows) {
+        return new FlushPolicy().maxRows(maxRows);
+    }
+
+    /**
+     * @param maxBytes the estimated size of the rows, in bytes, that triggers a flush
+     * @return a new policy
+     */
+    public static FlushPolicy memoryBudget(final long maxBytes) {
+        return new FlushPolicy().maxBytes(maxBytes);
+    }
+
+    private int maxRows;
+    private long maxBytes;
+    private long maxMillis;
+
+    /**
+     * A policy without limit.
+     */
+    FlushPolicy() {
+        this.maxRows = Integer.MAX_VALUE;
+        this.maxBytes = Long.MAX_VALUE;
+        this.maxMillis = Long.MAX_VALUE;
+    }
+
+    /**
+     * @param maxRows the number of rows that triggers a flush: rows are flushed when the index of
+     *                a new row is a multiple of this number
+     * @return this for fluent style
+     */
+    public FlushPolicy maxRows(final int maxRows) {
+        if (maxRows <= 0) {
+            throw new IllegalArgumentException("The number of rows must be positive");
+        }
+        this.maxRows = maxRows;
+        return this;
+    }
+
+    /**
+     * @param maxBytes the estimated size of the rows, in bytes, that triggers a flush
+     * @return this for fluent style
+     */
+    public FlushPolicy maxBytes(final long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("The budget must be positive");
+        }
+        this.maxBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * @param maxMillis the delay since the last flush, in milliseconds, that triggers a flush
+     * @return this for fluent style
+     */
+    public FlushPolicy maxMillis(final long maxMillis) {
+        if (maxMillis <= 0) {
+            throw new IllegalArgumentException("The delay must be positive");
+        }
+        this.maxMillis = maxMillis;
+        return this;
+    }
+
+    /**
+     * @return true if the policy has a delay
+     */
+    boolean hasDelay() {
+        return this.maxMillis != Long.MAX_VALUE;
+    }
+
+    /**
+     * @param rowIndex      the index of the new row, &gt; 0
+     * @param estimatedSize the estimated size of the rows before this row, in memory
+     * @param elapsedMillis the delay since the last flush
+     * @return true if the rows before rowIndex should be flushed
+     */
+    boolean isReached(final int rowIndex, final long estimatedSize, final long elapsedMillis) {
+        return rowIndex % this.maxRows == 0 || estimatedSize >= this.maxBytes ||
+                elapsedMillis >= this.maxMillis;
+    }
+}
@@ -37,6 +37,7 @@ import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.util.AutoFilter;
 import com.github.jferard.fastods.util.Container;
 import com.github.jferard.fastods.util.PilotTable;
+import com.github.jferard.fastods.util.RawZipEntry;
 import com.github.jferard.fastods.util.XMLUtil;
 
 import java.io.IOException;
@@ -104,6 +105,49 @@ public class NamedOdsDocument implements OdsDocument, StylesContainer {
         return this.commonOdsDocument.addTable(table);
     }
 
+    /**
+     * Add a table that can be filled by its own thread, concurrently with the other tables.
+     * The table is written to a temporary segment, and the segments are copied to the file,
+     * in the order of the tables, on save. Add the tables from one thread, let every table be
+     * filled by one thread, and call save once all the threads are done.
+     * The tables added after a concurrent table are written to a segment too.
+     * <p>
+     * The first concurrent table must be added before any other table: the styles are written
+     * on save, and the styles created by the cells of the concurrent tables don't need to be
+     * declared in advance.
+     *
+     * @param name the name of the table
+     * @return the table, or null if a table with this name exists
+     * @throws IOException           if the segment can't be created
+     * @throws IllegalStateException if a table was added before the first concurrent table
+     */
+    public Table addConcurrentTable(final String name) throws IOException {
+        return this.addConcurrentTable(name, CommonOdsDocument.DEFAULT_ROW_CAPACITY,
+                CommonOdsDocument.DEFAULT_COLUMN_CAPACITY);
+    }
+
+    /**
+     * Add a table that can be filled by its own thread. See addConcurrentTable(String).
+     *
+     * @param name           the name of the table
+     * @param rowCapacity    the initial row capacity
+     * @param columnCapacity the initial column capacity
+     * @return the table, or null if a table with this name exists
+     * @throws IOException           if the segment can't be created
+     * @throws IllegalStateException if a table was added before the first concurrent table
+     */
+    public Table addConcurrentTable(final String name, final int rowCapacity,
+                                    final int columnCapacity) throws IOException {
+        final Table table =
+                this.odsElements.createConcurrentTable(name, rowCapacity, columnCapacity);
+        if (this.odsElements.addConcurrentTableToContent(table)) {
+            this.odsElements.setActiveTable(table);
+            return table;
+        } else {
+            return null;
+        }
+    }
+
     @Override
     public Table createTable(final String name) throws IOException {
         return this.commonOdsDocument.createTable(name);
@@ -172,6 +216,11 @@ public class NamedOdsDocument implements OdsDocument, StylesContainer {
         this.commonOdsDocument.freezeCells(table, rowCount, colCount);
     }
 
+    @Override
+    public void deleteTemporaryFiles() throws IOException {
+        this.commonOdsDocument.deleteTemporaryFiles();
+    }
+
     /**
      * Add an observer (see Observer pattern).
      *
@@ -306,6 +355,12 @@ public class NamedOdsDocument implements OdsDocument, StylesContainer {
         this.commonOdsDocument.addExtraFile(fullPath, mediaType, bytes);
     }
 
+    @Override
+    public void addExtraRawFile(final String fullPath, final String mediaType,
+                                final RawZipEntry rawEntry) {
+        this.commonOdsDocument.addExtraRawFile(fullPath, mediaType, rawEntry);
+    }
+
     @Override
     public void addExtraDir(final String fullPath) {
         this.commonOdsDocument.addExtraDir(fullPath);
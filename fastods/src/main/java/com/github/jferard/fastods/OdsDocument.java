@@ -27,6 +27,7 @@ import com.github.jferard.fastods.odselement.ScriptEventListener;
 import com.github.jferard.fastods.odselement.StylesModeSetter;
 import com.github.jferard.fastods.util.AutoFilter;
 import com.github.jferard.fastods.util.PilotTable;
+import com.github.jferard.fastods.util.RawZipEntry;
 
 import java.io.IOException;
 import java.util.List;
@@ -194,6 +195,14 @@ public interface OdsDocument extends StylesModeSetter {
      */
     void freezeCells(Table table, int rowCount, int colCount);
 
+    /**
+     * Delete the temporary files of the rows spilled to disk. Call this if the document is not
+     * saved: a save deletes them.
+     *
+     * @throws IOException if a file can't be closed
+     */
+    void deleteTemporaryFiles() throws IOException;
+
     /**
      * Add an extra file to the document
      *
@@ -203,6 +212,16 @@ public interface OdsDocument extends StylesModeSetter {
      */
     void addExtraFile(final String fullPath, final String mediaType, final byte[] bytes);
 
+    /**
+     * Add an extra file to the document. The compressed data of the entry is copied to the
+     * document as is.
+     *
+     * @param fullPath  the path of the file in the sequence
+     * @param mediaType the MIME type of the file
+     * @param rawEntry  the entry of a zip file
+     */
+    void addExtraRawFile(String fullPath, String mediaType, RawZipEntry rawEntry);
+
     /**
      * Add an extra directory
      *
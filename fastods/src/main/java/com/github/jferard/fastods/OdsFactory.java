@@ -29,10 +29,12 @@ import com.github.jferard.fastods.odselement.MetaElement;
 import com.github.jferard.fastods.odselement.OdsElements;
 import com.github.jferard.fastods.ref.PositionUtil;
 import com.github.jferard.fastods.ref.TableNameUtil;
+import com.github.jferard.fastods.util.FastOdsXMLEscaper;
 import com.github.jferard.fastods.util.FileExists;
 import com.github.jferard.fastods.util.FileOpen;
 import com.github.jferard.fastods.util.FileOpenResult;
 import com.github.jferard.fastods.util.WriteUtil;
+import com.github.jferard.fastods.util.XMLEscaper;
 import com.github.jferard.fastods.util.XMLUtil;
 import com.github.jferard.fastods.util.ZipUTF8WriterBuilder;
 import com.github.jferard.fastods.util.ZipUTF8WriterImpl;
@@ -42,6 +44,7 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Logger;
 
 /**
@@ -66,9 +69,23 @@ public class OdsFactory {
      * @return the factory
      */
     public static OdsFactory create(final Logger logger, final Locale locale) {
+        return OdsFactory.create(logger, locale, FastOdsXMLEscaper.create());
+    }
+
+    /**
+     * create an ods factory with a custom escaper, e.g. a FastOdsXMLEscaper with a small cache
+     * or no cache for high cardinality data.
+     *
+     * @param logger  the logger
+     * @param locale  the locale
+     * @param escaper the escaper for the content of the documents
+     * @return the factory
+     */
+    public static OdsFactory create(final Logger logger, final Locale locale,
+                                    final XMLEscaper escaper) {
         final PositionUtil positionUtil = new PositionUtil(new TableNameUtil());
         final WriteUtil writeUtil = WriteUtil.create();
-        final XMLUtil xmlUtil = XMLUtil.create();
+        final XMLUtil xmlUtil = XMLUtil.create(escaper);
         final DataStyles format = DataStylesBuilder.create(locale).build();
         return new OdsFactory(logger, positionUtil, writeUtil, xmlUtil, format, true,
                 MetaElement.create());
@@ -81,6 +98,12 @@ public class OdsFactory {
     private DataStyles format;
     private boolean libreOfficeMode;
     private MetaElement metaElement;
+    private ExecutorService executor;
+    private boolean compactRows;
+    private DiskSpillPolicy spillPolicy;
+    private FlushPolicy flushPolicy;
+    private int writerAdapterCapacity;
+    private OdsFileWriterAdapter.Backpressure backpressure;
 
     /**
      * Create a new OdsFactory
@@ -102,6 +125,8 @@ public class OdsFactory {
         this.format = format;
         this.libreOfficeMode = libreOfficeMode;
         this.metaElement = metaElement;
+        this.writerAdapterCapacity = OdsFileWriterAdapter.DEFAULT_CAPACITY;
+        this.backpressure = OdsFileWriterAdapter.Backpressure.BLOCK;
     }
 
     /**
@@ -132,6 +157,79 @@ public class OdsFactory {
         return this;
     }
 
+    /**
+     * Serialize the rows of the named writers on a pool of threads. The rows are still written
+     * in order, but the thread that fills the cells is not blocked while the previous rows are
+     * converted to XML.
+     * The caller remains the owner of the executor: it has to shut it down once the documents
+     * are saved.
+     *
+     * @param executor the executor, or null to serialize the rows in the caller thread.
+     * @return this for fluent style
+     */
+    public OdsFactory rowsSerializationExecutor(final ExecutorService executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Store the cells of the anonymous documents in compact rows: parallel arrays of types,
+     * primitive values and style indexes instead of one object per cell. This reduces the heap
+     * needed to hold large sheets until the document is saved. The cells returned by the rows are
+     * thin views over that storage.
+     * This has no effect on the named writers, that flush the rows anyway.
+     *
+     * @return this for fluent style
+     */
+    public OdsFactory compactRows() {
+        this.compactRows = true;
+        return this;
+    }
+
+    /**
+     * Spill the rows of the anonymous documents to temporary files when a table holds too many
+     * rows in memory. See DiskSpillPolicy.
+     * The named writers flush the rows anyway: for them, the policy only sets the directory and
+     * the compression of the segments of the concurrent tables.
+     *
+     * @param spillPolicy the policy, or null to keep every row in memory
+     * @return this for fluent style
+     */
+    public OdsFactory spillRowsToDisk(final DiskSpillPolicy spillPolicy) {
+        this.spillPolicy = spillPolicy;
+        return this;
+    }
+
+    /**
+     * Flush the rows of the named writers according to a policy: a number of rows, an estimated
+     * size in memory or a delay. See FlushPolicy.
+     * This has no effect on the anonymous writers, that keep the rows until the document is saved.
+     *
+     * @param flushPolicy the policy, or null for the default policy (every 8192 rows)
+     * @return this for fluent style
+     */
+    public OdsFactory flushRows(final FlushPolicy flushPolicy) {
+        this.flushPolicy = flushPolicy;
+        return this;
+    }
+
+    /**
+     * Set the queue of flushers of the writer adapters.
+     *
+     * @param capacity     the maximum number of pending flushers
+     * @param backpressure what to do when the flushing thread does not keep up
+     * @return this for fluent style
+     */
+    public OdsFactory writerAdapterQueue(final int capacity,
+                                         final OdsFileWriterAdapter.Backpressure backpressure) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive");
+        }
+        this.writerAdapterCapacity = capacity;
+        this.backpressure = backpressure;
+        return this;
+    }
+
     /**
      * Create a new, empty document for an anonymous writer. Use addTable to add tables.
      *
@@ -140,7 +238,8 @@ public class OdsFactory {
     private AnonymousOdsDocument createAnonymousDocument() {
         final OdsElements odsElements = OdsElements
                 .create(this.positionUtil, this.xmlUtil, this.writeUtil, this.format,
-                        this.libreOfficeMode, this.metaElement);
+                        this.libreOfficeMode, this.metaElement, null, this.compactRows,
+                        this.spillPolicy, null);
         return AnonymousOdsDocument.create(this.logger, this.xmlUtil, odsElements);
     }
 
@@ -152,7 +251,8 @@ public class OdsFactory {
     private NamedOdsDocument createNamedDocument() {
         final OdsElements odsElements = OdsElements
                 .create(this.positionUtil, this.xmlUtil, this.writeUtil, this.format,
-                        this.libreOfficeMode, this.metaElement);
+                        this.libreOfficeMode, this.metaElement, this.executor, false,
+                        this.spillPolicy, this.flushPolicy);
         return NamedOdsDocument.create(this.logger, this.xmlUtil, odsElements);
     }
 
@@ -200,7 +300,8 @@ public class OdsFactory {
     }
 
     /**
-     * Create an adapter for a writer.
+     * Create an adapter for a writer. The adapter has its own flushing thread: fill the
+     * document, call {@code document().save()} and then {@code close()} on the adapter.
      *
      * @param file the file
      * @return the adapter
@@ -211,7 +312,9 @@ public class OdsFactory {
         final ZipUTF8WriterBuilder zipUTF8Writer = ZipUTF8WriterImpl.builder().noWriterBuffer();
         final OdsFileWriterAdapter writerAdapter = OdsFileWriterAdapter.create(this.logger,
                 OdsFileDirectWriter.builder(this.logger, document).openResult(this.openFile(file))
-                        .zipBuilder(zipUTF8Writer).build());
+                        .zipBuilder(zipUTF8Writer).build(), this.writerAdapterCapacity,
+                this.backpressure);
+        writerAdapter.startFlushingThread();
         document.addObserver(writerAdapter);
         document.prepare();
         return writerAdapter;
@@ -73,8 +73,12 @@ public class OdsFileDirectWriter implements NamedOdsFileWriter {
 
     @Override
     public void close() throws IOException {
-        this.writer.flush();
-        this.writer.close();
+        try {
+            this.writer.flush();
+            this.writer.close();
+        } finally {
+            this.document.deleteTemporaryFiles();
+        }
     }
 
     @Override
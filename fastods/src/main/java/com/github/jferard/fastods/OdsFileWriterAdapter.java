@@ -23,19 +23,26 @@
 
 package com.github.jferard.fastods;
 
+import com.github.jferard.fastods.util.BoundedConcurrentQueue;
+
 import java.io.IOException;
-import java.util.LinkedList;
+import java.io.InterruptedIOException;
 import java.util.Queue;
 import java.util.logging.Logger;
 
 /**
- * The OdsFileWriterAdapter class represents an adapter to a writer. It stores a queue of
+ * The OdsFileWriterAdapter class represents an adapter to a writer. It stores a bounded queue of
  * flushers. Usage:
  * <ul>
  * <li>A producer thread that writes on a OdsFileWriterAdapter.document()</li>
- * <li>A consumer thread that uses the following structure to flush the data</li>
+ * <li>A consumer thread that flushes the data</li>
  * </ul>
  * <p>
+ * The adapters created by OdsFactory.createWriterAdapter have a managed consumer thread: just
+ * call {@code document().save()} and then {@code close()} to wait until the file is written.
+ * The thread is a daemon thread. If the document was not saved, close aborts the thread and
+ * throws an IOException: it never waits for a save that will not come.
+ * Otherwise, start the flushing thread with startFlushingThread, or write your own consumer:
  * <pre>
  * while (this.writerAdapter.isNotStopped()) {
  *     this.writerAdapter.waitForData();
@@ -43,11 +50,19 @@ import java.util.logging.Logger;
  * }
  * this.writerAdapter.flushAdaptee();
  * </pre>
+ * <p>
+ * The producer never takes the lock of the consumer while it writes to the adaptee: it only
+ * offers the flusher to a lock free queue. When the queue is full, the Backpressure decides.
  *
  * @author Julien Férard
  * @author Martin Schulz
  */
 public class OdsFileWriterAdapter implements NamedOdsFileWriter {
+    /**
+     * The default capacity of the queue of flushers.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
     /**
      * @param logger  the logger
      * @param adaptee the adaptee writer
@@ -55,13 +70,43 @@ public class OdsFileWriterAdapter implements NamedOdsFileWriter {
      */
     public static OdsFileWriterAdapter create(final Logger logger,
                                               final NamedOdsFileWriter adaptee) {
-        return new OdsFileWriterAdapter(logger, adaptee, new LinkedList<OdsAsyncFlusher>());
+        return OdsFileWriterAdapter.create(logger, adaptee, DEFAULT_CAPACITY, Backpressure.BLOCK);
+    }
+
+    /**
+     * @param logger       the logger
+     * @param adaptee      the adaptee writer
+     * @param capacity     the capacity of the queue of flushers
+     * @param backpressure what to do when the queue is full
+     * @return the new adapter
+     */
+    public static OdsFileWriterAdapter create(final Logger logger,
+                                              final NamedOdsFileWriter adaptee,
+                                              final int capacity,
+                                              final Backpressure backpressure) {
+        return new OdsFileWriterAdapter(logger, adaptee,
+                BoundedConcurrentQueue.<OdsAsyncFlusher>create(capacity), backpressure);
     }
 
-    private Logger logger;
+    private final Logger logger;
     private final NamedOdsFileWriter adaptee;
     private final Queue<OdsAsyncFlusher> flushers;
-    private boolean stopped;
+    private final Backpressure backpressure;
+    /**
+     * Held while a flusher is polled and written to the adaptee. Never held by a producer,
+     * except to spill.
+     */
+    private final Object writeLock;
+    /**
+     * Used to wait for data or for free slots. Never held during an I/O.
+     */
+    private final Object signal;
+    private volatile int waiters;
+    private volatile boolean stopped;
+    private volatile boolean aborted;
+    private volatile boolean endOffered;
+    private volatile IOException failure;
+    private Thread flushingThread;
 
     /**
      * Create an new adapter
@@ -72,13 +117,123 @@ public class OdsFileWriterAdapter implements NamedOdsFileWriter {
      */
     OdsFileWriterAdapter(final Logger logger, final NamedOdsFileWriter adaptee,
                          final Queue<OdsAsyncFlusher> flushers) {
+        this(logger, adaptee, flushers, Backpressure.BLOCK);
+    }
+
+    /**
+     * Create an new adapter
+     *
+     * @param logger       the logger
+     * @param adaptee      the adaptee writer
+     * @param flushers     the queue of flushers. Poll is always called with the write lock.
+     * @param backpressure what to do when the queue is full
+     */
+    OdsFileWriterAdapter(final Logger logger, final NamedOdsFileWriter adaptee,
+                         final Queue<OdsAsyncFlusher> flushers,
+                         final Backpressure backpressure) {
         this.logger = logger;
         this.adaptee = adaptee;
         this.flushers = flushers;
+        this.backpressure = backpressure;
+        this.writeLock = new Object();
+        this.signal = new Object();
     }
 
+    /**
+     * Start a daemon thread that flushes the data until the end of the document.
+     */
+    public synchronized void startFlushingThread() {
+        if (this.flushingThread != null) {
+            throw new IllegalStateException("The flushing thread is already started");
+        }
+        this.flushingThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                OdsFileWriterAdapter.this.flushUntilEnd();
+            }
+        }, "FastODS flusher");
+        this.flushingThread.setDaemon(true);
+        this.flushingThread.start();
+    }
+
+    private void flushUntilEnd() {
+        try {
+            while (this.isNotStopped()) {
+                this.waitForData();
+                if (this.aborted) {
+                    return;
+                }
+                this.flushAdaptee();
+            }
+        } catch (final IOException e) {
+            this.fail(e);
+        } catch (final RuntimeException e) {
+            this.fail(new IOException(e));
+        }
+    }
+
+    private void fail(final IOException e) {
+        this.failure = e;
+        this.stopped = true;
+        this.signalAll();
+    }
+
+    /**
+     * Wait for the flushing thread, if any, to write the document. Call this after
+     * {@code document().save()}. If the document was not saved, the flushing thread is aborted.
+     *
+     * @throws IOException if the flushing thread failed or if the document was not saved
+     */
     @Override
-    public void close() {
+    public void close() throws IOException {
+        if (this.getFlushingThread() == null) {
+            return;
+        }
+        if (!this.endOffered) {
+            final IOException previousFailure = this.failure;
+            this.abort();
+            throw new IOException("The document was not saved, the file is incomplete",
+                    previousFailure);
+        }
+        this.joinFlushingThread();
+        this.checkFailure();
+    }
+
+    /**
+     * Stop the flushing thread without waiting for the end of the document, e.g. if the
+     * producer failed before the save. The pending flushers are dropped, the adaptee is closed
+     * and the file is incomplete. The producers get an IOException.
+     *
+     * @throws IOException if the adaptee can't be closed
+     */
+    public void abort() throws IOException {
+        if (this.failure == null) {
+            this.failure = new IOException("The writer adapter was aborted");
+        }
+        this.aborted = true;
+        this.stopped = true;
+        this.signalAll();
+        this.joinFlushingThread();
+        synchronized (this.writeLock) {
+            this.adaptee.close();
+        }
+    }
+
+    private synchronized Thread getFlushingThread() {
+        return this.flushingThread;
+    }
+
+    private void joinFlushingThread() throws IOException {
+        final Thread thread = this.getFlushingThread();
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the flushing thread");
+        }
     }
 
     @Override
@@ -87,14 +242,74 @@ public class OdsFileWriterAdapter implements NamedOdsFileWriter {
     }
 
     @Override
-    public synchronized void save() {
+    public void save() {
     }
 
     @Override
-    public synchronized void update(final OdsAsyncFlusher flusher) {
-        this.flushers.add(flusher);
-        this.logger.fine("Add new flusher: " + flusher);
-        this.notifyAll();
+    public void update(final OdsAsyncFlusher flusher) throws IOException {
+        this.checkFailure();
+        if (flusher instanceof FinalizeFlusher) {
+            this.endOffered = true;
+        }
+        if (this.flushers.offer(flusher)) {
+            this.logger.fine("Add new flusher: " + flusher);
+            this.signalAll();
+            return;
+        }
+
+        switch (this.backpressure) {
+            case BLOCK:
+                this.offerWhenAvailable(flusher);
+                this.logger.fine("Add new flusher: " + flusher);
+                this.signalAll();
+                break;
+            case SPILL:
+                this.logger.fine("Spill flusher: " + flusher);
+                this.spill(flusher);
+                break;
+            default:
+                throw new IOException("The queue of flushers is full");
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        final IOException e = this.failure;
+        if (e != null) {
+            throw new IOException("The flushing thread failed", e);
+        }
+    }
+
+    private void offerWhenAvailable(final OdsAsyncFlusher flusher) throws IOException {
+        synchronized (this.signal) {
+            this.waiters++;
+            try {
+                while (!this.flushers.offer(flusher)) {
+                    this.checkFailure();
+                    this.signal.wait();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the flushers");
+            } finally {
+                this.waiters--;
+            }
+        }
+    }
+
+    /**
+     * Write the flusher in the current thread. The pending flushers are written first to keep
+     * the order.
+     */
+    private void spill(final OdsAsyncFlusher flusher) throws IOException {
+        synchronized (this.writeLock) {
+            OdsAsyncFlusher pending = this.flushers.poll();
+            while (pending != null) {
+                this.write(pending);
+                pending = this.flushers.poll();
+            }
+            this.write(flusher);
+        }
+        this.signalAll();
     }
 
     /**
@@ -103,46 +318,90 @@ public class OdsFileWriterAdapter implements NamedOdsFileWriter {
      *
      * @throws IOException if the adaptee throws an IOException
      */
-    public synchronized void flushAdaptee() throws IOException {
-        OdsAsyncFlusher flusher = this.flushers.poll();
-        this.logger.fine("Retrieve first flusher: " + flusher);
-        if (flusher == null) {
-            this.notifyAll(); // wakes up other threads: no flusher available
-            return;
+    public void flushAdaptee() throws IOException {
+        synchronized (this.writeLock) {
+            OdsAsyncFlusher flusher = this.flushers.poll();
+            this.logger.fine("Retrieve first flusher: " + flusher);
+            if (flusher == null) {
+                this.signalAll(); // wakes up other threads: no flusher available
+                return;
+            }
+
+            while (flusher != null && !this.aborted) {
+                this.signalAll(); // wakes up the producers: a slot is free
+                if (this.write(flusher)) {
+                    return;
+                }
+                flusher = this.flushers.poll();
+                this.logger.fine("Retrieve next flusher: " + flusher);
+            }
         }
+        this.signalAll(); // wakes up other threads: no flusher left
+    }
 
-        while (flusher != null) {
-            this.adaptee.update(flusher);
-            if (flusher.isEnd()) {
-                this.stopped = true;
-                this.notifyAll(); // wakes up other threads: end of game
-                return;
+    /**
+     * @return true if this is the end flusher
+     */
+    private boolean write(final OdsAsyncFlusher flusher) throws IOException {
+        this.adaptee.update(flusher);
+        if (flusher.isEnd()) {
+            this.stopped = true;
+            this.signalAll(); // wakes up other threads: end of game
+            return true;
+        }
+        return false;
+    }
+
+    private void signalAll() {
+        if (this.waiters > 0) {
+            synchronized (this.signal) {
+                this.signal.notifyAll();
             }
-            flusher = this.flushers.poll();
-            this.logger.fine("Retrieve next flusher: " + flusher);
         }
-        this.notifyAll(); // wakes up other threads: no flusher left
     }
 
     /**
      * @return true if the adapter is stopped
      */
-    public synchronized boolean isNotStopped() {
+    public boolean isNotStopped() {
         return !this.stopped;
     }
 
     /**
      * wait for the data
      */
-    public synchronized void waitForData() {
-        while (this.flushers.isEmpty() && this.isNotStopped()) {
+    public void waitForData() {
+        synchronized (this.signal) {
+            this.waiters++;
             try {
-                this.wait();
+                while (this.flushers.isEmpty() && this.isNotStopped()) {
+                    this.signal.wait();
+                }
             } catch (final InterruptedException e) {
                 Thread.currentThread().interrupt();
                 throw new RuntimeException(e);
+            } finally {
+                this.waiters--;
             }
         }
     }
 
+    /**
+     * What a producer does when the queue of flushers is full.
+     */
+    public enum Backpressure {
+        /**
+         * wait until the flushing thread frees a slot.
+         */
+        BLOCK,
+        /**
+         * spill the flushers to the adaptee in the producer thread: the producer writes the
+         * pending flushers and its own flusher, and the memory stays bounded.
+         */
+        SPILL,
+        /**
+         * throw an IOException.
+         */
+        FAIL
+    }
 }
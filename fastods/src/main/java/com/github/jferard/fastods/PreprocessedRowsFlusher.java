@@ -24,11 +24,15 @@
 package com.github.jferard.fastods;
 
 import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.XmlByteWriter;
 import com.github.jferard.fastods.util.ZipUTF8Writer;
 
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * An async flusher for a collection of rows
@@ -38,11 +42,11 @@ import java.util.List;
  * @author Julien Férard
  */
 class PreprocessedRowsFlusher implements OdsAsyncFlusher {
-    private static final int STRING_BUILDER_SIZE = 1024 * 32;
+    private static final int BUFFER_SIZE = 1024 * 32;
 
     /**
      * Create an new rows flusher
-     * Warning, consume the rows by removing the refs.
+     * Warning, consume the rows by sealing them and removing the refs.
      *
      * @param xmlUtil   an util
      * @param tableRows a view on the rows
@@ -52,30 +56,69 @@ class PreprocessedRowsFlusher implements OdsAsyncFlusher {
     public static PreprocessedRowsFlusher create(final XMLUtil xmlUtil,
                                                  final List<TableRowImpl> tableRows)
             throws IOException {
-        // create a char sequence
-        final StringBuilder sb = new StringBuilder(STRING_BUILDER_SIZE);
+        // encode the rows to UTF-8 bytes
+        final XmlByteWriter xml = new XmlByteWriter(BUFFER_SIZE);
+        final RepeatedRowsCompressor compressor = RepeatedRowsCompressor.create();
         for (final TableRowImpl row : tableRows) {
-            TableRowImpl.appendXMLToTable(row, xmlUtil, sb);
+            compressor.appendRow(xmlUtil, xml, row);
+            TableRowImpl.seal(row);
         }
+        compressor.flush();
         // free rows
         Collections.fill(tableRows, null);
 
-        return new PreprocessedRowsFlusher(sb);
+        return new PreprocessedRowsFlusher(xml);
     }
 
-    private final CharSequence cs;
+    /**
+     * Create an new rows flusher on a worker thread.
+     * The rows are sealed before the submission, and must not be referenced by the table
+     * anymore: the worker thread will consume them.
+     * <p>
+     * The XMLUtil is not thread safe: the task borrows a copy of the util of the table from the
+     * pool. The column styles of the table may change while the task runs: the rows use a
+     * snapshot of the default cell styles.
+     *
+     * @param executor                the executor that will serialize the rows
+     * @param xmlUtilPool             the pool of copies of the util of the table
+     * @param columnDefaultCellStyles the default cell styles of the columns at submission time
+     * @param tableRows               the rows
+     * @return the future flusher
+     */
+    public static Future<PreprocessedRowsFlusher> submit(final ExecutorService executor,
+                                                         final XMLUtilPool xmlUtilPool,
+                                                         final ColumnDefaultCellStyles
+                                                                 columnDefaultCellStyles,
+                                                         final List<TableRowImpl> tableRows) {
+        for (final TableRowImpl row : tableRows) {
+            TableRowImpl.seal(row, columnDefaultCellStyles);
+        }
+        return executor.submit(new Callable<PreprocessedRowsFlusher>() {
+            @Override
+            public PreprocessedRowsFlusher call() throws IOException {
+                final XMLUtil taskXmlUtil = xmlUtilPool.borrow();
+                try {
+                    return PreprocessedRowsFlusher.create(taskXmlUtil, tableRows);
+                } finally {
+                    xmlUtilPool.giveBack(taskXmlUtil);
+                }
+            }
+        });
+    }
+
+    private final XmlByteWriter xml;
 
     /**
-     * @param cs the destination
+     * @param xml the XML of the rows
      * @throws IOException if an I/O error occurs
      */
-    PreprocessedRowsFlusher(final CharSequence cs) throws IOException {
-        this.cs = cs;
+    PreprocessedRowsFlusher(final XmlByteWriter xml) throws IOException {
+        this.xml = xml;
     }
 
     @Override
     public void flushInto(final XMLUtil xmlUtil, final ZipUTF8Writer writer) throws IOException {
-        writer.append(this.cs);
+        this.xml.writeTo(writer);
     }
 
     @Override
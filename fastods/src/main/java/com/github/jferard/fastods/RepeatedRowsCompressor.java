@@ -0,0 +1,136 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.XmlByteWriter;
+
+import java.io.IOException;
+
+/**
+ * A compressor that collapses runs of identical consecutive rows into a single
+ * table:table-row element with a table:number-rows-repeated attribute.
+ * <p>
+ * The XML of a row is rendered as UTF-8 bytes in a buffer and compared to the XML of the
+ * previous row. If the XML of a row is longer than the max row length, the row is written
+ * to the destination and is never kept: the memory used by the lookahead is capped.
+ *
+ * @author J. Férard
+ */
+class RepeatedRowsCompressor {
+    /**
+     * The default max length of a row that may be repeated.
+     */
+    static final int DEFAULT_MAX_ROW_LENGTH = 8 * 1024;
+
+    /**
+     * @return a new compressor
+     */
+    static RepeatedRowsCompressor create() {
+        return new RepeatedRowsCompressor(DEFAULT_MAX_ROW_LENGTH);
+    }
+
+    private final int maxRowLength;
+    private final XmlByteWriter repeatedOpenTag;
+    private XmlByteWriter current;
+    private XmlByteWriter pending;
+    private int pendingCount;
+    private Appendable destination;
+
+    /**
+     * @param maxRowLength the max length of a row that may be repeated
+     */
+    RepeatedRowsCompressor(final int maxRowLength) {
+        this.maxRowLength = maxRowLength;
+        this.repeatedOpenTag = XmlByteWriter.create();
+        this.current = XmlByteWriter.create();
+        this.pending = XmlByteWriter.create();
+        this.pendingCount = 0;
+    }
+
+    /**
+     * Append a row. The row may be kept until a different row is appended or until
+     * the compressor is flushed.
+     *
+     * @param util        an util
+     * @param destination the destination
+     * @param row         the row, may be null
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendRow(final XMLUtil util, final Appendable destination,
+                          final TableRowImpl row) throws IOException {
+        if (destination != this.destination) {
+            this.flush();
+            this.destination = destination;
+        }
+        if (row == null) {
+            this.flush();
+            TableRowImpl.appendXMLToTable(null, util, destination);
+            return;
+        }
+
+        this.current.reset();
+        row.appendXMLToTable(util, this.current);
+        if (!this.current.startsWith(TableTagBytes.ROW_OPEN) ||
+                this.current.length() > this.maxRowLength) {
+            this.flush();
+            if (this.current.length() > 0) {
+                this.current.writeTo(destination);
+            }
+        } else if (this.pendingCount > 0 && this.pending.contentEquals(this.current)) {
+            this.pendingCount++;
+        } else {
+            this.flush();
+            final XmlByteWriter temp = this.pending;
+            this.pending = this.current;
+            this.current = temp;
+            this.pendingCount = 1;
+        }
+    }
+
+    /**
+     * Write the pending row, if any, to the destination.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void flush() throws IOException {
+        if (this.pendingCount == 0) {
+            return;
+        }
+
+        if (this.pendingCount == 1) {
+            this.pending.writeTo(this.destination);
+        } else {
+            this.repeatedOpenTag.reset();
+            this.repeatedOpenTag.write(TableTagBytes.ROW_OPEN);
+            this.repeatedOpenTag.write(TableTagBytes.ROWS_REPEATED);
+            this.repeatedOpenTag.writeInt(this.pendingCount);
+            this.repeatedOpenTag.append('"');
+            this.repeatedOpenTag.writeTo(this.destination);
+            this.pending.writeTo(this.destination, TableTagBytes.ROW_OPEN.length,
+                    this.pending.length());
+        }
+        this.pendingCount = 0;
+    }
+}
@@ -84,6 +84,17 @@ public class RowCellWalkerImpl implements RowCellWalker {
         this.row.getOrCreateCell(this.c).setDateValue(value);
     }
 
+    @Override
+    public void setDateValue(final long epochMillis) {
+        this.row.getOrCreateCell(this.c).setDateValue(epochMillis);
+    }
+
+    @Override
+    public void setDateValue(final int year, final int month, final int day, final int hour,
+                             final int minute, final int second, final int millis) {
+        this.row.getOrCreateCell(this.c).setDateValue(year, month, day, hour, minute, second, millis);
+    }
+
     @Override
     public void setFloatValue(final Number value) {
         this.row.getOrCreateCell(this.c).setFloatValue(value);
@@ -222,6 +233,11 @@ public class RowCellWalkerImpl implements RowCellWalker {
         this.row.getOrCreateCell(this.c).setCurrencyValue(value, currency);
     }
 
+    @Override
+    public void setCurrencyValue(final double value, final String currency) {
+        this.row.getOrCreateCell(this.c).setCurrencyValue(value, currency);
+    }
+
     @Override
     public void setCurrencyValue(final Number value, final String currency) {
         this.row.getOrCreateCell(this.c).setCurrencyValue(value, currency);
@@ -242,6 +258,16 @@ public class RowCellWalkerImpl implements RowCellWalker {
         this.row.getOrCreateCell(this.c).setFloatValue(value);
     }
 
+    @Override
+    public void setFloatValue(final long value) {
+        this.row.getOrCreateCell(this.c).setFloatValue(value);
+    }
+
+    @Override
+    public void setFloatValue(final double value) {
+        this.row.getOrCreateCell(this.c).setFloatValue(value);
+    }
+
     @Override
     public void setPercentageValue(final float value) {
         this.row.getOrCreateCell(this.c).setPercentageValue(value);
@@ -252,6 +278,11 @@ public class RowCellWalkerImpl implements RowCellWalker {
         this.row.getOrCreateCell(this.c).setPercentageValue(value);
     }
 
+    @Override
+    public void setPercentageValue(final double value) {
+        this.row.getOrCreateCell(this.c).setPercentageValue(value);
+    }
+
     @Override
     public void setStyle(final TableCellStyle style) {
         this.row.getOrCreateCell(this.c).setStyle(style);
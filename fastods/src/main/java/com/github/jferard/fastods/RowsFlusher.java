@@ -24,6 +24,7 @@
 package com.github.jferard.fastods;
 
 import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.XmlByteWriter;
 import com.github.jferard.fastods.util.ZipUTF8Writer;
 
 import java.io.IOException;
@@ -39,12 +40,14 @@ import java.util.List;
 @Deprecated
 class RowsFlusher implements OdsAsyncFlusher {
     private final List<TableRowImpl> rows;
+    private final XmlByteWriter scratch;
 
     /**
      * @param rows the rows to flush
      */
     public RowsFlusher(final List<TableRowImpl> rows) {
         this.rows = rows;
+        this.scratch = XmlByteWriter.create();
     }
 
     @Override
@@ -54,7 +57,9 @@ class RowsFlusher implements OdsAsyncFlusher {
             if (row == null) {
                 throw new IllegalArgumentException();
             }
-            row.appendXMLToTable(xmlUtil, writer);
+            this.scratch.reset();
+            row.appendXMLToTable(xmlUtil, this.scratch);
+            this.scratch.writeTo(writer);
         }
         // free rows
         Collections.fill(this.rows, null);
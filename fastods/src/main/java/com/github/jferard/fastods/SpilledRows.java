@@ -0,0 +1,186 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.FastUTF8Writer;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The rows of a table that were spilled to a temporary file, as XML.
+ *
+ * @author J. Férard
+ */
+class SpilledRows {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * @param policy the spill policy
+     * @return the spilled rows, with a new temporary file
+     * @throws IOException if the file can't be created
+     */
+    static SpilledRows create(final DiskSpillPolicy policy) throws IOException {
+        // no deleteOnExit: the set of the JVM is never pruned. See transferTo and delete.
+        final File file = File.createTempFile("fastods-rows-", ".xml", policy.getTempDirectory());
+        final boolean deflated = policy.isDeflated();
+        OutputStream out = new FileOutputStream(file);
+        if (deflated) {
+            out = new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED), BUFFER_SIZE);
+        }
+        // the XML of the rows is written as UTF-8 bytes (see XmlByteWriter.writeTo)
+        return new SpilledRows(file, deflated, FastUTF8Writer.create(out, BUFFER_SIZE));
+    }
+
+    private final File file;
+    private final boolean deflated;
+    private Writer writer;
+    private int rowCount;
+
+    /**
+     * @param file     the temporary file
+     * @param deflated true if the file is deflated
+     * @param writer   the writer on the file
+     */
+    SpilledRows(final File file, final boolean deflated, final Writer writer) {
+        this.file = file;
+        this.deflated = deflated;
+        this.writer = writer;
+        this.rowCount = 0;
+    }
+
+    /**
+     * @return the destination of the XML of the rows
+     * @throws IOException if the rows were already transferred
+     */
+    Appendable getAppendable() throws IOException {
+        if (this.writer == null) {
+            throw new IOException("The spilled rows were already written to the document");
+        }
+        return this.writer;
+    }
+
+    /**
+     * @param count the number of rows that were spilled
+     */
+    void addRowCount(final int count) {
+        this.rowCount += count;
+    }
+
+    /**
+     * @return the number of spilled rows
+     */
+    int getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * Close and delete the temporary file, e.g. if the document is never saved. Does nothing if
+     * the rows were already transferred.
+     *
+     * @throws IOException if the file can't be closed
+     */
+    void delete() throws IOException {
+        if (this.writer == null) {
+            return;
+        }
+        try {
+            this.writer.close();
+        } finally {
+            this.writer = null;
+            this.file.delete();
+        }
+    }
+
+    /**
+     * Copy the XML of the spilled rows to the appendable and delete the file. If the
+     * appendable is a ZipUTF8Writer, the bytes are written as is.
+     *
+     * @param appendable the destination
+     * @throws IOException if an I/O error occurs
+     */
+    void transferTo(final Appendable appendable) throws IOException {
+        this.getAppendable();
+        this.writer.close();
+        this.writer = null;
+        final FileInputStream fileIn = new FileInputStream(this.file);
+        try {
+            final ReadableByteChannel channel;
+            if (this.deflated) {
+                channel = Channels.newChannel(
+                        new InflaterInputStream(Channels.newInputStream(fileIn.getChannel())));
+            } else {
+                channel = fileIn.getChannel();
+            }
+            if (appendable instanceof ZipUTF8Writer) {
+                this.transferBytes(channel, (ZipUTF8Writer) appendable);
+            } else {
+                this.transferChars(channel, appendable);
+            }
+        } finally {
+            fileIn.close();
+            this.file.delete();
+        }
+    }
+
+    private void transferBytes(final ReadableByteChannel channel, final ZipUTF8Writer writer)
+            throws IOException {
+        final byte[] bytes = new byte[BUFFER_SIZE];
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int count = channel.read(buffer);
+        while (count != -1) {
+            if (count > 0) {
+                writer.writeUTF8(bytes, 0, count);
+            }
+            buffer.clear();
+            count = channel.read(buffer);
+        }
+    }
+
+    private void transferChars(final ReadableByteChannel channel, final Appendable appendable)
+            throws IOException {
+        final Reader reader =
+                new InputStreamReader(Channels.newInputStream(channel), ZipUTF8Writer.UTF_8);
+        final char[] chars = new char[BUFFER_SIZE];
+        int count = reader.read(chars);
+        while (count != -1) {
+            appendable.append(CharBuffer.wrap(chars, 0, count));
+            count = reader.read(chars);
+        }
+    }
+}
@@ -39,6 +39,7 @@ import com.github.jferard.fastods.util.XMLUtil;
 
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.concurrent.ExecutorService;
 
 /**
  * OpenDocument 9.1.2 table:table
@@ -60,17 +61,28 @@ public class Table implements NamedObject, FrameContent {
      * @param stylesContainer the container for styles
      * @param format          the data styles
      * @param libreOfficeMode try to get full compatibility with LO if true
+     * @param executor        the executor that serializes the rows, or null to serialize the
+     *                        rows in the caller thread
+     * @param compactRows     true if the rows store their cells in compact arrays
+     * @param spillPolicy     the policy to spill the rows of an anonymous document to disk, or
+     *                        null
+     * @param flushPolicy     the policy to flush the rows of a named document, or null for the
+     *                        default policy
      * @return the table
      */
     public static Table create(final ContentElement contentElement, final PositionUtil positionUtil,
                                final WriteUtil writeUtil, final XMLUtil xmlUtil, final String name,
                                final int rowCapacity, final int columnCapacity,
                                final StylesContainer stylesContainer, final DataStyles format,
-                               final boolean libreOfficeMode) {
+                               final boolean libreOfficeMode, final ExecutorService executor,
+                               final boolean compactRows,
+                               final DiskSpillPolicy spillPolicy,
+                               final FlushPolicy flushPolicy) {
         positionUtil.checkTableName(name);
         final TableBuilder builder = TableBuilder
                 .create(positionUtil, writeUtil, xmlUtil, stylesContainer, format, libreOfficeMode,
-                        name, rowCapacity, columnCapacity);
+                        name, rowCapacity, columnCapacity, executor, compactRows, spillPolicy,
+                        flushPolicy);
         return new Table(name, contentElement, builder, new TableAppender(builder));
     }
 
@@ -192,6 +204,16 @@ public class Table implements NamedObject, FrameContent {
         return this.builder.getConfigEntry();
     }
 
+    /**
+     * Delete the temporary file of the rows that were spilled to disk, if the document is not
+     * saved. See OdsDocument.deleteTemporaryFiles.
+     *
+     * @throws IOException if the file can't be closed
+     */
+    public void deleteSpilledRows() throws IOException {
+        this.builder.deleteSpilledRows();
+    }
+
     /**
      * @return the number of the last row (0..)
      */
@@ -247,6 +269,17 @@ public class Table implements NamedObject, FrameContent {
         return new TableCellWalker(this);
     }
 
+    /**
+     * Create a writer of typed rows. The styles of the columns are resolved once, when the
+     * writer is created: the column styles of the table must be set before.
+     *
+     * @param schema the types and styles of the columns
+     * @return the row writer
+     */
+    public TableRowWriter rowWriter(final ColumnSchema schema) {
+        return new TableRowWriter(this, schema, this.builder.resolveColumnStyles(this, schema));
+    }
+
     /**
      * Set a span over cells
      *
@@ -44,6 +44,7 @@ import java.util.List;
 class TableAppender {
     private static final int MAX_COLUMN_COUNT = 1024;
     private final TableBuilder builder;
+    private final RepeatedRowsCompressor compressor;
     private boolean preambleWritten;
     private int nullFieldCounter;
 
@@ -55,6 +56,7 @@ class TableAppender {
     TableAppender(final TableBuilder builder) {
         this.preambleWritten = false;
         this.builder = builder;
+        this.compressor = RepeatedRowsCompressor.create();
     }
 
     /**
@@ -78,6 +80,7 @@ class TableAppender {
      * @throws IOException if an I/O error occurs
      */
     public void appendPostamble(final Appendable appendable) throws IOException {
+        this.compressor.flush();
         appendable.append("</table:table>");
     }
 
@@ -207,21 +210,47 @@ class TableAppender {
 
     private void appendRows(final XMLUtil util, final Appendable appendable,
                             final int firstRowIndex) throws IOException {
+        int start = firstRowIndex;
         if (firstRowIndex == 0) {
             this.nullFieldCounter = 0;
+            start = this.builder.transferSpilledRows(appendable);
         }
 
         final int size = this.builder.getTableRowsUsedSize();
-        for (int r = firstRowIndex; r < size; r++) {
+        for (int r = start; r < size; r++) {
             final TableRowImpl tr = this.builder.getTableRow(r);
             if (tr == null) {
                 this.nullFieldCounter++;
             } else {
                 this.appendRepeatedRows(util, appendable);
-                tr.appendXMLToTable(util, appendable);
-                this.nullFieldCounter = 0;
+                this.compressor.appendRow(util, appendable, tr);
             }
         }
+        this.compressor.flush();
+    }
+
+    /**
+     * Append rows that are spilled to disk. The spilled rows are sealed. The row that follows
+     * the spilled rows must exist.
+     *
+     * @param util       an util
+     * @param appendable the destination
+     * @param rows       the rows, some of them may be null
+     * @throws IOException if an I/O error occurs
+     */
+    public void appendSpilledRows(final XMLUtil util, final Appendable appendable,
+                                  final List<TableRowImpl> rows) throws IOException {
+        for (final TableRowImpl tr : rows) {
+            if (tr == null) {
+                this.nullFieldCounter++;
+            } else {
+                this.appendRepeatedRows(util, appendable);
+                this.compressor.appendRow(util, appendable, tr);
+                TableRowImpl.seal(tr);
+            }
+        }
+        this.appendRepeatedRows(util, appendable);
+        this.compressor.flush();
     }
 
     private void appendRepeatedRows(final XMLUtil util, final Appendable appendable)
@@ -230,6 +259,7 @@ class TableAppender {
             return;
         }
 
+        this.compressor.flush();
         appendable.append("<table:table-row");
         if (this.nullFieldCounter > 1) {
             util.appendAttribute(appendable, "table:number-rows-repeated", this.nullFieldCounter);
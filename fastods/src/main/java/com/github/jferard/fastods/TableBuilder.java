@@ -42,7 +42,12 @@ import com.github.jferard.fastods.util.XMLUtil;
 import java.io.IOException;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * OpenDocument 9.1.2 table:table
@@ -52,9 +57,12 @@ import java.util.List;
  */
 class TableBuilder {
     /**
-     * The size of the buffer
+     * The max number of rows flushers that are being serialized by the executor.
      */
-    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_PENDING_FLUSHERS = 2 * Runtime.getRuntime().availableProcessors();
+    private static final int ESTIMATED_ROW_SIZE = 64;
+    private static final int ESTIMATED_CELL_SIZE = 128;
+    private static final int ESTIMATED_COMPACT_CELL_SIZE = 32;
 
     /**
      * Check if a col index is valid, otherwise throws an exception
@@ -94,13 +102,23 @@ class TableBuilder {
      * @param name            the name of the table
      * @param rowCapacity     the row capacity of the table
      * @param columnCapacity  the column capacity of the table
+     * @param executor        the executor that serializes the rows, or null to serialize the
+     *                        rows in the caller thread
+     * @param compactRows     true if the rows store their cells in compact arrays
+     * @param spillPolicy     the policy to spill the rows of an anonymous document to disk, or
+     *                        null
+     * @param flushPolicy     the policy to flush the rows of a named document, or null for the
+     *                        default policy
      * @return the builder
      */
     public static TableBuilder create(final PositionUtil positionUtil, final WriteUtil writeUtil,
                                       final XMLUtil xmlUtil, final StylesContainer stylesContainer,
                                       final DataStyles format, final boolean libreOfficeMode,
                                       final String name, final int rowCapacity,
-                                      final int columnCapacity) {
+                                      final int columnCapacity, final ExecutorService executor,
+                                      final boolean compactRows,
+                                      final DiskSpillPolicy spillPolicy,
+                                      final FlushPolicy flushPolicy) {
         final ConfigItemMapEntrySet configEntry = ConfigItemMapEntrySet.createSet(name);
         configEntry.add(ConfigItem
                 .create(ConfigElement.HORIZONTAL_SPLIT_MODE, OdsElements.SC_SPLIT_NORMAL));
@@ -120,10 +138,12 @@ class TableBuilder {
         configEntry.add(ConfigItem.create(ConfigElement.POSITION_BOTTOM, "0"));
 
         return new TableBuilder(positionUtil, writeUtil, xmlUtil, stylesContainer, format,
-                libreOfficeMode, name, rowCapacity, columnCapacity, configEntry, BUFFER_SIZE);
+                libreOfficeMode, name, rowCapacity, columnCapacity, configEntry,
+                flushPolicy == null ? FlushPolicy.create() : flushPolicy, executor, compactRows,
+                spillPolicy);
     }
 
-    private final int bufferSize;
+    private final FlushPolicy flushPolicy;
     private final int columnCapacity;
     private final FastFullList<TableColumnStyle> columnStyles;
     private final ConfigItemMapEntrySet configEntry;
@@ -134,9 +154,25 @@ class TableBuilder {
     private final WriteUtil writeUtil;
     private final XMLUtil xmlUtil;
     private final boolean libreOfficeMode;
+    private final ExecutorService executor;
+    private final XMLUtilPool xmlUtilPool;
+    private final Queue<Future<PreprocessedRowsFlusher>> pendingFlushers;
+    private final TableCellStyleIndex cellStyleIndex;
+    private final ChildCellStyleCache childCellStyles;
+    private final DiskSpillPolicy spillPolicy;
+    private SpilledRows spilledRows;
+    /**
+     * The estimated size of the rows in memory, for the spill or flush policy
+     */
+    private long bufferedRowsSize;
+    private long lastFlushMillis;
     private boolean tablePreambleWritten;
     private NamedOdsFileWriter observer;
     private int curRowIndex;
+    /**
+     * The rows before this index were flushed and released: tableRows.get(0) is the row at
+     * lastFlushedRowIndex.
+     */
     private int lastFlushedRowIndex;
     private int lastRowIndex;
     private String name;
@@ -156,13 +192,19 @@ class TableBuilder {
      * @param rowCapacity     the row capacity of the table
      * @param columnCapacity  the column capacity of the table
      * @param configEntry     the config
-     * @param bufferSize      the buffer size
+     * @param flushPolicy     the policy to flush the rows of a named document
+     * @param executor        the executor that serializes the rows, or null to serialize the
+     *                        rows in the caller thread
+     * @param compactRows     true if the rows store their cells in compact arrays
+     * @param spillPolicy     the policy to spill the rows of an anonymous document to disk, or
+     *                        null
      */
     TableBuilder(final PositionUtil positionUtil, final WriteUtil writeUtil, final XMLUtil xmlUtil,
                  final StylesContainer stylesContainer, final DataStyles format,
                  final boolean libreOfficeMode, final String name, final int rowCapacity,
                  final int columnCapacity, final ConfigItemMapEntrySet configEntry,
-                 final int bufferSize) {
+                 final FlushPolicy flushPolicy, final ExecutorService executor,
+                 final boolean compactRows, final DiskSpillPolicy spillPolicy) {
         this.xmlUtil = xmlUtil;
         this.writeUtil = writeUtil;
         this.positionUtil = positionUtil;
@@ -180,7 +222,14 @@ class TableBuilder {
         this.curRowIndex = -1;
         this.lastFlushedRowIndex = 0;
         this.lastRowIndex = -1;
-        this.bufferSize = bufferSize;
+        this.flushPolicy = flushPolicy;
+        this.executor = executor;
+        this.xmlUtilPool = executor == null ? null : new XMLUtilPool(xmlUtil);
+        this.pendingFlushers = new LinkedList<Future<PreprocessedRowsFlusher>>();
+        this.cellStyleIndex = compactRows ? new TableCellStyleIndex() : null;
+        this.childCellStyles = new ChildCellStyleCache(stylesContainer);
+        this.spillPolicy = spillPolicy;
+        this.bufferedRowsSize = 0;
         this.tablePreambleWritten = false;
         this.shapes = new ArrayList<Shape>();
     }
@@ -189,8 +238,13 @@ class TableBuilder {
      * Add an observer to this table
      *
      * @param observer the observer
+     * @throws IllegalStateException if some rows were already spilled to disk
      */
     public void addObserver(final NamedOdsFileWriter observer) {
+        if (this.spilledRows != null) {
+            throw new IllegalStateException(
+                    "The rows of " + this.name + " were spilled: add the table before filling it");
+        }
         this.observer = observer;
     }
 
@@ -219,8 +273,9 @@ class TableBuilder {
         if (!this.tablePreambleWritten) {
             this.observer.update(new BeginTableFlusher(appender));
         }
+        this.updateObserverWithPendingFlushers(true);
         this.observer.update(new EndTableFlusher(appender,
-                this.tableRows.subList(this.lastFlushedRowIndex, this.tableRows.usedSize())));
+                this.tableRows.subList(0, this.tableRows.usedSize())));
     }
 
     /**
@@ -241,6 +296,13 @@ class TableBuilder {
      * @return the number of rows
      */
     public int getRowCount() {
+        return this.lastFlushedRowIndex + this.tableRows.usedSize();
+    }
+
+    /**
+     * @return the number of rows that are still held by the builder (not flushed)
+     */
+    int getRetainedRowCount() {
         return this.tableRows.usedSize();
     }
 
@@ -280,17 +342,26 @@ class TableBuilder {
     private TableRowImpl getRowSecure(final Table table, final TableAppender appender,
                                       final int rowIndex, final boolean updateRowIndex)
             throws IOException {
-        TableRowImpl tr = this.tableRows.get(rowIndex);
+        final int storedRowIndex = rowIndex - this.lastFlushedRowIndex;
+        if (storedRowIndex < 0) {
+            throw new IOException(
+                    "Row " + rowIndex + " of table " + this.name + " was already flushed");
+        }
+        TableRowImpl tr = this.tableRows.get(storedRowIndex);
         if (tr == null) {
+            final int previousLastRowIndex = this.lastRowIndex;
             tr = new TableRowImpl(this.writeUtil, this.xmlUtil, this.stylesContainer, this.format,
-                    this.libreOfficeMode, table, rowIndex, this.columnCapacity);
-            this.tableRows.set(rowIndex, tr);
+                    this.libreOfficeMode, table, rowIndex, this.columnCapacity,
+                    this.cellStyleIndex, this.childCellStyles);
+            this.tableRows.set(storedRowIndex, tr);
             if (rowIndex > this.lastRowIndex) {
                 this.lastRowIndex = rowIndex;
             }
 
             if (this.observer != null) {
-                this.asyncTryToFlush(appender, rowIndex);
+                this.asyncTryToFlush(appender, previousLastRowIndex, rowIndex);
+            } else if (this.spillPolicy != null && rowIndex > previousLastRowIndex) {
+                this.tryToSpill(appender, previousLastRowIndex, rowIndex);
             }
         }
         if (updateRowIndex && this.curRowIndex < rowIndex) {
@@ -300,22 +371,151 @@ class TableBuilder {
     }
 
     /**
-     * async flush if rowIndex % this.bufferSize == 0. If 0, async flush the begin of the table
-     * else if rowIndex is a multiple of this.bufferSize, flush the preprocessed rows
+     * async flush the begin of the table on the first row, then flush the preprocessed rows
+     * before rowIndex when a new last row is created and the flush policy is reached.
+     * The flushed rows are sealed and removed from the builder, hence the memory used by
+     * a table does not depend on the number of rows.
      */
-    private void asyncTryToFlush(final TableAppender appender, final int rowIndex)
-            throws IOException {
+    private void asyncTryToFlush(final TableAppender appender, final int previousLastRowIndex,
+                                 final int rowIndex) throws IOException {
         if (this.tablePreambleWritten) {
-            if (rowIndex > 0 && rowIndex % this.bufferSize == 0) {
-                final OdsAsyncFlusher preprocessedRowsFlusher = PreprocessedRowsFlusher
-                        .create(this.xmlUtil, new ArrayList<TableRowImpl>(
-                                this.tableRows.subList(this.lastFlushedRowIndex, rowIndex)));
-                this.observer.update(preprocessedRowsFlusher); // (0..1023), (1024..2047)
+            if (rowIndex > previousLastRowIndex &&
+                    this.isFlushPolicyReached(previousLastRowIndex, rowIndex)) {
+                final int flushedRowCount = rowIndex - this.lastFlushedRowIndex;
+                if (this.executor == null) {
+                    final OdsAsyncFlusher preprocessedRowsFlusher = PreprocessedRowsFlusher
+                            .create(this.xmlUtil, this.tableRows.subList(0, flushedRowCount));
+                    this.observer.update(preprocessedRowsFlusher); // (0..1023), (1024..2047)
+                } else {
+                    this.pendingFlushers.add(PreprocessedRowsFlusher.submit(this.executor,
+                            this.xmlUtilPool, this.snapshotColumnDefaultCellStyles(),
+                            new ArrayList<TableRowImpl>(
+                                    this.tableRows.subList(0, flushedRowCount))));
+                    this.updateObserverWithPendingFlushers(false);
+                }
+                this.tableRows.removeHead(flushedRowCount);
                 this.lastFlushedRowIndex = rowIndex;
+                this.bufferedRowsSize = 0;
+                this.resetFlushDelay();
             }
         } else {
             this.asyncFlushBeginTable(appender);
             this.tablePreambleWritten = true;
+            this.resetFlushDelay();
+        }
+    }
+
+    private boolean isFlushPolicyReached(final int previousLastRowIndex, final int rowIndex) {
+        this.addPreviousRowSize(previousLastRowIndex);
+        final long elapsedMillis = this.flushPolicy.hasDelay() ?
+                System.currentTimeMillis() - this.lastFlushMillis : 0;
+        return this.flushPolicy.isReached(rowIndex, this.bufferedRowsSize, elapsedMillis);
+    }
+
+    private void resetFlushDelay() {
+        if (this.flushPolicy.hasDelay()) {
+            this.lastFlushMillis = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * The size of a row is estimated when the next row is created.
+     */
+    private void addPreviousRowSize(final int previousLastRowIndex) {
+        if (previousLastRowIndex >= this.lastFlushedRowIndex) {
+            final TableRowImpl previousRow =
+                    this.tableRows.get(previousLastRowIndex - this.lastFlushedRowIndex);
+            if (previousRow != null) {
+                this.bufferedRowsSize += this.estimateSize(previousRow);
+            }
+        }
+    }
+
+    /**
+     * Spill the rows before rowIndex to disk if the estimated size of the rows in memory
+     * exceeds the threshold.
+     */
+    private void tryToSpill(final TableAppender appender, final int previousLastRowIndex,
+                            final int rowIndex) throws IOException {
+        this.addPreviousRowSize(previousLastRowIndex);
+        if (this.bufferedRowsSize < this.spillPolicy.getMemoryThreshold()) {
+            return;
+        }
+
+        if (this.spilledRows == null) {
+            this.spilledRows = SpilledRows.create(this.spillPolicy);
+        }
+        final int spilledRowCount = rowIndex - this.lastFlushedRowIndex;
+        appender.appendSpilledRows(this.xmlUtil, this.spilledRows.getAppendable(),
+                this.tableRows.subList(0, spilledRowCount));
+        this.spilledRows.addRowCount(spilledRowCount);
+        this.tableRows.removeHead(spilledRowCount);
+        this.lastFlushedRowIndex = rowIndex;
+        this.bufferedRowsSize = 0;
+    }
+
+    private long estimateSize(final TableRowImpl row) {
+        final int cellSize = this.cellStyleIndex == null ? ESTIMATED_CELL_SIZE :
+                ESTIMATED_COMPACT_CELL_SIZE;
+        return ESTIMATED_ROW_SIZE + (long) row.getColumnCount() * cellSize;
+    }
+
+    /**
+     * Write the spilled rows, if any, to the appendable.
+     *
+     * @param appendable the destination
+     * @return the number of rows written
+     * @throws IOException if an I/O error occurs
+     */
+    public int transferSpilledRows(final Appendable appendable) throws IOException {
+        if (this.spilledRows == null) {
+            return 0;
+        }
+        this.spilledRows.transferTo(appendable);
+        return this.spilledRows.getRowCount();
+    }
+
+    /**
+     * Delete the temporary file of the spilled rows, if any and if not transferred yet.
+     *
+     * @throws IOException if the file can't be closed
+     */
+    public void deleteSpilledRows() throws IOException {
+        if (this.spilledRows != null) {
+            this.spilledRows.delete();
+        }
+    }
+
+    /**
+     * Send the serialized rows to the observer, in the order of the rows.
+     *
+     * @param waitForAll if true, wait for every pending flusher. Else, wait only if there are
+     *                   too many pending flushers.
+     * @throws IOException if the serialization failed or the thread was interrupted
+     */
+    private void updateObserverWithPendingFlushers(final boolean waitForAll) throws IOException {
+        Future<PreprocessedRowsFlusher> head = this.pendingFlushers.peek();
+        while (head != null && (waitForAll || head.isDone() ||
+                this.pendingFlushers.size() > MAX_PENDING_FLUSHERS)) {
+            this.observer.update(this.getFlusher(head));
+            this.pendingFlushers.remove();
+            head = this.pendingFlushers.peek();
+        }
+    }
+
+    private PreprocessedRowsFlusher getFlusher(final Future<PreprocessedRowsFlusher> future)
+            throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while serializing the rows of " + this.name, e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Can't serialize the rows of " + this.name, cause);
         }
     }
 
@@ -495,7 +695,7 @@ class TableBuilder {
      * @return the number if rows
      */
     public int getTableRowsUsedSize() {
-        return this.tableRows.usedSize();
+        return this.getRowCount();
     }
 
     /**
@@ -503,9 +703,14 @@ class TableBuilder {
      *
      * @param r the index
      * @return the row
+     * @throws IOException if the row was flushed
      */
-    public TableRowImpl getTableRow(final int r) {
-        return this.tableRows.get(r);
+    public TableRowImpl getTableRow(final int r) throws IOException {
+        if (r < this.lastFlushedRowIndex) {
+            throw new IOException(
+                    "Row " + r + " of table " + this.name + " was already flushed");
+        }
+        return this.tableRows.get(r - this.lastFlushedRowIndex);
     }
 
     /**
@@ -522,6 +727,29 @@ class TableBuilder {
         return style;
     }
 
+    /**
+     * @return a snapshot of the default cell styles of the columns, for a worker thread
+     */
+    private ColumnDefaultCellStyles snapshotColumnDefaultCellStyles() {
+        final int size = this.columnStyles.usedSize();
+        final TableCellStyle[] styles = new TableCellStyle[size];
+        for (int c = 0; c < size; c++) {
+            styles[c] = this.findDefaultCellStyle(c);
+        }
+        return new ColumnDefaultCellStyles(styles, this.findDefaultCellStyle(size));
+    }
+
+    /**
+     * Resolve the styles of the columns of a schema
+     *
+     * @param table  the table
+     * @param schema the column schema
+     * @return the styles of the cells, some may be null
+     */
+    public TableCellStyle[] resolveColumnStyles(final Table table, final ColumnSchema schema) {
+        return schema.resolveStyles(this.stylesContainer, this.format, table);
+    }
+
     /**
      * @return the shapes
      */
@@ -74,6 +74,15 @@ public interface TableCell {
      */
     void setCurrencyValue(int value, String currency);
 
+    /**
+     * Set the currency value and table cell style to STYLE_CURRENCY. The value is kept unboxed
+     * and written as the shortest decimal that is read back as the same double.
+     *
+     * @param value    the value as a double
+     * @param currency The currency value
+     */
+    void setCurrencyValue(double value, String currency);
+
     /**
      * Set the currency value and table cell style to STYLE_CURRENCY.
      *
@@ -96,6 +105,27 @@ public interface TableCell {
      */
     void setDateValue(Date date);
 
+    /**
+     * Set the date value for a cell with TableCell.STYLE_DATE, without a Date object.
+     *
+     * @param epochMillis the milliseconds since 1970-01-01T00:00:00Z
+     */
+    void setDateValue(long epochMillis);
+
+    /**
+     * Set the date value for a cell with TableCell.STYLE_DATE, without a Calendar object.
+     * The fields are UTC fields.
+     *
+     * @param year   the year
+     * @param month  the month, 1 to 12 (not 0 to 11, as in a Calendar)
+     * @param day    the day of month, 1 to 31
+     * @param hour   the hour of day, 0 to 23
+     * @param minute the minute, 0 to 59
+     * @param second the second, 0 to 59
+     * @param millis the milliseconds, 0 to 999
+     */
+    void setDateValue(int year, int month, int day, int hour, int minute, int second, int millis);
+
     /**
      * Set the float value for a cell with TableCell.Type.FLOAT.
      *
@@ -110,6 +140,21 @@ public interface TableCell {
      */
     void setFloatValue(int value);
 
+    /**
+     * Set the float value for a cell with TableCell.Type.FLOAT. The value is kept unboxed.
+     *
+     * @param value a long with the value to be used
+     */
+    void setFloatValue(long value);
+
+    /**
+     * Set the float value for a cell with TableCell.Type.FLOAT. The value is kept unboxed
+     * and written as the shortest decimal that is read back as the same double.
+     *
+     * @param value a double with the value to be used
+     */
+    void setFloatValue(double value);
+
     /**
      * Set the float value for a cell with TableCell.Type.FLOAT.
      *
@@ -131,6 +176,14 @@ public interface TableCell {
      */
     void setPercentageValue(int value);
 
+    /**
+     * Set the double value for a cell with TableCell.Type.PERCENTAGE. The value is kept unboxed
+     * and written as the shortest decimal that is read back as the same double.
+     *
+     * @param value a double with the value to be used
+     */
+    void setPercentageValue(double value);
+
     /**
      * Set the float value for a cell with TableCell.Type.PERCENTAGE.
      *
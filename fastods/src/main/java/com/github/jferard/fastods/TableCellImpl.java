@@ -29,14 +29,15 @@ import com.github.jferard.fastods.datastyle.DataStyle;
 import com.github.jferard.fastods.datastyle.DataStyles;
 import com.github.jferard.fastods.odselement.StylesContainer;
 import com.github.jferard.fastods.style.TableCellStyle;
+import com.github.jferard.fastods.util.CellTagFragments;
+import com.github.jferard.fastods.util.DateAppender;
 import com.github.jferard.fastods.util.WriteUtil;
 import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.XmlByteWriter;
 
 import java.io.IOException;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.TimeZone;
 
 /**
  * WHERE ? content.xml/office:document-content/office:body/office:spreadsheet/
@@ -46,19 +47,13 @@ import java.util.TimeZone;
  * @author Martin Schulz
  */
 public class TableCellImpl implements TableCell {
-    /**
-     * The default date format
+    private static final byte NO_NUMBER = 0;
+    private static final byte LONG_NUMBER = 1;
+    private static final byte DOUBLE_NUMBER = 2;
+    /*
+     * XML Schema Part 2, 3.2.7 dateTime, written by the XMLUtil in UTC.
      */
-    final static SimpleDateFormat DATE_VALUE_FORMAT;
-
-    static {
-        /*
-         * XML Schema Part 2, 3.2.7 dateTime
-         * Z and UTC time zone for universal time.
-         */
-        DATE_VALUE_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-        DATE_VALUE_FORMAT.setTimeZone(TimeZone.getTimeZone("UTC"));
-    }
+    private static final byte DATE_NUMBER = 3;
 
     private final TableRowImpl parentRow;
     private final WriteUtil writeUtil;
@@ -70,7 +65,16 @@ public class TableCellImpl implements TableCell {
     private TableCellStyle style;
     private CellType type;
     private TableColdCell coldCell;
+    /**
+     * The value as a string. If null, the value may be a number (see numberKind)
+     */
     private String value;
+    /**
+     * A long, the bits of a double or the milliseconds of a date, kept unboxed until the
+     * serialization
+     */
+    private long number;
+    private byte numberKind;
 
     /**
      * Create the table cell implementation
@@ -98,7 +102,8 @@ public class TableCellImpl implements TableCell {
     }
 
     /**
-     * Generate the XML for the table cell.
+     * Generate the XML for the table cell. A row reuses its XmlByteWriter, see
+     * appendXMLToTableRow(XMLUtil, XmlByteWriter, int).
      *
      * @param util       an util.
      * @param appendable the appendable to fill
@@ -106,33 +111,100 @@ public class TableCellImpl implements TableCell {
      */
     public void appendXMLToTableRow(final XMLUtil util, final Appendable appendable)
             throws IOException {
+        if (appendable instanceof XmlByteWriter) {
+            this.appendXMLToTableRow(util, (XmlByteWriter) appendable, 1);
+            return;
+        }
+        final XmlByteWriter writer = XmlByteWriter.create();
+        this.appendXMLToTableRow(util, writer, 1);
+        writer.writeTo(appendable);
+    }
+
+    /**
+     * Generate the XML for a run of identical table cells.
+     *
+     * @param util     an util.
+     * @param writer   the writer to fill
+     * @param repeated the number of identical cells, starting with this cell
+     * @throws IOException if an error occurs
+     */
+    void appendXMLToTableRow(final XMLUtil util, final XmlByteWriter writer,
+                             final int repeated) throws IOException {
         final boolean covered = this.isCovered();
         if (covered) {
-            appendable.append("<table:covered-table-cell");
+            writer.write(TableTagBytes.COVERED_CELL_OPEN);
         } else {
-            appendable.append("<table:table-cell");
+            writer.write(TableTagBytes.CELL_OPEN);
         }
-
-        if (this.style != null) {
-            util.appendEAttribute(appendable, "table:style-name", this.style.getName());
-        } else if (this.libreOfficeMode) {
-            // looks for a parent style to set
-            util.appendEAttribute(appendable, "table:style-name", this.getCurCellStyle().getName());
+        if (repeated > 1) {
+            writer.write(TableTagBytes.COLUMNS_REPEATED);
+            writer.writeInt(repeated);
+            writer.append('"');
         }
 
+        final CellTagFragments fragments = util.getCellTagFragments();
+        writer.write(fragments.getFragment(this.getStyleNameToWrite(), this.type));
         if (this.type != null) {
-            util.appendAttribute(appendable, "office:value-type", this.type);
-            util.appendEAttribute(appendable, this.type.getValueAttribute(), this.value);
+            this.appendValue(util, writer);
+            writer.append('"');
             if (this.type == CellType.CURRENCY) {
-                final String currency = this.getCurrency();
-                util.appendEAttribute(appendable, "office:currency", currency);
+                writer.write(fragments.getCurrencyFragment(this.getCurrency()));
             }
         }
 
         if (this.hasColdCell()) {
-            this.coldCell.appendXMLToTable(util, appendable);
+            this.coldCell.appendXMLToTable(util, writer);
         } else {
-            appendable.append("/>");
+            writer.write(TableTagBytes.EMPTY_TAG_END);
+        }
+    }
+
+    /**
+     * @return the name of the style attribute, or null if the attribute is not written
+     */
+    private String getStyleNameToWrite() {
+        if (this.style != null) {
+            return this.style.getName();
+        } else if (this.libreOfficeMode) {
+            // looks for a parent style to set
+            return this.getCurCellStyle().getName();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * @param other another cell, may be null
+     * @return true if the other cell has the same XML as this cell: same type, value and
+     * style, and no cold data (formula, span, currency, ...).
+     */
+    boolean hasSameContent(final TableCellImpl other) {
+        if (other == null || this.coldCell != null || other.coldCell != null ||
+                this.type != other.type || this.numberKind != other.numberKind ||
+                this.number != other.number) {
+            return false;
+        }
+        if (this.value == null ? other.value != null : !this.value.equals(other.value)) {
+            return false;
+        }
+        final String styleName = this.getStyleNameToWrite();
+        final String otherStyleName = other.getStyleNameToWrite();
+        return styleName == null ? otherStyleName == null : styleName.equals(otherStyleName);
+    }
+
+    /**
+     * Append the value, without the attribute name and the quotes.
+     */
+    private void appendValue(final XMLUtil util, final XmlByteWriter writer)
+            throws IOException {
+        if (this.value == null && this.numberKind == LONG_NUMBER) {
+            writer.writeLong(this.number);
+        } else if (this.value == null && this.numberKind == DOUBLE_NUMBER) {
+            writer.writeDouble(Double.longBitsToDouble(this.number));
+        } else if (this.value == null && this.numberKind == DATE_NUMBER) {
+            util.appendDateTimeAttributeValue(writer, this.number);
+        } else {
+            writer.append(util.escapeXMLAttribute(this.value));
         }
     }
 
@@ -141,12 +213,23 @@ public class TableCellImpl implements TableCell {
         return this.hasColdCell() && this.coldCell.isCovered();
     }
 
+    /**
+     * A cell that was kept by the user must not be modified once its row was flushed: the row
+     * may be serialized by another thread.
+     *
+     * @throws IllegalStateException if the row was flushed
+     */
+    private void checkNotSealed() {
+        this.parentRow.checkNotSealed();
+    }
+
     private boolean hasColdCell() {
         return this.coldCell != null;
     }
 
     @Override
     public void setCovered() {
+        this.checkNotSealed();
         this.ensureColdCell();
         this.coldCell.setCovered();
     }
@@ -158,6 +241,7 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void markColumnsSpanned(final int n) {
+        this.checkNotSealed();
         if (n < 0) {
             throw new IllegalArgumentException("Can't mark a negative number of columns");
         } else if (n <= 1) {
@@ -175,6 +259,7 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void markRowsSpanned(final int n) {
+        this.checkNotSealed();
         if (n < 0) {
             throw new IllegalArgumentException("Can't mark a negative number of rows");
         } else if (n <= 1) {
@@ -192,7 +277,8 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void setBooleanValue(final boolean value) {
-        this.value = value ? "true" : "false";
+        this.checkNotSealed();
+        this.setValue(value ? "true" : "false");
         this.type = CellType.BOOLEAN;
         this.setImplicitDataStyle(this.dataStyles.getBooleanDataStyle());
     }
@@ -209,11 +295,16 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void setCurrencyValue(final float value, final String currency) {
+        this.checkNotSealed();
         this.setCurrencyValue(Float.toString(value), currency);
     }
 
     private void setCurrencyValue(final String valueAsString, final String currency) {
-        this.value = valueAsString;
+        this.setValue(valueAsString);
+        this.setCurrency(currency);
+    }
+
+    private void setCurrency(final String currency) {
         this.type = CellType.CURRENCY;
         this.setImplicitDataStyle(this.dataStyles.getCurrencyDataStyle());
 
@@ -223,11 +314,87 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void setCurrencyValue(final int value, final String currency) {
-        this.setCurrencyValue(Integer.toString(value), currency);
+        this.checkNotSealed();
+        this.setNumber(LONG_NUMBER, value);
+        this.setCurrency(currency);
+    }
+
+    @Override
+    public void setCurrencyValue(final double value, final String currency) {
+        this.checkNotSealed();
+        this.setNumber(DOUBLE_NUMBER, Double.doubleToRawLongBits(value));
+        this.setCurrency(currency);
+    }
+
+    /**
+     * Set a number value. The string value is cleared.
+     *
+     * @param numberKind LONG_NUMBER, DOUBLE_NUMBER or DATE_NUMBER
+     * @param number     the long, the bits of the double or the milliseconds
+     */
+    private void setNumber(final byte numberKind, final long number) {
+        this.value = null;
+        this.numberKind = numberKind;
+        this.number = number;
+    }
+
+    /**
+     * Set a string value. The number is cleared.
+     *
+     * @param value the value as a string
+     */
+    private void setValue(final String value) {
+        this.value = value;
+        this.numberKind = NO_NUMBER;
+        this.number = 0;
+    }
+
+    /**
+     * Set a value and a style that was resolved for a whole column: no style lookup.
+     * See TableRowWriter.
+     *
+     * @param type  the type: boolean, float, percentage or string
+     * @param value the value as a string
+     * @param style the resolved style, may be null
+     */
+    void setPreparedValue(final CellType type, final String value, final TableCellStyle style) {
+        this.checkNotSealed();
+        this.setValue(value);
+        this.type = type;
+        this.style = style;
+    }
+
+    /**
+     * See setPreparedValue(CellType, String, TableCellStyle)
+     *
+     * @param type  the type: date, float or percentage
+     * @param value the value, or the epoch millis for a date
+     * @param style the resolved style, may be null
+     */
+    void setPreparedValue(final CellType type, final long value, final TableCellStyle style) {
+        this.checkNotSealed();
+        this.setNumber(type == CellType.DATE ? DATE_NUMBER : LONG_NUMBER, value);
+        this.type = type;
+        this.style = style;
+    }
+
+    /**
+     * See setPreparedValue(CellType, String, TableCellStyle)
+     *
+     * @param type  the type: float or percentage
+     * @param value the value
+     * @param style the resolved style, may be null
+     */
+    void setPreparedValue(final CellType type, final double value, final TableCellStyle style) {
+        this.checkNotSealed();
+        this.setNumber(DOUBLE_NUMBER, Double.doubleToRawLongBits(value));
+        this.type = type;
+        this.style = style;
     }
 
     @Override
     public void setCurrencyValue(final Number value, final String currency) {
+        this.checkNotSealed();
         this.setCurrencyValue(value.toString(), currency);
     }
 
@@ -239,18 +406,17 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void setDataStyle(final DataStyle dataStyle) {
+        this.checkNotSealed();
         if (dataStyle == null) {
             return;
         }
 
-        this.stylesContainer.addDataStyle(dataStyle);
         final TableCellStyle curStyle = this.getCurCellStyle();
         final DataStyle curDataStyle = curStyle.getDataStyle();
         if (curDataStyle == null) { // no data style yet: create a custom child style
-            this.style = this.stylesContainer.addChildCellStyle(curStyle, dataStyle);
+            this.style = this.getChildCellStyle(curStyle, dataStyle);
         } else { // a style and a data style => create a custom sibling cell style
-            this.style = this.stylesContainer
-                    .addChildCellStyle(curStyle.getParentCellStyle(), dataStyle);
+            this.style = this.getChildCellStyle(curStyle.getParentCellStyle(), dataStyle);
         }
     }
 
@@ -268,16 +434,20 @@ public class TableCellImpl implements TableCell {
         final TableCellStyle curStyle = this.getCurCellStyle();
         final DataStyle curDataStyle = curStyle.getDataStyle();
         if (curDataStyle == null) { // no data style yet: create a custom child style
-            this.stylesContainer.addDataStyle(dataStyle);
-            this.style = this.stylesContainer.addChildCellStyle(curStyle, dataStyle);
+            this.style = this.getChildCellStyle(curStyle, dataStyle);
         } else {
-            // TODO: Can't we add this on first style use, once for all?
-            this.stylesContainer.addDataStyle(curDataStyle);
-            this.style = this.stylesContainer
-                    .addChildCellStyle(curStyle.getParentCellStyle(), curDataStyle);
+            this.style = this.getChildCellStyle(curStyle.getParentCellStyle(), curDataStyle);
         }
     }
 
+    /**
+     * @return the child style, resolved once per table, see ChildCellStyleCache
+     */
+    private TableCellStyle getChildCellStyle(final TableCellStyle style,
+                                             final DataStyle dataStyle) {
+        return this.parentRow.getChildCellStyle(this.columnIndex, style, dataStyle);
+    }
+
 
     /**
      * @return the current cell style, eventually found in parent (row, column, table).
@@ -293,66 +463,116 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void setDateValue(final Calendar cal) {
-        this.setDateValue(cal.getTime());
+        this.setDateValue(cal.getTimeInMillis());
     }
 
     @Override
     public void setDateValue(final Date value) {
-        this.value = TableCellImpl.DATE_VALUE_FORMAT.format(value);
+        this.setDateValue(value.getTime());
+    }
+
+    @Override
+    public void setDateValue(final long epochMillis) {
+        this.checkNotSealed();
+        this.setNumber(DATE_NUMBER, epochMillis);
         this.type = CellType.DATE;
         this.setImplicitDataStyle(this.dataStyles.getDateDataStyle());
     }
 
+    @Override
+    public void setDateValue(final int year, final int month, final int day, final int hour,
+                             final int minute, final int second, final int millis) {
+        this.setDateValue(
+                DateAppender.toEpochMillis(year, month, day, hour, minute, second, millis));
+    }
+
     private void setFloatValue(final String valueAsString) {
-        this.value = valueAsString;
+        this.setValue(valueAsString);
+        this.setFloatType();
+    }
+
+    private void setFloatType() {
         this.type = CellType.FLOAT;
         this.setImplicitDataStyle(this.dataStyles.getFloatDataStyle());
     }
 
     @Override
     public void setFloatValue(final float value) {
+        this.checkNotSealed();
         this.setFloatValue(Float.toString(value));
     }
 
     @Override
     public void setFloatValue(final int value) {
-        this.setFloatValue(this.writeUtil.toString(value));
+        this.setFloatValue((long) value);
+    }
+
+    @Override
+    public void setFloatValue(final long value) {
+        this.checkNotSealed();
+        this.setNumber(LONG_NUMBER, value);
+        this.setFloatType();
+    }
+
+    @Override
+    public void setFloatValue(final double value) {
+        this.checkNotSealed();
+        this.setNumber(DOUBLE_NUMBER, Double.doubleToRawLongBits(value));
+        this.setFloatType();
     }
 
     @Override
     public void setFloatValue(final Number value) {
+        this.checkNotSealed();
         this.setFloatValue(value.toString());
     }
 
     @Override
     public void setPercentageValue(final int value) {
-        this.setPercentageValue(Integer.toString(value));
+        this.checkNotSealed();
+        this.setNumber(LONG_NUMBER, value);
+        this.setPercentageType();
+    }
+
+    @Override
+    public void setPercentageValue(final double value) {
+        this.checkNotSealed();
+        this.setNumber(DOUBLE_NUMBER, Double.doubleToRawLongBits(value));
+        this.setPercentageType();
     }
 
     private void setPercentageValue(final String valueAsString) {
-        this.value = valueAsString;
+        this.setValue(valueAsString);
+        this.setPercentageType();
+    }
+
+    private void setPercentageType() {
         this.type = CellType.PERCENTAGE;
         this.setImplicitDataStyle(this.dataStyles.getPercentageDataStyle());
     }
 
     @Override
     public void setPercentageValue(final float value) {
+        this.checkNotSealed();
         this.setPercentageValue(Float.toString(value));
     }
 
     @Override
     public void setPercentageValue(final Number value) {
+        this.checkNotSealed();
         this.setPercentageValue(value.toString());
     }
 
     @Override
     public void setStringValue(final String value) {
-        this.value = value;
+        this.checkNotSealed();
+        this.setValue(value);
         this.type = CellType.STRING;
     }
 
     @Override
     public void setStyle(final TableCellStyle style) {
+        this.checkNotSealed();
         if (style == null) {
             return;
         }
@@ -368,16 +588,17 @@ public class TableCellImpl implements TableCell {
             if (dataStyle == null) {
                 this.style = style; // just replace the current style by the new style
             } else { // a style and a data style => create a custom child cell style
-                this.style = this.stylesContainer.addChildCellStyle(style, dataStyle);
+                this.style = this.getChildCellStyle(style, dataStyle);
             }
         }
     }
 
     @Override
     public void setText(final Text text) {
+        this.checkNotSealed();
         this.ensureColdCell();
         this.coldCell.setText(text);
-        this.value = "";
+        this.setValue("");
         this.type = CellType.STRING;
         text.addEmbeddedStylesFromCell(this.stylesContainer);
     }
@@ -389,12 +610,13 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void setTimeValue(final long timeInMillis) {
+        this.checkNotSealed();
         if (timeInMillis < 0) {
-            this.value = this.xmlUtil
-                    .formatNegTimeInterval(0, 0, 0, 0, 0, (double) -timeInMillis / 1000);
+            this.setValue(this.xmlUtil
+                    .formatNegTimeInterval(0, 0, 0, 0, 0, (double) -timeInMillis / 1000));
         } else {
-            this.value =
-                    this.xmlUtil.formatTimeInterval(0, 0, 0, 0, 0, (double) timeInMillis / 1000);
+            this.setValue(
+                    this.xmlUtil.formatTimeInterval(0, 0, 0, 0, 0, (double) timeInMillis / 1000));
         }
         this.type = CellType.TIME;
         this.setImplicitDataStyle(this.dataStyles.getTimeDataStyle());
@@ -403,7 +625,9 @@ public class TableCellImpl implements TableCell {
     @Override
     public void setTimeValue(final long years, final long months, final long days, final long hours,
                              final long minutes, final double seconds) {
-        this.value = this.xmlUtil.formatTimeInterval(years, months, days, hours, minutes, seconds);
+        this.checkNotSealed();
+        this.setValue(
+                this.xmlUtil.formatTimeInterval(years, months, days, hours, minutes, seconds));
         this.type = CellType.TIME;
         this.setImplicitDataStyle(this.dataStyles.getTimeDataStyle());
     }
@@ -411,14 +635,16 @@ public class TableCellImpl implements TableCell {
     @Override
     public void setNegTimeValue(final long years, final long months, final long days,
                                 final long hours, final long minutes, final double seconds) {
-        this.value =
-                this.xmlUtil.formatNegTimeInterval(years, months, days, hours, minutes, seconds);
+        this.checkNotSealed();
+        this.setValue(
+                this.xmlUtil.formatNegTimeInterval(years, months, days, hours, minutes, seconds));
         this.type = CellType.TIME;
         this.setImplicitDataStyle(this.dataStyles.getTimeDataStyle());
     }
 
     @Override
     public void setTooltip(final String tooltipText) {
+        this.checkNotSealed();
         this.ensureColdCell();
         this.coldCell.setTooltip(tooltipText);
     }
@@ -426,12 +652,14 @@ public class TableCellImpl implements TableCell {
     @Override
     public void setTooltip(final String tooltipText, final Length width, final Length height,
                            final boolean visible) {
+        this.checkNotSealed();
         this.ensureColdCell();
         this.coldCell.setTooltip(tooltipText, width, height, visible);
     }
 
     @Override
     public void setTooltip(final Tooltip tooltip) {
+        this.checkNotSealed();
         this.ensureColdCell();
         tooltip.addEmbeddedStyles(this.stylesContainer);
         this.coldCell.setTooltip(tooltip);
@@ -439,18 +667,21 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public void setVoidValue() {
-        this.value = "";
+        this.checkNotSealed();
+        this.setValue("");
         this.type = CellType.VOID;
     }
 
     @Override
     public void setFormula(final String formula) {
+        this.checkNotSealed();
         this.ensureColdCell();
         this.coldCell.setFormula(formula);
     }
 
     @Override
     public void setMatrixFormula(final String formula) {
+        this.checkNotSealed();
         this.ensureColdCell();
         this.coldCell.setFormula(formula);
         this.coldCell.setMatrixRowsSpanned(1);
@@ -460,6 +691,7 @@ public class TableCellImpl implements TableCell {
     @Override
     public void setMatrixFormula(final String formula, final int matrixRowsSpanned,
                                  final int matrixColumnsSpanned) {
+        this.checkNotSealed();
         this.ensureColdCell();
         this.coldCell.setFormula(formula);
         this.coldCell.setMatrixRowsSpanned(matrixRowsSpanned);
@@ -468,6 +700,6 @@ public class TableCellImpl implements TableCell {
 
     @Override
     public boolean hasValue() {
-        return this.value != null || this.hasColdCell();
+        return this.value != null || this.numberKind != NO_NUMBER || this.hasColdCell();
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.style.TableCellStyle;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the cell styles of a table: a compact row stores the index of the style of a
+ * cell rather than a reference. The index 0 is reserved for the null style.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author J. Férard
+ */
+class TableCellStyleIndex {
+    /**
+     * The index of the null style
+     */
+    static final int NO_STYLE = 0;
+
+    private final List<TableCellStyle> styles;
+    private final Map<TableCellStyle, Integer> indexByStyle;
+
+    /**
+     * Create a new index
+     */
+    TableCellStyleIndex() {
+        this.styles = new ArrayList<TableCellStyle>();
+        this.styles.add(null);
+        this.indexByStyle = new IdentityHashMap<TableCellStyle, Integer>();
+    }
+
+    /**
+     * @param style the style, may be null
+     * @return the index of the style, created if necessary
+     */
+    int indexOf(final TableCellStyle style) {
+        if (style == null) {
+            return NO_STYLE;
+        }
+        final Integer index = this.indexByStyle.get(style);
+        if (index != null) {
+            return index;
+        }
+        final int newIndex = this.styles.size();
+        this.styles.add(style);
+        this.indexByStyle.put(style, newIndex);
+        return newIndex;
+    }
+
+    /**
+     * @param index the index
+     * @return the style, null for NO_STYLE
+     */
+    TableCellStyle get(final int index) {
+        return this.styles.get(index);
+    }
+}
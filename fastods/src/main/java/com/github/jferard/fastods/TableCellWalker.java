@@ -102,6 +102,17 @@ public class TableCellWalker implements RowCellWalker, TableRowWalker, TableColu
         this.cell.setDateValue(value);
     }
 
+    @Override
+    public void setDateValue(final long epochMillis) {
+        this.cell.setDateValue(epochMillis);
+    }
+
+    @Override
+    public void setDateValue(final int year, final int month, final int day, final int hour,
+                             final int minute, final int second, final int millis) {
+        this.cell.setDateValue(year, month, day, hour, minute, second, millis);
+    }
+
     @Override
     public void setFloatValue(final Number value) {
         this.cell.setFloatValue(value);
@@ -207,6 +218,11 @@ public class TableCellWalker implements RowCellWalker, TableRowWalker, TableColu
         this.cell.setCurrencyValue(value, currency);
     }
 
+    @Override
+    public void setCurrencyValue(final double value, final String currency) {
+        this.cell.setCurrencyValue(value, currency);
+    }
+
     @Override
     public void setCurrencyValue(final Number value, final String currency) {
         this.cell.setCurrencyValue(value, currency);
@@ -227,6 +243,16 @@ public class TableCellWalker implements RowCellWalker, TableRowWalker, TableColu
         this.cell.setFloatValue(value);
     }
 
+    @Override
+    public void setFloatValue(final long value) {
+        this.cell.setFloatValue(value);
+    }
+
+    @Override
+    public void setFloatValue(final double value) {
+        this.cell.setFloatValue(value);
+    }
+
     @Override
     public void setPercentageValue(final float value) {
         this.cell.setPercentageValue(value);
@@ -237,6 +263,11 @@ public class TableCellWalker implements RowCellWalker, TableRowWalker, TableColu
         this.cell.setPercentageValue(value);
     }
 
+    @Override
+    public void setPercentageValue(final double value) {
+        this.cell.setPercentageValue(value);
+    }
+
     @Override
     public void setStyle(final TableCellStyle style) {
         this.cell.setStyle(style);
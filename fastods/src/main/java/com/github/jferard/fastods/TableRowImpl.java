@@ -23,6 +23,8 @@
 
 package com.github.jferard.fastods;
 
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.datastyle.DataStyle;
 import com.github.jferard.fastods.datastyle.DataStyles;
 import com.github.jferard.fastods.odselement.StylesContainer;
 import com.github.jferard.fastods.style.TableCellStyle;
@@ -30,6 +32,7 @@ import com.github.jferard.fastods.style.TableRowStyle;
 import com.github.jferard.fastods.util.FastFullList;
 import com.github.jferard.fastods.util.WriteUtil;
 import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.XmlByteWriter;
 
 import java.io.IOException;
 
@@ -57,6 +60,31 @@ public class TableRowImpl implements TableRow {
         }
     }
 
+    /**
+     * Seal a given row, if not null.
+     *
+     * @param row a TableRow
+     */
+    static void seal(final TableRowImpl row) {
+        if (row != null) {
+            row.seal();
+        }
+    }
+
+    /**
+     * Seal a given row, if not null, before it is serialized by a worker thread.
+     *
+     * @param row                     a TableRow
+     * @param columnDefaultCellStyles the snapshot of the default cell styles of the columns
+     */
+    static void seal(final TableRowImpl row,
+                     final ColumnDefaultCellStyles columnDefaultCellStyles) {
+        if (row != null) {
+            row.columnDefaultCellStyles = columnDefaultCellStyles;
+            row.seal();
+        }
+    }
+
 
     private final Table parentTable;
     private final int rowIndex;
@@ -64,10 +92,14 @@ public class TableRowImpl implements TableRow {
     private final WriteUtil writeUtil;
     private final XMLUtil xmlUtil;
     private final FastFullList<TableCellImpl> cells;
+    private final CompactCells compactCells;
+    private final ChildCellStyleCache childStyles;
     private final boolean libreOfficeMode;
     private DataStyles dataStyles;
     private TableRowStyle rowStyle;
     private TableCellStyle defaultCellStyle;
+    private boolean sealed;
+    private ColumnDefaultCellStyles columnDefaultCellStyles;
 
     /**
      * Create a new TableRow
@@ -80,11 +112,15 @@ public class TableRowImpl implements TableRow {
      * @param parentTable     the parent table
      * @param rowIndex        the index of this row
      * @param columnCapacity  the max column
+     * @param styleIndex      the index of the cell styles of the table if the row is compact,
+     *                        null otherwise
+     * @param childStyles     the cache of the child cell styles of the table
      */
     TableRowImpl(final WriteUtil writeUtil, final XMLUtil xmlUtil,
                  final StylesContainer stylesContainer, final DataStyles dataStyles,
                  final boolean libreOfficeMode, final Table parentTable, final int rowIndex,
-                 final int columnCapacity) {
+                 final int columnCapacity, final TableCellStyleIndex styleIndex,
+                 final ChildCellStyleCache childStyles) {
         this.writeUtil = writeUtil;
         this.stylesContainer = stylesContainer;
         this.xmlUtil = xmlUtil;
@@ -93,12 +129,21 @@ public class TableRowImpl implements TableRow {
         this.parentTable = parentTable;
         this.rowIndex = rowIndex;
         this.rowStyle = TableRowStyle.DEFAULT_TABLE_ROW_STYLE;
-        this.cells = FastFullList.newListWithCapacity(columnCapacity);
+        this.childStyles = childStyles;
+        if (styleIndex == null) {
+            this.cells = FastFullList.newListWithCapacity(columnCapacity);
+            this.compactCells = null;
+        } else {
+            this.cells = null;
+            this.compactCells = new CompactCells(this, writeUtil, xmlUtil, stylesContainer,
+                    libreOfficeMode, styleIndex, columnCapacity);
+        }
     }
 
     /**
      * Write the XML dataStyles for this object.<br>
-     * This is used while writing the ODS file.
+     * This is used while writing the ODS file. A loop over the rows should reuse a
+     * XmlByteWriter, see appendXMLToTable(XMLUtil, XmlByteWriter).
      *
      * @param util       a util for XML writing
      * @param appendable where to write the XML
@@ -106,7 +151,30 @@ public class TableRowImpl implements TableRow {
      */
     public void appendXMLToTable(final XMLUtil util, final Appendable appendable)
             throws IOException {
-        this.appendRowOpenTag(util, appendable);
+        if (appendable instanceof XmlByteWriter) {
+            this.appendXMLToTable(util, (XmlByteWriter) appendable);
+            return;
+        }
+        final XmlByteWriter writer = XmlByteWriter.create();
+        this.appendXMLToTable(util, writer);
+        writer.writeTo(appendable);
+    }
+
+    /**
+     * Write the XML dataStyles for this object as UTF-8 bytes.
+     *
+     * @param util   a util for XML writing
+     * @param writer where to write the XML
+     * @throws IOException If an I/O error occurs
+     */
+    public void appendXMLToTable(final XMLUtil util, final XmlByteWriter writer)
+            throws IOException {
+        this.appendRowOpenTag(util, writer);
+        if (this.compactCells != null) {
+            this.appendCompactCells(util, writer);
+            writer.write(TableTagBytes.ROW_CLOSE);
+            return;
+        }
         int nullFieldCounter = 0;
 
         final int size = this.cells.usedSize();
@@ -116,38 +184,89 @@ public class TableRowImpl implements TableRow {
                 nullFieldCounter++;
                 continue;
             }
-            this.insertBlankCells(util, appendable, nullFieldCounter);
+            this.insertBlankCells(writer, nullFieldCounter);
             nullFieldCounter = 0;
-            cell.appendXMLToTableRow(util, appendable);
+            int repeated = 1;
+            while (c + repeated < size && cell.hasSameContent(this.cells.get(c + repeated))) {
+                repeated++;
+            }
+            cell.appendXMLToTableRow(util, writer, repeated);
+            c += repeated - 1;
         }
 
-        appendable.append("</table:table-row>");
+        writer.write(TableTagBytes.ROW_CLOSE);
+    }
+
+    private void appendCompactCells(final XMLUtil util, final XmlByteWriter writer)
+            throws IOException {
+        int nullFieldCounter = 0;
+
+        final int size = this.compactCells.usedSize();
+        for (int c = 0; c < size; c++) {
+            if (!this.compactCells.hasValue(c)) {
+                nullFieldCounter++;
+                continue;
+            }
+            this.insertBlankCells(writer, nullFieldCounter);
+            nullFieldCounter = 0;
+            int repeated = 1;
+            while (c + repeated < size && this.compactCells.hasSameContent(c, c + repeated)) {
+                repeated++;
+            }
+            this.compactCells.appendXMLToTableRow(c, util, writer, repeated);
+            c += repeated - 1;
+        }
+    }
+
+    /**
+     * Seal this row: the row was flushed, and any further modification would be lost.
+     */
+    void seal() {
+        this.sealed = true;
+    }
+
+    /**
+     * @return true if the row was flushed
+     */
+    public boolean isSealed() {
+        return this.sealed;
+    }
+
+    /**
+     * @throws IllegalStateException if the row was flushed
+     */
+    void checkNotSealed() {
+        if (this.sealed) {
+            throw new IllegalStateException(
+                    "Row " + this.rowIndex + " was already flushed and can't be modified");
+        }
     }
 
-    private void appendRowOpenTag(final XMLUtil util, final Appendable appendable)
+    private void appendRowOpenTag(final XMLUtil util, final XmlByteWriter writer)
             throws IOException {
-        appendable.append("<table:table-row");
+        writer.write(TableTagBytes.ROW_OPEN);
         if (this.rowStyle != null) {
-            util.appendEAttribute(appendable, "table:style-name", this.rowStyle.getName());
+            util.appendEAttribute(writer, "table:style-name", this.rowStyle.getName());
         }
         if (this.defaultCellStyle != null) {
-            util.appendEAttribute(appendable, "table:default-cell-style-name",
+            util.appendEAttribute(writer, "table:default-cell-style-name",
                     this.defaultCellStyle.getName());
         }
-        appendable.append(">");
+        writer.append('>');
     }
 
-    private void insertBlankCells(final XMLUtil util, final Appendable appendable,
-                                  final int nullFieldCounter) throws IOException {
+    private void insertBlankCells(final XmlByteWriter writer, final int nullFieldCounter) {
         if (nullFieldCounter <= 0) {
             return;
         }
 
-        appendable.append("<table:table-cell");
+        writer.write(TableTagBytes.CELL_OPEN);
         if (nullFieldCounter >= 2) {
-            util.appendAttribute(appendable, "table:number-columns-repeated", nullFieldCounter);
+            writer.write(TableTagBytes.COLUMNS_REPEATED);
+            writer.writeInt(nullFieldCounter);
+            writer.append('"');
         }
-        appendable.append("/>");
+        writer.write(TableTagBytes.EMPTY_TAG_END);
     }
 
     private boolean hasNoValue(final TableCell cell) {
@@ -214,8 +333,16 @@ public class TableRowImpl implements TableRow {
         this.coverRightCells(colIndex, n);
     }
 
+    /**
+     * @return the data styles of this row
+     */
+    DataStyles getRowFormat() {
+        return this.dataStyles;
+    }
+
     @Override
     public void setRowFormat(final DataStyles format) {
+        this.checkNotSealed();
         this.dataStyles = format;
     }
 
@@ -248,8 +375,17 @@ public class TableRowImpl implements TableRow {
      *
      * @param colIndex the index of the cell in the row
      * @return a cell
+     * @throws IllegalStateException if the row was flushed
      */
     public TableCell getOrCreateCell(final int colIndex) {
+        this.checkNotSealed();
+        if (this.compactCells != null) {
+            return this.compactCells.getOrCreateCell(colIndex);
+        }
+        return this.getOrCreateCellImpl(colIndex);
+    }
+
+    private TableCellImpl getOrCreateCellImpl(final int colIndex) {
         TableCellImpl cell = this.cells.get(colIndex);
         if (cell == null) {
             cell = new TableCellImpl(this.writeUtil, this.xmlUtil, this.stylesContainer,
@@ -259,8 +395,99 @@ public class TableRowImpl implements TableRow {
         return cell;
     }
 
+    /**
+     * Set a value and a style that was resolved for a whole column. See TableRowWriter.
+     *
+     * @param colIndex the index of the cell
+     * @param type     the type: float, percentage or string
+     * @param value    the value as a string
+     * @param style    the resolved style, may be null
+     */
+    void setPreparedValue(final int colIndex, final CellType type, final String value,
+                          final TableCellStyle style) {
+        this.checkNotSealed();
+        if (this.compactCells != null) {
+            this.compactCells.prepareCell(colIndex, style);
+            this.compactCells.setStringValue(colIndex, type, value);
+        } else {
+            this.getOrCreateCellImpl(colIndex).setPreparedValue(type, value, style);
+        }
+    }
+
+    /**
+     * Set a value and a style that was resolved for a whole column. See TableRowWriter.
+     *
+     * @param colIndex the index of the cell
+     * @param type     the type: date, float or percentage
+     * @param value    the value, or the epoch millis for a date
+     * @param style    the resolved style, may be null
+     */
+    void setPreparedValue(final int colIndex, final CellType type, final long value,
+                          final TableCellStyle style) {
+        this.checkNotSealed();
+        if (this.compactCells != null) {
+            this.compactCells.prepareCell(colIndex, style);
+            if (type == CellType.DATE) {
+                this.compactCells.setDateValue(colIndex, value);
+            } else {
+                this.compactCells.setLongValue(colIndex, type, value);
+            }
+        } else {
+            this.getOrCreateCellImpl(colIndex).setPreparedValue(type, value, style);
+        }
+    }
+
+    /**
+     * Set a value and a style that was resolved for a whole column. See TableRowWriter.
+     *
+     * @param colIndex the index of the cell
+     * @param type     the type: float or percentage
+     * @param value    the value
+     * @param style    the resolved style, may be null
+     */
+    void setPreparedValue(final int colIndex, final CellType type, final double value,
+                          final TableCellStyle style) {
+        this.checkNotSealed();
+        if (this.compactCells != null) {
+            this.compactCells.prepareCell(colIndex, style);
+            this.compactCells.setDoubleValue(colIndex, type, value);
+        } else {
+            this.getOrCreateCellImpl(colIndex).setPreparedValue(type, value, style);
+        }
+    }
+
+    /**
+     * Set a value and a style that was resolved for a whole column. See TableRowWriter.
+     *
+     * @param colIndex the index of the cell
+     * @param value    the value
+     * @param style    the resolved style, may be null
+     */
+    void setPreparedValue(final int colIndex, final boolean value, final TableCellStyle style) {
+        this.checkNotSealed();
+        if (this.compactCells != null) {
+            this.compactCells.prepareCell(colIndex, style);
+            this.compactCells.setBooleanValue(colIndex, value);
+        } else {
+            this.getOrCreateCellImpl(colIndex)
+                    .setPreparedValue(CellType.BOOLEAN, value ? "true" : "false", style);
+        }
+    }
+
+    /**
+     * @param colIndex  the index of the cell
+     * @param style     the parent style
+     * @param dataStyle the data style
+     * @return the child style, resolved once per table
+     */
+    TableCellStyle getChildCellStyle(final int colIndex, final TableCellStyle style,
+                                     final DataStyle dataStyle) {
+        return this.childStyles.getChildCellStyle(colIndex, style, dataStyle);
+    }
+
     @Override
     public void setRowStyle(final TableRowStyle rowStyle) {
+        this.checkNotSealed();
         rowStyle.addToContentStyles(this.stylesContainer);
         this.rowStyle = rowStyle;
         this.defaultCellStyle = rowStyle.getDefaultCellStyle();
@@ -268,6 +495,9 @@ public class TableRowImpl implements TableRow {
 
     @Override
     public int getColumnCount() {
+        if (this.compactCells != null) {
+            return this.compactCells.usedSize();
+        }
         return this.cells.usedSize();
     }
 
@@ -276,6 +506,9 @@ public class TableRowImpl implements TableRow {
      * @return true if the cell at the colIndex is covered by a span
      */
     public boolean isCovered(final int colIndex) {
+        if (this.compactCells != null) {
+            return this.compactCells.isCovered(colIndex);
+        }
         final TableCell cell = this.cells.get(colIndex);
         return cell != null && cell.isCovered();
     }
@@ -289,13 +522,18 @@ public class TableRowImpl implements TableRow {
     public TableCellStyle findDefaultCellStyle(final int columnIndex) {
         TableCellStyle s = this.defaultCellStyle;
         if (s == null) {
-            s = this.parentTable.findDefaultCellStyle(columnIndex);
+            if (this.columnDefaultCellStyles == null) {
+                s = this.parentTable.findDefaultCellStyle(columnIndex);
+            } else {
+                s = this.columnDefaultCellStyles.get(columnIndex);
+            }
         }
         return s;
     }
 
     @Override
     public void setDefaultCellStyle(final TableCellStyle ts) {
+        this.checkNotSealed();
         this.stylesContainer.addContentFontFaceContainerStyle(ts);
         this.defaultCellStyle = ts;
     }
@@ -307,6 +545,7 @@ public class TableRowImpl implements TableRow {
 
     @Override
     public void removeRowStyle() {
+        this.checkNotSealed();
         this.rowStyle = null;
     }
 }
\ No newline at end of file
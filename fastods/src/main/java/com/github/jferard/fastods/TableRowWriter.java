@@ -0,0 +1,313 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.style.TableCellStyle;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * A writer that appends typed rows to a table. The styles of the columns are resolved once,
+ * when the writer is created: the values are stored without any style lookup.
+ * <p>
+ * A row is either appended at once with addRow, or value by value with the add methods, and
+ * then ended with endRow. Missing values at the end of a row are left empty.
+ *
+ * @author J. Férard
+ */
+public final class TableRowWriter {
+    private final Table table;
+    private final ColumnSchema schema;
+    private final TableCellStyle[] styles;
+    private TableRowImpl row;
+    private int colIndex;
+
+    /**
+     * @param table  the table
+     * @param schema the schema
+     * @param styles the resolved styles of the columns
+     */
+    TableRowWriter(final Table table, final ColumnSchema schema,
+                   final TableCellStyle[] styles) {
+        this.table = table;
+        this.schema = schema;
+        this.styles = styles;
+        this.row = null;
+        this.colIndex = 0;
+    }
+
+    /**
+     * Add a value to a float or a percentage column of the current row
+     *
+     * @param value the value
+     * @return this for fluent style
+     * @throws IOException if the row can't be created
+     */
+    public TableRowWriter add(final double value) throws IOException {
+        final CellType type = this.getType();
+        if (type != CellType.FLOAT && type != CellType.PERCENTAGE) {
+            throw this.typeMismatch("a double");
+        }
+        final TableRowImpl curRow = this.getRow();
+        curRow.setPreparedValue(this.colIndex, type, value, this.styles[this.colIndex]);
+        this.colIndex++;
+        return this;
+    }
+
+    /**
+     * Add a value to a float or a percentage column, or the epoch millis to a date column
+     * of the current row
+     *
+     * @param value the value
+     * @return this for fluent style
+     * @throws IOException if the row can't be created
+     */
+    public TableRowWriter add(final long value) throws IOException {
+        final CellType type = this.getType();
+        if (type != CellType.FLOAT && type != CellType.PERCENTAGE && type != CellType.DATE) {
+            throw this.typeMismatch("a long");
+        }
+        final TableRowImpl curRow = this.getRow();
+        curRow.setPreparedValue(this.colIndex, type, value, this.styles[this.colIndex]);
+        this.colIndex++;
+        return this;
+    }
+
+    /**
+     * Add a value to a boolean column of the current row
+     *
+     * @param value the value
+     * @return this for fluent style
+     * @throws IOException if the row can't be created
+     */
+    public TableRowWriter add(final boolean value) throws IOException {
+        if (this.getType() != CellType.BOOLEAN) {
+            throw this.typeMismatch("a boolean");
+        }
+        final TableRowImpl curRow = this.getRow();
+        curRow.setPreparedValue(this.colIndex, value, this.styles[this.colIndex]);
+        this.colIndex++;
+        return this;
+    }
+
+    /**
+     * Add a value to a string column of the current row
+     *
+     * @param value the value, null for an empty cell
+     * @return this for fluent style
+     * @throws IOException if the row can't be created
+     */
+    public TableRowWriter add(final String value) throws IOException {
+        if (value == null) {
+            return this.addEmpty();
+        }
+        if (this.getType() != CellType.STRING) {
+            throw this.typeMismatch("a string");
+        }
+        final TableRowImpl curRow = this.getRow();
+        curRow.setPreparedValue(this.colIndex, CellType.STRING, value,
+                this.styles[this.colIndex]);
+        this.colIndex++;
+        return this;
+    }
+
+    /**
+     * Add a value to a date column of the current row
+     *
+     * @param value the value, null for an empty cell
+     * @return this for fluent style
+     * @throws IOException if the row can't be created
+     */
+    public TableRowWriter add(final Date value) throws IOException {
+        if (value == null) {
+            return this.addEmpty();
+        }
+        return this.addMillis(value.getTime());
+    }
+
+    /**
+     * Skip a column of the current row
+     *
+     * @return this for fluent style
+     * @throws IOException if the row can't be created
+     */
+    public TableRowWriter addEmpty() throws IOException {
+        this.getType();
+        this.getRow();
+        this.colIndex++;
+        return this;
+    }
+
+    /**
+     * End the current row. If no value was added, an empty row is created.
+     *
+     * @throws IOException if the row can't be created
+     */
+    public void endRow() throws IOException {
+        this.getRow();
+        this.row = null;
+        this.colIndex = 0;
+    }
+
+    /**
+     * Add the values to the current row and end the row.
+     * <ul>
+     * <li>a float or a percentage column accepts a Number;</li>
+     * <li>a date column accepts a Date, a Calendar or a Number (epoch millis);</li>
+     * <li>a boolean column accepts a Boolean;</li>
+     * <li>a string column accepts any object.</li>
+     * </ul>
+     * A null value gives an empty cell.
+     *
+     * @param values the values
+     * @throws IOException if the row can't be created
+     */
+    public void addRow(final Object... values) throws IOException {
+        for (final Object value : values) {
+            this.addObject(value);
+        }
+        this.endRow();
+    }
+
+    /**
+     * @param rows the rows
+     * @throws IOException if a row can't be created
+     */
+    public void addRows(final Object[][] rows) throws IOException {
+        for (final Object[] values : rows) {
+            this.addRow(values);
+        }
+    }
+
+    /**
+     * @param rows the rows
+     * @throws IOException if a row can't be created
+     */
+    public void addRows(final Iterable<Object[]> rows) throws IOException {
+        for (final Object[] values : rows) {
+            this.addRow(values);
+        }
+    }
+
+    private void addObject(final Object value) throws IOException {
+        if (value == null) {
+            this.addEmpty();
+            return;
+        }
+        switch (this.getType()) {
+            case FLOAT:
+            case PERCENTAGE:
+                this.addNumber(value);
+                break;
+            case DATE:
+                this.addDate(value);
+                break;
+            case BOOLEAN:
+                if (!(value instanceof Boolean)) {
+                    throw this.typeMismatch(value.getClass().getName());
+                }
+                this.add(((Boolean) value).booleanValue());
+                break;
+            default: // STRING
+                this.add(value.toString());
+                break;
+        }
+    }
+
+    private void addNumber(final Object value) throws IOException {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short ||
+                value instanceof Byte) {
+            this.add(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            this.add(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            final CellType type = this.getType();
+            final TableRowImpl curRow = this.getRow();
+            curRow.setPreparedValue(this.colIndex, type, value.toString(),
+                    this.styles[this.colIndex]);
+            this.colIndex++;
+        } else if (value instanceof Number) {
+            this.add(((Number) value).doubleValue());
+        } else {
+            throw this.typeMismatch(value.getClass().getName());
+        }
+    }
+
+    private void addDate(final Object value) throws IOException {
+        if (value instanceof Date) {
+            this.addMillis(((Date) value).getTime());
+        } else if (value instanceof Calendar) {
+            this.addMillis(((Calendar) value).getTimeInMillis());
+        } else if (value instanceof Number) {
+            this.addMillis(((Number) value).longValue());
+        } else {
+            throw this.typeMismatch(value.getClass().getName());
+        }
+    }
+
+    /**
+     * Add the epoch millis of a date to a date column of the current row. The add(long) method
+     * would accept a float column.
+     *
+     * @param millis the epoch millis
+     * @return this for fluent style
+     * @throws IOException if the row can't be created
+     */
+    private TableRowWriter addMillis(final long millis) throws IOException {
+        if (this.getType() != CellType.DATE) {
+            throw this.typeMismatch("a date");
+        }
+        final TableRowImpl curRow = this.getRow();
+        curRow.setPreparedValue(this.colIndex, CellType.DATE, millis,
+                this.styles[this.colIndex]);
+        this.colIndex++;
+        return this;
+    }
+
+    private TableRowImpl getRow() throws IOException {
+        if (this.row == null) {
+            this.row = this.table.getRow(this.table.getRowCount());
+        }
+        return this.row;
+    }
+
+    private CellType getType() {
+        if (this.colIndex >= this.schema.size()) {
+            throw new IllegalStateException(
+                    "The schema has only " + this.schema.size() + " columns");
+        }
+        return this.schema.getType(this.colIndex);
+    }
+
+    private IllegalArgumentException typeMismatch(final String valueType) {
+        return new IllegalArgumentException(
+                "Column " + this.colIndex + " has type " + this.schema.getType(this.colIndex) +
+                        ", can't add " + valueType);
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.FastUTF8Writer;
+import com.github.jferard.fastods.util.RawZipEntry;
+import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+
+import java.io.IOException;
+import java.util.zip.ZipEntry;
+
+/**
+ * The observer of a table that is filled concurrently with the other tables of a named document.
+ * The flushers of the table are written to a temporary file, the segment. The segments are copied
+ * to content.xml, in the order of the tables, when the document is saved.
+ *
+ * @author J. Férard
+ */
+public class TableSegment implements NamedOdsFileWriter {
+    /**
+     * @param xmlUtil an util, owned by the thread that fills the table (see XMLUtil.copy)
+     * @param policy  the policy for the temporary file (directory, compression)
+     * @return a new segment
+     * @throws IOException if the temporary file can't be created
+     */
+    public static TableSegment create(final XMLUtil xmlUtil, final DiskSpillPolicy policy)
+            throws IOException {
+        final SpilledRows rows = SpilledRows.create(policy);
+        return new TableSegment(xmlUtil, rows, new SegmentWriter(rows.getAppendable()));
+    }
+
+    private final XMLUtil xmlUtil;
+    private final SpilledRows rows;
+    private final ZipUTF8Writer writer;
+
+    /**
+     * @param xmlUtil an util, owned by the thread that fills the table
+     * @param rows    the temporary file
+     * @param writer  the writer on the temporary file
+     */
+    TableSegment(final XMLUtil xmlUtil, final SpilledRows rows, final ZipUTF8Writer writer) {
+        this.xmlUtil = xmlUtil;
+        this.rows = rows;
+        this.writer = writer;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * @return null: a segment is not bound to a document
+     */
+    @Override
+    public NamedOdsDocument document() {
+        return null;
+    }
+
+    @Override
+    public void save() {
+    }
+
+    @Override
+    public void update(final OdsAsyncFlusher flusher) throws IOException {
+        flusher.flushInto(this.xmlUtil, this.writer);
+    }
+
+    /**
+     * Copy the segment to the document and delete the temporary file.
+     *
+     * @param destination the writer of the document
+     * @throws IOException if an I/O error occurs
+     */
+    public void transferTo(final ZipUTF8Writer destination) throws IOException {
+        this.rows.transferTo(destination);
+    }
+
+    /**
+     * Delete the temporary file if the segment was not transferred.
+     *
+     * @throws IOException if the file can't be closed
+     */
+    public void delete() throws IOException {
+        this.rows.delete();
+    }
+
+    /**
+     * A ZipUTF8Writer that appends the XML of a table to the segment. There are no entries.
+     */
+    private static class SegmentWriter implements ZipUTF8Writer {
+        private final Appendable appendable;
+
+        SegmentWriter(final Appendable appendable) {
+            this.appendable = appendable;
+        }
+
+        @Override
+        public void closeEntry() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void finish() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void putNextEntry(final ZipEntry entry) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void putRawEntry(final String name, final RawZipEntry rawEntry) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setComment(final String comment) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void write(final CharSequence sequence) throws IOException {
+            this.appendable.append(sequence);
+        }
+
+        @Override
+        public void write(final byte[] bytes) throws IOException {
+            this.writeUTF8(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void writeUTF8(final byte[] bytes, final int off, final int len)
+                throws IOException {
+            if (this.appendable instanceof FastUTF8Writer) {
+                ((FastUTF8Writer) this.appendable).writeUTF8(bytes, off, len);
+            } else {
+                this.appendable.append(new String(bytes, off, len, ZipUTF8Writer.UTF_8));
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public Appendable append(final CharSequence csq) throws IOException {
+            this.appendable.append(csq);
+            return this;
+        }
+
+        @Override
+        public Appendable append(final CharSequence csq, final int start, final int end)
+                throws IOException {
+            this.appendable.append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        public Appendable append(final char c) throws IOException {
+            this.appendable.append(c);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.XmlByteWriter;
+
+/**
+ * The UTF-8 bytes of the tags and attribute names of the rows and cells, encoded once.
+ *
+ * @author J. Férard
+ * @see XmlByteWriter#write(byte[])
+ */
+final class TableTagBytes {
+    static final byte[] ROW_OPEN = XmlByteWriter.encode("<table:table-row");
+    static final byte[] ROW_CLOSE = XmlByteWriter.encode("</table:table-row>");
+    static final byte[] CELL_OPEN = XmlByteWriter.encode("<table:table-cell");
+    static final byte[] COVERED_CELL_OPEN = XmlByteWriter.encode("<table:covered-table-cell");
+    static final byte[] COLUMNS_REPEATED =
+            XmlByteWriter.encode(" table:number-columns-repeated=\"");
+    static final byte[] ROWS_REPEATED = XmlByteWriter.encode(" table:number-rows-repeated=\"");
+    static final byte[] EMPTY_TAG_END = XmlByteWriter.encode("/>");
+
+    private TableTagBytes() {
+    }
+}
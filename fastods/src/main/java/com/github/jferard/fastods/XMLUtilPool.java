@@ -0,0 +1,69 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.XMLUtil;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A pool of copies of an XMLUtil, for the worker threads.
+ * <p>
+ * The XMLUtil is not thread safe. A worker borrows a copy for the duration of a task and gives
+ * it back: there is at most one copy per busy worker, and the caches of the copies are reused
+ * from one chunk of rows to the next.
+ *
+ * @author J. Férard
+ */
+class XMLUtilPool {
+    private final XMLUtil xmlUtil;
+    private final Queue<XMLUtil> idleUtils;
+
+    /**
+     * @param xmlUtil the util to copy
+     */
+    XMLUtilPool(final XMLUtil xmlUtil) {
+        this.xmlUtil = xmlUtil;
+        this.idleUtils = new ConcurrentLinkedQueue<XMLUtil>();
+    }
+
+    /**
+     * @return an idle copy of the util, or a new copy
+     */
+    public XMLUtil borrow() {
+        final XMLUtil util = this.idleUtils.poll();
+        if (util == null) {
+            return this.xmlUtil.copy();
+        }
+        return util;
+    }
+
+    /**
+     * @param util a copy returned by borrow
+     */
+    public void giveBack(final XMLUtil util) {
+        this.idleUtils.offer(util);
+    }
+}
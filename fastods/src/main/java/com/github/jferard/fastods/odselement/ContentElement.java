@@ -23,7 +23,10 @@
 
 package com.github.jferard.fastods.odselement;
 
+import com.github.jferard.fastods.DiskSpillPolicy;
+import com.github.jferard.fastods.FlushPolicy;
 import com.github.jferard.fastods.Table;
+import com.github.jferard.fastods.TableSegment;
 import com.github.jferard.fastods.attribute.CellType;
 import com.github.jferard.fastods.datastyle.DataStyle;
 import com.github.jferard.fastods.datastyle.DataStyles;
@@ -40,6 +43,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.zip.ZipEntry;
 
 /**
@@ -57,6 +61,10 @@ public class ContentElement implements OdsElement {
     private final WriteUtil writeUtil;
     private final XMLUtil xmlUtil;
     private final boolean libreOfficeMode;
+    private final ExecutorService executor;
+    private final boolean compactRows;
+    private final DiskSpillPolicy spillPolicy;
+    private final FlushPolicy flushPolicy;
     private List<AutoFilter> autoFilters;
     private final List<ScriptEventListener> scriptEvents;
     private List<PilotTable> pilotTables;
@@ -68,16 +76,29 @@ public class ContentElement implements OdsElement {
      * @param format          the format for data styles
      * @param libreOfficeMode try to get full compatibility with LO if true
      * @param stylesContainer a styles container.
+     * @param executor        the executor that serializes the rows, or null to serialize the
+     *                        rows in the caller thread
+     * @param compactRows     true if the rows store their cells in compact arrays
+     * @param spillPolicy     the policy to spill the rows of an anonymous document to disk, or
+     *                        null
+     * @param flushPolicy     the policy to flush the rows of a named document, or null for the
+     *                        default policy
      */
     ContentElement(final PositionUtil positionUtil, final XMLUtil xmlUtil,
                    final WriteUtil writeUtil, final DataStyles format,
-                   final boolean libreOfficeMode, final StylesContainerImpl stylesContainer) {
+                   final boolean libreOfficeMode, final StylesContainerImpl stylesContainer,
+                   final ExecutorService executor, final boolean compactRows,
+                   final DiskSpillPolicy spillPolicy, final FlushPolicy flushPolicy) {
         this.writeUtil = writeUtil;
         this.xmlUtil = xmlUtil;
         this.positionUtil = positionUtil;
         this.format = format;
         this.libreOfficeMode = libreOfficeMode;
         this.stylesContainer = stylesContainer;
+        this.executor = executor;
+        this.compactRows = compactRows;
+        this.spillPolicy = spillPolicy;
+        this.flushPolicy = flushPolicy;
         this.tables = new UniqueList<Table>();
         this.flushPosition = new FlushPosition();
         this.scriptEvents = new ArrayList<ScriptEventListener>();
@@ -115,7 +136,8 @@ public class ContentElement implements OdsElement {
         if (table == null) {
             table = Table.create(this, this.positionUtil, this.writeUtil, this.xmlUtil, name,
                     rowCapacity, columnCapacity, this.stylesContainer, this.format,
-                    this.libreOfficeMode);
+                    this.libreOfficeMode, this.executor, this.compactRows, this.spillPolicy,
+                    this.flushPolicy);
             this.tables.add(table);
         }
         return table;
@@ -145,7 +167,38 @@ public class ContentElement implements OdsElement {
     public Table createTable(final String name, final int rowCapacity, final int columnCapacity) {
         return Table
                 .create(this, this.positionUtil, this.writeUtil, this.xmlUtil, name, rowCapacity,
-                        columnCapacity, this.stylesContainer, this.format, this.libreOfficeMode);
+                        columnCapacity, this.stylesContainer, this.format, this.libreOfficeMode,
+                        this.executor, this.compactRows, this.spillPolicy,
+                        this.flushPolicy);
+    }
+
+    /**
+     * Create a new table that will be filled concurrently with the other tables: the table has
+     * its own copy of the XML util, and a synchronized view on the styles container.
+     *
+     * @param name           the name of the new table
+     * @param rowCapacity    the row capacity
+     * @param columnCapacity the column capacity
+     * @return the newly created table
+     */
+    public Table createConcurrentTable(final String name, final int rowCapacity,
+                                       final int columnCapacity) {
+        return Table
+                .create(this, this.positionUtil, this.writeUtil, this.xmlUtil.copy(), name,
+                        rowCapacity, columnCapacity,
+                        new SynchronizedStylesContainer(this.stylesContainer), this.format,
+                        this.libreOfficeMode, this.executor, this.compactRows, this.spillPolicy,
+                        this.flushPolicy);
+    }
+
+    /**
+     * @return a new segment for a concurrent table, in the directory of the spill policy if any
+     * @throws IOException if the temporary file can't be created
+     */
+    public TableSegment createTableSegment() throws IOException {
+        final DiskSpillPolicy policy = this.spillPolicy == null ?
+                DiskSpillPolicy.create(Long.MAX_VALUE) : this.spillPolicy;
+        return TableSegment.create(this.xmlUtil.copy(), policy);
     }
 
     /**
@@ -28,9 +28,10 @@ import com.github.jferard.fastods.util.XMLUtil;
 import com.github.jferard.fastods.util.ZipUTF8Writer;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.zip.ZipEntry;
 
 /**
@@ -76,13 +77,16 @@ public class ManifestElement implements OdsElement {
         return new ManifestElement(ManifestElement.ENTRIES);
     }
 
-    private final List<ManifestEntry> manifestEntries;
+    private final Map<String, ManifestEntry> entryByFullPath;
 
     /**
      * @param initialEntries the first entries
      */
     ManifestElement(final List<ManifestEntry> initialEntries) {
-        this.manifestEntries = new ArrayList<ManifestEntry>(initialEntries);
+        this.entryByFullPath = new LinkedHashMap<String, ManifestEntry>();
+        for (final ManifestEntry entry : initialEntries) {
+            this.add(entry);
+        }
     }
 
     @Override
@@ -91,7 +95,7 @@ public class ManifestElement implements OdsElement {
         writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>" +
                 "<manifest:manifest xmlns:manifest=\"urn:oasis:names:tc:opendocument:xmlns" +
                 ":manifest:1.0\">");
-        for (final ManifestEntry entry : this.manifestEntries) {
+        for (final ManifestEntry entry : this.entryByFullPath.values()) {
             entry.appendXMLContent(util, writer);
         }
         writer.write("</manifest:manifest>");
@@ -100,9 +104,9 @@ public class ManifestElement implements OdsElement {
     }
 
     /**
-     * @param manifestEntry the new entry to add
+     * @param manifestEntry the new entry to add. It replaces an entry with the same path.
      */
     public void add(final ManifestEntry manifestEntry) {
-        this.manifestEntries.add(manifestEntry);
+        this.entryByFullPath.put(manifestEntry.getFullPath(), manifestEntry);
     }
 }
@@ -23,11 +23,15 @@
 
 package com.github.jferard.fastods.odselement;
 
+import com.github.jferard.fastods.DiskSpillPolicy;
 import com.github.jferard.fastods.FinalizeFlusher;
+import com.github.jferard.fastods.FlushPolicy;
 import com.github.jferard.fastods.ImmutableElementsFlusher;
 import com.github.jferard.fastods.NamedOdsFileWriter;
 import com.github.jferard.fastods.PrepareContentFlusher;
 import com.github.jferard.fastods.Table;
+import com.github.jferard.fastods.TableSegment;
+import com.github.jferard.fastods.TableSegmentFlusher;
 import com.github.jferard.fastods.attribute.CellType;
 import com.github.jferard.fastods.datastyle.DataStyle;
 import com.github.jferard.fastods.datastyle.DataStyles;
@@ -45,14 +49,17 @@ import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.util.AutoFilter;
 import com.github.jferard.fastods.util.Container;
 import com.github.jferard.fastods.util.PilotTable;
+import com.github.jferard.fastods.util.RawZipEntry;
 import com.github.jferard.fastods.util.WriteUtil;
 import com.github.jferard.fastods.util.XMLUtil;
 import com.github.jferard.fastods.util.ZipUTF8Writer;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.zip.ZipEntry;
@@ -94,11 +101,22 @@ public class OdsElements implements StylesContainer {
      * @param format          the data styles
      * @param libreOfficeMode try to get full compatibility with LO if true
      * @param metaElement
+     * @param executor        the executor that serializes the rows, or null to serialize the
+     *                        rows in the caller thread
+     * @param compactRows     true if the rows store their cells in compact arrays
+     * @param spillPolicy     the policy to spill the rows of an anonymous document to disk, or
+     *                        null
+     * @param flushPolicy     the policy to flush the rows of a named document, or null for the
+     *                        default policy
      * @return a new OdsElements, with newly build elements.
      */
     public static OdsElements create(final PositionUtil positionUtil, final XMLUtil xmlUtil,
                                      final WriteUtil writeUtil, final DataStyles format,
-                                     final boolean libreOfficeMode, final MetaElement metaElement) {
+                                     final boolean libreOfficeMode, final MetaElement metaElement,
+                                     final ExecutorService executor,
+                                     final boolean compactRows,
+                                     final DiskSpillPolicy spillPolicy,
+                                     final FlushPolicy flushPolicy) {
         final Logger logger = Logger.getLogger(OdsElements.class.getName());
         final MimetypeElement mimetypeElement = new MimetypeElement();
         final ManifestElement manifestElement = ManifestElement.create();
@@ -107,7 +125,7 @@ public class OdsElements implements StylesContainer {
         final StylesElement stylesElement = new StylesElement(stylesContainer);
         final ContentElement contentElement =
                 new ContentElement(positionUtil, xmlUtil, writeUtil, format, libreOfficeMode,
-                        stylesContainer);
+                        stylesContainer, executor, compactRows, spillPolicy, flushPolicy);
         return new OdsElements(logger, stylesContainer, mimetypeElement, manifestElement,
                 settingsElement, metaElement, contentElement, stylesElement);
     }
@@ -121,7 +139,14 @@ public class OdsElements implements StylesContainer {
     private final StylesContainerImpl stylesContainer;
     private final StylesElement stylesElement;
     private final Map<String, byte[]> extraFileByName;
+    private final Map<String, RawZipEntry> extraRawFileByName;
     private NamedOdsFileWriter observer;
+    private boolean contentPrepared;
+    /**
+     * The tables that have their own segment, and those segments, in the order of the document
+     */
+    private final List<Table> segmentedTables;
+    private final List<TableSegment> tableSegments;
 
     /**
      * Create a new instance from elements
@@ -148,6 +173,10 @@ public class OdsElements implements StylesContainer {
         this.stylesElement = stylesElement;
         this.stylesContainer = stylesContainer;
         this.extraFileByName = new HashMap<String, byte[]>();
+        this.extraRawFileByName = new HashMap<String, RawZipEntry>();
+        this.contentPrepared = false;
+        this.segmentedTables = new ArrayList<Table>();
+        this.tableSegments = new ArrayList<TableSegment>();
     }
 
     /**
@@ -260,6 +289,10 @@ public class OdsElements implements StylesContainer {
     public void createEmptyElements(final ZipUTF8Writer writer) throws IOException {
         this.logger.log(Level.FINER, "Writing empty ods elements to zip file");
         for (final String elementName : EMPTY_ELEMENT_NAMES) {
+            if (this.extraFileByName.containsKey(elementName) ||
+                    this.extraRawFileByName.containsKey(elementName)) {
+                continue; // will be written with the extra files
+            }
             this.logger.log(Level.FINEST, "Writing ods element: {0} to zip file", elementName);
             writer.putNextEntry(new ZipEntry(elementName));
             writer.closeEntry();
@@ -330,6 +363,55 @@ public class OdsElements implements StylesContainer {
         return this.contentElement.createTable(name, rowCapacity, columnCapacity);
     }
 
+    /**
+     * Create a new table that will be filled concurrently with the other tables.
+     *
+     * @param name           name of the table
+     * @param rowCapacity    estimated rows
+     * @param columnCapacity estimated columns
+     * @return the table
+     */
+    public Table createConcurrentTable(final String name, final int rowCapacity,
+                                       final int columnCapacity) {
+        return this.contentElement.createConcurrentTable(name, rowCapacity, columnCapacity);
+    }
+
+    /**
+     * Add a new table that will be filled concurrently to content. If the OdsElements is
+     * observed, the table is written to its own segment. The tables added after this table have
+     * their own segment too, to keep the order of the tables. The segments are copied to
+     * content.xml on save, after the styles.
+     *
+     * @param table the table, created by createConcurrentTable
+     * @return true if the table was added
+     * @throws IOException           if the OdsElements is observed and there is a write exception
+     * @throws IllegalStateException if the OdsElements is observed and a table was already
+     *                               written directly: the styles are already written, and the
+     *                               styles created by the concurrent table would be lost
+     */
+    public boolean addConcurrentTableToContent(final Table table) throws IOException {
+        if (this.observer != null && this.tableSegments.isEmpty() &&
+                this.contentElement.getLastTable() != null) {
+            throw new IllegalStateException(
+                    "A concurrent table must be added before any other table");
+        }
+        final boolean add = this.contentElement.addTable(table);
+        if (add) {
+            this.settingsElement.addTableConfig(table.getConfigEntry());
+            if (this.observer != null) {
+                this.addTableSegment(table);
+            }
+        }
+        return add;
+    }
+
+    private void addTableSegment(final Table table) throws IOException {
+        final TableSegment segment = this.contentElement.createTableSegment();
+        table.addObserver(segment);
+        this.segmentedTables.add(table);
+        this.tableSegments.add(segment);
+    }
+
 
     /**
      * flush everything up to the new table excluded: the previous table is async flushed. If there
@@ -340,9 +422,13 @@ public class OdsElements implements StylesContainer {
      */
     private void asyncFlushPreviousTable(final Table previousTable, final Table table)
             throws IOException {
+        if (!this.tableSegments.isEmpty()) {
+            this.addTableSegment(table);
+            return;
+        }
         table.addObserver(this.observer);
         if (previousTable == null) {
-            this.observer.update(new PrepareContentFlusher(this, this.contentElement));
+            this.asyncPrepareContent();
         } else {
             previousTable.asyncFlushEndTable();
         }
@@ -364,16 +450,56 @@ public class OdsElements implements StylesContainer {
      * @throws IOException if the write fails
      */
     public void saveAsync() throws IOException {
-        final Table previousTable = this.contentElement.getLastTable();
-        if (previousTable == null) {
-            this.observer.update(new PrepareContentFlusher(this, this.contentElement));
+        if (this.tableSegments.isEmpty()) {
+            final Table previousTable = this.contentElement.getLastTable();
+            if (previousTable == null) {
+                this.asyncPrepareContent();
+            } else {
+                previousTable.asyncFlushEndTable();
+            }
         } else {
-            previousTable.asyncFlushEndTable();
+            this.asyncFlushSegments();
         }
 
         this.observer.update(new FinalizeFlusher(this.contentElement, this));
     }
 
+    /**
+     * End the segmented tables, then copy the segments in order. If every table is segmented, the
+     * styles and the preamble of content.xml are written now, with all the styles of the tables.
+     */
+    private void asyncFlushSegments() throws IOException {
+        for (final Table table : this.segmentedTables) {
+            table.asyncFlushEndTable();
+        }
+        if (!this.contentPrepared) {
+            this.asyncPrepareContent();
+        }
+        for (final TableSegment segment : this.tableSegments) {
+            this.observer.update(new TableSegmentFlusher(segment));
+        }
+    }
+
+    /**
+     * Delete the temporary files of the spilled rows and of the segments. The files of a saved
+     * document are already deleted.
+     *
+     * @throws IOException if a file can't be closed
+     */
+    public void deleteTemporaryFiles() throws IOException {
+        for (final Table table : this.getTables()) {
+            table.deleteSpilledRows();
+        }
+        for (final TableSegment segment : this.tableSegments) {
+            segment.delete();
+        }
+    }
+
+    private void asyncPrepareContent() throws IOException {
+        this.observer.update(new PrepareContentFlusher(this, this.contentElement));
+        this.contentPrepared = true;
+    }
+
     /**
      * Write the content element to a writer.
      *
@@ -518,6 +644,20 @@ public class OdsElements implements StylesContainer {
         this.manifestElement.add(manifestEntry);
     }
 
+    /**
+     * Add an extra file that is copied from another zip file without being inflated.
+     *
+     * @param fullPath  the name of the file in the sequence
+     * @param mediaType the MIME type
+     * @param rawEntry  the zip entry to copy
+     */
+    public void addExtraRawFile(final String fullPath, final String mediaType,
+                                final RawZipEntry rawEntry) {
+        final ManifestEntry manifestEntry = new ManifestEntry(fullPath, mediaType, null);
+        this.extraRawFileByName.put(fullPath, rawEntry);
+        this.manifestElement.add(manifestEntry);
+    }
+
     /**
      * @param fullPath the path of the dir
      */
@@ -552,6 +692,11 @@ public class OdsElements implements StylesContainer {
             writer.write(entry.getValue());
             writer.closeEntry();
         }
+        for (final Map.Entry<String, RawZipEntry> entry : this.extraRawFileByName.entrySet()) {
+            final String elementName = entry.getKey();
+            this.logger.log(Level.FINEST, "Copying ods element: {0} to zip file", elementName);
+            writer.putRawEntry(elementName, entry.getValue());
+        }
     }
 
     /**
@@ -0,0 +1,156 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.odselement;
+
+import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.style.FontFaceContainerStyle;
+import com.github.jferard.fastods.style.MasterPageStyle;
+import com.github.jferard.fastods.style.ObjectStyle;
+import com.github.jferard.fastods.style.PageLayoutStyle;
+import com.github.jferard.fastods.style.PageStyle;
+import com.github.jferard.fastods.style.TableCellStyle;
+import com.github.jferard.fastods.util.Container;
+
+/**
+ * A view on the styles container of the document, for the tables that are filled concurrently.
+ * Every call is synchronized on the container.
+ *
+ * @author J. Férard
+ */
+class SynchronizedStylesContainer implements StylesContainer {
+    private final StylesContainer container;
+
+    /**
+     * @param container the container of the document
+     */
+    SynchronizedStylesContainer(final StylesContainer container) {
+        this.container = container;
+    }
+
+    @Override
+    public TableCellStyle addChildCellStyle(final TableCellStyle style,
+                                            final DataStyle dataStyle) {
+        synchronized (this.container) {
+            return this.container.addChildCellStyle(style, dataStyle);
+        }
+    }
+
+    @Override
+    public boolean addContentFontFaceContainerStyle(final FontFaceContainerStyle ffcStyle) {
+        synchronized (this.container) {
+            return this.container.addContentFontFaceContainerStyle(ffcStyle);
+        }
+    }
+
+    @Override
+    public boolean addStylesFontFaceContainerStyle(final FontFaceContainerStyle ffcStyle) {
+        synchronized (this.container) {
+            return this.container.addStylesFontFaceContainerStyle(ffcStyle);
+        }
+    }
+
+    @Override
+    public boolean addDataStyle(final DataStyle dataStyle) {
+        synchronized (this.container) {
+            return this.container.addDataStyle(dataStyle);
+        }
+    }
+
+    @Override
+    public boolean addMasterPageStyle(final MasterPageStyle masterPageStyle) {
+        synchronized (this.container) {
+            return this.container.addMasterPageStyle(masterPageStyle);
+        }
+    }
+
+    @Override
+    public boolean addNewDataStyleFromCellStyle(final TableCellStyle style) {
+        synchronized (this.container) {
+            return this.container.addNewDataStyleFromCellStyle(style);
+        }
+    }
+
+    @Override
+    public boolean addPageLayoutStyle(final PageLayoutStyle pageLayoutStyle) {
+        synchronized (this.container) {
+            return this.container.addPageLayoutStyle(pageLayoutStyle);
+        }
+    }
+
+    @Override
+    public boolean addPageStyle(final PageStyle ps) {
+        synchronized (this.container) {
+            return this.container.addPageStyle(ps);
+        }
+    }
+
+    @Override
+    public boolean addContentStyle(final ObjectStyle objectStyle) {
+        synchronized (this.container) {
+            return this.container.addContentStyle(objectStyle);
+        }
+    }
+
+    @Override
+    public boolean addStylesStyle(final ObjectStyle objectStyle) {
+        synchronized (this.container) {
+            return this.container.addStylesStyle(objectStyle);
+        }
+    }
+
+    @Override
+    public void setDataStylesMode(final Container.Mode mode) {
+        synchronized (this.container) {
+            this.container.setDataStylesMode(mode);
+        }
+    }
+
+    @Override
+    public void setMasterPageStyleMode(final Container.Mode mode) {
+        synchronized (this.container) {
+            this.container.setMasterPageStyleMode(mode);
+        }
+    }
+
+    @Override
+    public void setPageLayoutStyleMode(final Container.Mode mode) {
+        synchronized (this.container) {
+            this.container.setPageLayoutStyleMode(mode);
+        }
+    }
+
+    @Override
+    public void setPageStyleMode(final Container.Mode mode) {
+        synchronized (this.container) {
+            this.container.setPageStyleMode(mode);
+        }
+    }
+
+    @Override
+    public void setObjectStyleMode(final Container.Mode mode) {
+        synchronized (this.container) {
+            this.container.setObjectStyleMode(mode);
+        }
+    }
+}
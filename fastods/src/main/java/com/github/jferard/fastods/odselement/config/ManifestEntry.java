@@ -48,6 +48,13 @@ public class ManifestEntry implements XMLConvertible {
         this.version = version;
     }
 
+    /**
+     * @return the path
+     */
+    public String getFullPath() {
+        return this.fullPath.toString();
+    }
+
     @Override
     public void appendXMLContent(final XMLUtil util, final Appendable appendable)
             throws IOException {
@@ -0,0 +1,128 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.DataWrapper;
+import com.github.jferard.fastods.NamedOdsDocument;
+import com.github.jferard.fastods.Table;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * A helper to fill several tables of a named document concurrently, e.g. to export several
+ * queries to separate sheets: every data wrapper is added to its own concurrent table by a task
+ * of the executor.
+ * <p>
+ * Call fill from one thread, then await, then save the document.
+ *
+ * @author J. Férard
+ */
+public class ConcurrentTableFiller {
+    /**
+     * @param document the document
+     * @param executor the executor of the tasks, with one thread per table for a full
+     *                 concurrency. If the data wrappers prefetch their rows, use another executor
+     *                 for the prefetchers.
+     * @return a new filler
+     */
+    public static ConcurrentTableFiller create(final NamedOdsDocument document,
+                                               final ExecutorService executor) {
+        return new ConcurrentTableFiller(document, executor);
+    }
+
+    private final NamedOdsDocument document;
+    private final ExecutorService executor;
+    private final List<Future<Boolean>> futures;
+
+    /**
+     * @param document the document
+     * @param executor the executor of the tasks
+     */
+    public ConcurrentTableFiller(final NamedOdsDocument document,
+                                 final ExecutorService executor) {
+        this.document = document;
+        this.executor = executor;
+        this.futures = new ArrayList<Future<Boolean>>();
+    }
+
+    /**
+     * Add a concurrent table and submit the task that fills it with the data.
+     *
+     * @param name the name of the table
+     * @param data the data
+     * @return the table, or null if a table with this name exists
+     * @throws IOException if the table can't be created
+     */
+    public Table fill(final String name, final DataWrapper data) throws IOException {
+        final Table table = this.document.addConcurrentTable(name);
+        if (table == null) {
+            return null;
+        }
+        this.futures.add(this.executor.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws IOException {
+                return data.addToTable(table.getWalker());
+            }
+        }));
+        return table;
+    }
+
+    /**
+     * Wait for all the tasks. The first error is rethrown, after all the tasks are done.
+     *
+     * @throws IOException if a task failed with an IOException or was interrupted
+     */
+    public void await() throws IOException {
+        Throwable error = null;
+        for (final Future<Boolean> future : this.futures) {
+            try {
+                future.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the tables");
+            } catch (final ExecutionException e) {
+                if (error == null) {
+                    error = e.getCause();
+                }
+            }
+        }
+        this.futures.clear();
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        } else if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        } else if (error != null) {
+            throw new IOException(error);
+        }
+    }
+}
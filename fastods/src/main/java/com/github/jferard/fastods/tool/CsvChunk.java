@@ -0,0 +1,142 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import java.util.Arrays;
+
+/**
+ * The parsed records of a chunk of a CSV file. Every field has a kind, a primitive value
+ * (a long, the raw bits of a double or the epoch millis of a date) and, for strings, an
+ * object.
+ *
+ * @author J. Férard
+ */
+final class CsvChunk {
+    static final byte EMPTY = 0;
+    static final byte LONG = 1;
+    static final byte DOUBLE = 2;
+    static final byte PERCENTAGE = 3;
+    static final byte DATE = 4;
+    static final byte BOOLEAN = 5;
+    static final byte STRING = 6;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private byte[] kinds;
+    private long[] values;
+    private String[] strings;
+    private int fieldCount;
+    private int[] recordEnds;
+    private int recordCount;
+
+    /**
+     * Create an empty chunk
+     */
+    CsvChunk() {
+        this.kinds = new byte[DEFAULT_CAPACITY];
+        this.values = new long[DEFAULT_CAPACITY];
+        this.strings = new String[DEFAULT_CAPACITY];
+        this.recordEnds = new int[DEFAULT_CAPACITY];
+        this.fieldCount = 0;
+        this.recordCount = 0;
+    }
+
+    /**
+     * Add a field to the current record
+     *
+     * @param kind  the kind of the field
+     * @param value the primitive value
+     * @param str   the string value, or null
+     */
+    void addField(final byte kind, final long value, final String str) {
+        if (this.fieldCount == this.kinds.length) {
+            final int capacity = this.fieldCount * 2;
+            this.kinds = Arrays.copyOf(this.kinds, capacity);
+            this.values = Arrays.copyOf(this.values, capacity);
+            this.strings = Arrays.copyOf(this.strings, capacity);
+        }
+        this.kinds[this.fieldCount] = kind;
+        this.values[this.fieldCount] = value;
+        this.strings[this.fieldCount] = str;
+        this.fieldCount++;
+    }
+
+    /**
+     * End the current record
+     */
+    void endRecord() {
+        if (this.recordCount == this.recordEnds.length) {
+            this.recordEnds = Arrays.copyOf(this.recordEnds, this.recordCount * 2);
+        }
+        this.recordEnds[this.recordCount] = this.fieldCount;
+        this.recordCount++;
+    }
+
+    /**
+     * @return the number of records
+     */
+    int getRecordCount() {
+        return this.recordCount;
+    }
+
+    /**
+     * @param r the index of the record
+     * @return the index of the first field of the record
+     */
+    int getRecordStart(final int r) {
+        return r == 0 ? 0 : this.recordEnds[r - 1];
+    }
+
+    /**
+     * @param r the index of the record
+     * @return the index of the field after the last field of the record
+     */
+    int getRecordEnd(final int r) {
+        return this.recordEnds[r];
+    }
+
+    /**
+     * @param f the index of the field
+     * @return the kind of the field
+     */
+    byte getKind(final int f) {
+        return this.kinds[f];
+    }
+
+    /**
+     * @param f the index of the field
+     * @return the primitive value of the field
+     */
+    long getValue(final int f) {
+        return this.values[f];
+    }
+
+    /**
+     * @param f the index of the field
+     * @return the string value of the field
+     */
+    String getString(final int f) {
+        return this.strings[f];
+    }
+}
@@ -0,0 +1,372 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.ColumnSchema;
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.util.DateAppender;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+/**
+ * A parser for a chunk of a CSV file. The chunk starts and ends on a record boundary. The
+ * parser splits the records, unquotes the fields and gives every field a kind: with a schema,
+ * the kind is the type of the column, without a schema, the kind is inferred from the field
+ * (integer, decimal, percentage, ISO date or string).
+ *
+ * @author J. Férard
+ */
+class CsvChunkParser implements Callable<CsvChunk> {
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private final ByteBuffer buffer;
+    private final long offset;
+    private final byte delimiter;
+    private final byte quote;
+    private final Charset charset;
+    private final ColumnSchema schema;
+    private final boolean firstRecordIsHeader;
+    private byte[] field;
+    private int fieldLength;
+    private long parsedLong;
+    private double parsedDouble;
+
+    /**
+     * @param buffer              the chunk
+     * @param offset              the offset of the chunk in the file, for the error messages
+     * @param delimiter           the field delimiter, an ASCII char
+     * @param quote               the quote char, an ASCII char
+     * @param charset             the charset of the file, ASCII compatible
+     * @param schema              the schema, or null to infer the kinds
+     * @param firstRecordIsHeader true if the first record is a header: every field is a string
+     */
+    CsvChunkParser(final ByteBuffer buffer, final long offset, final byte delimiter,
+                   final byte quote, final Charset charset, final ColumnSchema schema,
+                   final boolean firstRecordIsHeader) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.delimiter = delimiter;
+        this.quote = quote;
+        this.charset = charset;
+        this.schema = schema;
+        this.firstRecordIsHeader = firstRecordIsHeader;
+        this.field = new byte[256];
+    }
+
+    @Override
+    public CsvChunk call() {
+        final CsvChunk chunk = new CsvChunk();
+        final ByteBuffer buf = this.buffer;
+        final int limit = buf.limit();
+        boolean header = this.firstRecordIsHeader;
+        boolean inQuotes = false;
+        boolean pendingRecord = false;
+        int recordStart = 0;
+        int col = 0;
+        this.fieldLength = 0;
+        int i = 0;
+        while (i < limit) {
+            final byte b = buf.get(i++);
+            if (inQuotes) {
+                if (b == this.quote) {
+                    if (i < limit && buf.get(i) == this.quote) {
+                        this.append(b);
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    this.append(b);
+                }
+            } else if (b == this.quote) {
+                inQuotes = true;
+                pendingRecord = true;
+            } else if (b == this.delimiter) {
+                this.endField(chunk, header, col++, recordStart);
+                pendingRecord = true;
+            } else if (b == '\n') {
+                this.endField(chunk, header, col, recordStart);
+                chunk.endRecord();
+                header = false;
+                pendingRecord = false;
+                recordStart = i;
+                col = 0;
+            } else if (b != '\r' || i >= limit || buf.get(i) != '\n') {
+                this.append(b);
+                pendingRecord = true;
+            }
+        }
+        if (pendingRecord || this.fieldLength > 0) { // no new line at the end of the file
+            this.endField(chunk, header, col, recordStart);
+            chunk.endRecord();
+        }
+        return chunk;
+    }
+
+    private void append(final byte b) {
+        if (this.fieldLength == this.field.length) {
+            this.field = Arrays.copyOf(this.field, this.fieldLength * 2);
+        }
+        this.field[this.fieldLength++] = b;
+    }
+
+    private void endField(final CsvChunk chunk, final boolean header, final int col,
+                          final int recordStart) {
+        if (this.fieldLength == 0) {
+            chunk.addField(CsvChunk.EMPTY, 0, null);
+        } else if (header) {
+            chunk.addField(CsvChunk.STRING, 0, this.fieldAsString());
+        } else if (this.schema == null) {
+            this.addInferredField(chunk);
+        } else if (col < this.schema.size()) {
+            this.addTypedField(chunk, this.schema.getType(col), recordStart);
+        } else { // the row writer will reject the field
+            chunk.addField(CsvChunk.STRING, 0, this.fieldAsString());
+        }
+        this.fieldLength = 0;
+    }
+
+    private void addInferredField(final CsvChunk chunk) {
+        final int len = this.fieldLength;
+        if (this.parseLong(0, len)) {
+            chunk.addField(CsvChunk.LONG, this.parsedLong, null);
+        } else if (this.parseDouble(0, len)) {
+            chunk.addField(CsvChunk.DOUBLE, Double.doubleToRawLongBits(this.parsedDouble), null);
+        } else if (this.parsePercentage()) {
+            chunk.addField(CsvChunk.PERCENTAGE, Double.doubleToRawLongBits(this.parsedDouble),
+                    null);
+        } else if (this.parseDate()) {
+            chunk.addField(CsvChunk.DATE, this.parsedLong, null);
+        } else {
+            chunk.addField(CsvChunk.STRING, 0, this.fieldAsString());
+        }
+    }
+
+    private void addTypedField(final CsvChunk chunk, final CellType type,
+                               final int recordStart) {
+        final int len = this.fieldLength;
+        switch (type) {
+            case FLOAT:
+                if (this.parseLong(0, len)) {
+                    chunk.addField(CsvChunk.LONG, this.parsedLong, null);
+                    return;
+                } else if (this.parseDouble(0, len)) {
+                    chunk.addField(CsvChunk.DOUBLE,
+                            Double.doubleToRawLongBits(this.parsedDouble), null);
+                    return;
+                }
+                break;
+            case PERCENTAGE:
+                if (this.parsePercentage() || this.parseDouble(0, len)) {
+                    chunk.addField(CsvChunk.PERCENTAGE,
+                            Double.doubleToRawLongBits(this.parsedDouble), null);
+                    return;
+                }
+                break;
+            case DATE:
+                if (this.parseDate()) {
+                    chunk.addField(CsvChunk.DATE, this.parsedLong, null);
+                    return;
+                }
+                break;
+            case BOOLEAN:
+                final String str = this.fieldAsString();
+                if (str.equalsIgnoreCase("true") || str.equals("1")) {
+                    chunk.addField(CsvChunk.BOOLEAN, 1, null);
+                    return;
+                } else if (str.equalsIgnoreCase("false") || str.equals("0")) {
+                    chunk.addField(CsvChunk.BOOLEAN, 0, null);
+                    return;
+                }
+                break;
+            default: // STRING
+                chunk.addField(CsvChunk.STRING, 0, this.fieldAsString());
+                return;
+        }
+        throw new IllegalArgumentException(
+                "Can't parse " + this.fieldAsString() + " as " + type + " in the record at byte " +
+                        (this.offset + recordStart));
+    }
+
+    private String fieldAsString() {
+        return new String(this.field, 0, this.fieldLength, this.charset);
+    }
+
+    /**
+     * [+-]?[0-9]{1,18}
+     */
+    private boolean parseLong(final int start, final int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (this.field[i] == '-' || this.field[i] == '+')) {
+            negative = this.field[i] == '-';
+            i++;
+        }
+        if (i == end || end - i > MAX_LONG_DIGITS) {
+            return false;
+        }
+        long value = 0;
+        while (i < end) {
+            final int digit = this.field[i++] - '0';
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            value = value * 10 + digit;
+        }
+        this.parsedLong = negative ? -value : value;
+        return true;
+    }
+
+    /**
+     * [+-]?[0-9]*(\.[0-9]*)?([eE][+-]?[0-9]+)? with at least one digit before the exponent
+     */
+    private boolean parseDouble(final int start, final int end) {
+        int i = start;
+        if (i < end && (this.field[i] == '-' || this.field[i] == '+')) {
+            i++;
+        }
+        int digits = 0;
+        while (i < end && this.isDigit(i)) {
+            i++;
+            digits++;
+        }
+        if (i < end && this.field[i] == '.') {
+            i++;
+            while (i < end && this.isDigit(i)) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < end && (this.field[i] == 'e' || this.field[i] == 'E')) {
+            i++;
+            if (i < end && (this.field[i] == '-' || this.field[i] == '+')) {
+                i++;
+            }
+            if (i == end) {
+                return false;
+            }
+            while (i < end && this.isDigit(i)) {
+                i++;
+            }
+        }
+        if (i != end) {
+            return false;
+        }
+        this.parsedDouble =
+                Double.parseDouble(new String(this.field, start, end - start, US_ASCII));
+        return true;
+    }
+
+    /**
+     * a number followed by %
+     */
+    private boolean parsePercentage() {
+        final int end = this.fieldLength - 1;
+        if (end <= 0 || this.field[end] != '%') {
+            return false;
+        }
+        if (this.parseLong(0, end)) {
+            this.parsedDouble = this.parsedLong / 100.0;
+            return true;
+        } else if (this.parseDouble(0, end)) {
+            this.parsedDouble = this.parsedDouble / 100.0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * yyyy-MM-dd, yyyy-MM-dd HH:mm:ss or yyyy-MM-ddTHH:mm:ss, optionally followed by .SSS
+     */
+    private boolean parseDate() {
+        final int len = this.fieldLength;
+        if (len != 10 && len != 19 && len != 23) {
+            return false;
+        }
+        if (this.field[4] != '-' || this.field[7] != '-') {
+            return false;
+        }
+        final int year = this.digits(0, 4);
+        final int month = this.digits(5, 7);
+        final int day = this.digits(8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return false;
+        }
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        int millis = 0;
+        if (len >= 19) {
+            if ((this.field[10] != ' ' && this.field[10] != 'T') || this.field[13] != ':' ||
+                    this.field[16] != ':') {
+                return false;
+            }
+            hour = this.digits(11, 13);
+            minute = this.digits(14, 16);
+            second = this.digits(17, 19);
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 ||
+                    second > 59) {
+                return false;
+            }
+            if (len == 23) {
+                if (this.field[19] != '.') {
+                    return false;
+                }
+                millis = this.digits(20, 23);
+                if (millis < 0) {
+                    return false;
+                }
+            }
+        }
+        this.parsedLong =
+                DateAppender.toEpochMillis(year, month, day, hour, minute, second, millis);
+        return true;
+    }
+
+    /**
+     * @return the value of the digits, or -1
+     */
+    private int digits(final int start, final int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            if (!this.isDigit(i)) {
+                return -1;
+            }
+            value = value * 10 + this.field[i] - '0';
+        }
+        return value;
+    }
+
+    private boolean isDigit(final int i) {
+        final byte b = this.field[i];
+        return '0' <= b && b <= '9';
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.ColumnSchema;
+import com.github.jferard.fastods.Table;
+import com.github.jferard.fastods.TableCell;
+import com.github.jferard.fastods.TableRowImpl;
+import com.github.jferard.fastods.TableRowWriter;
+import com.github.jferard.fastods.style.TableCellStyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A converter from a CSV file to a table. The file is memory-mapped and split in chunks at
+ * record boundaries; the chunks are parsed in parallel, and the records are written to the table
+ * in order, by the caller thread. The number of chunks in memory is bounded, hence a large
+ * file should be converted to a table of a named document: the rows are flushed as they are
+ * written.
+ * <pre>
+ *     final NamedOdsFileWriter writer = odsFactory.createWriter(odsFile);
+ *     final NamedOdsDocument document = writer.document();
+ *     CsvToOdsConverter.builder().build().convert(csvFile, document.addTable("data"));
+ *     document.save();
+ *     writer.close();
+ * </pre>
+ * Without a schema, the type of every field is inferred: integer, decimal, percentage (a number
+ * followed by %), ISO date (yyyy-MM-dd, with an optional time HH:mm:ss[.SSS]) or string.
+ * With a schema, every field is parsed according to the type of its column.
+ *
+ * @author J. Férard
+ */
+public class CsvToOdsConverter {
+    /**
+     * The size of the windows used to find the end of a chunk
+     */
+    private static final int SCAN_WINDOW_SIZE = 64 * 1024;
+
+    /**
+     * @return a builder
+     */
+    public static CsvToOdsConverterBuilder builder() {
+        return new CsvToOdsConverterBuilder();
+    }
+
+    private final byte delimiter;
+    private final byte quote;
+    private final Charset charset;
+    private final boolean header;
+    private final TableCellStyle headerStyle;
+    private final ColumnSchema schema;
+    private final int chunkSize;
+    private final ExecutorService executor;
+    private final int maxPendingChunks;
+
+    /**
+     * @param delimiter        the field delimiter, an ASCII char
+     * @param quote            the quote char, an ASCII char
+     * @param charset          the charset of the file, ASCII compatible
+     * @param header           true if the first record is a header
+     * @param headerStyle      the style of the header, or null
+     * @param schema           the schema, or null to infer the types
+     * @param chunkSize        the approximate size of the chunks, in bytes
+     * @param executor         the executor of the parsers, or null to use a pool of one thread
+     *                         per processor
+     * @param maxPendingChunks the maximum number of chunks parsed and not written
+     */
+    public CsvToOdsConverter(final byte delimiter, final byte quote, final Charset charset,
+                             final boolean header, final TableCellStyle headerStyle,
+                             final ColumnSchema schema, final int chunkSize,
+                             final ExecutorService executor, final int maxPendingChunks) {
+        this.delimiter = delimiter;
+        this.quote = quote;
+        this.charset = charset;
+        this.header = header;
+        this.headerStyle = headerStyle;
+        this.schema = schema;
+        this.chunkSize = chunkSize;
+        this.executor = executor;
+        this.maxPendingChunks = maxPendingChunks;
+    }
+
+    /**
+     * Convert a CSV file. The records are appended to the table, starting at the current row.
+     *
+     * @param csvFile the CSV file
+     * @param table   the destination
+     * @return the number of records, header excluded
+     * @throws IOException              if the file can't be read or the table can't be written
+     * @throws IllegalArgumentException if a field doesn't match the type of its column
+     * @throws IllegalStateException    if a record has more fields than the schema
+     */
+    public int convert(final File csvFile, final Table table) throws IOException {
+        final ExecutorService curExecutor;
+        if (this.executor == null) {
+            curExecutor =
+                    Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        } else {
+            curExecutor = this.executor;
+        }
+        final RandomAccessFile file = new RandomAccessFile(csvFile, "r");
+        final Queue<Future<CsvChunk>> pendingChunks = new LinkedList<Future<CsvChunk>>();
+        try {
+            return this.convert(file.getChannel(), table, curExecutor, pendingChunks);
+        } finally {
+            for (final Future<CsvChunk> pendingChunk : pendingChunks) {
+                pendingChunk.cancel(true);
+            }
+            if (this.executor == null) {
+                curExecutor.shutdownNow();
+            }
+            file.close();
+        }
+    }
+
+    private int convert(final FileChannel channel, final Table table,
+                        final ExecutorService curExecutor,
+                        final Queue<Future<CsvChunk>> pendingChunks) throws IOException {
+        final TableRowWriter rowWriter = this.schema == null ? null : table.rowWriter(this.schema);
+        final long size = channel.size();
+        long start = 0;
+        boolean headerPending = this.header;
+        int recordCount = 0;
+        while (start < size || !pendingChunks.isEmpty()) {
+            while (start < size && pendingChunks.size() < this.maxPendingChunks) {
+                final long end = this.findChunkEnd(channel, start, size);
+                final MappedByteBuffer buffer =
+                        channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                pendingChunks.add(curExecutor.submit(
+                        new CsvChunkParser(buffer, start, this.delimiter, this.quote,
+                                this.charset, this.schema, start == 0 && this.header)));
+                start = end;
+            }
+            final CsvChunk chunk = this.getChunk(pendingChunks.remove());
+            int r = 0;
+            if (headerPending && chunk.getRecordCount() > 0) {
+                this.writeHeader(table, chunk);
+                headerPending = false;
+                r = 1;
+            }
+            for (; r < chunk.getRecordCount(); r++) {
+                if (rowWriter == null) {
+                    this.writeRecord(table.getRow(table.getRowCount()), chunk, r);
+                } else {
+                    this.writeRecord(rowWriter, chunk, r);
+                }
+                recordCount++;
+            }
+        }
+        return recordCount;
+    }
+
+    /**
+     * @return the position after the first new line outside of quotes after start + chunkSize,
+     * or the size of the file.
+     */
+    private long findChunkEnd(final FileChannel channel, final long start, final long size)
+            throws IOException {
+        final long target = start + this.chunkSize;
+        if (target >= size) {
+            return size;
+        }
+        final MappedByteBuffer chunk =
+                channel.map(FileChannel.MapMode.READ_ONLY, start, this.chunkSize);
+        boolean inQuotes = false;
+        for (int i = 0; i < this.chunkSize; i++) {
+            if (chunk.get(i) == this.quote) {
+                inQuotes = !inQuotes;
+            }
+        }
+        long pos = target;
+        while (pos < size) {
+            final int windowSize = (int) Math.min(SCAN_WINDOW_SIZE, size - pos);
+            final MappedByteBuffer window =
+                    channel.map(FileChannel.MapMode.READ_ONLY, pos, windowSize);
+            for (int i = 0; i < windowSize; i++) {
+                final byte b = window.get(i);
+                if (b == this.quote) {
+                    inQuotes = !inQuotes;
+                } else if (b == '\n' && !inQuotes) {
+                    return pos + i + 1;
+                }
+            }
+            pos += windowSize;
+        }
+        return size;
+    }
+
+    private CsvChunk getChunk(final Future<CsvChunk> pendingChunk) throws IOException {
+        try {
+            return pendingChunk.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while parsing the CSV file");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    private void writeHeader(final Table table, final CsvChunk chunk) throws IOException {
+        final TableRowImpl row = table.getRow(table.getRowCount());
+        final int recordStart = chunk.getRecordStart(0);
+        final int recordEnd = chunk.getRecordEnd(0);
+        for (int f = recordStart; f < recordEnd; f++) {
+            final TableCell cell = row.getOrCreateCell(f - recordStart);
+            if (chunk.getKind(f) == CsvChunk.STRING) {
+                cell.setStringValue(chunk.getString(f));
+            }
+            if (this.headerStyle != null) {
+                cell.setStyle(this.headerStyle);
+            }
+        }
+    }
+
+    private void writeRecord(final TableRowImpl row, final CsvChunk chunk, final int r) {
+        final int recordStart = chunk.getRecordStart(r);
+        final int recordEnd = chunk.getRecordEnd(r);
+        for (int f = recordStart; f < recordEnd; f++) {
+            final byte kind = chunk.getKind(f);
+            if (kind == CsvChunk.EMPTY) {
+                continue;
+            }
+            final TableCell cell = row.getOrCreateCell(f - recordStart);
+            switch (kind) {
+                case CsvChunk.LONG:
+                    cell.setFloatValue(chunk.getValue(f));
+                    break;
+                case CsvChunk.DOUBLE:
+                    cell.setFloatValue(Double.longBitsToDouble(chunk.getValue(f)));
+                    break;
+                case CsvChunk.PERCENTAGE:
+                    cell.setPercentageValue(Double.longBitsToDouble(chunk.getValue(f)));
+                    break;
+                case CsvChunk.DATE:
+                    cell.setDateValue(chunk.getValue(f));
+                    break;
+                case CsvChunk.BOOLEAN:
+                    cell.setBooleanValue(chunk.getValue(f) != 0);
+                    break;
+                default: // STRING
+                    cell.setStringValue(chunk.getString(f));
+                    break;
+            }
+        }
+    }
+
+    private void writeRecord(final TableRowWriter rowWriter, final CsvChunk chunk, final int r)
+            throws IOException {
+        final int recordEnd = chunk.getRecordEnd(r);
+        for (int f = chunk.getRecordStart(r); f < recordEnd; f++) {
+            switch (chunk.getKind(f)) {
+                case CsvChunk.EMPTY:
+                    rowWriter.addEmpty();
+                    break;
+                case CsvChunk.LONG:
+                case CsvChunk.DATE:
+                    rowWriter.add(chunk.getValue(f));
+                    break;
+                case CsvChunk.DOUBLE:
+                case CsvChunk.PERCENTAGE:
+                    rowWriter.add(Double.longBitsToDouble(chunk.getValue(f)));
+                    break;
+                case CsvChunk.BOOLEAN:
+                    rowWriter.add(chunk.getValue(f) != 0);
+                    break;
+                default: // STRING
+                    rowWriter.add(chunk.getString(f));
+                    break;
+            }
+        }
+        rowWriter.endRow();
+    }
+}
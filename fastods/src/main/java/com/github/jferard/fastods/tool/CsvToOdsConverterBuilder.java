@@ -0,0 +1,168 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.ColumnSchema;
+import com.github.jferard.fastods.style.TableCellStyle;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A builder for a CsvToOdsConverter
+ *
+ * @author J. Férard
+ */
+public class CsvToOdsConverterBuilder {
+    private static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private char delimiter;
+    private char quote;
+    private Charset charset;
+    private boolean header;
+    private TableCellStyle headerStyle;
+    private ColumnSchema schema;
+    private int chunkSize;
+    private ExecutorService executor;
+    private int maxPendingChunks;
+
+    /**
+     * Create a new builder: comma separated, double quotes, UTF-8, one header line, inferred
+     * types, chunks of 8 MB.
+     */
+    public CsvToOdsConverterBuilder() {
+        this.delimiter = ',';
+        this.quote = '"';
+        this.charset = ZipUTF8Writer.UTF_8;
+        this.header = true;
+        this.headerStyle = null;
+        this.schema = null;
+        this.chunkSize = DEFAULT_CHUNK_SIZE;
+        this.executor = null;
+        this.maxPendingChunks = 2 * Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * @param delimiter the field delimiter, an ASCII char
+     * @return this for fluent style
+     */
+    public CsvToOdsConverterBuilder delimiter(final char delimiter) {
+        this.delimiter = this.checkAscii(delimiter);
+        return this;
+    }
+
+    /**
+     * @param quote the quote char, an ASCII char
+     * @return this for fluent style
+     */
+    public CsvToOdsConverterBuilder quote(final char quote) {
+        this.quote = this.checkAscii(quote);
+        return this;
+    }
+
+    /**
+     * @param charset the charset of the file. Must be ASCII compatible (UTF-8, ISO-8859-1, ...)
+     * @return this for fluent style
+     */
+    public CsvToOdsConverterBuilder charset(final Charset charset) {
+        this.charset = charset;
+        return this;
+    }
+
+    /**
+     * The first record is a record, not a header
+     *
+     * @return this for fluent style
+     */
+    public CsvToOdsConverterBuilder noHeader() {
+        this.header = false;
+        return this;
+    }
+
+    /**
+     * @param headerStyle the style of the header cells
+     * @return this for fluent style
+     */
+    public CsvToOdsConverterBuilder headerStyle(final TableCellStyle headerStyle) {
+        this.headerStyle = headerStyle;
+        return this;
+    }
+
+    /**
+     * Set the types and styles of the columns, instead of inferring the type of every field.
+     *
+     * @param schema the schema
+     * @return this for fluent style
+     */
+    public CsvToOdsConverterBuilder schema(final ColumnSchema schema) {
+        this.schema = schema;
+        return this;
+    }
+
+    /**
+     * @param chunkSize the approximate size of the chunks parsed in parallel, in bytes
+     * @return this for fluent style
+     */
+    public CsvToOdsConverterBuilder chunkSize(final int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size should be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * @param executor         the executor of the parsers. Default is a pool of one thread per
+     *                         processor, created and shut down by every conversion
+     * @param maxPendingChunks the maximum number of chunks parsed and not written yet
+     * @return this for fluent style
+     */
+    public CsvToOdsConverterBuilder executor(final ExecutorService executor,
+                                             final int maxPendingChunks) {
+        if (maxPendingChunks <= 0) {
+            throw new IllegalArgumentException(
+                    "Max pending chunks should be positive: " + maxPendingChunks);
+        }
+        this.executor = executor;
+        this.maxPendingChunks = maxPendingChunks;
+        return this;
+    }
+
+    /**
+     * @return the converter
+     */
+    public CsvToOdsConverter build() {
+        return new CsvToOdsConverter((byte) this.delimiter, (byte) this.quote, this.charset,
+                this.header, this.headerStyle, this.schema, this.chunkSize, this.executor,
+                this.maxPendingChunks);
+    }
+
+    private char checkAscii(final char c) {
+        if (c >= 128 || c == '\n' || c == '\r') {
+            throw new IllegalArgumentException("Expected an ASCII char: " + c);
+        }
+        return c;
+    }
+}
@@ -120,9 +120,41 @@ public class InsertHelper {
                              final String objectVersion, final InputStream sourceStream,
                              final SVGRectangle rectangle, final GraphicStyle gs)
             throws IOException {
+        this.insertObject(document, table, frameName, objectName, objectMediaType, objectVersion,
+                new OdsArchiveExplorer(this.fileUtil, sourceStream).explore(), rectangle, gs);
+    }
+
+    /**
+     * Insert a new object into the document. Only the central directory and the manifest of
+     * the source file are read: the other entries are copied when the document is saved.
+     *
+     * @param document        the destination document
+     * @param table           the destination table
+     * @param frameName       the name of the frame
+     * @param objectName      the name of the object embedded in the document
+     * @param objectMediaType the media-type of the object embedded in the document
+     * @param objectVersion   the version of the object embedded in the document
+     * @param sourceFile      the source of the object
+     * @param rectangle       the frame coordinates
+     * @param gs              the graphic style
+     * @throws IOException if an I/O error occurs
+     */
+    public void insertObject(final OdsDocument document, final Table table, final String frameName,
+                             final String objectName, final String objectMediaType,
+                             final String objectVersion, final File sourceFile,
+                             final SVGRectangle rectangle, final GraphicStyle gs)
+            throws IOException {
+        this.insertObject(document, table, frameName, objectName, objectMediaType, objectVersion,
+                new LazyOdsArchiveExplorer(sourceFile).explore(), rectangle, gs);
+    }
+
+    private void insertObject(final OdsDocument document, final Table table,
+                              final String frameName, final String objectName,
+                              final String objectMediaType, final String objectVersion,
+                              final Map<String, OdsArchiveExplorer.OdsFile> fileByName,
+                              final SVGRectangle rectangle, final GraphicStyle gs)
+            throws IOException {
         document.addExtraObject(objectName, objectMediaType, objectVersion);
-        final Map<String, OdsArchiveExplorer.OdsFile> fileByName =
-                new OdsArchiveExplorer(this.fileUtil, sourceStream).explore();
         for (final Map.Entry<String, OdsArchiveExplorer.OdsFile> entry : fileByName.entrySet()) {
             final String name = entry.getKey();
             if (name.equals("META-INF/manifest.xml") || name.equals("mimetype") ||
@@ -135,4 +167,4 @@ public class InsertHelper {
                 new DrawObject("./" + objectName, Collections.<RangeRef>emptyList()), rectangle)
                 .style(gs).build());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.util.FileUtil;
+import com.github.jferard.fastods.util.RawZipDirectory;
+import com.github.jferard.fastods.util.RawZipEntry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A random access variant of the OdsArchiveExplorer. Only the central directory and the
+ * manifest of the file are read: the other entries are added to the document as raw zip entries
+ * and their bytes are read when the document is saved.
+ *
+ * @author J. Férard
+ */
+class LazyOdsArchiveExplorer {
+    private static final String MANIFEST_NAME = "META-INF/manifest.xml";
+
+    /**
+     * @param file the zip file
+     * @return the media types declared in the manifest, or an empty map
+     * @throws IOException if an I/O error occurs
+     */
+    static Map<String, String> readMediaTypeByName(final File file) throws IOException {
+        final ZipFile zipFile = new ZipFile(file);
+        try {
+            final ZipEntry manifestEntry = zipFile.getEntry(MANIFEST_NAME);
+            if (manifestEntry == null) {
+                return Collections.emptyMap();
+            }
+            final InputStream manifestStream = zipFile.getInputStream(manifestEntry);
+            try {
+                return OdsArchiveExplorer.getMediaTypeByName(
+                        FileUtil.create().readStream(manifestStream));
+            } finally {
+                manifestStream.close();
+            }
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    private final File sourceFile;
+    private final Map<String, OdsArchiveExplorer.OdsFile> fileByName;
+
+    /**
+     * @param sourceFile the source file
+     */
+    public LazyOdsArchiveExplorer(final File sourceFile) {
+        this.sourceFile = sourceFile;
+        this.fileByName = new HashMap<String, OdsArchiveExplorer.OdsFile>();
+    }
+
+    /**
+     * @return the files of the archive, by name
+     * @throws IOException if an I/O error occurs
+     */
+    public Map<String, OdsArchiveExplorer.OdsFile> explore() throws IOException {
+        final List<RawZipEntry> entries = RawZipDirectory.read(this.sourceFile);
+        for (final RawZipEntry entry : entries) {
+            this.getOrCreateOdsFile(entry.getName()).setRawEntry(entry);
+        }
+        for (final Map.Entry<String, String> entry : readMediaTypeByName(this.sourceFile)
+                .entrySet()) {
+            this.getOrCreateOdsFile(entry.getKey()).setMediaType(entry.getValue());
+        }
+        return this.fileByName;
+    }
+
+    private OdsArchiveExplorer.OdsFile getOrCreateOdsFile(final String name) {
+        OdsArchiveExplorer.OdsFile odsFile = this.fileByName.get(name);
+        if (odsFile == null) {
+            odsFile = new OdsArchiveExplorer.OdsFile(name);
+            this.fileByName.put(name, odsFile);
+        }
+        return odsFile;
+    }
+}
@@ -2,6 +2,7 @@ package com.github.jferard.fastods.tool;
 
 import com.github.jferard.fastods.OdsDocument;
 import com.github.jferard.fastods.util.FileUtil;
+import com.github.jferard.fastods.util.RawZipEntry;
 import org.w3c.dom.Document;
 import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
@@ -22,6 +23,7 @@ class OdsArchiveExplorer {
     static class OdsFile {
         private final String name;
         private byte[] bytes;
+        private RawZipEntry rawEntry;
         private String mediaType;
 
         OdsFile(final String name) {
@@ -32,12 +34,18 @@ class OdsArchiveExplorer {
             this.bytes = bytes;
         }
 
+        public void setRawEntry(final RawZipEntry rawEntry) {
+            this.rawEntry = rawEntry;
+        }
+
         public void setMediaType(final String mediaType) {
             this.mediaType = mediaType;
         }
 
         public void addToDocument(final OdsDocument document, final String prefix) {
-            if (this.bytes == null) {
+            if (this.rawEntry != null) {
+                document.addExtraRawFile(prefix + this.name, this.mediaType, this.rawEntry);
+            } else if (this.bytes == null) {
                 document.addExtraObject(prefix + this.name, this.mediaType, null);
             } else {
                 document.addExtraFile(prefix + this.name, this.mediaType, this.bytes);
@@ -95,24 +103,35 @@ class OdsArchiveExplorer {
     }
 
     private void extractMediaTypeByName(final byte[] bytes) throws IOException {
+        for (final Map.Entry<String, String> entry : getMediaTypeByName(bytes).entrySet()) {
+            this.putMediaType(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * @param manifestBytes the content of a META-INF/manifest.xml file
+     * @return the media type of every file entry, or an empty map if the manifest is not valid
+     * @throws IOException if an I/O error occurs
+     */
+    static Map<String, String> getMediaTypeByName(final byte[] manifestBytes)
+            throws IOException {
+        final Map<String, String> mediaTypeByName = new HashMap<String, String>();
         try {
             final Document manifest = DocumentBuilderFactory.newInstance().newDocumentBuilder()
-                    .parse(new ByteArrayInputStream(bytes));
-            this.extractMediaTypeByName(manifest);
+                    .parse(new ByteArrayInputStream(manifestBytes));
+            final NodeList mEntries = manifest.getElementsByTagName("manifest:file-entry");
+            for (int i = 0; i < mEntries.getLength(); i++) {
+                final Node mEntry = mEntries.item(i);
+                final NamedNodeMap attributes = mEntry.getAttributes();
+                final Node mediaType = attributes.getNamedItem("manifest:media-type");
+                mediaTypeByName.put(attributes.getNamedItem("manifest:full-path").getNodeValue(),
+                        mediaType == null ? null : mediaType.getNodeValue());
+            }
         } catch (final SAXException e) {
             // pass
         } catch (final ParserConfigurationException e) {
             // pass
         }
-    }
-
-    private void extractMediaTypeByName(final Document manifest) {
-        final NodeList mEntries = manifest.getElementsByTagName("manifest:file-entry");
-        for (int i = 0; i < mEntries.getLength(); i++) {
-            final Node mEntry = mEntries.item(i);
-            final NamedNodeMap attributes = mEntry.getAttributes();
-            this.putMediaType(attributes.getNamedItem("manifest:full-path").getNodeValue(),
-                    attributes.getNamedItem("manifest:media-type").getNodeValue());
-        }
+        return mediaTypeByName;
     }
 }
\ No newline at end of file
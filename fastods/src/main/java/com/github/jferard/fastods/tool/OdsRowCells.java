@@ -0,0 +1,155 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.attribute.CellType;
+
+import java.util.Arrays;
+
+/**
+ * The cells of the current row of an OdsStreamReader. The repeated cells are stored once, as a
+ * run: the memory depends on the number of distinct cells of the row, not on the number of
+ * columns.
+ *
+ * @author J. Férard
+ */
+final class OdsRowCells {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int runCount;
+    private int[] runEnds;
+    private CellType[] types;
+    private double[] numbers;
+    private String[] values;
+    private String[] texts;
+    /**
+     * the column after the last non empty cell
+     */
+    private int width;
+
+    /**
+     * Create an empty row
+     */
+    OdsRowCells() {
+        this.runEnds = new int[DEFAULT_CAPACITY];
+        this.types = new CellType[DEFAULT_CAPACITY];
+        this.numbers = new double[DEFAULT_CAPACITY];
+        this.values = new String[DEFAULT_CAPACITY];
+        this.texts = new String[DEFAULT_CAPACITY];
+        this.clear();
+    }
+
+    /**
+     * Remove all cells
+     */
+    void clear() {
+        Arrays.fill(this.values, 0, this.runCount, null);
+        Arrays.fill(this.texts, 0, this.runCount, null);
+        this.runCount = 0;
+        this.width = 0;
+    }
+
+    /**
+     * Add a run of identical cells
+     *
+     * @param type   the type, VOID if the cell has no value
+     * @param number the numeric value, for floats, percentages and currencies
+     * @param value  the value attribute, or null
+     * @param text   the text of the cell, or null
+     * @param repeat the number of cells
+     */
+    void addRun(final CellType type, final double number, final String value,
+                final String text, final int repeat) {
+        if (this.runCount == this.runEnds.length) {
+            final int capacity = this.runCount * 2;
+            this.runEnds = Arrays.copyOf(this.runEnds, capacity);
+            this.types = Arrays.copyOf(this.types, capacity);
+            this.numbers = Arrays.copyOf(this.numbers, capacity);
+            this.values = Arrays.copyOf(this.values, capacity);
+            this.texts = Arrays.copyOf(this.texts, capacity);
+        }
+        final int start = this.runCount == 0 ? 0 : this.runEnds[this.runCount - 1];
+        this.runEnds[this.runCount] = start + repeat;
+        this.types[this.runCount] = type;
+        this.numbers[this.runCount] = number;
+        this.values[this.runCount] = value;
+        this.texts[this.runCount] = text;
+        this.runCount++;
+        if (type != CellType.VOID || text != null) {
+            this.width = start + repeat;
+        }
+    }
+
+    /**
+     * @return the column after the last non empty cell
+     */
+    int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * @param col the column
+     * @return the type of the cell, VOID if the cell has no value
+     */
+    CellType getType(final int col) {
+        final int run = this.findRun(col);
+        return run == -1 ? CellType.VOID : this.types[run];
+    }
+
+    /**
+     * @param col the column
+     * @return the numeric value, or 0
+     */
+    double getNumber(final int col) {
+        final int run = this.findRun(col);
+        return run == -1 ? 0.0 : this.numbers[run];
+    }
+
+    /**
+     * @param col the column
+     * @return the value attribute, or null
+     */
+    String getValue(final int col) {
+        final int run = this.findRun(col);
+        return run == -1 ? null : this.values[run];
+    }
+
+    /**
+     * @param col the column
+     * @return the text, or null
+     */
+    String getText(final int col) {
+        final int run = this.findRun(col);
+        return run == -1 ? null : this.texts[run];
+    }
+
+    private int findRun(final int col) {
+        if (col < 0 || col >= this.width) {
+            return -1;
+        }
+        final int i = Arrays.binarySearch(this.runEnds, 0, this.runCount, col);
+        // runEnds are exclusive: a run ending at col does not contain col
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+}
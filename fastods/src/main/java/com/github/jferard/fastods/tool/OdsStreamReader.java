@@ -0,0 +1,538 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.util.DateAppender;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * A streaming reader for the tables of an ODS file. The content.xml entry is parsed with StAX,
+ * and the reader is a cursor: nextTable moves to the next table, nextRow to the next row of the
+ * current table, and the accessors read the cells of the current row.
+ * <pre>
+ *     final OdsStreamReader reader = OdsStreamReader.open(file);
+ *     try {
+ *         while (reader.nextTable()) {
+ *             while (reader.nextRow()) {
+ *                 for (int c = 0; c < reader.getCellCount(); c++) {
+ *                     ... reader.getCellType(c), reader.getDouble(c), reader.getString(c) ...
+ *                 }
+ *             }
+ *         }
+ *     } finally {
+ *         reader.close();
+ *     }
+ * </pre>
+ * The repeated rows and cells are not expanded: a repeated row is parsed once and returned
+ * number-rows-repeated times by nextRow, and a repeated cell is stored once. The memory
+ * depends on the size of a row, not on the size of the table.
+ *
+ * @author J. Férard
+ */
+public class OdsStreamReader implements Closeable {
+    private static final String OFFICE_NS = "urn:oasis:names:tc:opendocument:xmlns:office:1.0";
+    private static final String TABLE_NS = "urn:oasis:names:tc:opendocument:xmlns:table:1.0";
+    private static final String TEXT_NS = "urn:oasis:names:tc:opendocument:xmlns:text:1.0";
+    private static final String CALCEXT_NS =
+            "urn:org:documentfoundation:names:experimental:calc:xmlns:calcext:1.0";
+    private static final String CONTENT_ENTRY = "content.xml";
+    private static final Map<String, CellType> TYPE_BY_VALUE_TYPE;
+
+    static {
+        TYPE_BY_VALUE_TYPE = new HashMap<String, CellType>();
+        for (final CellType type : CellType.values()) {
+            TYPE_BY_VALUE_TYPE.put(type.getValue(), type);
+        }
+    }
+
+    /**
+     * @param file the ODS file
+     * @return a reader, before the first table
+     * @throws IOException if the file is not a zip file or has no content.xml entry
+     */
+    public static OdsStreamReader open(final File file) throws IOException {
+        final ZipFile zipFile = new ZipFile(file);
+        final ZipEntry entry = zipFile.getEntry(CONTENT_ENTRY);
+        if (entry == null) {
+            zipFile.close();
+            throw new IOException("No " + CONTENT_ENTRY + " in " + file);
+        }
+        return new OdsStreamReader(new ZipFileCloser(zipFile),
+                new BufferedInputStream(zipFile.getInputStream(entry)));
+    }
+
+    /**
+     * Read the ODS file from a stream: the entries before content.xml are skipped.
+     *
+     * @param in the stream of the ODS file
+     * @return a reader, before the first table
+     * @throws IOException if the stream is not a zip stream or has no content.xml entry
+     */
+    public static OdsStreamReader open(final InputStream in) throws IOException {
+        final ZipInputStream zipStream = new ZipInputStream(in);
+        ZipEntry entry = zipStream.getNextEntry();
+        while (entry != null && !entry.getName().equals(CONTENT_ENTRY)) {
+            entry = zipStream.getNextEntry();
+        }
+        if (entry == null) {
+            zipStream.close();
+            throw new IOException("No " + CONTENT_ENTRY + " in the stream");
+        }
+        return new OdsStreamReader(zipStream, new BufferedInputStream(zipStream));
+    }
+
+    private final Closeable resource;
+    private final XMLStreamReader reader;
+    private final OdsRowCells cells;
+    private final StringBuilder text;
+    private String tableName;
+    private boolean inTable;
+    private long rowIndex;
+    private int rowsRepeated;
+
+    /**
+     * @param resource the resource to close with this reader
+     * @param content  the content.xml stream
+     * @throws IOException if the XML parser can't be created
+     */
+    OdsStreamReader(final Closeable resource, final InputStream content) throws IOException {
+        this.resource = resource;
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        try {
+            this.reader = factory.createXMLStreamReader(content, "UTF-8");
+        } catch (final XMLStreamException e) {
+            throw new IOException(e);
+        }
+        this.cells = new OdsRowCells();
+        this.text = new StringBuilder();
+        this.inTable = false;
+        this.rowIndex = -1;
+        this.rowsRepeated = 0;
+    }
+
+    /**
+     * Move to the next table. The remaining rows of the current table are skipped.
+     *
+     * @return true if there is a next table
+     * @throws IOException if the XML can't be parsed
+     */
+    public boolean nextTable() throws IOException {
+        try {
+            while (this.inTable) { // skip the rest of the current table
+                this.nextRow();
+            }
+            while (this.reader.hasNext()) {
+                if (this.reader.next() == XMLStreamConstants.START_ELEMENT &&
+                        this.isElement(TABLE_NS, "table")) {
+                    this.tableName = this.reader.getAttributeValue(TABLE_NS, "name");
+                    this.inTable = true;
+                    this.rowIndex = -1;
+                    this.rowsRepeated = 0;
+                    this.cells.clear();
+                    return true;
+                }
+            }
+            return false;
+        } catch (final XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * @return the name of the current table
+     */
+    public String getTableName() {
+        return this.tableName;
+    }
+
+    /**
+     * Move to the next row of the current table. A repeated row is parsed once.
+     *
+     * @return true if there is a next row, false at the end of the table
+     * @throws IOException if the XML can't be parsed
+     */
+    public boolean nextRow() throws IOException {
+        if (!this.inTable) {
+            return false;
+        }
+        if (this.rowsRepeated > 1) {
+            this.rowsRepeated--;
+            this.rowIndex++;
+            return true;
+        }
+        try {
+            while (this.reader.hasNext()) {
+                final int event = this.reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if (this.isElement(TABLE_NS, "table-row")) {
+                        this.rowsRepeated = this.getRepeat("number-rows-repeated");
+                        this.readCells();
+                        this.rowIndex++;
+                        return true;
+                    } else if (this.isElement(TABLE_NS, "table")) { // a sub table
+                        this.skipElement();
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT &&
+                        this.isElement(TABLE_NS, "table")) {
+                    break;
+                }
+            }
+            this.inTable = false;
+            this.rowsRepeated = 0;
+            this.cells.clear();
+            return false;
+        } catch (final XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * @return the index of the current row in the table
+     */
+    public long getRowIndex() {
+        return this.rowIndex;
+    }
+
+    /**
+     * @return the number of rows identical to the current row, including the current row, that
+     * are left.
+     */
+    public int getRowsRepeated() {
+        return this.rowsRepeated;
+    }
+
+    /**
+     * Skip the rows identical to the current row: the next call to nextRow will read a new row.
+     * Useful for the huge blocks of empty rows at the end of some tables.
+     */
+    public void skipRepeatedRows() {
+        if (this.rowsRepeated > 1) {
+            this.rowIndex += this.rowsRepeated - 1;
+            this.rowsRepeated = 1;
+        }
+    }
+
+    /**
+     * @return the number of cells of the current row, up to the last cell that has a value or a
+     * text. The empty cells at the end of the row are ignored.
+     */
+    public int getCellCount() {
+        return this.cells.getWidth();
+    }
+
+    /**
+     * @param col the column index
+     * @return the type of the cell, VOID if the cell has no value
+     */
+    public CellType getCellType(final int col) {
+        return this.cells.getType(col);
+    }
+
+    /**
+     * @param col the column index
+     * @return the value of a float, percentage or currency cell, 0 for the other cells
+     */
+    public double getDouble(final int col) {
+        return this.cells.getNumber(col);
+    }
+
+    /**
+     * @param col the column index
+     * @return the value of a float, percentage or currency cell, truncated to a long
+     */
+    public long getLong(final int col) {
+        return (long) this.cells.getNumber(col);
+    }
+
+    /**
+     * @param col the column index
+     * @return the value of a boolean cell, false for the other cells
+     */
+    public boolean getBoolean(final int col) {
+        return this.cells.getType(col) == CellType.BOOLEAN && "true".equals(
+                this.cells.getValue(col));
+    }
+
+    /**
+     * @param col the column index
+     * @return the value of a date cell, in milliseconds since the epoch. The date is read as a
+     * UTC date, and the time zone, if any, is ignored.
+     * @throws IllegalStateException if the cell is not a date cell
+     */
+    public long getDateMillis(final int col) {
+        final String value = this.cells.getValue(col);
+        if (this.cells.getType(col) != CellType.DATE || value == null) {
+            throw new IllegalStateException("Not a date cell: " + col);
+        }
+        return parseDate(value);
+    }
+
+    /**
+     * @param col the column index
+     * @return the string value of the cell if any (office:string-value), or the text of the
+     * cell (the paragraphs, joined by new lines), or null for an empty cell
+     */
+    public String getString(final int col) {
+        if (this.cells.getType(col) == CellType.STRING) {
+            final String value = this.cells.getValue(col);
+            if (value != null) {
+                return value;
+            }
+        }
+        return this.cells.getText(col);
+    }
+
+    /**
+     * @param col the column index
+     * @return the text of the cell (the paragraphs, joined by new lines), or null
+     */
+    public String getText(final int col) {
+        return this.cells.getText(col);
+    }
+
+    /**
+     * @param col the column index
+     * @return the value attribute of the cell (office:value, office:date-value, ...) as is, or
+     * null
+     */
+    public String getRawValue(final int col) {
+        return this.cells.getValue(col);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.reader.close();
+        } catch (final XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            this.resource.close();
+        }
+    }
+
+    private void readCells() throws XMLStreamException {
+        this.cells.clear();
+        while (this.reader.hasNext()) {
+            final int event = this.reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (this.isElement(TABLE_NS, "table-cell") ||
+                        this.isElement(TABLE_NS, "covered-table-cell")) {
+                    this.readCell();
+                } else {
+                    this.skipElement();
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) { // end of the row
+                return;
+            }
+        }
+    }
+
+    private void readCell() throws XMLStreamException {
+        final int repeat = this.getRepeat("number-columns-repeated");
+        String valueType = this.reader.getAttributeValue(OFFICE_NS, "value-type");
+        if (valueType == null) {
+            valueType = this.reader.getAttributeValue(CALCEXT_NS, "value-type");
+        }
+        CellType type = valueType == null ? null : TYPE_BY_VALUE_TYPE.get(valueType);
+        if (type == null) {
+            type = CellType.VOID;
+        }
+        final String value;
+        double number = 0.0;
+        switch (type) {
+            case BOOLEAN:
+                value = this.reader.getAttributeValue(OFFICE_NS, "boolean-value");
+                break;
+            case DATE:
+                value = this.reader.getAttributeValue(OFFICE_NS, "date-value");
+                break;
+            case TIME:
+                value = this.reader.getAttributeValue(OFFICE_NS, "time-value");
+                break;
+            case STRING:
+                value = this.reader.getAttributeValue(OFFICE_NS, "string-value");
+                break;
+            case VOID:
+                value = null;
+                break;
+            default: // FLOAT, PERCENTAGE, CURRENCY
+                value = this.reader.getAttributeValue(OFFICE_NS, "value");
+                if (value != null) {
+                    number = Double.parseDouble(value);
+                }
+                break;
+        }
+        final String cellText = this.readText();
+        this.cells.addRun(type, number, value, cellText, repeat);
+    }
+
+    /**
+     * Read the paragraphs of the current cell, up to the end of the cell.
+     *
+     * @return the text, or null if the cell has no paragraph
+     */
+    private String readText() throws XMLStreamException {
+        this.text.setLength(0);
+        boolean hasParagraph = false;
+        int paragraphDepth = 0;
+        while (this.reader.hasNext()) {
+            final int event = this.reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (this.isElement(TEXT_NS, "p") || this.isElement(TEXT_NS, "h")) {
+                    if (hasParagraph && paragraphDepth == 0) {
+                        this.text.append('\n');
+                    }
+                    hasParagraph = true;
+                    paragraphDepth++;
+                } else if (this.isElement(TEXT_NS, "s")) {
+                    final String c = this.reader.getAttributeValue(TEXT_NS, "c");
+                    final int count = c == null ? 1 : Integer.parseInt(c);
+                    for (int i = 0; i < count; i++) {
+                        this.text.append(' ');
+                    }
+                } else if (this.isElement(TEXT_NS, "tab")) {
+                    this.text.append('\t');
+                } else if (this.isElement(TEXT_NS, "line-break")) {
+                    this.text.append('\n');
+                } else if (this.isElement(OFFICE_NS, "annotation") || paragraphDepth == 0) {
+                    this.skipElement(); // comments, frames, sub tables...
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (this.isElement(TEXT_NS, "p") || this.isElement(TEXT_NS, "h")) {
+                    paragraphDepth--;
+                } else if (paragraphDepth == 0) { // end of the cell
+                    break;
+                }
+            } else if ((event == XMLStreamConstants.CHARACTERS ||
+                    event == XMLStreamConstants.CDATA) && paragraphDepth > 0) {
+                this.text.append(this.reader.getTextCharacters(), this.reader.getTextStart(),
+                        this.reader.getTextLength());
+            }
+        }
+        return hasParagraph ? this.text.toString() : null;
+    }
+
+    /**
+     * Skip the current element, up to its end
+     */
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && this.reader.hasNext()) {
+            final int event = this.reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private int getRepeat(final String attribute) {
+        final String repeat = this.reader.getAttributeValue(TABLE_NS, attribute);
+        if (repeat == null) {
+            return 1;
+        }
+        final int n = Integer.parseInt(repeat);
+        return n < 1 ? 1 : n;
+    }
+
+    private boolean isElement(final String namespace, final String localName) {
+        return localName.equals(this.reader.getLocalName()) &&
+                namespace.equals(this.reader.getNamespaceURI());
+    }
+
+    /**
+     * @param value yyyy-MM-dd or yyyy-MM-ddTHH:mm:ss, with optional fractional seconds and
+     *              time zone (ignored)
+     * @return the epoch millis
+     */
+    static long parseDate(final String value) {
+        try {
+            final int year = Integer.parseInt(value.substring(0, value.indexOf('-', 1)));
+            final int m = value.indexOf('-', 1) + 1;
+            final int month = Integer.parseInt(value.substring(m, m + 2));
+            final int day = Integer.parseInt(value.substring(m + 3, m + 5));
+            int hour = 0;
+            int minute = 0;
+            int second = 0;
+            int millis = 0;
+            final int t = m + 5;
+            if (value.length() > t && value.charAt(t) == 'T') {
+                hour = Integer.parseInt(value.substring(t + 1, t + 3));
+                minute = Integer.parseInt(value.substring(t + 4, t + 6));
+                second = Integer.parseInt(value.substring(t + 7, t + 9));
+                int i = t + 9;
+                if (value.length() > i && value.charAt(i) == '.') {
+                    i++;
+                    int factor = 100;
+                    while (i < value.length() && Character.isDigit(value.charAt(i))) {
+                        millis += (value.charAt(i) - '0') * factor;
+                        factor /= 10;
+                        i++;
+                    }
+                }
+            }
+            return DateAppender.toEpochMillis(year, month, day, hour, minute, second, millis);
+        } catch (final RuntimeException e) { // NumberFormat, IndexOutOfBounds
+            throw new IllegalStateException("Not a date: " + value, e);
+        }
+    }
+
+    /**
+     * A ZipFile is Closeable only since Java 7.
+     */
+    private static class ZipFileCloser implements Closeable {
+        private final ZipFile zipFile;
+
+        /**
+         * @param zipFile the zip file to close
+         */
+        ZipFileCloser(final ZipFile zipFile) {
+            this.zipFile = zipFile;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.zipFile.close();
+        }
+    }
+}
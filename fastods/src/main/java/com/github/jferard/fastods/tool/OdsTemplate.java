@@ -0,0 +1,140 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.OdsDocument;
+import com.github.jferard.fastods.util.RawZipDirectory;
+import com.github.jferard.fastods.util.RawZipEntry;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A template ODS file. The unchanged entries of the template (images, Configurations2, macros,
+ * embedded objects, ...) are added to a document as raw zip entries: their compressed data is
+ * copied as is when the document is saved, while the content, styles, meta, settings and
+ * manifest are generated by FastODS.
+ * <p>
+ * A deflated entry is copied without being inflated only if the document is saved with a
+ * writer built with {@code ZipUTF8WriterBuilder.parallelDeflate}. The default writer inflates
+ * and deflates the entry again. With a {@code NamedOdsDocument}, the template must be added
+ * before the call to {@code prepare}.
+ * <p>
+ * Usage:
+ * <pre>
+ * final OdsTemplate template = OdsTemplate.open(new File("template.ods"));
+ * template.addToDocument(writer.document());
+ * ... // add the tables
+ * writer.saveAs(file, ZipUTF8WriterImpl.builder().parallelDeflate(2, 1 &lt;&lt; 20));
+ * </pre>
+ *
+ * @author J. Férard
+ */
+public final class OdsTemplate {
+    private static final Set<String> GENERATED_NAMES = new HashSet<String>(
+            Arrays.asList("/", "mimetype", "META-INF/manifest.xml", "content.xml", "styles.xml",
+                    "meta.xml", "settings.xml"));
+    private static final String THUMBNAILS_PREFIX = "Thumbnails/";
+
+    /**
+     * Read the central directory and the manifest of a template. The other entries are not
+     * read.
+     *
+     * @param file the template file
+     * @return the template
+     * @throws IOException if the file can't be read or is not a supported zip file
+     */
+    public static OdsTemplate open(final File file) throws IOException {
+        return new OdsTemplate(RawZipDirectory.read(file),
+                LazyOdsArchiveExplorer.readMediaTypeByName(file));
+    }
+
+    private final List<RawZipEntry> entries;
+    private final Map<String, String> mediaTypeByName;
+
+    /**
+     * @param entries         the entries of the zip file
+     * @param mediaTypeByName the media types of the manifest
+     */
+    OdsTemplate(final List<RawZipEntry> entries, final Map<String, String> mediaTypeByName) {
+        this.entries = entries;
+        this.mediaTypeByName = mediaTypeByName;
+    }
+
+    /**
+     * @return the entries of the template
+     */
+    public List<RawZipEntry> getEntries() {
+        return Collections.unmodifiableList(this.entries);
+    }
+
+    /**
+     * Add the unchanged entries of the template to a document. The mimetype, content, styles,
+     * meta, settings and manifest entries are ignored, as the thumbnails.
+     *
+     * @param document the document
+     */
+    public void addToDocument(final OdsDocument document) {
+        final Map<String, String> objectMediaTypeByName =
+                new HashMap<String, String>(this.mediaTypeByName);
+        for (final RawZipEntry entry : this.entries) {
+            final String name = entry.getName();
+            final String mediaType = objectMediaTypeByName.remove(name);
+            if (isGenerated(name)) {
+                continue;
+            }
+            if (entry.isDirectory()) {
+                addDirOrObject(document, name, mediaType);
+            } else {
+                document.addExtraRawFile(name, mediaType, entry);
+            }
+        }
+        // the manifest may declare directories without zip entry, e.g. "Object 1/"
+        for (final Map.Entry<String, String> entry : objectMediaTypeByName.entrySet()) {
+            final String name = entry.getKey();
+            if (!isGenerated(name)) {
+                addDirOrObject(document, name, entry.getValue());
+            }
+        }
+    }
+
+    private static boolean isGenerated(final String name) {
+        return GENERATED_NAMES.contains(name) || name.startsWith(THUMBNAILS_PREFIX);
+    }
+
+    private static void addDirOrObject(final OdsDocument document, final String name,
+                                       final String mediaType) {
+        if (mediaType == null || mediaType.isEmpty()) {
+            document.addExtraDir(name);
+        } else {
+            document.addExtraObject(name, mediaType, null);
+        }
+    }
+}
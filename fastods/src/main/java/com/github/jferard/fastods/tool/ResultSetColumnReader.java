@@ -0,0 +1,425 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.FastOdsException;
+import com.github.jferard.fastods.TableCellWalker;
+import com.github.jferard.fastods.ToCellValueConverter;
+import com.github.jferard.fastods.attribute.CellType;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Date;
+
+/**
+ * A reader for a column of a result set. The reader is chosen once from the column type of the
+ * metadata, then it is used to copy the value of the column to the cell for every row. The typed
+ * readers use the primitive accessors of the result set, and do not create any CellValue: they
+ * are used only with the default SQLToCellValueConverter, that would give the same values.
+ * For prefetching, read is split in fetch (result set to batch) and write (batch to cell).
+ *
+ * @author J. Férard
+ */
+abstract class ResultSetColumnReader {
+    /**
+     * @param sqlType   the type of the column, see java.sql.Types
+     * @param converter the converter for the columns without a typed reader. If this is not the
+     *                  default SQLToCellValueConverter, it is used for all columns
+     * @param cellType  the hint for the column type, or null
+     * @return the reader
+     */
+    static ResultSetColumnReader create(final int sqlType, final ToCellValueConverter converter,
+                                        final CellType cellType) {
+        if (cellType != null || !isDefault(converter)) {
+            return new ObjectReader(converter, cellType);
+        }
+        switch (sqlType) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return new BooleanReader();
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return new LongReader();
+            case Types.REAL:
+                return new FloatReader();
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return new DoubleReader();
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+                return new DateReader(sqlType);
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return new StringReader();
+            default: // DECIMAL and NUMERIC keep their precision, LOBs, intervals, ...
+                return new ObjectReader(converter, null);
+        }
+    }
+
+    /**
+     * @param converter the converter
+     * @return true if the typed readers give the same values as the converter
+     */
+    private static boolean isDefault(final ToCellValueConverter converter) {
+        return converter.getClass() == SQLToCellValueConverter.class &&
+                ((SQLToCellValueConverter) converter).isDefault();
+    }
+
+    /**
+     * Copy the value of the column to the current cell of the walker.
+     *
+     * @param rs     the result set, on the current row
+     * @param j      the index of the column, 1-based
+     * @param walker the walker, on the destination cell
+     * @return false if the value was SQL NULL and nothing was written, true otherwise
+     * @throws SQLException     if the value can't be read
+     * @throws FastOdsException if the value can't be converted
+     */
+    abstract boolean read(ResultSet rs, int j, TableCellWalker walker)
+            throws SQLException, FastOdsException;
+
+    /**
+     * Copy the value of the column to a batch. This is the first half of read, for prefetching.
+     *
+     * @param rs    the result set, on the current row
+     * @param j     the index of the column, 1-based
+     * @param batch the batch
+     * @param slot  the slot of the value in the batch
+     * @throws SQLException if the value can't be read
+     */
+    abstract void fetch(ResultSet rs, int j, ResultSetRowBatch batch, int slot)
+            throws SQLException;
+
+    /**
+     * Copy the value of a batch to the current cell of the walker. This is the second half of
+     * read, for prefetching.
+     *
+     * @param batch  the batch
+     * @param slot   the slot of the value in the batch
+     * @param walker the walker, on the destination cell
+     * @return false if the value was SQL NULL and nothing was written, true otherwise
+     * @throws FastOdsException if the value can't be converted
+     */
+    abstract boolean write(ResultSetRowBatch batch, int slot, TableCellWalker walker)
+            throws FastOdsException;
+
+    /**
+     * A reader for booleans
+     */
+    private static class BooleanReader extends ResultSetColumnReader {
+        @Override
+        boolean read(final ResultSet rs, final int j, final TableCellWalker walker)
+                throws SQLException {
+            final boolean value = rs.getBoolean(j);
+            if (rs.wasNull()) {
+                return false;
+            }
+            walker.setBooleanValue(value);
+            return true;
+        }
+
+        @Override
+        void fetch(final ResultSet rs, final int j, final ResultSetRowBatch batch,
+                   final int slot) throws SQLException {
+            final boolean value = rs.getBoolean(j);
+            if (rs.wasNull()) {
+                batch.setNull(slot);
+            } else {
+                batch.setPrimitive(slot, value ? 1 : 0);
+            }
+        }
+
+        @Override
+        boolean write(final ResultSetRowBatch batch, final int slot,
+                      final TableCellWalker walker) {
+            if (batch.isNull(slot)) {
+                return false;
+            }
+            walker.setBooleanValue(batch.getPrimitive(slot) != 0);
+            return true;
+        }
+    }
+
+    /**
+     * A reader for integers
+     */
+    private static class LongReader extends ResultSetColumnReader {
+        @Override
+        boolean read(final ResultSet rs, final int j, final TableCellWalker walker)
+                throws SQLException {
+            final long value = rs.getLong(j);
+            if (rs.wasNull()) {
+                return false;
+            }
+            walker.setFloatValue(value);
+            return true;
+        }
+
+        @Override
+        void fetch(final ResultSet rs, final int j, final ResultSetRowBatch batch,
+                   final int slot) throws SQLException {
+            final long value = rs.getLong(j);
+            if (rs.wasNull()) {
+                batch.setNull(slot);
+            } else {
+                batch.setPrimitive(slot, value);
+            }
+        }
+
+        @Override
+        boolean write(final ResultSetRowBatch batch, final int slot,
+                      final TableCellWalker walker) {
+            if (batch.isNull(slot)) {
+                return false;
+            }
+            walker.setFloatValue(batch.getPrimitive(slot));
+            return true;
+        }
+    }
+
+    /**
+     * A reader for single precision floats: a float widened to a double would be written with
+     * spurious digits.
+     */
+    private static class FloatReader extends ResultSetColumnReader {
+        @Override
+        boolean read(final ResultSet rs, final int j, final TableCellWalker walker)
+                throws SQLException {
+            final float value = rs.getFloat(j);
+            if (rs.wasNull()) {
+                return false;
+            }
+            walker.setFloatValue(value);
+            return true;
+        }
+
+        @Override
+        void fetch(final ResultSet rs, final int j, final ResultSetRowBatch batch,
+                   final int slot) throws SQLException {
+            final float value = rs.getFloat(j);
+            if (rs.wasNull()) {
+                batch.setNull(slot);
+            } else {
+                batch.setPrimitive(slot, Float.floatToRawIntBits(value));
+            }
+        }
+
+        @Override
+        boolean write(final ResultSetRowBatch batch, final int slot,
+                      final TableCellWalker walker) {
+            if (batch.isNull(slot)) {
+                return false;
+            }
+            walker.setFloatValue(Float.intBitsToFloat((int) batch.getPrimitive(slot)));
+            return true;
+        }
+    }
+
+    /**
+     * A reader for double precision floats
+     */
+    private static class DoubleReader extends ResultSetColumnReader {
+        @Override
+        boolean read(final ResultSet rs, final int j, final TableCellWalker walker)
+                throws SQLException {
+            final double value = rs.getDouble(j);
+            if (rs.wasNull()) {
+                return false;
+            }
+            walker.setFloatValue(value);
+            return true;
+        }
+
+        @Override
+        void fetch(final ResultSet rs, final int j, final ResultSetRowBatch batch,
+                   final int slot) throws SQLException {
+            final double value = rs.getDouble(j);
+            if (rs.wasNull()) {
+                batch.setNull(slot);
+            } else {
+                batch.setPrimitive(slot, Double.doubleToRawLongBits(value));
+            }
+        }
+
+        @Override
+        boolean write(final ResultSetRowBatch batch, final int slot,
+                      final TableCellWalker walker) {
+            if (batch.isNull(slot)) {
+                return false;
+            }
+            walker.setFloatValue(Double.longBitsToDouble(batch.getPrimitive(slot)));
+            return true;
+        }
+    }
+
+    /**
+     * A reader for dates, times and timestamps
+     */
+    private static class DateReader extends ResultSetColumnReader {
+        private final int sqlType;
+
+        /**
+         * @param sqlType DATE, TIME or TIMESTAMP
+         */
+        DateReader(final int sqlType) {
+            this.sqlType = sqlType;
+        }
+
+        @Override
+        boolean read(final ResultSet rs, final int j, final TableCellWalker walker)
+                throws SQLException {
+            final Date value = this.getDate(rs, j);
+            if (value == null) {
+                return false;
+            }
+            walker.setDateValue(value.getTime());
+            return true;
+        }
+
+        @Override
+        void fetch(final ResultSet rs, final int j, final ResultSetRowBatch batch,
+                   final int slot) throws SQLException {
+            final Date value = this.getDate(rs, j);
+            if (value == null) {
+                batch.setNull(slot);
+            } else {
+                batch.setPrimitive(slot, value.getTime());
+            }
+        }
+
+        @Override
+        boolean write(final ResultSetRowBatch batch, final int slot,
+                      final TableCellWalker walker) {
+            if (batch.isNull(slot)) {
+                return false;
+            }
+            walker.setDateValue(batch.getPrimitive(slot));
+            return true;
+        }
+
+        private Date getDate(final ResultSet rs, final int j) throws SQLException {
+            switch (this.sqlType) {
+                case Types.DATE:
+                    return rs.getDate(j);
+                case Types.TIME:
+                    return rs.getTime(j);
+                default:
+                    return rs.getTimestamp(j);
+            }
+        }
+    }
+
+    /**
+     * A reader for strings
+     */
+    private static class StringReader extends ResultSetColumnReader {
+        @Override
+        boolean read(final ResultSet rs, final int j, final TableCellWalker walker)
+                throws SQLException {
+            final String value = rs.getString(j);
+            if (value == null) {
+                return false;
+            }
+            walker.setStringValue(value);
+            return true;
+        }
+
+        @Override
+        void fetch(final ResultSet rs, final int j, final ResultSetRowBatch batch,
+                   final int slot) throws SQLException {
+            batch.setObject(slot, rs.getString(j));
+        }
+
+        @Override
+        boolean write(final ResultSetRowBatch batch, final int slot,
+                      final TableCellWalker walker) {
+            if (batch.isNull(slot)) {
+                return false;
+            }
+            walker.setStringValue((String) batch.getObject(slot));
+            return true;
+        }
+    }
+
+    /**
+     * The generic reader: get the object and convert it to a cell value.
+     */
+    private static class ObjectReader extends ResultSetColumnReader {
+        private final ToCellValueConverter converter;
+        private final CellType cellType;
+
+        /**
+         * @param converter the converter
+         * @param cellType  the hint for the column type, or null
+         */
+        ObjectReader(final ToCellValueConverter converter, final CellType cellType) {
+            this.converter = converter;
+            this.cellType = cellType;
+        }
+
+        @Override
+        boolean read(final ResultSet rs, final int j, final TableCellWalker walker)
+                throws SQLException, FastOdsException {
+            final Object object = rs.getObject(j);
+            if (object == null) {
+                return false;
+            }
+            this.setCellValue(walker, object);
+            return true;
+        }
+
+        @Override
+        void fetch(final ResultSet rs, final int j, final ResultSetRowBatch batch,
+                   final int slot) throws SQLException {
+            batch.setObject(slot, rs.getObject(j));
+        }
+
+        @Override
+        boolean write(final ResultSetRowBatch batch, final int slot,
+                      final TableCellWalker walker) throws FastOdsException {
+            if (batch.isNull(slot)) {
+                return false;
+            }
+            this.setCellValue(walker, batch.getObject(slot));
+            return true;
+        }
+
+        private void setCellValue(final TableCellWalker walker, final Object object)
+                throws FastOdsException {
+            if (this.cellType == null) {
+                walker.setCellValue(this.converter.from(object));
+            } else {
+                walker.setCellValue(this.converter.from(this.cellType, object));
+            }
+        }
+    }
+}
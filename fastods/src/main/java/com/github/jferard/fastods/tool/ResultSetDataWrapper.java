@@ -32,12 +32,14 @@ import com.github.jferard.fastods.attribute.CellType;
 import com.github.jferard.fastods.style.TableCellStyle;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -74,6 +76,16 @@ public final class ResultSetDataWrapper implements DataWrapper {
     private final ResultSet resultSet;
     private final Map<Integer, CellType> cellTypeByColIndex;
     private final CellValue nullValue;
+    /**
+     * the number of rows to fetch from the database at once, 0 to keep the driver default
+     */
+    private final int fetchSize;
+    /**
+     * the executor of the prefetcher, null to read the rows in the caller thread
+     */
+    private final ExecutorService prefetchExecutor;
+    private final int batchSize;
+    private final int batchCount;
 
 
     /**
@@ -92,6 +104,33 @@ public final class ResultSetDataWrapper implements DataWrapper {
                                 final TableCellStyle headCellStyle, final boolean autoFilter,
                                 final Map<Integer, CellType> cellTypeByColIndex,
                                 final CellValue nullValue, final int max) {
+        this(logger, converter, rangeName, rs, headCellStyle, autoFilter, cellTypeByColIndex,
+                nullValue, max, 0, null, 0, 0);
+    }
+
+    /**
+     * @param logger             a logger
+     * @param converter          a converter SQL -> OpenDocument
+     * @param rangeName          the name of the range
+     * @param rs                 the result cell
+     * @param headCellStyle      a style for header, null if none
+     * @param autoFilter         set an auto filter if true
+     * @param cellTypeByColIndex a hint for cell types
+     * @param nullValue          the default value for NULL
+     * @param max                the maximum number of rows, -1 for unlimited
+     * @param fetchSize          the fetch size hint for the result set, 0 for the driver default
+     * @param prefetchExecutor   the executor that reads the rows while the previous rows are
+     *                           written, null to read the rows in the caller thread
+     * @param batchSize          the number of rows per prefetched batch
+     * @param batchCount         the maximum number of prefetched batches
+     */
+    public ResultSetDataWrapper(final Logger logger, final ToCellValueConverter converter,
+                                final String rangeName, final ResultSet rs,
+                                final TableCellStyle headCellStyle, final boolean autoFilter,
+                                final Map<Integer, CellType> cellTypeByColIndex,
+                                final CellValue nullValue, final int max, final int fetchSize,
+                                final ExecutorService prefetchExecutor, final int batchSize,
+                                final int batchCount) {
         this.logger = logger;
         this.converter = converter;
         this.rangeName = rangeName;
@@ -101,6 +140,10 @@ public final class ResultSetDataWrapper implements DataWrapper {
         this.cellTypeByColIndex = cellTypeByColIndex;
         this.nullValue = nullValue;
         this.max = max;
+        this.fetchSize = fetchSize;
+        this.prefetchExecutor = prefetchExecutor;
+        this.batchSize = batchSize;
+        this.batchCount = batchCount;
     }
 
     @Override
@@ -115,14 +158,14 @@ public final class ResultSetDataWrapper implements DataWrapper {
                 final int columnCount = metadata.getColumnCount();
 
                 this.writeFirstLineDataTo(walker, metadata);
-                if (this.resultSet.next()) {
-                    do {
-                        if (this.max == -1 || ++rowCount <= this.max) {
-                            walker.nextRow();
-                            walker.to(c1);
-                            this.writeDataLineTo(walker, columnCount);
-                        }
-                    } while (this.resultSet.next());
+                final ResultSetColumnReader[] readers = this.getColumnReaders(metadata);
+                if (this.fetchSize > 0) {
+                    this.resultSet.setFetchSize(this.fetchSize);
+                }
+                if (this.prefetchExecutor == null) {
+                    rowCount = this.writeDataLinesTo(walker, c1, readers);
+                } else {
+                    rowCount = this.writePrefetchedDataLinesTo(walker, c1, readers);
                 }
                 final boolean oneBlankLine = rowCount == 0 || rowCount > this.max;
                 if (oneBlankLine) {
@@ -169,15 +212,22 @@ public final class ResultSetDataWrapper implements DataWrapper {
     }
 
     /**
-     * @return the values of the current column
+     * @param metadata the result set metadata
+     * @return the readers of the columns, chosen once for all rows
      * @throws SQLException if a database access error occurs
      */
-    private List<Object> getColumnValues(final int columnCount) throws SQLException {
-        final List<Object> values = new ArrayList<Object>(columnCount);
-        for (int i = 0; i < columnCount; i++) {
-            values.add(this.resultSet.getObject(i + 1));
+    private ResultSetColumnReader[] getColumnReaders(final ResultSetMetaData metadata)
+            throws SQLException {
+        final int columnCount = metadata.getColumnCount();
+        final ResultSetColumnReader[] readers = new ResultSetColumnReader[columnCount];
+        for (int j = 0; j < columnCount; j++) {
+            final CellType cellType =
+                    this.cellTypeByColIndex == null ? null : this.cellTypeByColIndex.get(j);
+            readers[j] =
+                    ResultSetColumnReader.create(metadata.getColumnType(j + 1), this.converter,
+                            cellType);
         }
-        return values;
+        return readers;
     }
 
     private void writeFirstLineDataTo(final TableCellWalker walker,
@@ -194,22 +244,79 @@ public final class ResultSetDataWrapper implements DataWrapper {
         }
     }
 
-    private void writeDataLineTo(final TableCellWalker walker, final int columnCount)
+    /**
+     * @return the row count, see addToTable
+     */
+    private int writeDataLinesTo(final TableCellWalker walker, final int c1,
+                                 final ResultSetColumnReader[] readers)
+            throws SQLException, FastOdsException, IOException {
+        int rowCount = 0;
+        if (this.resultSet.next()) {
+            do {
+                if (this.max == -1 || ++rowCount <= this.max) {
+                    walker.nextRow();
+                    walker.to(c1);
+                    this.writeDataLineTo(walker, readers);
+                }
+            } while (this.resultSet.next());
+        }
+        return rowCount;
+    }
+
+    /**
+     * Same as writeDataLinesTo, but the rows are read by another thread.
+     *
+     * @return the row count, see addToTable
+     */
+    private int writePrefetchedDataLinesTo(final TableCellWalker walker, final int c1,
+                                           final ResultSetColumnReader[] readers)
+            throws SQLException, FastOdsException, IOException {
+        final ResultSetPrefetcher prefetcher =
+                ResultSetPrefetcher.start(this.prefetchExecutor, this.resultSet, readers,
+                        this.batchSize, this.batchCount);
+        int rowCount = 0;
+        try {
+            boolean last = false;
+            while (!last) {
+                final ResultSetRowBatch batch = prefetcher.take();
+                final int batchRowCount = batch.getRowCount();
+                for (int r = 0; r < batchRowCount; r++) {
+                    if (this.max == -1 || ++rowCount <= this.max) {
+                        walker.nextRow();
+                        walker.to(c1);
+                        this.writeDataLineTo(walker, readers, batch, r);
+                    }
+                }
+                last = batch.isLast();
+                prefetcher.release(batch);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the ResultSet rows");
+        } finally {
+            prefetcher.cancel();
+        }
+        return rowCount;
+    }
+
+    private void writeDataLineTo(final TableCellWalker walker,
+                                 final ResultSetColumnReader[] readers,
+                                 final ResultSetRowBatch batch, final int r)
+            throws FastOdsException {
+        for (int j = 0; j < readers.length; j++) {
+            if (!readers[j].write(batch, batch.slot(r, j), walker)) {
+                walker.setCellValue(this.nullValue);
+            }
+            walker.next();
+        }
+    }
+
+    private void writeDataLineTo(final TableCellWalker walker,
+                                 final ResultSetColumnReader[] readers)
             throws SQLException, FastOdsException {
-        final List<Object> columnValues = this.getColumnValues(columnCount);
-        for (int j = 0; j <= columnCount - 1; j++) {
-            final Object object = columnValues.get(j);
-            if (object == null) {
+        for (int j = 0; j < readers.length; j++) {
+            if (!readers[j].read(this.resultSet, j + 1, walker)) {
                 walker.setCellValue(this.nullValue);
-            } else if (this.cellTypeByColIndex != null) {
-                final CellType cellType = this.cellTypeByColIndex.get(j);
-                if (cellType != null) {
-                    walker.setCellValue(this.converter.from(cellType, object));
-                } else {
-                    walker.setCellValue(this.converter.from(object));
-                }
-            } else {
-                walker.setCellValue(this.converter.from(object));
             }
             walker.next();
         }
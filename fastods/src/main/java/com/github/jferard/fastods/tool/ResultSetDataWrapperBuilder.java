@@ -25,7 +25,6 @@ package com.github.jferard.fastods.tool;
 
 import com.github.jferard.fastods.CellValue;
 import com.github.jferard.fastods.StringValue;
-import com.github.jferard.fastods.TimeValue;
 import com.github.jferard.fastods.attribute.CellType;
 import com.github.jferard.fastods.attribute.SimpleColor;
 import com.github.jferard.fastods.style.TableCellStyle;
@@ -36,6 +35,7 @@ import java.text.NumberFormat;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Logger;
 
 /**
@@ -47,6 +47,8 @@ public class ResultSetDataWrapperBuilder {
     private static final TableCellStyle HEADER_STYLE =
             TableCellStyle.builder("rs-data-wrapper").backgroundColor(SimpleColor.GRAY64)
                     .fontWeightBold().build();
+    private static final int DEFAULT_BATCH_SIZE = 256;
+    private static final int DEFAULT_BATCH_COUNT = 4;
 
     private final String rangeName;
     private final ResultSet rs;
@@ -59,6 +61,10 @@ public class ResultSetDataWrapperBuilder {
     private boolean autoFilter;
     private int max;
     private CellValue nullValue;
+    private int fetchSize;
+    private ExecutorService prefetchExecutor;
+    private int batchSize;
+    private int batchCount;
 
 
     /**
@@ -72,16 +78,15 @@ public class ResultSetDataWrapperBuilder {
         this.headerStyle = HEADER_STYLE;
         this.autoFilter = true;
         this.max = -1;
+        this.fetchSize = 0;
+        this.prefetchExecutor = null;
+        this.batchSize = DEFAULT_BATCH_SIZE;
+        this.batchCount = DEFAULT_BATCH_COUNT;
         this.cellTypeByIndex = new HashMap<Integer, CellType>();
         this.currency = NumberFormat.getCurrencyInstance(Locale.US).getCurrency().getSymbol();
         this.charset = Charset.forName("US-ASCII");
         this.nullValue = new StringValue("<NULL>");
-        this.converter = new SQLToCellValueConverter.IntervalConverter() {
-            @Override
-            public TimeValue castToInterval(final Object o) {
-                return null;
-            }
-        };
+        this.converter = SQLToCellValueConverter.NO_INTERVAL_CONVERTER;
     }
 
     /**
@@ -127,6 +132,57 @@ public class ResultSetDataWrapperBuilder {
         return this;
     }
 
+    /**
+     * Give a hint to the driver: the number of rows to fetch from the database at once. The
+     * default is the driver default.
+     *
+     * @param fetchSize the number of rows, greater than 0
+     * @return this for fluent style
+     */
+    public ResultSetDataWrapperBuilder fetchSize(final int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch size should be positive: " + fetchSize);
+        }
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    /**
+     * Read the rows in another thread, while the previous rows are written to the table: the
+     * latency of the database overlaps the creation of the cells. The result set is read by
+     * batches of 256 rows, and at most 4 batches are kept in memory.
+     * <p>
+     * The executor should not be the executor of the tasks that call addToTable, unless it
+     * has enough threads for all the tasks: each prefetcher needs its own thread.
+     *
+     * @param executor the executor of the prefetcher
+     * @return this for fluent style
+     */
+    public ResultSetDataWrapperBuilder prefetch(final ExecutorService executor) {
+        return this.prefetch(executor, DEFAULT_BATCH_SIZE, DEFAULT_BATCH_COUNT);
+    }
+
+    /**
+     * Read the rows in another thread. See prefetch(ExecutorService).
+     *
+     * @param executor   the executor of the prefetcher
+     * @param batchSize  the number of rows per batch, greater than 0
+     * @param batchCount the maximum number of batches in memory, greater than 0
+     * @return this for fluent style
+     */
+    public ResultSetDataWrapperBuilder prefetch(final ExecutorService executor,
+                                                final int batchSize, final int batchCount) {
+        if (batchSize <= 0 || batchCount <= 0) {
+            throw new IllegalArgumentException(
+                    "Batch size and batch count should be positive: " + batchSize + ", " +
+                            batchCount);
+        }
+        this.prefetchExecutor = executor;
+        this.batchSize = batchSize;
+        this.batchCount = batchCount;
+        return this;
+    }
+
     /**
      * Remove the auto filter
      *
@@ -205,6 +261,6 @@ public class ResultSetDataWrapperBuilder {
                 this.cellTypeByIndex.isEmpty() ? null : this.cellTypeByIndex;
         return new ResultSetDataWrapper(this.logger, sqlToCellValueConverter, this.rangeName,
                 this.rs, this.headerStyle, this.autoFilter, cellTypeByIndexOrNull, this.nullValue,
-                this.max);
+                this.max, this.fetchSize, this.prefetchExecutor, this.batchSize, this.batchCount);
     }
 }
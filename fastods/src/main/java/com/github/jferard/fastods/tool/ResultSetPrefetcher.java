@@ -0,0 +1,167 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * A producer of row batches: a task pulls the rows of the result set into batches, while the
+ * consumer writes the previous batches to the table. The batches circulate between a queue of
+ * free batches and a queue of filled batches, hence the number of rows in memory is bounded.
+ *
+ * @author J. Férard
+ */
+class ResultSetPrefetcher implements Callable<Void> {
+    /**
+     * Start a prefetcher
+     *
+     * @param executor     the executor that runs the producer
+     * @param rs           the result set, before the first row
+     * @param readers      the column readers
+     * @param batchSize    the number of rows per batch
+     * @param batchCount   the number of batches
+     * @return the running prefetcher
+     */
+    static ResultSetPrefetcher start(final ExecutorService executor, final ResultSet rs,
+                                     final ResultSetColumnReader[] readers, final int batchSize,
+                                     final int batchCount) {
+        final BlockingQueue<ResultSetRowBatch> freeBatches =
+                new ArrayBlockingQueue<ResultSetRowBatch>(batchCount);
+        for (int i = 0; i < batchCount; i++) {
+            freeBatches.add(new ResultSetRowBatch(readers.length, batchSize));
+        }
+        final ResultSetPrefetcher prefetcher = new ResultSetPrefetcher(rs, readers, batchSize,
+                freeBatches, new ArrayBlockingQueue<ResultSetRowBatch>(batchCount));
+        prefetcher.future = executor.submit(prefetcher);
+        return prefetcher;
+    }
+
+    private final ResultSet rs;
+    private final ResultSetColumnReader[] readers;
+    private final int batchSize;
+    private final BlockingQueue<ResultSetRowBatch> freeBatches;
+    private final BlockingQueue<ResultSetRowBatch> filledBatches;
+    /**
+     * the error of the producer, published by the filled batch queue
+     */
+    private Exception error;
+    private Future<Void> future;
+
+    /**
+     * @param rs            the result set, before the first row
+     * @param readers       the column readers
+     * @param batchSize     the number of rows per batch
+     * @param freeBatches   the batches ready to be filled
+     * @param filledBatches the batches ready to be written
+     */
+    ResultSetPrefetcher(final ResultSet rs, final ResultSetColumnReader[] readers,
+                        final int batchSize, final BlockingQueue<ResultSetRowBatch> freeBatches,
+                        final BlockingQueue<ResultSetRowBatch> filledBatches) {
+        this.rs = rs;
+        this.readers = readers;
+        this.batchSize = batchSize;
+        this.freeBatches = freeBatches;
+        this.filledBatches = filledBatches;
+    }
+
+    @Override
+    public Void call() throws InterruptedException {
+        boolean last = false;
+        while (!last) {
+            final ResultSetRowBatch batch = this.freeBatches.take();
+            try {
+                last = this.fill(batch);
+            } catch (final SQLException e) {
+                this.error = e;
+                batch.setLast();
+                last = true;
+            } catch (final RuntimeException e) {
+                this.error = e;
+                batch.setLast();
+                last = true;
+            }
+            this.filledBatches.put(batch);
+        }
+        return null;
+    }
+
+    private boolean fill(final ResultSetRowBatch batch) throws SQLException {
+        int r = 0;
+        while (r < this.batchSize) {
+            if (!this.rs.next()) {
+                batch.setRowCount(r);
+                batch.setLast();
+                return true;
+            }
+            for (int j = 0; j < this.readers.length; j++) {
+                this.readers[j].fetch(this.rs, j + 1, batch, batch.slot(r, j));
+            }
+            r++;
+        }
+        batch.setRowCount(r);
+        return false;
+    }
+
+    /**
+     * Wait for the next batch.
+     *
+     * @return the next batch. The last batch has the flag last.
+     * @throws SQLException         if the producer failed to read the result set. Any other
+     *                              exception of the producer is rethrown as is.
+     * @throws InterruptedException if the consumer was interrupted
+     */
+    ResultSetRowBatch take() throws SQLException, InterruptedException {
+        final ResultSetRowBatch batch = this.filledBatches.take();
+        if (this.error instanceof SQLException) {
+            throw (SQLException) this.error;
+        } else if (this.error != null) {
+            throw (RuntimeException) this.error;
+        }
+        return batch;
+    }
+
+    /**
+     * Give a batch back to the producer
+     *
+     * @param batch the batch that was written
+     */
+    void release(final ResultSetRowBatch batch) {
+        batch.clear();
+        this.freeBatches.add(batch);
+    }
+
+    /**
+     * Stop the producer if it is still running. The result set is left in an unspecified
+     * position.
+     */
+    void cancel() {
+        this.future.cancel(true);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import java.util.Arrays;
+
+/**
+ * A batch of rows read from a result set. The values are stored by slot (row * column count +
+ * column): the primitive values in an array of longs, the other values in an array of objects.
+ * The batches are recycled by the prefetcher.
+ *
+ * @author J. Férard
+ */
+final class ResultSetRowBatch {
+    private final int columnCount;
+    private final long[] primitives;
+    private final Object[] objects;
+    private final boolean[] nulls;
+    private int rowCount;
+    private boolean last;
+
+    /**
+     * @param columnCount the number of columns
+     * @param capacity    the maximum number of rows
+     */
+    ResultSetRowBatch(final int columnCount, final int capacity) {
+        this.columnCount = columnCount;
+        final int size = columnCount * capacity;
+        this.primitives = new long[size];
+        this.objects = new Object[size];
+        this.nulls = new boolean[size];
+        this.rowCount = 0;
+        this.last = false;
+    }
+
+    /**
+     * @param r the index of the row in the batch
+     * @param j the index of the column, 0-based
+     * @return the slot of the value
+     */
+    int slot(final int r, final int j) {
+        return r * this.columnCount + j;
+    }
+
+    /**
+     * @param slot  the slot
+     * @param value the primitive value
+     */
+    void setPrimitive(final int slot, final long value) {
+        this.primitives[slot] = value;
+        this.nulls[slot] = false;
+    }
+
+    /**
+     * @param slot  the slot
+     * @param value the value, null for SQL NULL
+     */
+    void setObject(final int slot, final Object value) {
+        this.objects[slot] = value;
+        this.nulls[slot] = value == null;
+    }
+
+    /**
+     * @param slot the slot
+     */
+    void setNull(final int slot) {
+        this.objects[slot] = null;
+        this.nulls[slot] = true;
+    }
+
+    /**
+     * @param slot the slot
+     * @return the primitive value
+     */
+    long getPrimitive(final int slot) {
+        return this.primitives[slot];
+    }
+
+    /**
+     * @param slot the slot
+     * @return the value
+     */
+    Object getObject(final int slot) {
+        return this.objects[slot];
+    }
+
+    /**
+     * @param slot the slot
+     * @return true if the value was SQL NULL
+     */
+    boolean isNull(final int slot) {
+        return this.nulls[slot];
+    }
+
+    /**
+     * @return the number of rows in this batch
+     */
+    int getRowCount() {
+        return this.rowCount;
+    }
+
+    /**
+     * @param rowCount the number of rows in this batch
+     */
+    void setRowCount(final int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * @return true if there is no row after this batch
+     */
+    boolean isLast() {
+        return this.last;
+    }
+
+    /**
+     * Mark this batch as the last batch
+     */
+    void setLast() {
+        this.last = true;
+    }
+
+    /**
+     * Release the objects and make the batch ready for new rows.
+     */
+    void clear() {
+        Arrays.fill(this.objects, null);
+        this.rowCount = 0;
+        this.last = false;
+    }
+}
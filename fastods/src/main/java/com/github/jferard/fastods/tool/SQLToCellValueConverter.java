@@ -47,6 +47,16 @@ import java.sql.Timestamp;
  * @author J. Férard
  */
 public class SQLToCellValueConverter implements ToCellValueConverter {
+    /**
+     * An interval converter that does not cast anything: the default.
+     */
+    public static final IntervalConverter NO_INTERVAL_CONVERTER = new IntervalConverter() {
+        @Override
+        public TimeValue castToInterval(final Object o) {
+            return null;
+        }
+    };
+
     /**
      * Create a new converter
      *
@@ -77,6 +87,16 @@ public class SQLToCellValueConverter implements ToCellValueConverter {
         this.charset = charset;
     }
 
+    /**
+     * @return true if the values of the typed columns (numbers, booleans, dates, strings) are
+     * converted as usual: no custom interval converter and the default POJO converter. The
+     * result set readers may then bypass this converter for those columns.
+     */
+    boolean isDefault() {
+        return this.intervalConverter == NO_INTERVAL_CONVERTER &&
+                this.converter.getClass() == ObjectToCellValueConverter.class;
+    }
+
     @Override
     public CellValue from(final Object o) {
         try {
@@ -0,0 +1,158 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock free, multiple producers / single consumer queue backed by a ring buffer.
+ * The producers claim a slot with a CAS on the tail and never block: offer returns false if the
+ * queue is full. The consumer side is not thread safe: the callers have to ensure that only one
+ * thread polls at a time.
+ *
+ * @param <E> type of the elements
+ * @author J. Férard
+ */
+public final class BoundedConcurrentQueue<E> extends AbstractQueue<E> {
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * @param capacity the minimal capacity, rounded up to the next power of two
+     * @param <F>      the type of the elements
+     * @return a new empty queue
+     */
+    public static <F> BoundedConcurrentQueue<F> create(final int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        int realCapacity = 1;
+        while (realCapacity < capacity) {
+            realCapacity <<= 1;
+        }
+        return new BoundedConcurrentQueue<F>(new AtomicReferenceArray<F>(realCapacity));
+    }
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail;
+    private volatile long head;
+
+    /**
+     * @param slots the slots, length must be a power of two
+     */
+    BoundedConcurrentQueue(final AtomicReferenceArray<E> slots) {
+        this.slots = slots;
+        this.mask = slots.length() - 1;
+        this.tail = new AtomicLong(0);
+        this.head = 0;
+    }
+
+    /**
+     * @return the number of slots
+     */
+    public int capacity() {
+        return this.mask + 1;
+    }
+
+    @Override
+    public boolean offer(final E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        while (true) {
+            final long t = this.tail.get();
+            if (t - this.head > this.mask) {
+                return false;
+            }
+            if (this.tail.compareAndSet(t, t + 1)) {
+                this.slots.lazySet((int) t & this.mask, element);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public E poll() {
+        final long h = this.head;
+        if (h == this.tail.get()) {
+            return null;
+        }
+        final int index = (int) h & this.mask;
+        final E element = this.waitForSlot(index);
+        this.slots.lazySet(index, null);
+        this.head = h + 1;
+        return element;
+    }
+
+    @Override
+    public E peek() {
+        final long h = this.head;
+        if (h == this.tail.get()) {
+            return null;
+        }
+        return this.waitForSlot((int) h & this.mask);
+    }
+
+    /**
+     * The slot was claimed by a producer, but the element might not be visible yet.
+     */
+    private E waitForSlot(final int index) {
+        E element = this.slots.get(index);
+        while (element == null) {
+            Thread.yield();
+            element = this.slots.get(index);
+        }
+        return element;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.head == this.tail.get();
+    }
+
+    @Override
+    public int size() {
+        final long size = this.tail.get() - this.head;
+        if (size < 0) {
+            return 0;
+        } else if (size > this.mask) {
+            return this.mask + 1;
+        } else {
+            return (int) size;
+        }
+    }
+
+    /**
+     * Not supported: the elements are visible to the consumer only.
+     *
+     * @return nothing
+     */
+    @Override
+    public Iterator<E> iterator() {
+        throw new UnsupportedOperationException();
+    }
+}
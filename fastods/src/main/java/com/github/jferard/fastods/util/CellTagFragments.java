@@ -0,0 +1,137 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.jferard.fastods.util;
+
+import com.github.jferard.fastods.attribute.CellType;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A cache of the pre-rendered attributes of the cell open tags. For every
+ * (style name, cell type) combination, the fragment
+ * {@code  table:style-name="..." office:value-type="..." office:value="} is rendered, escaped
+ * and encoded to UTF-8 once: a cell is written as the tag name, the fragment, the value and a
+ * quote (see XmlByteWriter).
+ * <p>
+ * The covered flag and the number of repeated columns are not part of the key: the tag name is
+ * a constant and the repeat attribute precedes the fragment.
+ * <p>
+ * This class is not thread-safe: there is one instance per XMLUtil, created with the util and
+ * published by a final field. A thread that writes XML uses its own copy of the XMLUtil (see
+ * XMLUtil#copy()).
+ *
+ * @author J. Férard
+ * @see XMLUtil#getCellTagFragments()
+ */
+public final class CellTagFragments {
+    private static final CellType[] CELL_TYPES = CellType.values();
+    private static final int NO_TYPE = CELL_TYPES.length;
+
+    private final XMLUtil xmlUtil;
+    private final Map<String, byte[][]> fragmentsByStyleName;
+    private final byte[][] noStyleFragments;
+    private final Map<String, byte[]> currencyFragmentByCurrency;
+    private String lastStyleName;
+    private byte[][] lastFragments;
+
+    /**
+     * @param xmlUtil the util used to escape the style names and the currencies
+     */
+    CellTagFragments(final XMLUtil xmlUtil) {
+        this.xmlUtil = xmlUtil;
+        this.fragmentsByStyleName = new HashMap<String, byte[][]>();
+        this.noStyleFragments = new byte[NO_TYPE + 1][];
+        this.currencyFragmentByCurrency = new HashMap<String, byte[]>();
+    }
+
+    /**
+     * @param styleName the name of the style, null if there is no style attribute
+     * @param type      the type of the cell, null if there is no value
+     * @return the UTF-8 bytes of the style attribute, the type attribute and the name of the
+     * value attribute followed by {@code ="}. If the type is null, only the style attribute.
+     */
+    public byte[] getFragment(final String styleName, final CellType type) {
+        final byte[][] fragments = this.getFragments(styleName);
+        final int index = type == null ? NO_TYPE : type.ordinal();
+        byte[] fragment = fragments[index];
+        if (fragment == null) {
+            fragment = this.render(styleName, type);
+            fragments[index] = fragment;
+        }
+        return fragment;
+    }
+
+    private byte[][] getFragments(final String styleName) {
+        if (styleName == null) {
+            return this.noStyleFragments;
+        }
+        if (styleName.equals(this.lastStyleName)) {
+            return this.lastFragments;
+        }
+        byte[][] fragments = this.fragmentsByStyleName.get(styleName);
+        if (fragments == null) {
+            fragments = new byte[NO_TYPE + 1][];
+            this.fragmentsByStyleName.put(styleName, fragments);
+        }
+        this.lastStyleName = styleName;
+        this.lastFragments = fragments;
+        return fragments;
+    }
+
+    private byte[] render(final String styleName, final CellType type) {
+        final StringBuilder sb = new StringBuilder();
+        try {
+            if (styleName != null) {
+                this.xmlUtil.appendEAttribute(sb, "table:style-name", styleName);
+            }
+            if (type != null) {
+                this.xmlUtil.appendAttribute(sb, "office:value-type", type);
+                sb.append(' ').append(type.getValueAttribute()).append("=\"");
+            }
+        } catch (final IOException e) {
+            throw new AssertionError(e);
+        }
+        return XmlByteWriter.encode(sb.toString());
+    }
+
+    /**
+     * @param currency the currency
+     * @return the UTF-8 bytes of the escaped currency attribute
+     */
+    public byte[] getCurrencyFragment(final String currency) {
+        byte[] fragment = this.currencyFragmentByCurrency.get(currency);
+        if (fragment == null) {
+            final StringBuilder sb = new StringBuilder();
+            try {
+                this.xmlUtil.appendEAttribute(sb, "office:currency", currency);
+            } catch (final IOException e) {
+                throw new AssertionError(e);
+            }
+            fragment = XmlByteWriter.encode(sb.toString());
+            this.currencyFragmentByCurrency.put(currency, fragment);
+        }
+        return fragment;
+    }
+}
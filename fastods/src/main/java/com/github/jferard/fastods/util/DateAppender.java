@@ -0,0 +1,183 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.io.IOException;
+
+/**
+ * Append dates in the ISO 8601 format of the office:date-value attributes
+ * (yyyy-MM-ddTHH:mm:ss.SSSZ, UTC) without a SimpleDateFormat.
+ * <p>
+ * The methods are static and stateless, hence thread safe, and do not create any object. The
+ * calendar is the proleptic gregorian calendar (SimpleDateFormat switches to the julian
+ * calendar before October 15, 1582).
+ *
+ * @author J. Férard
+ */
+public final class DateAppender {
+    private static final long MILLIS_PER_DAY = 86400000L;
+    /**
+     * Days from 0000-03-01 to 1970-01-01
+     */
+    private static final long DAYS_0000_TO_1970 = 719468L;
+    private static final int DAYS_PER_ERA = 146097;
+
+    private DateAppender() {
+    }
+
+    /**
+     * Append the date as yyyy-MM-ddTHH:mm:ss.SSSZ, in UTC.
+     *
+     * @param appendable  the destination
+     * @param epochMillis the milliseconds since 1970-01-01T00:00:00Z
+     * @throws IOException if an I/O error occurs
+     */
+    public static void appendDateTime(final Appendable appendable, final long epochMillis)
+            throws IOException {
+        long days = epochMillis / MILLIS_PER_DAY;
+        int millisOfDay = (int) (epochMillis % MILLIS_PER_DAY);
+        if (millisOfDay < 0) {
+            days--;
+            millisOfDay += MILLIS_PER_DAY;
+        }
+
+        // See H. Hinnant, chrono-Compatible Low-Level Date Algorithms, civil_from_days
+        final long z = days + DAYS_0000_TO_1970;
+        final long era = (z >= 0 ? z : z - DAYS_PER_ERA + 1) / DAYS_PER_ERA;
+        final int dayOfEra = (int) (z - era * DAYS_PER_ERA);
+        final int yearOfEra =
+                (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final int mp = (5 * dayOfYear + 2) / 153; // march = 0
+        final int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        final int month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400;
+        if (month <= 2) {
+            year++;
+        }
+
+        if (year < 0) {
+            appendable.append('-');
+            year = -year;
+        }
+        if (year > 9999) {
+            appendable.append(Long.toString(year));
+        } else {
+            appendDigits(appendable, (int) year, 4);
+        }
+        appendable.append('-');
+        appendDigits(appendable, month, 2);
+        appendable.append('-');
+        appendDigits(appendable, day, 2);
+        appendable.append('T');
+        appendDigits(appendable, millisOfDay / 3600000, 2);
+        appendable.append(':');
+        appendDigits(appendable, millisOfDay / 60000 % 60, 2);
+        appendable.append(':');
+        appendDigits(appendable, millisOfDay / 1000 % 60, 2);
+        appendable.append('.');
+        appendDigits(appendable, millisOfDay % 1000, 3);
+        appendable.append('Z');
+    }
+
+    private static void appendDigits(final Appendable appendable, final int value,
+                                     final int digits) throws IOException {
+        switch (digits) {
+            case 4:
+                appendable.append((char) ('0' + value / 1000));
+                appendable.append((char) ('0' + value / 100 % 10));
+                appendable.append((char) ('0' + value / 10 % 10));
+                break;
+            case 3:
+                appendable.append((char) ('0' + value / 100));
+                appendable.append((char) ('0' + value / 10 % 10));
+                break;
+            default: // 2
+                appendable.append((char) ('0' + value / 10));
+                break;
+        }
+        appendable.append((char) ('0' + value % 10));
+    }
+
+    /**
+     * Convert UTC calendar fields to milliseconds since the epoch.
+     *
+     * @param year   the year
+     * @param month  the month, 1 to 12 (not 0 to 11, as in a Calendar)
+     * @param day    the day of month, 1 to the length of the month (28 to 31)
+     * @param hour   the hour of day, 0 to 23
+     * @param minute the minute, 0 to 59
+     * @param second the second, 0 to 59
+     * @param millis the milliseconds, 0 to 999
+     * @return the milliseconds since 1970-01-01T00:00:00Z
+     */
+    public static long toEpochMillis(final int year, final int month, final int day,
+                                     final int hour, final int minute, final int second,
+                                     final int millis) {
+        checkRange("month", month, 1, 12);
+        checkRange("day", day, 1, lengthOfMonth(year, month));
+        checkRange("hour", hour, 0, 23);
+        checkRange("minute", minute, 0, 59);
+        checkRange("second", second, 0, 59);
+        checkRange("millis", millis, 0, 999);
+
+        // See H. Hinnant, days_from_civil
+        final long y = month <= 2 ? year - 1 : year;
+        final long era = (y >= 0 ? y : y - 399) / 400;
+        final int yearOfEra = (int) (y - era * 400);
+        final int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        final long days = era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
+        return days * MILLIS_PER_DAY + hour * 3600000L + minute * 60000L + second * 1000L +
+                millis;
+    }
+
+    /**
+     * @param year  the year, in the proleptic Gregorian calendar
+     * @param month the month, 1 to 12
+     * @return the number of days of the month
+     */
+    private static int lengthOfMonth(final int year, final int month) {
+        switch (month) {
+            case 2:
+                final boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static void checkRange(final String name, final int value, final int min,
+                                   final int max) {
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(
+                    "The " + name + " must be between " + min + " and " + max + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.io.IOException;
+
+/**
+ * Append longs and doubles to an appendable without creating a String.
+ * <p>
+ * A double is written as the decimal with the fewest fraction digits that is converted back
+ * to the same double. This is the shortest round trip representation for the common values
+ * (integers, prices, measures with a few decimals). The other values (more than
+ * MAX_FRACTION_DIGITS fraction digits, huge or tiny values) are written by Double.toString,
+ * that is round trip but may use the scientific notation.
+ *
+ * @author J. Férard
+ */
+final class DecimalAppender {
+    private static final int MAX_FRACTION_DIGITS = 15;
+    private static final double TWO_POW_53 = 9007199254740992.0;
+    private static final long[] LONG_POWERS_OF_TEN;
+    private static final double[] DOUBLE_POWERS_OF_TEN;
+
+    static {
+        LONG_POWERS_OF_TEN = new long[19];
+        DOUBLE_POWERS_OF_TEN = new double[MAX_FRACTION_DIGITS + 1];
+        long p = 1;
+        for (int i = 0; i < LONG_POWERS_OF_TEN.length; i++) {
+            LONG_POWERS_OF_TEN[i] = p;
+            if (i < DOUBLE_POWERS_OF_TEN.length) {
+                DOUBLE_POWERS_OF_TEN[i] = p; // exact up to 10^22
+            }
+            p *= 10;
+        }
+    }
+
+    private DecimalAppender() {
+    }
+
+    /**
+     * @param appendable the destination
+     * @param value      the value
+     * @throws IOException if an I/O error occurs
+     */
+    static void appendLong(final Appendable appendable, final long value) throws IOException {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                appendable.append(Long.toString(value));
+                return;
+            }
+            appendable.append('-');
+            appendDigits(appendable, -value, 1);
+        } else {
+            appendDigits(appendable, value, 1);
+        }
+    }
+
+    /**
+     * @param appendable the destination
+     * @param value      the value
+     * @throws IOException if an I/O error occurs
+     */
+    static void appendDouble(final Appendable appendable, final double value)
+            throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            appendable.append(Double.toString(value));
+            return;
+        }
+        if (value == 0.0) {
+            if (1.0 / value < 0) {
+                appendable.append("-0");
+            } else {
+                appendable.append('0');
+            }
+            return;
+        }
+
+        final double abs = Math.abs(value);
+        for (int k = 0; k <= MAX_FRACTION_DIGITS; k++) {
+            final double scaled = Math.rint(abs * DOUBLE_POWERS_OF_TEN[k]);
+            if (scaled >= TWO_POW_53) {
+                break;
+            }
+            // scaled and 10^k are exact, hence the division is correctly rounded
+            if (scaled / DOUBLE_POWERS_OF_TEN[k] == abs) {
+                if (value < 0) {
+                    appendable.append('-');
+                }
+                appendDecimal(appendable, (long) scaled, k);
+                return;
+            }
+        }
+        appendable.append(Double.toString(value));
+    }
+
+    /**
+     * Append unscaled * 10^-fractionDigits.
+     */
+    private static void appendDecimal(final Appendable appendable, long unscaled,
+                                      int fractionDigits) throws IOException {
+        while (fractionDigits > 0 && unscaled % 10 == 0) {
+            unscaled /= 10;
+            fractionDigits--;
+        }
+        final long divisor = LONG_POWERS_OF_TEN[fractionDigits];
+        appendDigits(appendable, unscaled / divisor, 1);
+        if (fractionDigits > 0) {
+            appendable.append('.');
+            appendDigits(appendable, unscaled % divisor, fractionDigits);
+        }
+    }
+
+    /**
+     * Append the digits of a non negative number, left padded with zeros.
+     */
+    private static void appendDigits(final Appendable appendable, final long value,
+                                     final int minDigits) throws IOException {
+        int digits = 1;
+        while (digits < LONG_POWERS_OF_TEN.length && LONG_POWERS_OF_TEN[digits] <= value) {
+            digits++;
+        }
+        for (int i = digits; i < minDigits; i++) {
+            appendable.append('0');
+        }
+        long remainder = value;
+        for (int i = digits - 1; i >= 0; i--) {
+            final long p = LONG_POWERS_OF_TEN[i];
+            final int digit = (int) (remainder / p);
+            appendable.append((char) ('0' + digit));
+            remainder -= digit * p;
+        }
+    }
+}
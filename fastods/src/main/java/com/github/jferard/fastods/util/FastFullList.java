@@ -179,6 +179,28 @@ public class FastFullList<E> implements Iterable<E> {
         this.size = last + 1;
     }
 
+    /**
+     * Remove the first elements of the list and shift the other elements to the left. The
+     * freed slots are cleared to let the garbage collector reclaim the removed elements.
+     *
+     * @param count the number of elements to remove
+     */
+    public void removeHead(final int count) {
+        if (count <= 0) {
+            return;
+        }
+        if (count >= this.size) {
+            Arrays.fill(this.arr, 0, this.size, null);
+            this.size = 0;
+            return;
+        }
+
+        final int newSize = this.size - count;
+        System.arraycopy(this.arr, count, this.arr, 0, newSize);
+        Arrays.fill(this.arr, newSize, this.size, null);
+        this.size = newSize;
+    }
+
     /**
      * @param index the index
      * @return the element at the index
@@ -23,17 +23,30 @@
 
 package com.github.jferard.fastods.util;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * The FastOdsXMLEscaper class is an utility class to escape XML special chars.
+ * <p>
+ * The escaped strings are kept in two bounded LRU caches (attributes and content). The cache
+ * speeds up repetitive data, but is useless for high cardinality data (e.g. free text): in this
+ * case, use a small cache or no cache at all. The hit and miss counters help to choose the
+ * size.
  *
  * @author Julien Férard
  */
 @SuppressWarnings("PMD.UnusedLocalVariable")
 public class FastOdsXMLEscaper implements XMLEscaper {
     private static final int BUFFER_SIZE = 65536;
+    /**
+     * The default number of entries of each cache
+     */
+    public static final int DEFAULT_CACHE_SIZE = 4096;
+    /**
+     * The size of the cache to disable the cache
+     */
+    public static final int NO_CACHE = 0;
     private static final char[][] CHAR_SUBSTITUTES_IN_ATTRIBUTE;
     private static final char[][] CHAR_SUBSTITUTES_IN_CONTENT;
 
@@ -44,6 +57,14 @@ public class FastOdsXMLEscaper implements XMLEscaper {
         return new FastOdsXMLEscaper(FastOdsXMLEscaper.BUFFER_SIZE);
     }
 
+    /**
+     * @param cacheSize the max number of entries of each cache, or NO_CACHE
+     * @return an xml escaper with the default buffer size (65536 bytes)
+     */
+    public static FastOdsXMLEscaper create(final int cacheSize) {
+        return new FastOdsXMLEscaper(FastOdsXMLEscaper.BUFFER_SIZE, cacheSize);
+    }
+
     static {
         final char[] REPLACEMENT_CHAR = "\\uFFFD".toCharArray();
         CHAR_SUBSTITUTES_IN_ATTRIBUTE =
@@ -73,19 +94,66 @@ public class FastOdsXMLEscaper implements XMLEscaper {
                         "&lt;".toCharArray(), null, "&gt;".toCharArray()};
     }
 
+    private final int bufferSize;
+    private final int cacheSize;
     private final Map<String, String> attrCacheMap;
     private final Map<String, String> contentCacheMap;
     private char[] buffer;
+    private long cacheHitCount;
+    private long cacheMissCount;
 
     /**
-     * Creates an xml escaper with a specified buffer size
+     * Creates an xml escaper with a specified buffer size and the default cache size
      *
      * @param bufferSize the buffer size
      */
     public FastOdsXMLEscaper(final int bufferSize) {
-        this.attrCacheMap = new HashMap<String, String>();
-        this.contentCacheMap = new HashMap<String, String>();
+        this(bufferSize, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates an xml escaper with a specified buffer size and cache size
+     *
+     * @param bufferSize the buffer size
+     * @param cacheSize  the max number of entries of each cache, or NO_CACHE
+     */
+    public FastOdsXMLEscaper(final int bufferSize, final int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("The cache size must be positive or zero");
+        }
+        this.bufferSize = bufferSize;
+        this.cacheSize = cacheSize;
+        if (cacheSize == NO_CACHE) {
+            this.attrCacheMap = null;
+            this.contentCacheMap = null;
+        } else {
+            this.attrCacheMap = new LRUCache(cacheSize);
+            this.contentCacheMap = new LRUCache(cacheSize);
+        }
         this.buffer = new char[bufferSize];
+        this.cacheHitCount = 0;
+        this.cacheMissCount = 0;
+    }
+
+    /**
+     * @return a new escaper with the same buffer size and cache size, and empty caches
+     */
+    public FastOdsXMLEscaper copy() {
+        return new FastOdsXMLEscaper(this.bufferSize, this.cacheSize);
+    }
+
+    /**
+     * @return the number of strings that were found in the caches
+     */
+    public long getCacheHitCount() {
+        return this.cacheHitCount;
+    }
+
+    /**
+     * @return the number of strings that were escaped (not found in the caches, or no cache)
+     */
+    public long getCacheMissCount() {
+        return this.cacheMissCount;
     }
 
     @Override
@@ -94,13 +162,25 @@ public class FastOdsXMLEscaper implements XMLEscaper {
             return null;
         }
 
-        final String cached = this.attrCacheMap.get(s);
+        return this.escape(s, this.attrCacheMap, CHAR_SUBSTITUTES_IN_ATTRIBUTE);
+    }
+
+    private String escape(final String s, final Map<String, String> cacheMap,
+                          final char[][] charSubstitutes) {
+        if (cacheMap == null) {
+            this.cacheMissCount++;
+            return this.getEscapedString(s, charSubstitutes);
+        }
+
+        final String cached = cacheMap.get(s);
         if (cached != null) {
+            this.cacheHitCount++;
             return cached;
         }
 
-        final String escaped = this.getEscapedString(s, CHAR_SUBSTITUTES_IN_ATTRIBUTE);
-        this.attrCacheMap.put(s, escaped);
+        this.cacheMissCount++;
+        final String escaped = this.getEscapedString(s, charSubstitutes);
+        cacheMap.put(s, escaped);
         return escaped;
     }
 
@@ -185,13 +265,24 @@ public class FastOdsXMLEscaper implements XMLEscaper {
             return null;
         }
 
-        final String cached = this.contentCacheMap.get(s);
-        if (cached != null) {
-            return cached;
+        return this.escape(s, this.contentCacheMap, CHAR_SUBSTITUTES_IN_CONTENT);
+    }
+
+    /**
+     * A map that evicts the least recently used entry when the max size is reached.
+     */
+    private static class LRUCache extends LinkedHashMap<String, String> {
+        private static final long serialVersionUID = 1L;
+        private final int maxSize;
+
+        LRUCache(final int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
         }
 
-        final String escaped = this.getEscapedString(s, CHAR_SUBSTITUTES_IN_CONTENT);
-        this.contentCacheMap.put(s, escaped);
-        return escaped;
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+            return this.size() > this.maxSize;
+        }
     }
 }
@@ -0,0 +1,269 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * A buffered writer that encodes the chars to UTF-8 bytes without a CharsetEncoder. The
+ * content of an ODS file is mostly ASCII: ASCII chars are copied to the byte buffer in a
+ * tight loop, other chars take the slow path. A surrogate pair may be split between two calls.
+ * <p>
+ * As an OutputStreamWriter, it replaces the malformed surrogates by '?'.
+ *
+ * @author J. Férard
+ */
+public class FastUTF8Writer extends Writer {
+    /**
+     * The default size of the buffer, in bytes
+     */
+    static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int MAX_BYTES_PER_CHAR = 4;
+    private static final char NO_SURROGATE = 0;
+    private static final byte REPLACEMENT = '?';
+    private static final int CHUNK_SIZE = 1024;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private final char[] chunk;
+    private int count;
+    private char highSurrogate;
+
+    /**
+     * @param out        the destination
+     * @param bufferSize the size of the byte buffer (at least 4 bytes)
+     * @return a new writer
+     */
+    public static FastUTF8Writer create(final OutputStream out, final int bufferSize) {
+        return new FastUTF8Writer(out, bufferSize);
+    }
+
+    /**
+     * @param out        the destination
+     * @param bufferSize the size of the byte buffer (at least 4 bytes)
+     */
+    FastUTF8Writer(final OutputStream out, final int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(bufferSize, MAX_BYTES_PER_CHAR)];
+        this.chunk = new char[CHUNK_SIZE];
+        this.count = 0;
+        this.highSurrogate = NO_SURROGATE;
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+        this.writeChar((char) c);
+    }
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) throws IOException {
+        final int end = off + len;
+        int i = off;
+        while (i < end) {
+            if (this.highSurrogate == NO_SURROGATE) {
+                final int limit = Math.min(end, i + this.buffer.length - this.count);
+                while (i < limit) {
+                    final char c = cbuf[i];
+                    if (c >= 0x80) {
+                        break;
+                    }
+                    this.buffer[this.count++] = (byte) c;
+                    i++;
+                }
+                if (i == limit) {
+                    if (this.count == this.buffer.length) {
+                        this.flushBuffer();
+                    }
+                    continue;
+                }
+            }
+            this.writeChar(cbuf[i]);
+            i++;
+        }
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException {
+        this.append(str, off, off + len);
+    }
+
+    @Override
+    public Writer append(final CharSequence csq) throws IOException {
+        if (csq == null) {
+            return this.append("null", 0, 4);
+        }
+        return this.append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Writer append(final CharSequence csq, final int start, final int end)
+            throws IOException {
+        if (csq == null) {
+            return this.append("null", start, end);
+        }
+        if (csq instanceof String) {
+            this.appendChunks((String) csq, start, end);
+            return this;
+        }
+        int i = start;
+        while (i < end) {
+            if (this.highSurrogate == NO_SURROGATE) {
+                final int limit = Math.min(end, i + this.buffer.length - this.count);
+                while (i < limit) {
+                    final char c = csq.charAt(i);
+                    if (c >= 0x80) {
+                        break;
+                    }
+                    this.buffer[this.count++] = (byte) c;
+                    i++;
+                }
+                if (i == limit) {
+                    if (this.count == this.buffer.length) {
+                        this.flushBuffer();
+                    }
+                    continue;
+                }
+            }
+            this.writeChar(csq.charAt(i));
+            i++;
+        }
+        return this;
+    }
+
+    /**
+     * A bulk copy of the chars is faster than a loop on String.charAt.
+     */
+    private void appendChunks(final String str, final int start, final int end)
+            throws IOException {
+        int i = start;
+        while (i < end) {
+            final int len = Math.min(end - i, CHUNK_SIZE);
+            str.getChars(i, i + len, this.chunk, 0);
+            this.write(this.chunk, 0, len);
+            i += len;
+        }
+    }
+
+    @Override
+    public Writer append(final char c) throws IOException {
+        this.writeChar(c);
+        return this;
+    }
+
+    /**
+     * Write bytes that are already encoded, after the chars.
+     *
+     * @param bytes the UTF-8 bytes
+     * @param off   the first byte
+     * @param len   the number of bytes
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeUTF8(final byte[] bytes, final int off, final int len) throws IOException {
+        if (this.highSurrogate != NO_SURROGATE) {
+            this.highSurrogate = NO_SURROGATE;
+            this.ensureRoom();
+            this.buffer[this.count++] = REPLACEMENT;
+        }
+        if (len > this.buffer.length - this.count) {
+            this.flushBuffer();
+            if (len >= this.buffer.length) {
+                this.out.write(bytes, off, len);
+                return;
+            }
+        }
+        System.arraycopy(bytes, off, this.buffer, this.count, len);
+        this.count += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.flushBuffer();
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.highSurrogate != NO_SURROGATE) {
+            this.highSurrogate = NO_SURROGATE;
+            this.ensureRoom();
+            this.buffer[this.count++] = REPLACEMENT;
+        }
+        this.flushBuffer();
+        this.out.close();
+    }
+
+    /**
+     * The slow path: encode a single char.
+     *
+     * @param c the char
+     * @throws IOException if an I/O error occurs
+     */
+    private void writeChar(final char c) throws IOException {
+        this.ensureRoom();
+        if (this.highSurrogate != NO_SURROGATE) {
+            final char high = this.highSurrogate;
+            this.highSurrogate = NO_SURROGATE;
+            if (Character.isLowSurrogate(c)) {
+                final int codePoint = Character.toCodePoint(high, c);
+                this.buffer[this.count++] = (byte) (0xf0 | (codePoint >> 18));
+                this.buffer[this.count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                this.buffer[this.count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                this.buffer[this.count++] = (byte) (0x80 | (codePoint & 0x3f));
+                return;
+            }
+            this.buffer[this.count++] = REPLACEMENT;
+            this.ensureRoom();
+        }
+
+        if (c < 0x80) {
+            this.buffer[this.count++] = (byte) c;
+        } else if (c < 0x800) {
+            this.buffer[this.count++] = (byte) (0xc0 | (c >> 6));
+            this.buffer[this.count++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isHighSurrogate(c)) {
+            this.highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            this.buffer[this.count++] = REPLACEMENT;
+        } else {
+            this.buffer[this.count++] = (byte) (0xe0 | (c >> 12));
+            this.buffer[this.count++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+            this.buffer[this.count++] = (byte) (0x80 | (c & 0x3f));
+        }
+    }
+
+    private void ensureRoom() throws IOException {
+        if (this.buffer.length - this.count < MAX_BYTES_PER_CHAR) {
+            this.flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (this.count > 0) {
+            this.out.write(this.buffer, 0, this.count);
+            this.count = 0;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A stream that does not flush its destination. Between an OutputStreamWriter and the byte
+ * sink, it allows to flush the chars of the writer before writing bytes to the byte sink; between
+ * the byte sink and the zip stream, it allows to empty the buffer of the byte sink without
+ * flushing the zip stream down to the file (see ZipUTF8WriterImpl.writeUTF8).
+ *
+ * @author J. Férard
+ */
+class NonFlushingOutputStream extends FilterOutputStream {
+    /**
+     * @param out the destination
+     */
+    NonFlushingOutputStream(final OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        this.out.write(b, off, len);
+    }
+
+    @Override
+    public void flush() {
+    }
+}
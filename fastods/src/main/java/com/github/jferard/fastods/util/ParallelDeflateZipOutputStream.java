@@ -0,0 +1,646 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * A zip output stream that compresses the deflated entries block by block on a pool of threads,
+ * like pigz does. Each block is deflated independently (with the end of the previous block as
+ * dictionary) and ends on a byte boundary thanks to a sync flush: the blocks are then written
+ * in order to form a single valid deflate stream. The CRC32 of the entry is the combination of
+ * the CRC32 of the blocks.
+ * <p>
+ * The sync flush needs a Java 7+ runtime (see {@link #isSupported()}): the module targets Java 6,
+ * hence this class is only loaded when a parallel deflate is requested. Zip64 is not supported:
+ * an entry or an archive larger than 4 GB will throw a ZipException.
+ *
+ * @author J. Férard
+ */
+class ParallelDeflateZipOutputStream extends ZipOutputStream {
+    private static final long LOCAL_HEADER_SIGNATURE = 0x04034b50L;
+    private static final long DATA_DESCRIPTOR_SIGNATURE = 0x08074b50L;
+    private static final long CENTRAL_HEADER_SIGNATURE = 0x02014b50L;
+    private static final long END_SIGNATURE = 0x06054b50L;
+    private static final int VERSION = 20;
+    private static final int DATA_DESCRIPTOR_FLAG = 0x0008;
+    private static final int UTF8_FLAG = 0x0800;
+    private static final long MAX_U32 = 0xffffffffL;
+    private static final int DICTIONARY_SIZE = 32768;
+    private static final int GF2_DIM = 32;
+    private static final int COPY_BUFFER_SIZE = 8192;
+
+    /**
+     * SYNC_FLUSH is a compile time constant, but the four args deflate method is Java 7+.
+     *
+     * @return true if the runtime has Deflater.deflate(byte[], int, int, int)
+     */
+    static boolean isSupported() {
+        try {
+            Deflater.class.getMethod("deflate", byte[].class, int.class, int.class, int.class);
+            return true;
+        } catch (final NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Combine two CRC32 values, as zlib's crc32_combine.
+     *
+     * @param crc1 the CRC32 of the first sequence
+     * @param crc2 the CRC32 of the second sequence
+     * @param len2 the length of the second sequence
+     * @return the CRC32 of the concatenation
+     */
+    static long crc32Combine(final long crc1, final long crc2, final long len2) {
+        if (len2 <= 0) {
+            return crc1;
+        }
+
+        final long[] even = new long[GF2_DIM];
+        final long[] odd = new long[GF2_DIM];
+        odd[0] = 0xedb88320L;
+        long row = 1;
+        for (int n = 1; n < GF2_DIM; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        gf2MatrixSquare(even, odd);
+        gf2MatrixSquare(odd, even);
+
+        long crc = crc1;
+        long len = len2;
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((len & 1) != 0) {
+                crc = gf2MatrixTimes(even, crc);
+            }
+            len >>= 1;
+            if (len == 0) {
+                break;
+            }
+
+            gf2MatrixSquare(odd, even);
+            if ((len & 1) != 0) {
+                crc = gf2MatrixTimes(odd, crc);
+            }
+            len >>= 1;
+        } while (len != 0);
+        return crc ^ crc2;
+    }
+
+    private static long gf2MatrixTimes(final long[] mat, final long vec) {
+        long sum = 0;
+        long v = vec;
+        int i = 0;
+        while (v != 0) {
+            if ((v & 1) != 0) {
+                sum ^= mat[i];
+            }
+            v >>>= 1;
+            i++;
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(final long[] square, final long[] mat) {
+        for (int n = 0; n < GF2_DIM; n++) {
+            square[n] = gf2MatrixTimes(mat, mat[n]);
+        }
+    }
+
+    private static long toDosTime(final long time) {
+        final Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(time == -1 ? System.currentTimeMillis() : time);
+        final int year = calendar.get(Calendar.YEAR);
+        if (year < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return ((long) (year - 1980) << 25) | ((calendar.get(Calendar.MONTH) + 1) << 21) |
+                (calendar.get(Calendar.DAY_OF_MONTH) << 16) |
+                (calendar.get(Calendar.HOUR_OF_DAY) << 11) | (calendar.get(Calendar.MINUTE) << 5) |
+                (calendar.get(Calendar.SECOND) >> 1);
+    }
+
+    /**
+     * A deflated block
+     */
+    private static class DeflatedBlock {
+        private final byte[] data;
+        private final int length;
+        private final long crc;
+        private final int size;
+
+        DeflatedBlock(final byte[] data, final int length, final long crc, final int size) {
+            this.data = data;
+            this.length = length;
+            this.crc = crc;
+            this.size = size;
+        }
+    }
+
+    /**
+     * The task that deflates a block
+     */
+    private static class DeflateTask implements Callable<DeflatedBlock> {
+        private final int level;
+        private final byte[] dictionary;
+        private final int dictionaryLength;
+        private final byte[] input;
+        private final int inputLength;
+        private final boolean last;
+
+        DeflateTask(final int level, final byte[] dictionary, final int dictionaryLength,
+                    final byte[] input, final int inputLength, final boolean last) {
+            this.level = level;
+            this.dictionary = dictionary;
+            this.dictionaryLength = dictionaryLength;
+            this.input = input;
+            this.inputLength = inputLength;
+            this.last = last;
+        }
+
+        @Override
+        public DeflatedBlock call() {
+            final CRC32 crc32 = new CRC32();
+            crc32.update(this.input, 0, this.inputLength);
+
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(this.inputLength / 2 + 64);
+            final byte[] buffer = new byte[8192];
+            final Deflater deflater = new Deflater(this.level, true);
+            try {
+                if (this.dictionaryLength > 0) {
+                    final int length = Math.min(this.dictionaryLength, DICTIONARY_SIZE);
+                    deflater.setDictionary(this.dictionary, this.dictionaryLength - length,
+                            length);
+                }
+                deflater.setInput(this.input, 0, this.inputLength);
+                if (this.last) {
+                    deflater.finish();
+                    while (!deflater.finished()) {
+                        final int count = deflater.deflate(buffer);
+                        out.write(buffer, 0, count);
+                    }
+                } else {
+                    int count;
+                    do {
+                        count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                        out.write(buffer, 0, count);
+                    } while (count == buffer.length);
+                }
+            } finally {
+                deflater.end();
+            }
+            return new DeflatedBlock(out.toByteArray(), out.size(), crc32.getValue(),
+                    this.inputLength);
+        }
+    }
+
+    /**
+     * A record for the central directory
+     */
+    private static class EntryRecord {
+        private final byte[] name;
+        private final int method;
+        private final int flag;
+        private final long dosTime;
+        private final long offset;
+        private long crc;
+        private long compressedSize;
+        private long size;
+
+        EntryRecord(final byte[] name, final int method, final int flag, final long dosTime,
+                    final long offset) {
+            this.name = name;
+            this.method = method;
+            this.flag = flag;
+            this.dosTime = dosTime;
+            this.offset = offset;
+        }
+    }
+
+    private final ExecutorService executor;
+    private final int blockSize;
+    private final int maxPendingBlocks;
+    private final Queue<Future<DeflatedBlock>> pendingBlocks;
+    private final List<EntryRecord> records;
+    private final Set<String> names;
+    private final byte[] oneByte;
+    private int level;
+    private int method;
+    private byte[] comment;
+    private long written;
+    private EntryRecord current;
+    private CRC32 storedCrc;
+    private long storedLength;
+    private byte[] block;
+    private int blockLength;
+    private byte[] previousBlock;
+    private int previousBlockLength;
+    private boolean finished;
+    private boolean closed;
+
+    /**
+     * @param out       the destination
+     * @param threads   the number of threads used to deflate the blocks
+     * @param blockSize the size of the uncompressed blocks
+     */
+    ParallelDeflateZipOutputStream(final OutputStream out, final int threads,
+                                   final int blockSize) {
+        super(out);
+        this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "fastods-deflate");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.blockSize = blockSize;
+        this.maxPendingBlocks = 2 * threads;
+        this.pendingBlocks = new LinkedList<Future<DeflatedBlock>>();
+        this.records = new ArrayList<EntryRecord>();
+        this.names = new HashSet<String>();
+        this.oneByte = new byte[1];
+        this.level = Deflater.DEFAULT_COMPRESSION;
+        this.method = DEFLATED;
+        this.written = 0;
+    }
+
+    @Override
+    public void setComment(final String comment) {
+        this.comment = comment == null ? null : comment.getBytes(ZipUTF8Writer.UTF_8);
+    }
+
+    @Override
+    public void setMethod(final int method) {
+        if (method != DEFLATED && method != STORED) {
+            throw new IllegalArgumentException("invalid compression method");
+        }
+        this.method = method;
+    }
+
+    @Override
+    public void setLevel(final int level) {
+        if ((level < 0 || level > Deflater.BEST_COMPRESSION) &&
+                level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("invalid compression level");
+        }
+        this.level = level;
+    }
+
+    @Override
+    public void putNextEntry(final ZipEntry entry) throws IOException {
+        this.ensureOpen();
+        if (this.current != null) {
+            this.closeEntry();
+        }
+        if (!this.names.add(entry.getName())) {
+            throw new ZipException("duplicate entry: " + entry.getName());
+        }
+
+        final int entryMethod = entry.getMethod() == -1 ? this.method : entry.getMethod();
+        final byte[] name = entry.getName().getBytes(ZipUTF8Writer.UTF_8);
+        final long dosTime = toDosTime(entry.getTime());
+        if (entryMethod == STORED) {
+            if (entry.getSize() == -1 || entry.getCrc() == -1) {
+                throw new ZipException("STORED entry missing size or crc-32");
+            }
+            this.current = new EntryRecord(name, STORED, UTF8_FLAG, dosTime, this.written);
+            this.current.crc = entry.getCrc();
+            this.current.size = entry.getSize();
+            this.current.compressedSize = entry.getSize();
+            this.storedCrc = new CRC32();
+            this.storedLength = 0;
+        } else {
+            this.current = new EntryRecord(name, DEFLATED, UTF8_FLAG | DATA_DESCRIPTOR_FLAG,
+                    dosTime, this.written);
+            this.block = new byte[this.blockSize];
+            this.blockLength = 0;
+            this.previousBlock = null;
+            this.previousBlockLength = 0;
+        }
+        this.writeLocalHeader(this.current);
+    }
+
+    /**
+     * Copy the compressed data of an entry of another zip file. Nothing is inflated or deflated:
+     * the CRC32 and the sizes of the entry are reused.
+     *
+     * @param name     the name of the new entry
+     * @param rawEntry the entry to copy
+     * @throws IOException if an I/O error occurs
+     */
+    public void putRawEntry(final String name, final RawZipEntry rawEntry) throws IOException {
+        this.ensureOpen();
+        if (this.current != null) {
+            this.closeEntry();
+        }
+        if (!this.names.add(name)) {
+            throw new ZipException("duplicate entry: " + name);
+        }
+
+        final EntryRecord record = new EntryRecord(name.getBytes(ZipUTF8Writer.UTF_8),
+                rawEntry.getMethod(), UTF8_FLAG, rawEntry.getDosTime(), this.written);
+        record.crc = rawEntry.getCrc();
+        record.compressedSize = rawEntry.getCompressedSize();
+        record.size = rawEntry.getSize();
+        this.writeLocalHeader(record);
+
+        final InputStream in = rawEntry.openRawStream();
+        try {
+            final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            long copied = 0;
+            int count = in.read(buffer);
+            while (count != -1) {
+                this.writeBytes(buffer, 0, count);
+                copied += count;
+                count = in.read(buffer);
+            }
+            if (copied != record.compressedSize) {
+                throw new ZipException("invalid entry compressed size for " + name);
+            }
+        } finally {
+            in.close();
+        }
+        this.records.add(record);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.oneByte[0] = (byte) b;
+        this.write(this.oneByte, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        this.ensureOpen();
+        if (this.current == null) {
+            throw new ZipException("no current ZIP entry");
+        }
+        if (this.current.method == STORED) {
+            this.storedCrc.update(b, off, len);
+            this.writeBytes(b, off, len);
+            this.storedLength += len;
+            return;
+        }
+
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            final int count = Math.min(remaining, this.blockSize - this.blockLength);
+            System.arraycopy(b, offset, this.block, this.blockLength, count);
+            this.blockLength += count;
+            offset += count;
+            remaining -= count;
+            if (this.blockLength == this.blockSize) {
+                this.submitBlock(false);
+            }
+        }
+    }
+
+    @Override
+    public void closeEntry() throws IOException {
+        this.ensureOpen();
+        if (this.current == null) {
+            return;
+        }
+
+        if (this.current.method == STORED) {
+            final String name = new String(this.current.name, ZipUTF8Writer.UTF_8);
+            if (this.storedLength != this.current.size) {
+                throw new ZipException("invalid entry size for " + name);
+            }
+            if (this.storedCrc.getValue() != this.current.crc) {
+                throw new ZipException("invalid entry crc-32 for " + name);
+            }
+            this.storedCrc = null;
+        } else {
+            this.submitBlock(true);
+            while (!this.pendingBlocks.isEmpty()) {
+                this.writeNextBlock();
+            }
+            this.block = null;
+            this.previousBlock = null;
+            this.writeDataDescriptor(this.current);
+        }
+        this.records.add(this.current);
+        this.current = null;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        this.ensureOpen();
+        if (this.finished) {
+            return;
+        }
+        try {
+            this.closeEntry();
+            final long centralOffset = this.written;
+            for (final EntryRecord record : this.records) {
+                this.writeCentralHeader(record);
+            }
+            this.writeEnd(centralOffset, this.written - centralOffset);
+            this.out.flush();
+            this.finished = true;
+        } finally {
+            this.executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        try {
+            this.finish();
+        } finally {
+            this.closed = true;
+            this.def.end();
+            this.out.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private void submitBlock(final boolean last) throws IOException {
+        while (this.pendingBlocks.size() >= this.maxPendingBlocks) {
+            this.writeNextBlock();
+        }
+        this.pendingBlocks.add(this.executor.submit(
+                new DeflateTask(this.level, this.previousBlock, this.previousBlockLength,
+                        this.block, this.blockLength, last)));
+        // the submitted block is now owned by the task: it's read only from now.
+        this.previousBlock = this.block;
+        this.previousBlockLength = this.blockLength;
+        if (!last) {
+            this.block = new byte[this.blockSize];
+            this.blockLength = 0;
+        }
+    }
+
+    private void writeNextBlock() throws IOException {
+        final DeflatedBlock deflatedBlock = this.getBlock(this.pendingBlocks.remove());
+        this.writeBytes(deflatedBlock.data, 0, deflatedBlock.length);
+        this.current.crc =
+                crc32Combine(this.current.crc, deflatedBlock.crc, deflatedBlock.size);
+        this.current.compressedSize += deflatedBlock.length;
+        this.current.size += deflatedBlock.size;
+    }
+
+    private DeflatedBlock getBlock(final Future<DeflatedBlock> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while deflating a block");
+        } catch (final ExecutionException e) {
+            throw new IOException("Can't deflate a block", e.getCause());
+        }
+    }
+
+    private void writeLocalHeader(final EntryRecord record) throws IOException {
+        this.writeInt(LOCAL_HEADER_SIGNATURE);
+        this.writeShort(VERSION);
+        this.writeShort(record.flag);
+        this.writeShort(record.method);
+        this.writeInt(record.dosTime);
+        if ((record.flag & DATA_DESCRIPTOR_FLAG) == 0) {
+            this.writeInt(record.crc);
+            this.writeSize(record.compressedSize);
+            this.writeSize(record.size);
+        } else {
+            this.writeInt(0);
+            this.writeInt(0);
+            this.writeInt(0);
+        }
+        this.writeShort(record.name.length);
+        this.writeShort(0);
+        this.writeBytes(record.name, 0, record.name.length);
+    }
+
+    private void writeDataDescriptor(final EntryRecord record) throws IOException {
+        this.writeInt(DATA_DESCRIPTOR_SIGNATURE);
+        this.writeInt(record.crc);
+        this.writeSize(record.compressedSize);
+        this.writeSize(record.size);
+    }
+
+    private void writeCentralHeader(final EntryRecord record) throws IOException {
+        this.writeInt(CENTRAL_HEADER_SIGNATURE);
+        this.writeShort(VERSION);
+        this.writeShort(VERSION);
+        this.writeShort(record.flag);
+        this.writeShort(record.method);
+        this.writeInt(record.dosTime);
+        this.writeInt(record.crc);
+        this.writeSize(record.compressedSize);
+        this.writeSize(record.size);
+        this.writeShort(record.name.length);
+        this.writeShort(0); // extra field length
+        this.writeShort(0); // comment length
+        this.writeShort(0); // disk number start
+        this.writeShort(0); // internal attributes
+        this.writeInt(0); // external attributes
+        this.writeSize(record.offset);
+        this.writeBytes(record.name, 0, record.name.length);
+    }
+
+    private void writeEnd(final long centralOffset, final long centralSize) throws IOException {
+        final int count = this.records.size();
+        if (count > 0xffff) {
+            throw new ZipException("Too many entries: " + count);
+        }
+        this.writeInt(END_SIGNATURE);
+        this.writeShort(0);
+        this.writeShort(0);
+        this.writeShort(count);
+        this.writeShort(count);
+        this.writeSize(centralSize);
+        this.writeSize(centralOffset);
+        if (this.comment == null) {
+            this.writeShort(0);
+        } else {
+            this.writeShort(this.comment.length);
+            this.writeBytes(this.comment, 0, this.comment.length);
+        }
+    }
+
+    private void writeSize(final long size) throws IOException {
+        if (size > MAX_U32) {
+            throw new ZipException("Zip64 is not supported");
+        }
+        this.writeInt(size);
+    }
+
+    private void writeShort(final int v) throws IOException {
+        this.out.write(v & 0xff);
+        this.out.write((v >>> 8) & 0xff);
+        this.written += 2;
+    }
+
+    private void writeInt(final long v) throws IOException {
+        this.out.write((int) (v & 0xff));
+        this.out.write((int) ((v >>> 8) & 0xff));
+        this.out.write((int) ((v >>> 16) & 0xff));
+        this.out.write((int) ((v >>> 24) & 0xff));
+        this.written += 4;
+    }
+
+    private void writeBytes(final byte[] b, final int off, final int len) throws IOException {
+        this.out.write(b, off, len);
+        this.written += len;
+    }
+}
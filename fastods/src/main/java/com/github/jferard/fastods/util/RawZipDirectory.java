@@ -0,0 +1,155 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.jferard.fastods.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * A reader for the central directory of a zip file. Only the central directory and the local
+ * headers are read: the entries are not inflated.
+ * <p>
+ * Zip64 archives and encrypted entries are not supported.
+ *
+ * @author J. Férard
+ */
+public final class RawZipDirectory {
+    private static final long LOCAL_HEADER_SIGNATURE = 0x04034b50L;
+    private static final long CENTRAL_HEADER_SIGNATURE = 0x02014b50L;
+    private static final long END_SIGNATURE = 0x06054b50L;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int END_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xffff;
+    private static final int ENCRYPTED_FLAG = 0x0001;
+    private static final long MAX_U16 = 0xffffL;
+    private static final long MAX_U32 = 0xffffffffL;
+
+    /**
+     * Read the entries of a zip file.
+     *
+     * @param file the zip file
+     * @return the entries, in the order of the central directory
+     * @throws IOException if the file can't be read or is not a supported zip file
+     */
+    public static List<RawZipEntry> read(final File file) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            return new RawZipDirectory(file, raf).readEntries();
+        } finally {
+            raf.close();
+        }
+    }
+
+    private static int getShort(final byte[] b, final int i) {
+        return (b[i] & 0xff) | ((b[i + 1] & 0xff) << 8);
+    }
+
+    private static long getInt(final byte[] b, final int i) {
+        return (getShort(b, i) | ((long) getShort(b, i + 2) << 16)) & MAX_U32;
+    }
+
+    private final File file;
+    private final RandomAccessFile raf;
+
+    private RawZipDirectory(final File file, final RandomAccessFile raf) {
+        this.file = file;
+        this.raf = raf;
+    }
+
+    private List<RawZipEntry> readEntries() throws IOException {
+        final byte[] end = this.readEnd();
+        final int count = getShort(end, 10);
+        final long centralSize = getInt(end, 12);
+        final long centralOffset = getInt(end, 16);
+        if (count == MAX_U16 || centralSize == MAX_U32 || centralOffset == MAX_U32) {
+            throw new ZipException("Zip64 is not supported");
+        }
+
+        final byte[] central = this.readFully(centralOffset, (int) centralSize);
+        final List<RawZipEntry> entries = new ArrayList<RawZipEntry>(count);
+        int i = 0;
+        for (int n = 0; n < count; n++) {
+            if (i + CENTRAL_HEADER_SIZE > central.length ||
+                    getInt(central, i) != CENTRAL_HEADER_SIGNATURE) {
+                throw new ZipException("Invalid central directory header");
+            }
+            final int flag = getShort(central, i + 8);
+            final int method = getShort(central, i + 10);
+            final int nameLength = getShort(central, i + 28);
+            final int extraLength = getShort(central, i + 30);
+            final int commentLength = getShort(central, i + 32);
+            final String name = new String(central, i + CENTRAL_HEADER_SIZE, nameLength,
+                    ZipUTF8Writer.UTF_8);
+            if ((flag & ENCRYPTED_FLAG) != 0) {
+                throw new ZipException("Encrypted entry: " + name);
+            }
+            if (method != ZipEntry.STORED && method != ZipEntry.DEFLATED) {
+                throw new ZipException("Unsupported compression method for " + name);
+            }
+            final long localOffset = getInt(central, i + 42);
+            entries.add(new RawZipEntry(this.file, name, method, getInt(central, i + 12),
+                    getInt(central, i + 16), getInt(central, i + 20), getInt(central, i + 24),
+                    this.getDataOffset(localOffset, name)));
+            i += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+
+    private byte[] readEnd() throws IOException {
+        final long length = this.raf.length();
+        final int tailLength = (int) Math.min(length, END_SIZE + MAX_COMMENT_SIZE);
+        final byte[] tail = this.readFully(length - tailLength, tailLength);
+        for (int i = tailLength - END_SIZE; i >= 0; i--) {
+            if (getInt(tail, i) == END_SIGNATURE) {
+                final byte[] end = new byte[END_SIZE];
+                System.arraycopy(tail, i, end, 0, END_SIZE);
+                return end;
+            }
+        }
+        throw new ZipException("End of central directory not found");
+    }
+
+    private long getDataOffset(final long localOffset, final String name) throws IOException {
+        final byte[] local = this.readFully(localOffset, LOCAL_HEADER_SIZE);
+        if (getInt(local, 0) != LOCAL_HEADER_SIGNATURE) {
+            throw new ZipException("Invalid local header for " + name);
+        }
+        return localOffset + LOCAL_HEADER_SIZE + getShort(local, 26) + getShort(local, 28);
+    }
+
+    private byte[] readFully(final long offset, final int length) throws IOException {
+        if (offset < 0 || offset + length > this.raf.length()) {
+            throw new ZipException("Truncated zip file");
+        }
+        final byte[] bytes = new byte[length];
+        this.raf.seek(offset);
+        this.raf.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.Calendar;
+import java.util.zip.ZipEntry;
+
+/**
+ * An entry of an existing zip file, seen as its compressed data. The entry may be copied to
+ * another archive without being inflated and deflated again: the CRC32 and the sizes are
+ * reused as is.
+ *
+ * @author J. Férard
+ * @see RawZipDirectory
+ */
+public final class RawZipEntry {
+    private final File file;
+    private final String name;
+    private final int method;
+    private final long dosTime;
+    private final long crc;
+    private final long compressedSize;
+    private final long size;
+    private final long dataOffset;
+
+    /**
+     * @param file           the zip file
+     * @param name           the name of the entry
+     * @param method         STORED or DEFLATED
+     * @param dosTime        the MS-DOS date and time of the entry
+     * @param crc            the CRC32 of the uncompressed data
+     * @param compressedSize the size of the compressed data
+     * @param size           the size of the uncompressed data
+     * @param dataOffset     the offset of the compressed data in the file
+     */
+    RawZipEntry(final File file, final String name, final int method, final long dosTime,
+                final long crc, final long compressedSize, final long size,
+                final long dataOffset) {
+        this.file = file;
+        this.name = name;
+        this.method = method;
+        this.dosTime = dosTime;
+        this.crc = crc;
+        this.compressedSize = compressedSize;
+        this.size = size;
+        this.dataOffset = dataOffset;
+    }
+
+    /**
+     * @return the name of the entry
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return ZipEntry.STORED or ZipEntry.DEFLATED
+     */
+    public int getMethod() {
+        return this.method;
+    }
+
+    /**
+     * @return the MS-DOS date and time of the entry
+     */
+    public long getDosTime() {
+        return this.dosTime;
+    }
+
+    /**
+     * @return the CRC32 of the uncompressed data
+     */
+    public long getCrc() {
+        return this.crc;
+    }
+
+    /**
+     * @return the size of the compressed data
+     */
+    public long getCompressedSize() {
+        return this.compressedSize;
+    }
+
+    /**
+     * @return the size of the uncompressed data
+     */
+    public long getSize() {
+        return this.size;
+    }
+
+    /**
+     * @return true if the entry is a directory
+     */
+    public boolean isDirectory() {
+        return this.name.endsWith("/");
+    }
+
+    /**
+     * @param newName the name of the new entry
+     * @return a zip entry with the same attributes as this entry
+     */
+    public ZipEntry toZipEntry(final String newName) {
+        final ZipEntry entry = new ZipEntry(newName);
+        entry.setMethod(this.method);
+        entry.setTime(this.getTime());
+        entry.setCrc(this.crc);
+        entry.setSize(this.size);
+        entry.setCompressedSize(this.compressedSize);
+        return entry;
+    }
+
+    private long getTime() {
+        final Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set((int) ((this.dosTime >> 25) & 0x7f) + 1980,
+                (int) ((this.dosTime >> 21) & 0x0f) - 1, (int) ((this.dosTime >> 16) & 0x1f),
+                (int) ((this.dosTime >> 11) & 0x1f), (int) ((this.dosTime >> 5) & 0x3f),
+                (int) ((this.dosTime << 1) & 0x3e));
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * @return a stream on the compressed data of the entry. The caller must close it.
+     * @throws IOException if the file can't be opened
+     */
+    public InputStream openRawStream() throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(this.file, "r");
+        try {
+            raf.seek(this.dataOffset);
+        } catch (final IOException e) {
+            raf.close();
+            throw e;
+        }
+        return new RawStream(raf, this.compressedSize);
+    }
+
+    @Override
+    public String toString() {
+        return "RawZipEntry[" + this.name + ", method=" + this.method + ", size=" + this.size +
+                ", compressedSize=" + this.compressedSize + "]";
+    }
+
+    /**
+     * A stream on a slice of a file
+     */
+    private static class RawStream extends InputStream {
+        private final RandomAccessFile raf;
+        private long remaining;
+
+        RawStream(final RandomAccessFile raf, final long length) {
+            this.raf = raf;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (this.remaining <= 0) {
+                return -1;
+            }
+            final int b = this.raf.read();
+            if (b != -1) {
+                this.remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (this.remaining <= 0) {
+                return -1;
+            }
+            final int count = this.raf.read(b, off, (int) Math.min(len, this.remaining));
+            if (count > 0) {
+                this.remaining -= count;
+            }
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.raf.close();
+        }
+    }
+}
@@ -48,7 +48,16 @@ public class XMLUtil {
         return new XMLUtil(escaper);
     }
 
+    /**
+     * @param escaper the escaper, e.g. a FastOdsXMLEscaper with a custom cache size
+     * @return a new xml util
+     */
+    public static XMLUtil create(final XMLEscaper escaper) {
+        return new XMLUtil(escaper);
+    }
+
     private final XMLEscaper escaper;
+    private final CellTagFragments cellTagFragments;
 
     /**
      * Create a new util
@@ -57,6 +66,31 @@ public class XMLUtil {
      */
     XMLUtil(final XMLEscaper escaper) {
         this.escaper = escaper;
+        this.cellTagFragments = new CellTagFragments(this);
+    }
+
+    /**
+     * An XMLUtil is not thread-safe: a task that writes XML on another thread gets a copy.
+     * A FastOdsXMLEscaper is copied with empty caches; any other escaper is shared and must be
+     * thread-safe.
+     *
+     * @return a new util with the same configuration
+     */
+    public XMLUtil copy() {
+        final XMLEscaper escaperCopy;
+        if (this.escaper instanceof FastOdsXMLEscaper) {
+            escaperCopy = ((FastOdsXMLEscaper) this.escaper).copy();
+        } else {
+            escaperCopy = this.escaper;
+        }
+        return new XMLUtil(escaperCopy);
+    }
+
+    /**
+     * @return the cache of the cell open tag fragments, escaped by this util
+     */
+    public CellTagFragments getCellTagFragments() {
+        return this.cellTagFragments;
     }
 
     /**
@@ -104,6 +138,93 @@ public class XMLUtil {
         this.appendAttribute(appendable, attrName, Integer.toString(attrValue));
     }
 
+    /**
+     * Append a new element to the appendable element, the name of the element is
+     * attrName and the value is attrValue. No String is created.
+     *
+     * @param appendable The StringBuilder to which the new element should be added.
+     * @param attrName   The new element name
+     * @param attrValue  The value of the element
+     * @throws IOException If an I/O error occurs
+     */
+    public void appendAttribute(final Appendable appendable, final CharSequence attrName,
+                                final long attrValue) throws IOException {
+        appendable.append(' ').append(attrName).append("=\"");
+        DecimalAppender.appendLong(appendable, attrValue);
+        appendable.append('"');
+    }
+
+    /**
+     * Append a new element to the appendable element, the name of the element is
+     * attrName and the value is attrValue, as the shortest decimal that is read back as
+     * attrValue (see DecimalAppender). No String is created for the common values.
+     *
+     * @param appendable The StringBuilder to which the new element should be added.
+     * @param attrName   The new element name
+     * @param attrValue  The value of the element
+     * @throws IOException If an I/O error occurs
+     */
+    public void appendAttribute(final Appendable appendable, final CharSequence attrName,
+                                final double attrValue) throws IOException {
+        appendable.append(' ').append(attrName).append("=\"");
+        DecimalAppender.appendDouble(appendable, attrValue);
+        appendable.append('"');
+    }
+
+    /**
+     * Append a new element to the appendable element, the name of the element is
+     * attrName and the value is the date, in the ISO 8601 format (UTC). No object is created.
+     *
+     * @param appendable  The StringBuilder to which the new element should be added.
+     * @param attrName    The new element name
+     * @param epochMillis The date, as milliseconds since the epoch
+     * @throws IOException If an I/O error occurs
+     */
+    public void appendDateTimeAttribute(final Appendable appendable, final CharSequence attrName,
+                                        final long epochMillis) throws IOException {
+        appendable.append(' ').append(attrName).append("=\"");
+        DateAppender.appendDateTime(appendable, epochMillis);
+        appendable.append('"');
+    }
+
+    /**
+     * Append an attribute value, without the name and the quotes. No String is created.
+     *
+     * @param appendable where to write
+     * @param attrValue  the value of the attribute
+     * @throws IOException If an I/O error occurs
+     */
+    public void appendAttributeValue(final Appendable appendable, final long attrValue)
+            throws IOException {
+        DecimalAppender.appendLong(appendable, attrValue);
+    }
+
+    /**
+     * Append an attribute value, without the name and the quotes, as the shortest decimal that
+     * is read back as attrValue.
+     *
+     * @param appendable where to write
+     * @param attrValue  the value of the attribute
+     * @throws IOException If an I/O error occurs
+     */
+    public void appendAttributeValue(final Appendable appendable, final double attrValue)
+            throws IOException {
+        DecimalAppender.appendDouble(appendable, attrValue);
+    }
+
+    /**
+     * Append a date attribute value, without the name and the quotes, in the ISO 8601 format
+     * (UTC).
+     *
+     * @param appendable  where to write
+     * @param epochMillis the date, as milliseconds since the epoch
+     * @throws IOException If an I/O error occurs
+     */
+    public void appendDateTimeAttributeValue(final Appendable appendable,
+                                             final long epochMillis) throws IOException {
+        DateAppender.appendDateTime(appendable, epochMillis);
+    }
+
     /**
      * Append a space, then a new element to the appendable element, the name of the element is
      * attrName and the value is attrValue. The value won't be escaped.
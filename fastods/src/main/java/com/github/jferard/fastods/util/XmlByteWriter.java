@@ -0,0 +1,326 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import java.io.IOException;
+
+/**
+ * A growable buffer of UTF-8 bytes for the XML of the rows. The tag and attribute names are
+ * written as pre-encoded byte constants (see {@link #encode(String)}) and the numbers are
+ * written as digits without creating a String: the XML is encoded once, on the thread that
+ * renders the rows, and is later copied as bytes to the zip entry.
+ * <p>
+ * It is also an Appendable: the code that writes to an Appendable (cold cells, attributes,
+ * dates...) keeps working, the chars are encoded on the fly. As the FastUTF8Writer, it replaces
+ * the malformed surrogates by '?'.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author J. Férard
+ */
+public final class XmlByteWriter implements Appendable {
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int MAX_BYTES_PER_CHAR = 4;
+    private static final int MAX_LONG_DIGITS = 19;
+    private static final char NO_SURROGATE = 0;
+    private static final byte REPLACEMENT = '?';
+
+    /**
+     * @return a new writer with the default capacity
+     */
+    public static XmlByteWriter create() {
+        return new XmlByteWriter(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param str the string
+     * @return the UTF-8 bytes of the string, to be written with {@link #write(byte[])}
+     */
+    public static byte[] encode(final String str) {
+        return str.getBytes(ZipUTF8Writer.UTF_8);
+    }
+
+    private byte[] buffer;
+    private int count;
+    private char highSurrogate;
+
+    /**
+     * @param capacity the initial capacity, in bytes
+     */
+    public XmlByteWriter(final int capacity) {
+        this.buffer = new byte[Math.max(capacity, MAX_BYTES_PER_CHAR)];
+        this.count = 0;
+        this.highSurrogate = NO_SURROGATE;
+    }
+
+    /**
+     * Write pre-encoded bytes
+     *
+     * @param bytes the UTF-8 bytes
+     */
+    public void write(final byte[] bytes) {
+        this.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Write pre-encoded bytes
+     *
+     * @param bytes the UTF-8 bytes
+     * @param off   the first byte
+     * @param len   the number of bytes
+     */
+    public void write(final byte[] bytes, final int off, final int len) {
+        this.closeSurrogate();
+        this.ensureCapacity(this.count + len);
+        System.arraycopy(bytes, off, this.buffer, this.count, len);
+        this.count += len;
+    }
+
+    /**
+     * Write an int, as Integer.toString would.
+     *
+     * @param value the value
+     */
+    public void writeInt(final int value) {
+        this.writeLong(value);
+    }
+
+    /**
+     * Write a long, as Long.toString would. No String is created.
+     *
+     * @param value the value
+     */
+    public void writeLong(final long value) {
+        this.closeSurrogate();
+        this.ensureCapacity(this.count + MAX_LONG_DIGITS + 1);
+        long v = value;
+        if (v < 0) {
+            if (v == Long.MIN_VALUE) {
+                this.write(encode(Long.toString(v)));
+                return;
+            }
+            this.buffer[this.count++] = '-';
+            v = -v;
+        }
+        int digitCount = 1;
+        for (long p = v / 10; p > 0; p /= 10) {
+            digitCount++;
+        }
+        int i = this.count + digitCount;
+        this.count = i;
+        do {
+            this.buffer[--i] = (byte) ('0' + (int) (v % 10));
+            v /= 10;
+        } while (v > 0);
+    }
+
+    /**
+     * Write a double, as the shortest decimal that is read back as the value (see
+     * DecimalAppender). No String is created for the common values.
+     *
+     * @param value the value
+     * @throws IOException never
+     */
+    public void writeDouble(final double value) throws IOException {
+        DecimalAppender.appendDouble(this, value);
+    }
+
+    @Override
+    public XmlByteWriter append(final CharSequence csq) {
+        if (csq == null) {
+            return this.append("null", 0, 4);
+        }
+        return this.append(csq, 0, csq.length());
+    }
+
+    @Override
+    public XmlByteWriter append(final CharSequence csq, final int start, final int end) {
+        if (csq == null) {
+            return this.append("null", start, end);
+        }
+        this.ensureCapacity(this.count + end - start);
+        int i = start;
+        if (this.highSurrogate == NO_SURROGATE) {
+            // fast path: ASCII chars, the room was reserved
+            while (i < end) {
+                final char c = csq.charAt(i);
+                if (c >= 0x80) {
+                    break;
+                }
+                this.buffer[this.count++] = (byte) c;
+                i++;
+            }
+        }
+        while (i < end) {
+            this.writeChar(csq.charAt(i));
+            i++;
+        }
+        return this;
+    }
+
+    @Override
+    public XmlByteWriter append(final char c) {
+        this.writeChar(c);
+        return this;
+    }
+
+    /**
+     * @return the number of bytes
+     */
+    public int length() {
+        return this.count;
+    }
+
+    /**
+     * Clear the buffer. The capacity is kept.
+     */
+    public void reset() {
+        this.count = 0;
+        this.highSurrogate = NO_SURROGATE;
+    }
+
+    /**
+     * @param prefix the pre-encoded prefix
+     * @return true if the bytes start with the prefix
+     */
+    public boolean startsWith(final byte[] prefix) {
+        if (this.count < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (this.buffer[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param other another writer
+     * @return true if the two writers have the same bytes
+     */
+    public boolean contentEquals(final XmlByteWriter other) {
+        final int length = this.count;
+        if (other.count != length) {
+            return false;
+        }
+        final byte[] otherBuffer = other.buffer;
+        for (int i = length - 1; i >= 0; i--) { // the values are at the end of a row
+            if (this.buffer[i] != otherBuffer[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copy the bytes to a destination.
+     *
+     * @param destination the destination
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(final Appendable destination) throws IOException {
+        this.writeTo(destination, 0, this.count);
+    }
+
+    /**
+     * Copy some of the bytes to a destination. A XmlByteWriter, a ZipUTF8Writer or a
+     * FastUTF8Writer receives the bytes, any other Appendable receives the decoded chars.
+     *
+     * @param destination the destination
+     * @param start       the first byte, at the start of a char
+     * @param end         the last byte + 1, at the end of a char
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(final Appendable destination, final int start, final int end)
+            throws IOException {
+        if (destination instanceof XmlByteWriter) {
+            ((XmlByteWriter) destination).write(this.buffer, start, end - start);
+        } else if (destination instanceof ZipUTF8Writer) {
+            ((ZipUTF8Writer) destination).writeUTF8(this.buffer, start, end - start);
+        } else if (destination instanceof FastUTF8Writer) {
+            ((FastUTF8Writer) destination).writeUTF8(this.buffer, start, end - start);
+        } else {
+            destination.append(new String(this.buffer, start, end - start, ZipUTF8Writer.UTF_8));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new String(this.buffer, 0, this.count, ZipUTF8Writer.UTF_8);
+    }
+
+    private void writeChar(final char c) {
+        this.ensureCapacity(this.count + MAX_BYTES_PER_CHAR);
+        if (this.highSurrogate != NO_SURROGATE) {
+            final char high = this.highSurrogate;
+            this.highSurrogate = NO_SURROGATE;
+            if (Character.isLowSurrogate(c)) {
+                final int codePoint = Character.toCodePoint(high, c);
+                this.buffer[this.count++] = (byte) (0xf0 | (codePoint >> 18));
+                this.buffer[this.count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                this.buffer[this.count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                this.buffer[this.count++] = (byte) (0x80 | (codePoint & 0x3f));
+                return;
+            }
+            this.buffer[this.count++] = REPLACEMENT;
+            this.ensureCapacity(this.count + MAX_BYTES_PER_CHAR);
+        }
+
+        if (c < 0x80) {
+            this.buffer[this.count++] = (byte) c;
+        } else if (c < 0x800) {
+            this.buffer[this.count++] = (byte) (0xc0 | (c >> 6));
+            this.buffer[this.count++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isHighSurrogate(c)) {
+            this.highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            this.buffer[this.count++] = REPLACEMENT;
+        } else {
+            this.buffer[this.count++] = (byte) (0xe0 | (c >> 12));
+            this.buffer[this.count++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+            this.buffer[this.count++] = (byte) (0x80 | (c & 0x3f));
+        }
+    }
+
+    /**
+     * A pending high surrogate that is followed by bytes is malformed.
+     */
+    private void closeSurrogate() {
+        if (this.highSurrogate != NO_SURROGATE) {
+            this.highSurrogate = NO_SURROGATE;
+            this.ensureCapacity(this.count + 1);
+            this.buffer[this.count++] = REPLACEMENT;
+        }
+    }
+
+    private void ensureCapacity(final int capacity) {
+        if (capacity <= this.buffer.length) {
+            return;
+        }
+        final byte[] newBuffer = new byte[Math.max(capacity, this.buffer.length * 2)];
+        System.arraycopy(this.buffer, 0, newBuffer, 0, this.count);
+        this.buffer = newBuffer;
+    }
+}
@@ -62,6 +62,16 @@ public interface ZipUTF8Writer extends Closeable, Flushable, Appendable {
      */
     void putNextEntry(final ZipEntry entry) throws IOException;
 
+    /**
+     * Copy an entry of another zip file, closing the current entry. If possible, the compressed
+     * data is copied as is; otherwise the entry is inflated and written again.
+     *
+     * @param name     the name of the new entry
+     * @param rawEntry the entry to copy
+     * @throws IOException if an I/O error occurs
+     */
+    void putRawEntry(final String name, final RawZipEntry rawEntry) throws IOException;
+
     /**
      * Add a comment to the zip
      *
@@ -84,4 +94,14 @@ public interface ZipUTF8Writer extends Closeable, Flushable, Appendable {
      * @throws IOException if an I/O error occurs
      */
     void write(byte[] bytes) throws IOException;
+
+    /**
+     * Write UTF-8 bytes to the current entry, after the chars that were already appended.
+     *
+     * @param bytes the UTF-8 bytes, that do not split a char
+     * @param off   the first byte
+     * @param len   the number of bytes
+     * @throws IOException if an I/O error occurs
+     */
+    void writeUTF8(byte[] bytes, int off, int len) throws IOException;
 }
@@ -43,6 +43,9 @@ public class ZipUTF8WriterBuilder {
     private int level;
     private int writerBufferSize;
     private int zipBufferSize;
+    private int deflateThreads;
+    private int deflateBlockSize;
+    private boolean fastUTF8Writer;
 
     /**
      * Create a new builder
@@ -51,6 +54,8 @@ public class ZipUTF8WriterBuilder {
         this.level = Deflater.BEST_SPEED;
         this.writerBufferSize = ZipUTF8WriterBuilder.DEFAULT_BUFFER;
         this.zipBufferSize = ZipUTF8WriterBuilder.DEFAULT_BUFFER;
+        this.deflateThreads = 0;
+        this.fastUTF8Writer = false;
     }
 
     /**
@@ -72,23 +77,51 @@ public class ZipUTF8WriterBuilder {
                 bufferedOut = new BufferedOutputStream(out, this.zipBufferSize);
                 break;
         }
-        final ZipOutputStream zipOut = new ZipOutputStream(bufferedOut);
+        final ZipOutputStream zipOut;
+        if (this.deflateThreads > 0) {
+            zipOut = new ParallelDeflateZipOutputStream(bufferedOut, this.deflateThreads,
+                    this.deflateBlockSize);
+        } else {
+            zipOut = new ZipOutputStream(bufferedOut);
+        }
         zipOut.setMethod(ZipOutputStream.DEFLATED);
         zipOut.setLevel(this.level);
-        final Writer writer = new OutputStreamWriter(zipOut, ZipUTF8Writer.UTF_8);
-        final Writer bufferedWriter;
+        if (this.fastUTF8Writer) {
+            return new ZipUTF8WriterImpl(zipOut, this.buildFastUTF8Writer(zipOut));
+        } else {
+            // the bytes of writeUTF8 are buffered with the chars of the writer; flushing the
+            // byte sink does not flush the zip stream down to the file
+            final OutputStream byteSink =
+                    new BufferedOutputStream(new NonFlushingOutputStream(zipOut));
+            return new ZipUTF8WriterImpl(zipOut, this.buildOutputStreamWriter(byteSink),
+                    byteSink);
+        }
+    }
+
+    private Writer buildFastUTF8Writer(final OutputStream zipOut) {
         switch (this.writerBufferSize) {
             case NO_BUFFER:
-                bufferedWriter = writer;
-                break;
+                return new FastUTF8Writer(zipOut, 0);
             case DEFAULT_BUFFER:
-                bufferedWriter = new BufferedWriter(writer);
-                break;
+                return new FastUTF8Writer(zipOut, FastUTF8Writer.DEFAULT_BUFFER_SIZE);
             default:
-                bufferedWriter = new BufferedWriter(writer, this.writerBufferSize);
-                break;
+                return new FastUTF8Writer(zipOut, this.writerBufferSize);
+        }
+    }
+
+    private Writer buildOutputStreamWriter(final OutputStream byteSink) {
+        // the writer is flushed before the UTF-8 bytes are written to the byte sink
+        final Writer writer =
+                new OutputStreamWriter(new NonFlushingOutputStream(byteSink),
+                        ZipUTF8Writer.UTF_8);
+        switch (this.writerBufferSize) {
+            case NO_BUFFER:
+                return writer;
+            case DEFAULT_BUFFER:
+                return new BufferedWriter(writer);
+            default:
+                return new BufferedWriter(writer, this.writerBufferSize);
         }
-        return new ZipUTF8WriterImpl(zipOut, bufferedWriter);
     }
 
     /**
@@ -111,6 +144,17 @@ public class ZipUTF8WriterBuilder {
         return this;
     }
 
+    /**
+     * Encode the chars to UTF-8 with a specialized writer instead of the OutputStreamWriter /
+     * BufferedWriter chain. The writer buffer size is then a size in bytes.
+     *
+     * @return this for fluent style
+     */
+    public ZipUTF8WriterBuilder fastUTF8Writer() {
+        this.fastUTF8Writer = true;
+        return this;
+    }
+
     /**
      * Set the zip level
      *
@@ -122,6 +166,30 @@ public class ZipUTF8WriterBuilder {
         return this;
     }
 
+    /**
+     * Deflate the entries block by block, on a pool of threads. This is useful for big entries,
+     * like the content.xml of a large document: the blocks are compressed concurrently and
+     * stitched into a single entry. The compression ratio is slightly lower than with a single
+     * deflater. Needs a Java 7+ runtime.
+     *
+     * @param threads   the number of threads, &gt;= 1
+     * @param blockSize the size of the uncompressed blocks, &gt;= 1 (pigz uses 128 kB)
+     * @return this for fluent style
+     * @throws UnsupportedOperationException if the runtime is Java 6
+     */
+    public ZipUTF8WriterBuilder parallelDeflate(final int threads, final int blockSize) {
+        if (threads < 1 || blockSize < 1) {
+            throw new IllegalArgumentException();
+        }
+        if (!ParallelDeflateZipOutputStream.isSupported()) {
+            throw new UnsupportedOperationException("Parallel deflate needs a Java 7+ runtime");
+        }
+
+        this.deflateThreads = threads;
+        this.deflateBlockSize = blockSize;
+        return this;
+    }
+
     /**
      * Set the buffer size for the writer to 0
      *
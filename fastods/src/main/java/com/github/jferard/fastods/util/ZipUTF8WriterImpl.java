@@ -23,8 +23,14 @@
 
 package com.github.jferard.fastods.util;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.io.Writer;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -34,18 +40,37 @@ import java.util.zip.ZipOutputStream;
  * @author Julien Férard
  */
 public class ZipUTF8WriterImpl implements ZipUTF8Writer {
+    private static final int COPY_BUFFER_SIZE = 8192;
+
     private final Writer writer;
     private final ZipOutputStream zipStream;
+    private final OutputStream byteSink;
 
     /**
      * Create a new writer. Do not use directly. Use a builder if you want to avoid mistakes
      *
      * @param zipStream the zip stream
-     * @param writer    the utf-8 writer
+     * @param writer    the utf-8 writer on the zip stream. Unless it is a FastUTF8Writer, it is
+     *                  flushed before the bytes of writeUTF8 are written to the zip stream
      */
     ZipUTF8WriterImpl(final ZipOutputStream zipStream, final Writer writer) {
+        this(zipStream, writer, null);
+    }
+
+    /**
+     * Create a new writer. Do not use directly. Use a builder if you want to avoid mistakes
+     *
+     * @param zipStream the zip stream
+     * @param writer    the utf-8 writer on the byte sink
+     * @param byteSink  a buffered stream on the zip stream, that receives the chars of the writer
+     *                  and the bytes of writeUTF8, or null to write the bytes to the zip stream.
+     *                  Flushing the byte sink must not flush the zip stream.
+     */
+    ZipUTF8WriterImpl(final ZipOutputStream zipStream, final Writer writer,
+                      final OutputStream byteSink) {
         this.zipStream = zipStream;
         this.writer = writer;
+        this.byteSink = byteSink;
     }
 
     /**
@@ -78,19 +103,32 @@ public class ZipUTF8WriterImpl implements ZipUTF8Writer {
 
     @Override
     public void closeEntry() throws IOException {
-        this.writer.flush();
+        this.flushWriter();
         this.zipStream.closeEntry();
     }
 
     @Override
     public void finish() throws IOException {
-        this.writer.flush();
+        this.flushWriter();
         this.zipStream.finish();
     }
 
     @Override
     public void flush() throws IOException {
+        this.flushWriter();
+        this.zipStream.flush();
+    }
+
+    /**
+     * Push the chars of the writer and the bytes of the byte sink to the zip stream.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    private void flushWriter() throws IOException {
         this.writer.flush();
+        if (this.byteSink != null) {
+            this.byteSink.flush();
+        }
     }
 
     @Override
@@ -98,6 +136,48 @@ public class ZipUTF8WriterImpl implements ZipUTF8Writer {
         this.zipStream.putNextEntry(entry);
     }
 
+    @Override
+    public void putRawEntry(final String name, final RawZipEntry rawEntry) throws IOException {
+        this.flushWriter();
+        if (this.zipStream instanceof ParallelDeflateZipOutputStream) {
+            ((ParallelDeflateZipOutputStream) this.zipStream).putRawEntry(name, rawEntry);
+            return;
+        }
+
+        // a java.util.zip.ZipOutputStream can't copy deflated data: a STORED entry is copied
+        // (the CRC32 is checked), a DEFLATED entry is inflated and deflated again.
+        final InputStream in;
+        final ZipEntry entry;
+        final Inflater inflater;
+        if (rawEntry.getMethod() == ZipEntry.STORED) {
+            inflater = null;
+            in = rawEntry.openRawStream();
+            entry = rawEntry.toZipEntry(name);
+        } else {
+            inflater = new Inflater(true);
+            // the "nowrap" inflater may need an extra dummy byte
+            in = new InflaterInputStream(new SequenceInputStream(rawEntry.openRawStream(),
+                    new ByteArrayInputStream(new byte[1])), inflater);
+            entry = new ZipEntry(name);
+            entry.setTime(rawEntry.toZipEntry(name).getTime());
+        }
+        try {
+            this.zipStream.putNextEntry(entry);
+            final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            int count = in.read(buffer);
+            while (count != -1) {
+                this.zipStream.write(buffer, 0, count);
+                count = in.read(buffer);
+            }
+            this.zipStream.closeEntry();
+        } finally {
+            in.close();
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+    }
+
     @Override
     public void setComment(final String comment) {
         this.zipStream.setComment(comment);
@@ -110,6 +190,26 @@ public class ZipUTF8WriterImpl implements ZipUTF8Writer {
 
     @Override
     public void write(final byte[] bytes) throws IOException {
-        this.zipStream.write(bytes);
+        if (this.byteSink == null) {
+            this.zipStream.write(bytes);
+        } else {
+            this.writer.flush();
+            this.byteSink.write(bytes);
+        }
+    }
+
+    @Override
+    public void writeUTF8(final byte[] bytes, final int off, final int len) throws IOException {
+        if (this.writer instanceof FastUTF8Writer) {
+            ((FastUTF8Writer) this.writer).writeUTF8(bytes, off, len);
+        } else if (this.byteSink == null) {
+            this.writer.flush();
+            this.zipStream.write(bytes, off, len);
+        } else {
+            // the chars of the writer and the bytes are buffered together: the deflater is not
+            // fed with small writes
+            this.writer.flush();
+            this.byteSink.write(bytes, off, len);
+        }
     }
 }
@@ -34,39 +34,6 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class BenchFastFlushWithThreads extends Bench {
-    static class Consumer extends Thread {
-        private final Logger logger;
-        private final OdsFileWriterAdapter writerAdapter;
-
-        public Consumer(final Logger logger, final OdsFileWriterAdapter writerAdapter) {
-            this.logger = logger;
-            this.writerAdapter = writerAdapter;
-        }
-
-        @Override
-        public void run() {
-            long t = 0;
-            try {
-                while (this.writerAdapter.isNotStopped()) {
-                    this.writerAdapter.waitForData();
-                    t += this.flushAdaptee();
-                }
-                t += this.flushAdaptee();
-            } catch (final IOException e) {
-                this.logger.log(Level.SEVERE, "", e);
-            }
-            System.out.println(">> Write time " + t + " ms");
-        }
-
-        public long flushAdaptee() throws IOException {
-            final long t1 = System.currentTimeMillis();
-            this.writerAdapter.flushAdaptee();
-            final long t2 = System.currentTimeMillis();
-            final long t = t2 - t1;
-            return t;
-        }
-    }
-
     /**
      * The Producer ads data to the document
      */
@@ -129,12 +96,11 @@ public class BenchFastFlushWithThreads extends Bench {
             final OdsFileWriterAdapter writerAdapter = this.odsFactory.createWriterAdapter(
                     new File("generated_files", "fastods_flush_thread_benchmark" + ".ods"));
             final NamedOdsDocument document = writerAdapter.document();
+            // the adapter has its own flushing thread
             final Producer producer = this.createProducer(document);
-            final Consumer consumer = this.createConsumer(writerAdapter);
-            consumer.start();
             producer.start();
             producer.join();
-            consumer.join();
+            writerAdapter.close();
             final long t2 = System.currentTimeMillis();
 
             this.logger.info("Filled in " + (t2 - t1) + " ms");
@@ -145,10 +111,6 @@ public class BenchFastFlushWithThreads extends Bench {
         return 0;
     }
 
-    public Consumer createConsumer(OdsFileWriterAdapter writerAdapter) {
-        return new Consumer(this.logger, writerAdapter);
-    }
-
     private Producer createProducer(NamedOdsDocument document) {
         return new Producer(document, this.getRowCount(), this.getColCount(), this.getRandom());
     }
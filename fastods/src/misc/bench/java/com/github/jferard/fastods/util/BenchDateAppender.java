@@ -0,0 +1,68 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.logging.Logger;
+
+/**
+ * Compare the SimpleDateFormat that was used for the office:date-value attributes and the
+ * DateAppender.
+ * <p>
+ * mvn -P bench test
+ */
+public class BenchDateAppender {
+    private static final int TIMES = 20;
+    private static final int DATES = 1000000;
+    private static final long START = 1234567891011L;
+
+    private final Logger logger = Logger.getLogger("BenchDateAppender");
+
+    @Test
+    public void test() throws IOException {
+        final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        final StringBuilder sb = new StringBuilder(64);
+        for (int i = 0; i < TIMES; i++) {
+            long start = System.currentTimeMillis();
+            for (int d = 0; d < DATES; d++) {
+                sb.setLength(0);
+                sb.append(format.format(new Date(START + 1000L * d)));
+            }
+            final long t1 = System.currentTimeMillis() - start;
+            start = System.currentTimeMillis();
+            for (int d = 0; d < DATES; d++) {
+                sb.setLength(0);
+                DateAppender.appendDateTime(sb, START + 1000L * d);
+            }
+            final long t2 = System.currentTimeMillis() - start;
+            this.logger.info("SimpleDateFormat: " + t1 + " ms, DateAppender: " + t2 + " ms");
+        }
+    }
+}
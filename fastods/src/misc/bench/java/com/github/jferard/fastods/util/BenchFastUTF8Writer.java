@@ -0,0 +1,83 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.junit.Test;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.logging.Logger;
+
+/**
+ * Compare the OutputStreamWriter / BufferedWriter chain and the FastUTF8Writer, without the
+ * deflater.
+ * <p>
+ * mvn -P bench test
+ */
+public class BenchFastUTF8Writer {
+    private static final int TIMES = 20;
+    private static final int ROWS = 200000;
+    private static final String[] FRAGMENTS = {"<table:table-row table:style-name=\"ro1\">",
+            "<table:table-cell office:value-type=\"float\" office:value=\"", "123.456",
+            "\" table:style-name=\"ce1\"/>", "<text:p>", "Crème brûlée – 10 €", "</text:p>",
+            "</table:table-row>"};
+
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+        }
+    }
+
+    private final Logger logger = Logger.getLogger("BenchFastUTF8Writer");
+
+    @Test
+    public void test() throws IOException {
+        for (int i = 0; i < TIMES; i++) {
+            final long t1 = this.time(
+                    new BufferedWriter(new OutputStreamWriter(new NullOutputStream(),
+                            ZipUTF8Writer.UTF_8)));
+            final long t2 = this.time(new FastUTF8Writer(new NullOutputStream(),
+                    FastUTF8Writer.DEFAULT_BUFFER_SIZE));
+            this.logger.info("OutputStreamWriter: " + t1 + " ms, FastUTF8Writer: " + t2 + " ms");
+        }
+    }
+
+    private long time(final Writer writer) throws IOException {
+        final long start = System.currentTimeMillis();
+        for (int r = 0; r < ROWS; r++) {
+            for (final String fragment : FRAGMENTS) {
+                writer.append(fragment);
+            }
+        }
+        writer.close();
+        return System.currentTimeMillis() - start;
+    }
+}
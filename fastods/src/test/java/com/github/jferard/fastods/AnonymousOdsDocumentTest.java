@@ -71,6 +71,7 @@ public class AnonymousOdsDocumentTest extends OdsDocumentTest<AnonymousOdsDocume
         this.odsElements.writeSettings(this.xmlUtil, writer);
         this.odsElements.writeManifest(this.xmlUtil, writer);
         this.odsElements.writeExtras(writer);
+        this.odsElements.deleteTemporaryFiles();
         this.logger.log(Level.FINE, "file saved");
         writer.close();
 
@@ -306,6 +306,7 @@ public class AnonymousOdsFileWriterTest {
         this.odsElements
                 .writeManifest(EasyMock.eq(this.xmlUtil), EasyMock.isA(ZipUTF8Writer.class));
         this.odsElements.writeExtras(EasyMock.isA(ZipUTF8Writer.class));
+        this.odsElements.deleteTemporaryFiles();
         outputStream.write(EasyMock.isA(byte[].class), EasyMock.anyInt(), EasyMock.anyInt());
         EasyMock.expectLastCall().anyTimes();
         outputStream.flush();
@@ -356,6 +357,7 @@ public class AnonymousOdsFileWriterTest {
         this.odsElements
                 .writeManifest(EasyMock.eq(this.xmlUtil), EasyMock.isA(ZipUTF8Writer.class));
         this.odsElements.writeExtras(EasyMock.isA(ZipUTF8Writer.class));
+        this.odsElements.deleteTemporaryFiles();
         outputStream.write(EasyMock.isA(byte[].class), EasyMock.anyInt(), EasyMock.anyInt());
         EasyMock.expectLastCall().anyTimes();
         outputStream.flush();
@@ -0,0 +1,96 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.datastyle.DataStyles;
+import com.github.jferard.fastods.datastyle.DataStylesBuilder;
+import com.github.jferard.fastods.odselement.StylesContainer;
+import com.github.jferard.fastods.style.TableCellStyle;
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.api.easymock.PowerMock;
+
+import java.util.Locale;
+
+public class ChildCellStyleCacheTest {
+    private StylesContainer stc;
+    private ChildCellStyleCache cache;
+    private DataStyles ds;
+
+    @Before
+    public void setUp() {
+        this.stc = PowerMock.createMock(StylesContainer.class);
+        this.cache = new ChildCellStyleCache(this.stc);
+        this.ds = DataStylesBuilder.create(Locale.US).build();
+    }
+
+    @Test
+    public void testResolvedOnce() {
+        final TableCellStyle style = TableCellStyle.builder("s").build();
+        final TableCellStyle child = TableCellStyle.builder("c").build();
+        final DataStyle floatDataStyle = this.ds.getFloatDataStyle();
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.stc.addDataStyle(floatDataStyle)).andReturn(true);
+        EasyMock.expect(this.stc.addChildCellStyle(style, floatDataStyle)).andReturn(child);
+
+        PowerMock.replayAll();
+        for (int c = 0; c < 100; c++) { // more columns than the initial capacity
+            Assert.assertSame(child, this.cache.getChildCellStyle(c, style, floatDataStyle));
+            Assert.assertSame(child, this.cache.getChildCellStyle(c, style, floatDataStyle));
+        }
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testPairs() {
+        final TableCellStyle style1 = TableCellStyle.builder("s1").build();
+        final TableCellStyle style2 = TableCellStyle.builder("s2").build();
+        final TableCellStyle child11 = TableCellStyle.builder("c11").build();
+        final TableCellStyle child12 = TableCellStyle.builder("c12").build();
+        final TableCellStyle child21 = TableCellStyle.builder("c21").build();
+        final DataStyle floatDataStyle = this.ds.getFloatDataStyle();
+        final DataStyle dateDataStyle = this.ds.getDateDataStyle();
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.stc.addDataStyle(floatDataStyle)).andReturn(true).times(2);
+        EasyMock.expect(this.stc.addDataStyle(dateDataStyle)).andReturn(true);
+        EasyMock.expect(this.stc.addChildCellStyle(style1, floatDataStyle)).andReturn(child11);
+        EasyMock.expect(this.stc.addChildCellStyle(style1, dateDataStyle)).andReturn(child12);
+        EasyMock.expect(this.stc.addChildCellStyle(style2, floatDataStyle)).andReturn(child21);
+
+        PowerMock.replayAll();
+        for (int r = 0; r < 3; r++) { // the last resolution of the column changes every time
+            Assert.assertSame(child11, this.cache.getChildCellStyle(0, style1, floatDataStyle));
+            Assert.assertSame(child12, this.cache.getChildCellStyle(0, style1, dateDataStyle));
+            Assert.assertSame(child21, this.cache.getChildCellStyle(0, style2, floatDataStyle));
+        }
+
+        PowerMock.verifyAll();
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.attribute.SimpleLength;
+import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.datastyle.DataStylesBuilder;
+import com.github.jferard.fastods.style.TableCellStyle;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Locale;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+public class CompactTableCellTest {
+    @Test
+    public void testSameXMLAsTableCellImpl() throws IOException {
+        final String content = this.getContent(true, false);
+        Assert.assertTrue(content.contains("office:value=\"1.25\" office:currency=\"GBP\""));
+        Assert.assertEquals(this.getContent(false, false), content);
+    }
+
+    @Test
+    public void testRepeatedCells() throws IOException {
+        final String content = this.getContent(true, false);
+        Assert.assertTrue(content.contains("<table:table-cell table:number-columns-repeated=\"3\" " +
+                "table:style-name=\"Default-_-float-data\" office:value-type=\"float\" " +
+                "office:value=\"7\"/><table:table-cell table:style-name=\"Default-_-float-data\" " +
+                "office:value-type=\"float\" office:value=\"8\"/>"));
+    }
+
+    @Test
+    public void testSameXMLAsTableCellImplLOMode() throws IOException {
+        Assert.assertEquals(this.getContent(false, true), this.getContent(true, true));
+    }
+
+    @Test
+    public void testView() throws IOException {
+        final OdsFactory odsFactory = OdsFactory.create(Logger.getLogger("test"), Locale.US)
+                .compactRows();
+        final Table table = odsFactory.createWriter().document().addTable("t");
+        final TableRowImpl row = table.getRow(0);
+        final TableCell cell = row.getOrCreateCell(5);
+        Assert.assertTrue(cell instanceof CompactTableCell);
+        Assert.assertEquals(5, cell.colIndex());
+        Assert.assertEquals(6, row.getColumnCount());
+        Assert.assertFalse(cell.hasValue());
+
+        cell.setStringValue("a");
+        Assert.assertTrue(row.getOrCreateCell(5).hasValue());
+        Assert.assertFalse(row.getOrCreateCell(4).hasValue());
+
+        row.getOrCreateCell(100).setColumnsSpanned(2);
+        Assert.assertTrue(row.isCovered(101));
+        Assert.assertTrue(row.getOrCreateCell(101).isCovered());
+        Assert.assertFalse(row.isCovered(102));
+        Assert.assertEquals(102, row.getColumnCount());
+    }
+
+    @Test
+    public void testStyleIndex() {
+        final TableCellStyleIndex index = new TableCellStyleIndex();
+        final TableCellStyle style = TableCellStyle.builder("s").build();
+        Assert.assertEquals(TableCellStyleIndex.NO_STYLE, index.indexOf(null));
+        Assert.assertEquals(1, index.indexOf(style));
+        Assert.assertEquals(1, index.indexOf(style));
+        Assert.assertEquals(2, index.indexOf(TableCellStyle.DEFAULT_CELL_STYLE));
+        Assert.assertSame(style, index.get(1));
+        Assert.assertNull(index.get(TableCellStyleIndex.NO_STYLE));
+    }
+
+    private String getContent(final boolean compactRows, final boolean libreOfficeMode)
+            throws IOException {
+        OdsFactory odsFactory = OdsFactory.create(Logger.getLogger("test"), Locale.US);
+        if (compactRows) {
+            odsFactory = odsFactory.compactRows();
+        }
+        if (!libreOfficeMode) {
+            odsFactory = odsFactory.noLibreOfficeMode();
+        }
+        final AnonymousOdsFileWriter writer = odsFactory.createWriter();
+        final Table table = writer.document().addTable("t");
+        final TableCellStyle style = TableCellStyle.builder("s").fontWeightBold().build();
+        final DataStyle dataStyle =
+                DataStylesBuilder.create(Locale.FRANCE).build().getFloatDataStyle();
+        for (int r = 0; r < 3; r++) {
+            final TableRowImpl row = table.getRow(r);
+            int c = 0;
+            row.getOrCreateCell(c++).setBooleanValue(r % 2 == 0);
+            row.getOrCreateCell(c++).setCurrencyValue(10.5f * r, "EUR");
+            row.getOrCreateCell(c++).setCurrencyValue(r, "USD");
+            row.getOrCreateCell(c++).setCurrencyValue(new BigDecimal("1.25"), "GBP");
+            row.getOrCreateCell(c++).setDateValue(new Date(1234567891011L * r));
+            row.getOrCreateCell(c++).setFloatValue(0.1f * r);
+            row.getOrCreateCell(c++).setFloatValue(-r);
+            row.getOrCreateCell(c++).setFloatValue(Long.MAX_VALUE - r);
+            row.getOrCreateCell(c++).setPercentageValue(0.25f);
+            row.getOrCreateCell(c++).setPercentageValue(r);
+            row.getOrCreateCell(c++).setPercentageValue(1.5);
+            row.getOrCreateCell(c++).setStringValue("<a & \"b\">");
+            row.getOrCreateCell(c++).setTimeValue(-1000L * r);
+            row.getOrCreateCell(c++).setTimeValue(1, 2, 3, 4, 5, 6.5);
+            row.getOrCreateCell(c++).setNegTimeValue(1, 2, 3, 4, 5, 6.5);
+            row.getOrCreateCell(c++).setVoidValue();
+            row.getOrCreateCell(c++).setText(TextBuilder.create().parContent("text").build());
+            row.getOrCreateCell(c++).setFormula("=1+1");
+            row.getOrCreateCell(c++).setMatrixFormula("=A1:B1", 2, 3);
+            row.getOrCreateCell(c++).setTooltip("tooltip");
+            row.getOrCreateCell(c++)
+                    .setTooltip("tooltip", SimpleLength.cm(2), SimpleLength.cm(1), true);
+            c++; // a blank cell
+            final TableCell styled = row.getOrCreateCell(c++);
+            styled.setStyle(style);
+            styled.setFloatValue(r);
+            styled.setDataStyle(dataStyle);
+            final TableCell styleOnly = row.getOrCreateCell(c++);
+            styleOnly.setStyle(style);
+            row.getOrCreateCell(c++).setStringValue(null);
+            if (r == 2) { // covers a cell of the next row
+                row.getOrCreateCell(c).setCellMerge(2, 2);
+            }
+            c++;
+            row.getOrCreateCell(c + 5).setStringValue("end");
+            for (int i = 6; i < 9; i++) { // a run of identical cells
+                row.getOrCreateCell(c + i).setFloatValue(7);
+            }
+            row.getOrCreateCell(c + 9).setFloatValue(8);
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.save(out);
+        return this.getEntry(out.toByteArray(), "content.xml");
+    }
+
+    private String getEntry(final byte[] bytes, final String name) throws IOException {
+        final ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(bytes));
+        ZipEntry entry = in.getNextEntry();
+        while (entry != null) {
+            if (entry.getName().equals(name)) {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[8192];
+                int count = in.read(buffer);
+                while (count != -1) {
+                    out.write(buffer, 0, count);
+                    count = in.read(buffer);
+                }
+                return new String(out.toByteArray(), ZipUTF8Writer.UTF_8);
+            }
+            entry = in.getNextEntry();
+        }
+        throw new IOException("No entry " + name);
+    }
+}
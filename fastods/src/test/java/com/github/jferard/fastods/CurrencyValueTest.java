@@ -32,7 +32,7 @@ public class CurrencyValueTest {
     public void testSetFromDouble() throws FastOdsException {
         PowerMock.resetAll();
         final TableCell cell = PowerMock.createMock(TableCell.class);
-        cell.setCurrencyValue(18.7, "€");
+        cell.setCurrencyValue((Number) 18.7, "€");
 
         PowerMock.replayAll();
         final CurrencyValue cv = CurrencyValue.from(18.7, "€");
@@ -54,7 +54,7 @@ public class FloatValueTest {
         final TableCell cell = PowerMock.createMock(TableCell.class);
 
         PowerMock.resetAll();
-        cell.setFloatValue(10.0);
+        cell.setFloatValue((Number) 10.0);
 
         PowerMock.replayAll();
         fv1.setToCell(cell);
@@ -0,0 +1,70 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FlushPolicyTest {
+    @Test
+    public void testDefault() {
+        final FlushPolicy policy = FlushPolicy.create();
+        Assert.assertFalse(policy.hasDelay());
+        Assert.assertFalse(policy.isReached(8191, Long.MAX_VALUE - 1, Long.MAX_VALUE - 1));
+        Assert.assertTrue(policy.isReached(8192, 0, 0));
+        Assert.assertFalse(policy.isReached(8193, 0, 0));
+        Assert.assertTrue(policy.isReached(16384, 0, 0));
+    }
+
+    @Test
+    public void testMemoryBudget() {
+        final FlushPolicy policy = FlushPolicy.memoryBudget(1000);
+        Assert.assertFalse(policy.isReached(Integer.MAX_VALUE - 2, 999, 0));
+        Assert.assertTrue(policy.isReached(1, 1000, 0));
+    }
+
+    @Test
+    public void testDelay() {
+        final FlushPolicy policy = FlushPolicy.rowCount(10).maxMillis(100);
+        Assert.assertTrue(policy.hasDelay());
+        Assert.assertFalse(policy.isReached(9, 0, 99));
+        Assert.assertTrue(policy.isReached(9, 0, 100));
+        Assert.assertTrue(policy.isReached(20, 0, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadRowCount() {
+        FlushPolicy.rowCount(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadBudget() {
+        FlushPolicy.memoryBudget(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadDelay() {
+        FlushPolicy.create().maxMillis(0);
+    }
+}
@@ -26,6 +26,7 @@ package com.github.jferard.fastods;
 import com.github.jferard.fastods.datastyle.DataStylesBuilder;
 import com.github.jferard.fastods.odselement.MetaElement;
 import org.easymock.Capture;
+import org.easymock.CaptureType;
 import org.easymock.EasyMock;
 import org.junit.After;
 import org.junit.Assert;
@@ -34,6 +35,7 @@ import org.junit.Test;
 import org.powermock.api.easymock.PowerMock;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Locale;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -81,6 +83,26 @@ public class OdsFactoryTest {
         Assert.assertTrue(this.file.length() > 0);
     }
 
+    @Test
+    public void createWriterWithFlushPolicy() throws Exception {
+        PowerMock.resetAll();
+        this.logger.log(Level.FINE, "file saved");
+
+        PowerMock.replayAll();
+        final NamedOdsFileWriter writer = this.odsFactory
+                .flushRows(FlushPolicy.memoryBudget(64 * 1024).maxRows(1000))
+                .createWriter(this.file);
+        final Table table = writer.document().addTable("t");
+        for (int r = 0; r < 5000; r++) {
+            table.getRow(r).getOrCreateCell(0).setFloatValue(r);
+        }
+        writer.save();
+        writer.close();
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(this.file.length() > 0);
+    }
+
     @Test
     public void createWriter1() throws Exception {
         PowerMock.resetAll();
@@ -93,17 +115,77 @@ public class OdsFactoryTest {
 
     @Test
     public void createWriterAdapter() throws Exception {
-        final Capture<String> msgCapture = Capture.newInstance();
+        final Capture<String> msgCapture = Capture.newInstance(CaptureType.ALL);
 
         PowerMock.resetAll();
         this.logger.fine(EasyMock.capture(msgCapture));
+        EasyMock.expectLastCall().anyTimes();
+        this.logger.log(EasyMock.eq(Level.FINE), EasyMock.<String>anyObject());
+        EasyMock.expectLastCall().anyTimes();
+
+        PowerMock.replayAll();
+        final OdsFileWriterAdapter adapter = this.odsFactory.createWriterAdapter(this.file);
+        adapter.document().save();
+        adapter.close();
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(msgCapture.getValues().get(0).startsWith("Add new flusher"));
+        Assert.assertFalse(adapter.isNotStopped());
+        Assert.assertTrue(this.file.length() > 0);
+    }
+
+    @Test(timeout = 10000)
+    public void createWriterAdapterCloseWithoutSave() throws Exception {
+        PowerMock.resetAll();
+        this.logger.fine(EasyMock.<String>anyObject());
+        EasyMock.expectLastCall().anyTimes();
+        this.logger.log(EasyMock.eq(Level.FINE), EasyMock.<String>anyObject());
+        EasyMock.expectLastCall().anyTimes();
 
         PowerMock.replayAll();
+        final OdsFileWriterAdapter adapter = this.odsFactory.createWriterAdapter(this.file);
+        final Table table = adapter.document().addTable("t");
+        for (int r = 0; r < 5000; r++) {
+            table.getRow(r).getOrCreateCell(0).setFloatValue(r);
+        }
+        try {
+            adapter.close();
+            Assert.fail();
+        } catch (final IOException e) {
+            // the document was not saved
+        }
 
-        this.odsFactory.createWriterAdapter(this.file);
+        PowerMock.verifyAll();
+        Assert.assertFalse(adapter.isNotStopped());
+    }
+
+    @Test
+    public void createWriterAdapterWithQueue() throws Exception {
+        PowerMock.resetAll();
+        this.logger.fine(EasyMock.<String>anyObject());
+        EasyMock.expectLastCall().anyTimes();
+        this.logger.log(EasyMock.eq(Level.FINE), EasyMock.<String>anyObject());
+        EasyMock.expectLastCall().anyTimes();
+
+        PowerMock.replayAll();
+        final OdsFileWriterAdapter adapter = this.odsFactory
+                .writerAdapterQueue(1, OdsFileWriterAdapter.Backpressure.SPILL)
+                .createWriterAdapter(this.file);
+        final NamedOdsDocument document = adapter.document();
+        final Table table = document.addTable("t");
+        for (int r = 0; r < 5000; r++) {
+            table.getRow(r).getOrCreateCell(0).setFloatValue(r);
+        }
+        document.save();
+        adapter.close();
 
         PowerMock.verifyAll();
-        Assert.assertTrue(msgCapture.getValue().startsWith("Add new flusher"));
+        Assert.assertTrue(this.file.length() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void writerAdapterQueueBadCapacity() {
+        this.odsFactory.writerAdapterQueue(0, OdsFileWriterAdapter.Backpressure.BLOCK);
     }
 
     @Test
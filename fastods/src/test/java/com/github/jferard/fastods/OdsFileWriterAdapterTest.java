@@ -23,6 +23,7 @@
 
 package com.github.jferard.fastods;
 
+import com.github.jferard.fastods.util.BoundedConcurrentQueue;
 import org.easymock.EasyMock;
 import org.junit.Assert;
 import org.junit.Before;
@@ -57,7 +58,7 @@ public class OdsFileWriterAdapterTest {
     }
 
     @Test
-    public void testClose() {
+    public void testClose() throws IOException {
         PowerMock.resetAll();
         PowerMock.replayAll();
         this.wa.close();
@@ -97,7 +98,7 @@ public class OdsFileWriterAdapterTest {
     }
 
     @Test
-    public void testUpdate() {
+    public void testUpdate() throws IOException {
         PowerMock.resetAll();
         this.logger
                 .fine("Add new flusher: EasyMock for interface com.github.jferard.fastods" +
@@ -317,4 +318,193 @@ public class OdsFileWriterAdapterTest {
         this.wa.waitForData();
         PowerMock.verifyAll();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testUpdateFullFail() throws IOException {
+        final OdsFileWriterAdapter adapter = new OdsFileWriterAdapter(this.logger, this.w,
+                BoundedConcurrentQueue.<OdsAsyncFlusher>create(1),
+                OdsFileWriterAdapter.Backpressure.FAIL);
+        PowerMock.resetAll();
+        this.logger.fine(EasyMock.startsWith("Add new flusher"));
+
+        PowerMock.replayAll();
+        adapter.update(this.f);
+        try {
+            adapter.update(this.f);
+            Assert.fail();
+        } catch (final IOException e) {
+            Assert.assertEquals("The queue of flushers is full", e.getMessage());
+        }
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testUpdateFullSpill() throws IOException {
+        final OdsAsyncFlusher f2 = PowerMock.createMock(OdsAsyncFlusher.class);
+        final OdsFileWriterAdapter adapter = new OdsFileWriterAdapter(this.logger, this.w,
+                BoundedConcurrentQueue.<OdsAsyncFlusher>create(1),
+                OdsFileWriterAdapter.Backpressure.SPILL);
+        PowerMock.resetAll();
+        EasyMock.expect(this.f.isEnd()).andReturn(false);
+        EasyMock.expect(f2.isEnd()).andReturn(false);
+        this.logger.fine(EasyMock.startsWith("Add new flusher"));
+        this.logger.fine(EasyMock.startsWith("Spill flusher"));
+        EasyMock.checkOrder(this.w, true);
+        this.w.update(this.f);
+        this.w.update(f2);
+
+        PowerMock.replayAll();
+        adapter.update(this.f);
+        adapter.update(f2);
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(adapter.isNotStopped());
+    }
+
+    @Test
+    public void testUpdateFullBlock() throws Exception {
+        final OdsAsyncFlusher f2 = PowerMock.createMock(OdsAsyncFlusher.class);
+        final Queue<OdsAsyncFlusher> queue = BoundedConcurrentQueue.create(1);
+        final OdsFileWriterAdapter adapter = new OdsFileWriterAdapter(this.logger, this.w,
+                queue, OdsFileWriterAdapter.Backpressure.BLOCK);
+        PowerMock.resetAll();
+        this.logger.fine(EasyMock.<String>anyObject());
+        EasyMock.expectLastCall().anyTimes();
+        EasyMock.expect(this.f.isEnd()).andReturn(false);
+        this.w.update(this.f);
+        // the flushing thread may write f2 as soon as it is added
+        EasyMock.expect(f2.isEnd()).andReturn(false).times(0, 1);
+        this.w.update(f2);
+        EasyMock.expectLastCall().times(0, 1);
+
+        PowerMock.replayAll();
+        adapter.update(this.f);
+        final Thread t = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                    adapter.flushAdaptee();
+                } catch (final Exception e) {
+                    Assert.fail();
+                }
+            }
+        };
+        t.start();
+        adapter.update(f2); // blocks until t flushes f
+        t.join();
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(queue.size() <= 1);
+    }
+
+    @Test
+    public void testFlushingThread() throws Exception {
+        final FinalizeFlusher ff = PowerMock.createMock(FinalizeFlusher.class);
+        final OdsFileWriterAdapter adapter =
+                OdsFileWriterAdapter.create(this.logger, this.w, 2,
+                        OdsFileWriterAdapter.Backpressure.BLOCK);
+        PowerMock.resetAll();
+        this.logger.fine(EasyMock.<String>anyObject());
+        EasyMock.expectLastCall().anyTimes();
+        EasyMock.expect(this.f.isEnd()).andReturn(false).times(10);
+        EasyMock.expect(ff.isEnd()).andReturn(true);
+        this.w.update(this.f);
+        EasyMock.expectLastCall().times(10);
+        this.w.update(ff);
+
+        PowerMock.replayAll();
+        adapter.startFlushingThread();
+        for (int i = 0; i < 10; i++) {
+            adapter.update(this.f);
+        }
+        adapter.update(ff);
+        adapter.close();
+
+        PowerMock.verifyAll();
+        Assert.assertFalse(adapter.isNotStopped());
+    }
+
+    @Test
+    public void testFlushingThreadFailure() throws Exception {
+        final FinalizeFlusher ff = PowerMock.createMock(FinalizeFlusher.class);
+        final OdsFileWriterAdapter adapter =
+                OdsFileWriterAdapter.create(this.logger, this.w, 2,
+                        OdsFileWriterAdapter.Backpressure.BLOCK);
+        final IOException ioe = new IOException("disk full");
+        PowerMock.resetAll();
+        this.logger.fine(EasyMock.<String>anyObject());
+        EasyMock.expectLastCall().anyTimes();
+        this.w.update(ff);
+        EasyMock.expectLastCall().andThrow(ioe);
+
+        PowerMock.replayAll();
+        adapter.startFlushingThread();
+        adapter.update(ff);
+        try {
+            adapter.close();
+            Assert.fail();
+        } catch (final IOException e) {
+            Assert.assertEquals(ioe, e.getCause());
+        }
+        try {
+            adapter.update(this.f);
+            Assert.fail();
+        } catch (final IOException e) {
+            Assert.assertEquals(ioe, e.getCause());
+        }
+
+        PowerMock.verifyAll();
+    }
+
+    @Test(timeout = 10000)
+    public void testCloseWithoutSave() throws IOException {
+        final OdsFileWriterAdapter adapter =
+                OdsFileWriterAdapter.create(this.logger, this.w, 2,
+                        OdsFileWriterAdapter.Backpressure.BLOCK);
+        PowerMock.resetAll();
+        this.logger.fine(EasyMock.<String>anyObject());
+        EasyMock.expectLastCall().anyTimes();
+        this.w.close();
+
+        PowerMock.replayAll();
+        adapter.startFlushingThread();
+        try {
+            adapter.close();
+            Assert.fail();
+        } catch (final IOException e) {
+            Assert.assertEquals("The document was not saved, the file is incomplete",
+                    e.getMessage());
+        }
+        try {
+            adapter.update(this.f);
+            Assert.fail();
+        } catch (final IOException e) {
+            Assert.assertEquals("The writer adapter was aborted", e.getCause().getMessage());
+        }
+
+        PowerMock.verifyAll();
+        Assert.assertFalse(adapter.isNotStopped());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStartFlushingThreadTwice() throws IOException {
+        final FinalizeFlusher ff = PowerMock.createMock(FinalizeFlusher.class);
+        final OdsFileWriterAdapter adapter = OdsFileWriterAdapter.create(this.logger, this.w);
+        PowerMock.resetAll();
+        this.logger.fine(EasyMock.<String>anyObject());
+        EasyMock.expectLastCall().anyTimes();
+        EasyMock.expect(ff.isEnd()).andReturn(true);
+        this.w.update(ff);
+
+        PowerMock.replayAll();
+        adapter.startFlushingThread();
+        try {
+            adapter.startFlushingThread();
+        } finally {
+            adapter.update(ff);
+            adapter.close();
+        }
+    }
+}
@@ -24,6 +24,7 @@
 package com.github.jferard.fastods;
 
 import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.XmlByteWriter;
 import com.github.jferard.fastods.util.ZipUTF8Writer;
 import org.easymock.Capture;
 import org.easymock.EasyMock;
@@ -36,6 +37,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Created by jferard on 09/05/17.
@@ -44,13 +47,13 @@ public class PreprocessedRowsFlusherTest {
 
     private XMLUtil util;
     private ZipUTF8Writer w;
-    private StringBuilder sb;
+    private XmlByteWriter xml;
 
     @Before
     public void setUp() {
         this.util = XMLUtil.create();
         this.w = PowerMock.createMock(ZipUTF8Writer.class);
-        this.sb = new StringBuilder(1024 * 32);
+        this.xml = XmlByteWriter.create();
     }
 
     @Test
@@ -69,10 +72,10 @@ public class PreprocessedRowsFlusherTest {
         final List<TableRowImpl> rows = Collections.emptyList();
 
         PowerMock.resetAll();
-        EasyMock.expect(this.w.append(this.sb)).andReturn(this.sb);
+        this.w.writeUTF8(EasyMock.isA(byte[].class), EasyMock.eq(0), EasyMock.eq(0));
 
         PowerMock.replayAll();
-        final OdsAsyncFlusher flusher = new PreprocessedRowsFlusher(this.sb);
+        final OdsAsyncFlusher flusher = new PreprocessedRowsFlusher(this.xml);
         flusher.flushInto(this.util, this.w);
 
         PowerMock.verifyAll();
@@ -85,16 +88,17 @@ public class PreprocessedRowsFlusherTest {
         final List<TableRowImpl> rows = Arrays.asList(r1, r2);
 
         PowerMock.resetAll();
-        r1.appendXMLToTable(EasyMock.eq(this.util), EasyMock.anyObject(StringBuilder.class));
-        r2.appendXMLToTable(EasyMock.eq(this.util), EasyMock.anyObject(StringBuilder.class));
-        EasyMock.expect(this.w.append(EasyMock.anyObject(StringBuilder.class))).andReturn(this.sb);
+        r1.appendXMLToTable(EasyMock.eq(this.util), EasyMock.isA(XmlByteWriter.class));
+        r1.seal();
+        r2.appendXMLToTable(EasyMock.eq(this.util), EasyMock.isA(XmlByteWriter.class));
+        r2.seal();
+        this.w.writeUTF8(EasyMock.isA(byte[].class), EasyMock.eq(0), EasyMock.eq(0));
 
         PowerMock.replayAll();
         final OdsAsyncFlusher flusher = PreprocessedRowsFlusher.create(this.util, rows);
         flusher.flushInto(this.util, this.w);
 
         PowerMock.verifyAll();
-        Assert.assertEquals("", this.sb.toString());
     }
 
     @Test
@@ -103,14 +107,62 @@ public class PreprocessedRowsFlusherTest {
         rows.add(null);
 
         PowerMock.resetAll();
-        final Capture<CharSequence> capturedArgument = EasyMock.newCapture();
-        EasyMock.expect(this.w.append(EasyMock.capture(capturedArgument))).andReturn(this.w);
+        final Capture<byte[]> capturedBytes = EasyMock.newCapture();
+        final Capture<Integer> capturedLength = EasyMock.newCapture();
+        this.w.writeUTF8(EasyMock.capture(capturedBytes), EasyMock.eq(0),
+                EasyMock.captureInt(capturedLength));
 
         PowerMock.replayAll();
         final OdsAsyncFlusher flusher = PreprocessedRowsFlusher.create(this.util, rows);
         flusher.flushInto(this.util, this.w);
 
         PowerMock.verifyAll();
-        Assert.assertEquals("<row />", capturedArgument.getValue().toString());
+        Assert.assertEquals("<row />", text(capturedBytes, capturedLength));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void submit() throws Exception {
+        final List<TableRowImpl> rows = new ArrayList<TableRowImpl>();
+        rows.add(null);
+        rows.add(null);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        PowerMock.resetAll();
+        final Capture<byte[]> capturedBytes = EasyMock.newCapture();
+        final Capture<Integer> capturedLength = EasyMock.newCapture();
+        this.w.writeUTF8(EasyMock.capture(capturedBytes), EasyMock.eq(0),
+                EasyMock.captureInt(capturedLength));
+
+        PowerMock.replayAll();
+        final OdsAsyncFlusher flusher = PreprocessedRowsFlusher.submit(executor,
+                new XMLUtilPool(this.util), null, rows).get();
+        flusher.flushInto(this.util, this.w);
+        executor.shutdown();
+
+        PowerMock.verifyAll();
+        Assert.assertEquals("<row /><row />", text(capturedBytes, capturedLength));
+    }
+
+    @Test
+    public void submitGivesBackTheUtil() throws Exception {
+        final XMLUtilPool pool = PowerMock.createMock(XMLUtilPool.class);
+        final List<TableRowImpl> rows = new ArrayList<TableRowImpl>();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        PowerMock.resetAll();
+        EasyMock.expect(pool.borrow()).andReturn(this.util);
+        pool.giveBack(this.util);
+
+        PowerMock.replayAll();
+        PreprocessedRowsFlusher.submit(executor, pool, null, rows).get();
+        executor.shutdown();
+
+        PowerMock.verifyAll();
+    }
+
+    private static String text(final Capture<byte[]> capturedBytes,
+                               final Capture<Integer> capturedLength) {
+        return new String(capturedBytes.getValue(), 0, capturedLength.getValue(),
+                ZipUTF8Writer.UTF_8);
+    }
+}
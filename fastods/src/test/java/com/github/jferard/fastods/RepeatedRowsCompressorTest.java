@@ -0,0 +1,152 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.XmlByteWriter;
+import org.easymock.EasyMock;
+import org.easymock.IAnswer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.api.easymock.PowerMock;
+
+import java.io.IOException;
+
+public class RepeatedRowsCompressorTest {
+    private static final String ROW1 =
+            "<table:table-row table:style-name=\"ro1\"><table:table-cell/></table:table-row>";
+    private static final String ROW2 =
+            "<table:table-row table:style-name=\"ro2\"><table:table-cell/></table:table-row>";
+
+    private XMLUtil util;
+    private StringBuilder sb;
+    private RepeatedRowsCompressor compressor;
+
+    @Before
+    public void setUp() {
+        this.util = XMLUtil.create();
+        this.sb = new StringBuilder();
+        this.compressor = RepeatedRowsCompressor.create();
+    }
+
+    @Test
+    public void testRepeatedRows() throws IOException {
+        final TableRowImpl r1 = this.createRow(ROW1, 3);
+        final TableRowImpl r2 = this.createRow(ROW2, 1);
+
+        PowerMock.replayAll();
+        this.compressor.appendRow(this.util, this.sb, r1);
+        this.compressor.appendRow(this.util, this.sb, r1);
+        this.compressor.appendRow(this.util, this.sb, r1);
+        Assert.assertEquals("", this.sb.toString());
+        this.compressor.appendRow(this.util, this.sb, r2);
+        this.compressor.flush();
+
+        PowerMock.verifyAll();
+        Assert.assertEquals("<table:table-row table:number-rows-repeated=\"3\" " +
+                "table:style-name=\"ro1\"><table:table-cell/></table:table-row>" + ROW2,
+                this.sb.toString());
+    }
+
+    @Test
+    public void testDifferentRows() throws IOException {
+        final TableRowImpl r1 = this.createRow(ROW1, 2);
+        final TableRowImpl r2 = this.createRow(ROW2, 1);
+
+        PowerMock.replayAll();
+        this.compressor.appendRow(this.util, this.sb, r1);
+        this.compressor.appendRow(this.util, this.sb, r2);
+        this.compressor.appendRow(this.util, this.sb, r1);
+        this.compressor.flush();
+        this.compressor.flush();
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(ROW1 + ROW2 + ROW1, this.sb.toString());
+    }
+
+    @Test
+    public void testNullRow() throws IOException {
+        final TableRowImpl r1 = this.createRow(ROW1, 2);
+
+        PowerMock.replayAll();
+        this.compressor.appendRow(this.util, this.sb, r1);
+        this.compressor.appendRow(this.util, this.sb, null);
+        this.compressor.appendRow(this.util, this.sb, r1);
+        this.compressor.flush();
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(ROW1 + "<row />" + ROW1, this.sb.toString());
+    }
+
+    @Test
+    public void testLongRowsAreNotRepeated() throws IOException {
+        this.compressor = new RepeatedRowsCompressor(20);
+        final TableRowImpl r1 = this.createRow(ROW1, 2);
+        final TableRowImpl r2 = this.createRow(ROW2, 1);
+
+        PowerMock.replayAll();
+        this.compressor.appendRow(this.util, this.sb, r1);
+        Assert.assertEquals(ROW1, this.sb.toString());
+        this.compressor.appendRow(this.util, this.sb, r1);
+        this.compressor.appendRow(this.util, this.sb, r2);
+        this.compressor.flush();
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(ROW1 + ROW1 + ROW2, this.sb.toString());
+    }
+
+    @Test
+    public void testOtherDestination() throws IOException {
+        final StringBuilder sb2 = new StringBuilder();
+        final TableRowImpl r1 = this.createRow(ROW1, 3);
+
+        PowerMock.replayAll();
+        this.compressor.appendRow(this.util, this.sb, r1);
+        this.compressor.appendRow(this.util, this.sb, r1);
+        this.compressor.appendRow(this.util, sb2, r1);
+        this.compressor.flush();
+
+        PowerMock.verifyAll();
+        Assert.assertEquals("<table:table-row table:number-rows-repeated=\"2\" " +
+                "table:style-name=\"ro1\"><table:table-cell/></table:table-row>",
+                this.sb.toString());
+        Assert.assertEquals(ROW1, sb2.toString());
+    }
+
+    private TableRowImpl createRow(final String xml, final int times) throws IOException {
+        final TableRowImpl row = PowerMock.createMock(TableRowImpl.class);
+        row.appendXMLToTable(EasyMock.eq(this.util), EasyMock.isA(XmlByteWriter.class));
+        EasyMock.expectLastCall().andAnswer(new IAnswer<Object>() {
+            @Override
+            public Object answer() throws Throwable {
+                final Appendable appendable = (Appendable) EasyMock.getCurrentArguments()[1];
+                appendable.append(xml, 0, 10).append(xml.substring(10, 30))
+                        .append(xml.charAt(30)).append(xml.substring(31));
+                return null;
+            }
+        }).times(times);
+        return row;
+    }
+}
@@ -24,7 +24,9 @@
 package com.github.jferard.fastods;
 
 import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.XmlByteWriter;
 import com.github.jferard.fastods.util.ZipUTF8Writer;
+import org.easymock.EasyMock;
 import org.junit.Before;
 import org.junit.Test;
 import org.powermock.api.easymock.PowerMock;
@@ -65,8 +67,10 @@ public class RowsFlusherTest {
         final List<TableRowImpl> rows = Arrays.asList(r1, r2);
 
         PowerMock.resetAll();
-        r1.appendXMLToTable(this.util, this.w);
-        r2.appendXMLToTable(this.util, this.w);
+        r1.appendXMLToTable(EasyMock.eq(this.util), EasyMock.isA(XmlByteWriter.class));
+        r2.appendXMLToTable(EasyMock.eq(this.util), EasyMock.isA(XmlByteWriter.class));
+        this.w.writeUTF8(EasyMock.isA(byte[].class), EasyMock.eq(0), EasyMock.eq(0));
+        EasyMock.expectLastCall().times(2);
 
         PowerMock.replayAll();
         final OdsAsyncFlusher flusher = new RowsFlusher(rows);
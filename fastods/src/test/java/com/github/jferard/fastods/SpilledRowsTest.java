@@ -0,0 +1,175 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+public class SpilledRowsTest {
+    @Test
+    public void testBadThreshold() {
+        try {
+            DiskSpillPolicy.create(0);
+            Assert.fail();
+        } catch (final IllegalArgumentException e) {
+            // ok
+        }
+    }
+
+    @Test
+    public void testSameXML() throws IOException {
+        final String content = this.getContent(null);
+        Assert.assertEquals(content, this.getContent(DiskSpillPolicy.create(1000)));
+        Assert.assertEquals(content, this.getContent(DiskSpillPolicy.create(1)));
+    }
+
+    @Test
+    public void testSameXMLDeflated() throws IOException {
+        Assert.assertEquals(this.getContent(null),
+                this.getContent(DiskSpillPolicy.create(1000).deflated()));
+    }
+
+    @Test
+    public void testSpilledRowsAreReleased() throws IOException {
+        final AnonymousOdsFileWriter writer = this.createWriter(DiskSpillPolicy.create(1));
+        final Table table = writer.document().addTable("t");
+        table.getRow(0).getOrCreateCell(0).setStringValue("a");
+        table.getRow(1).getOrCreateCell(0).setStringValue("b");
+        table.getRow(2).getOrCreateCell(0).setStringValue("c");
+        try {
+            table.getRow(0);
+            Assert.fail();
+        } catch (final IOException e) {
+            // ok
+        }
+        table.getRow(2).getOrCreateCell(1).setStringValue("d");
+    }
+
+    @Test
+    public void testTempDirectoryIsCleaned() throws IOException {
+        final File dir = new File(System.getProperty("java.io.tmpdir"),
+                "fastods-spill-test-" + System.nanoTime());
+        Assert.assertTrue(dir.mkdir());
+        try {
+            final AnonymousOdsFileWriter writer =
+                    this.createWriter(DiskSpillPolicy.create(1).tempDirectory(dir));
+            final Table table = writer.document().addTable("t");
+            for (int r = 0; r < 10; r++) {
+                table.getRow(r).getOrCreateCell(0).setFloatValue(r);
+            }
+            Assert.assertEquals(1, dir.list().length);
+            writer.save(new ByteArrayOutputStream());
+            Assert.assertEquals(0, dir.list().length);
+        } finally {
+            final File[] files = dir.listFiles();
+            if (files != null) {
+                for (final File file : files) {
+                    file.delete();
+                }
+            }
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void testTempDirectoryIsCleanedWithoutSave() throws IOException {
+        final File dir = new File(System.getProperty("java.io.tmpdir"),
+                "fastods-spill-test-" + System.nanoTime());
+        Assert.assertTrue(dir.mkdir());
+        try {
+            final AnonymousOdsFileWriter writer =
+                    this.createWriter(DiskSpillPolicy.create(1).tempDirectory(dir));
+            final Table table = writer.document().addTable("t");
+            for (int r = 0; r < 10; r++) {
+                table.getRow(r).getOrCreateCell(0).setFloatValue(r);
+            }
+            Assert.assertEquals(1, dir.list().length);
+            writer.document().deleteTemporaryFiles();
+            Assert.assertEquals(0, dir.list().length);
+            writer.document().deleteTemporaryFiles(); // idempotent
+        } finally {
+            final File[] files = dir.listFiles();
+            if (files != null) {
+                for (final File file : files) {
+                    file.delete();
+                }
+            }
+            dir.delete();
+        }
+    }
+
+    private AnonymousOdsFileWriter createWriter(final DiskSpillPolicy policy) {
+        return OdsFactory.create(Logger.getLogger("test"), Locale.US).spillRowsToDisk(policy)
+                .createWriter();
+    }
+
+    private String getContent(final DiskSpillPolicy policy) throws IOException {
+        final AnonymousOdsFileWriter writer = this.createWriter(policy);
+        final Table table = writer.document().addTable("t");
+        for (int r = 0; r < 100; r++) {
+            if (r % 7 == 3 || r % 7 == 4) { // some blank rows
+                continue;
+            }
+            final TableRowImpl row = table.getRow(r);
+            row.getOrCreateCell(0).setFloatValue(r);
+            row.getOrCreateCell(1).setStringValue("é<" + r + ">");
+            if (r % 5 == 0) {
+                row.getOrCreateCell(r % 20).setBooleanValue(true);
+            }
+        }
+        writer.document().addTable("u").getRow(3).getOrCreateCell(1).setStringValue("u");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.save(out);
+        return this.getEntry(out.toByteArray(), "content.xml");
+    }
+
+    private String getEntry(final byte[] bytes, final String name) throws IOException {
+        final ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(bytes));
+        ZipEntry entry = in.getNextEntry();
+        while (entry != null) {
+            if (entry.getName().equals(name)) {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[8192];
+                int count = in.read(buffer);
+                while (count != -1) {
+                    out.write(buffer, 0, count);
+                    count = in.read(buffer);
+                }
+                return new String(out.toByteArray(), ZipUTF8Writer.UTF_8);
+            }
+            entry = in.getNextEntry();
+        }
+        throw new IOException("No entry " + name);
+    }
+}
@@ -223,6 +223,7 @@ public class TableAppenderTest {
         EasyMock.expect(this.tb.getStyleName()).andReturn("tb-style");
         EasyMock.expect(this.tb.getColumnStyles())
                 .andReturn(FastFullList.<TableColumnStyle>builder().build());
+        EasyMock.expect(this.tb.transferSpilledRows(sb)).andReturn(0);
         EasyMock.expect(this.tb.getTableRowsUsedSize()).andReturn(0);
         EasyMock.expect(this.tb.getShapes()).andReturn(Collections.<Shape>emptyList());
 
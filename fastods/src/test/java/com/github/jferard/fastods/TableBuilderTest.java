@@ -33,8 +33,10 @@ import com.github.jferard.fastods.ref.TableNameUtil;
 import com.github.jferard.fastods.style.TableCellStyle;
 import com.github.jferard.fastods.style.TableColumnStyle;
 import com.github.jferard.fastods.style.TableStyle;
+import com.github.jferard.fastods.testlib.ZipUTF8WriterMockHandler;
 import com.github.jferard.fastods.util.WriteUtil;
 import com.github.jferard.fastods.util.XMLUtil;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
 import com.google.common.collect.Lists;
 import org.easymock.EasyMock;
 import org.junit.Assert;
@@ -46,6 +48,9 @@ import java.io.IOException;
 import java.text.ParseException;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
 
 public class TableBuilderTest {
     private DataStyles ds;
@@ -66,7 +71,8 @@ public class TableBuilderTest {
         this.ce = ConfigItemMapEntrySet.createSet("mytable");
         this.builder =
                 new TableBuilder(positionUtil, WriteUtil.create(), xmlUtil, this.stc, this.ds,
-                        false, "mytable", 10, 100, this.ce, 2);
+                        false, "mytable", 10, 100, this.ce, FlushPolicy.rowCount(2), null, false,
+                        null);
         this.xmlUtil = xmlUtil;
 
         this.table = PowerMock.createMock(Table.class);
@@ -274,6 +280,78 @@ public class TableBuilderTest {
         PowerMock.verifyAll();
     }
 
+    @Test
+    public void testMemoryBudgetFlush() throws IOException {
+        // a row of 10 cells is estimated to 64 + 10 * 128 = 1344 bytes: 8 rows per flush
+        final NamedOdsFileWriter o = PowerMock.createMock(NamedOdsFileWriter.class);
+        final TableBuilder tb = new TableBuilder(new PositionUtil(new TableNameUtil()),
+                WriteUtil.create(), this.xmlUtil, this.stc, this.ds, false, "mytable", 10, 10,
+                this.ce, FlushPolicy.memoryBudget(10000), null, false, null);
+
+        PowerMock.resetAll();
+        o.update(EasyMock.isA(BeginTableFlusher.class));
+        o.update(EasyMock.isA(PreprocessedRowsFlusher.class));
+        EasyMock.expectLastCall().times(12);
+
+        PowerMock.replayAll();
+        tb.addObserver(o);
+        this.fillRows(tb, 100, 10);
+
+        PowerMock.verifyAll();
+        Assert.assertEquals(100, tb.getRowCount());
+    }
+
+    @Test
+    public void testRowCountOrMemoryBudgetFlush() throws IOException {
+        final NamedOdsFileWriter o = PowerMock.createMock(NamedOdsFileWriter.class);
+        final TableBuilder tb = new TableBuilder(new PositionUtil(new TableNameUtil()),
+                WriteUtil.create(), this.xmlUtil, this.stc, this.ds, false, "mytable", 10, 10,
+                this.ce, FlushPolicy.rowCount(5).maxBytes(10000), null, false, null);
+
+        PowerMock.resetAll();
+        o.update(EasyMock.isA(BeginTableFlusher.class));
+        o.update(EasyMock.isA(PreprocessedRowsFlusher.class));
+        EasyMock.expectLastCall().times(19);
+
+        PowerMock.replayAll();
+        tb.addObserver(o);
+        this.fillRows(tb, 100, 10);
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testDelayFlush() throws IOException, InterruptedException {
+        final NamedOdsFileWriter o = PowerMock.createMock(NamedOdsFileWriter.class);
+        final TableBuilder tb = new TableBuilder(new PositionUtil(new TableNameUtil()),
+                WriteUtil.create(), this.xmlUtil, this.stc, this.ds, false, "mytable", 10, 10,
+                this.ce, FlushPolicy.rowCount(1000).maxMillis(1), null, false, null);
+
+        PowerMock.resetAll();
+        o.update(EasyMock.isA(BeginTableFlusher.class));
+        o.update(EasyMock.isA(PreprocessedRowsFlusher.class));
+        EasyMock.expectLastCall().times(3);
+
+        PowerMock.replayAll();
+        tb.addObserver(o);
+        for (int r = 0; r < 4; r++) {
+            tb.nextRow(this.table, this.appender);
+            Thread.sleep(5);
+        }
+
+        PowerMock.verifyAll();
+    }
+
+    private void fillRows(final TableBuilder tb, final int rowCount, final int colCount)
+            throws IOException {
+        for (int r = 0; r < rowCount; r++) {
+            final TableRowImpl row = tb.nextRow(this.table, this.appender);
+            for (int c = 0; c < colCount; c++) {
+                row.getOrCreateCell(c).setStringValue("cell");
+            }
+        }
+    }
+
     @Test
     public void testSetting() {
         PowerMock.resetAll();
@@ -370,4 +448,113 @@ public class TableBuilderTest {
                 this.builder.findDefaultCellStyle(10));
         PowerMock.verifyAll();
     }
+
+    @Test
+    public void testFlushedRowsAreSealed() throws IOException {
+        final NamedOdsFileWriter o = PowerMock.createMock(NamedOdsFileWriter.class);
+
+        PowerMock.resetAll();
+        o.update(EasyMock.isA(BeginTableFlusher.class));
+        o.update(EasyMock.isA(PreprocessedRowsFlusher.class));
+
+        PowerMock.replayAll();
+        this.builder.addObserver(o);
+        final TableRowImpl row0 = this.builder.getRow(this.table, this.appender, 0);
+        final TableCell cell0 = row0.getOrCreateCell(0);
+        this.builder.getRow(this.table, this.appender, 1);
+        final TableRowImpl row2 = this.builder.getRow(this.table, this.appender, 2);
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(row0.isSealed());
+        Assert.assertFalse(row2.isSealed());
+        Assert.assertEquals(3, this.builder.getRowCount());
+        Assert.assertSame(row2, this.builder.getTableRow(2));
+        try {
+            row0.getOrCreateCell(0);
+            Assert.fail();
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+        try {
+            cell0.setStringValue("kept");
+            Assert.fail();
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+        try {
+            this.builder.getRow(this.table, this.appender, 1);
+            Assert.fail();
+        } catch (final IOException e) {
+            // expected
+        }
+        try {
+            this.builder.getTableRow(0);
+            Assert.fail();
+        } catch (final IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testRetainedRowsAreBounded() throws IOException {
+        final NamedOdsFileWriter o = PowerMock.createNiceMock(NamedOdsFileWriter.class);
+        final TableBuilder tb = new TableBuilder(new PositionUtil(new TableNameUtil()),
+                WriteUtil.create(), this.xmlUtil, this.stc, this.ds, false, "mytable", 1024, 10,
+                this.ce, FlushPolicy.rowCount(1024), null, false, null);
+
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        tb.addObserver(o);
+        final TableRowImpl firstRow = tb.nextRow(this.table, this.appender);
+        int maxRetainedRowCount = 0;
+        for (int r = 1; r < 100000; r++) {
+            final TableRowImpl row = tb.nextRow(this.table, this.appender);
+            for (int c = 0; c < 10; c++) {
+                row.getOrCreateCell(c).setStringValue("cell");
+            }
+            maxRetainedRowCount = Math.max(maxRetainedRowCount, tb.getRetainedRowCount());
+        }
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(firstRow.isSealed());
+        Assert.assertEquals(100000, tb.getRowCount());
+        // the flushed rows are released: only the current block of rows is held
+        Assert.assertTrue(maxRetainedRowCount <= 1024);
+    }
+
+    @Test
+    public void testRowsSerializationExecutor() throws IOException {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final String expected = this.writeTable(null);
+            final String actual = this.writeTable(executor);
+            Assert.assertEquals(expected, actual);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private String writeTable(final ExecutorService executor) throws IOException {
+        final ZipUTF8WriterMockHandler handler = ZipUTF8WriterMockHandler.create();
+        final ZipUTF8Writer writer = handler.getInstance(ZipUTF8Writer.class);
+        writer.putNextEntry(new ZipEntry("content.xml"));
+        final TableBuilder tb = new TableBuilder(new PositionUtil(new TableNameUtil()),
+                WriteUtil.create(), this.xmlUtil, this.stc, this.ds, false, "mytable", 10, 10,
+                this.ce, FlushPolicy.rowCount(2), executor, false, null);
+        final TableAppender tableAppender = new TableAppender(tb);
+        tb.addObserver(new OdsFileDirectWriter(null, this.xmlUtil, null, writer));
+
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        for (int r = 0; r < 25; r++) {
+            final TableRowImpl row = tb.nextRow(this.table, tableAppender);
+            for (int c = 0; c < 3; c++) {
+                row.getOrCreateCell(c).setStringValue(r + "," + c);
+            }
+        }
+        tb.asyncFlushEndTable(tableAppender);
+
+        PowerMock.verifyAll();
+        return handler.getEntryAsString("content.xml");
+    }
 }
@@ -81,7 +81,7 @@ public class TableCellTest {
         this.tcc = TableColdCell.create(this.xmlUtil);
         this.ds = DataStylesBuilder.create(Locale.US).build();
         this.row = new TableRowImpl(writeUtil, this.xmlUtil, this.stc, this.ds, false, this.table,
-                ROW_INDEX, 100);
+                ROW_INDEX, 100, null, new ChildCellStyleCache(this.stc));
         this.cell = new TableCellImpl(writeUtil, this.xmlUtil, this.stc, this.ds, false, this.row,
                 COLUMN_INDEX);
         this.tcs = TableCellStyle.builder("name").build();
@@ -182,7 +182,7 @@ public class TableCellTest {
     @Test
     public final void testCurrencyNumber() throws IOException {
         this.recordAndReplayCurrency();
-        this.cell.setCurrencyValue(10.0, "€");
+        this.cell.setCurrencyValue((Number) 10.0, "€");
 
         PowerMock.verifyAll();
         this.assertCellXMLEquals(
@@ -209,10 +209,27 @@ public class TableCellTest {
                         "office:date-value=\"2009-02-13T23:31:31.011Z\"/>");
     }
 
+    @Test
+    public final void testDateFields() throws IOException {
+        final TableCellStyle cs = PowerMock.createMock(TableCellStyle.class);
+        final DataStyle dateDataStyle = this.ds.getDateDataStyle();
+
+        PowerMock.resetAll();
+        this.playAddStyle(cs, dateDataStyle);
+
+        PowerMock.replayAll();
+        this.cell.setDateValue(2009, 2, 13, 23, 31, 31, 11);
+
+        PowerMock.verifyAll();
+        this.assertCellXMLEquals(
+                "<table:table-cell table:style-name=\"name\" office:value-type=\"date\" " +
+                        "office:date-value=\"2009-02-13T23:31:31.011Z\"/>");
+    }
+
     @Test
     public final void testFloatNumber() throws IOException {
         this.playAndReplayFloat();
-        this.cell.setFloatValue(10.999);
+        this.cell.setFloatValue((Number) 10.999);
 
         PowerMock.verifyAll();
         this.assertCellXMLEquals(
@@ -231,6 +248,77 @@ public class TableCellTest {
                         "office:value=\"9.999\"/>");
     }
 
+    @Test
+    public final void testFloatLong() throws IOException {
+        this.playAndReplayFloat();
+        this.cell.setFloatValue(Long.MIN_VALUE + 1);
+
+        PowerMock.verifyAll();
+        this.assertCellXMLEquals(
+                "<table:table-cell table:style-name=\"name\" office:value-type=\"float\" " +
+                        "office:value=\"-9223372036854775807\"/>");
+    }
+
+    @Test
+    public final void testFloatDoubleNotShort() throws IOException {
+        this.playAndReplayFloat();
+        this.cell.setFloatValue(0.1 + 0.2);
+
+        PowerMock.verifyAll();
+        this.assertCellXMLEquals(
+                "<table:table-cell table:style-name=\"name\" office:value-type=\"float\" " +
+                        "office:value=\"0.30000000000000004\"/>");
+    }
+
+    @Test
+    public final void testCurrencyDouble() throws IOException {
+        this.recordAndReplayCurrency();
+        this.cell.setCurrencyValue(-0.5, "€");
+
+        PowerMock.verifyAll();
+        this.assertCellXMLEquals(
+                "<table:table-cell table:style-name=\"name\" office:value-type=\"currency\" " +
+                        "office:value=\"-0.5\" " + "office:currency=\"€\" />");
+    }
+
+    @Test
+    public final void testStringAfterDouble() throws IOException {
+        this.playAndReplayFloat();
+        this.cell.setFloatValue(1.5);
+        this.cell.setStringValue("a");
+
+        PowerMock.verifyAll();
+        this.assertCellXMLEquals(
+                "<table:table-cell table:style-name=\"name\" office:value-type=\"string\" " +
+                        "office:string-value=\"a\"/>");
+    }
+
+    @Test
+    public final void testVoidAfterLong() throws IOException {
+        final TableCellImpl otherCell = new TableCellImpl(WriteUtil.create(), this.xmlUtil,
+                this.stc, this.ds, false, this.row, COLUMN_INDEX);
+        final TableCellStyle cs = PowerMock.createMock(TableCellStyle.class);
+        final DataStyle floatDataStyle = this.ds.getFloatDataStyle();
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.table.findDefaultCellStyle(COLUMN_INDEX)).andReturn(cs).times(2);
+        EasyMock.expect(this.stc.addDataStyle(floatDataStyle)).andReturn(true);
+        EasyMock.expect(this.stc.addChildCellStyle(cs, floatDataStyle)).andReturn(this.tcs);
+        EasyMock.expect(cs.getDataStyle()).andReturn(null).times(2);
+
+        PowerMock.replayAll();
+        this.cell.setFloatValue(10L);
+        this.cell.setVoidValue();
+        otherCell.setFloatValue(20L);
+        otherCell.setVoidValue();
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(this.cell.hasSameContent(otherCell));
+        this.assertCellXMLEquals(
+                "<table:table-cell table:style-name=\"name\" office:value-type=\"\" " +
+                        "office-value=\"\"/>");
+    }
+
     private void playAndReplayFloat() {
         final TableCellStyle cs = PowerMock.createMock(TableCellStyle.class);
         final DataStyle floatDataStyle = this.ds.getFloatDataStyle();
@@ -64,7 +64,7 @@ public class TableRowTest {
         this.ds = DataStylesBuilder.create(Locale.US).build();
         this.row =
                 new TableRowImpl(writeUtil, this.xmlUtil, this.stc, this.ds, false, this.table, 10,
-                        100);
+                        100, null, new ChildCellStyleCache(this.stc));
         this.tcs = TableCellStyle.builder("---").build();
         PowerMock.mockStatic(TableColdCell.class);
         PowerMock.resetAll();
@@ -195,6 +195,22 @@ public class TableRowTest {
         PowerMock.verifyAll();
     }
 
+    @Test
+    public void testFindDefaultCellStyleSnapshot() {
+        final TableCellStyle cs = PowerMock.createMock(TableCellStyle.class);
+        final ColumnDefaultCellStyles snapshot =
+                new ColumnDefaultCellStyles(new TableCellStyle[]{cs}, this.tcs);
+
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        TableRowImpl.seal(this.row, snapshot);
+
+        PowerMock.verifyAll();
+        Assert.assertTrue(this.row.isSealed());
+        Assert.assertSame(cs, this.row.findDefaultCellStyle(0));
+        Assert.assertSame(this.tcs, this.row.findDefaultCellStyle(1));
+    }
+
     @Test
     public final void testRows() throws IOException {
         final TableCellStyle cs = PowerMock.createMock(TableCellStyle.class);
@@ -221,6 +237,29 @@ public class TableRowTest {
                         "office:string-value=\"a\"/>" + "</table:table-row>");
     }
 
+    @Test
+    public final void testRepeatedCells() throws IOException {
+        PowerMock.resetAll();
+        PowerMock.replayAll();
+        for (int c = 0; c < 3; c++) {
+            this.row.getOrCreateCell(c).setStringValue("a");
+        }
+        this.row.getOrCreateCell(3).setStringValue("b");
+        this.row.getOrCreateCell(5).setStringValue("b");
+        this.row.getOrCreateCell(6).setStringValue("b");
+
+        PowerMock.verifyAll();
+        this.assertTableXMLEquals(
+                "<table:table-row table:style-name=\"ro1\">" + "<table:table-cell " +
+                        "table:number-columns-repeated=\"3\" office:value-type=\"string\" " +
+                        "office:string-value=\"a\"/>" +
+                        "<table:table-cell office:value-type=\"string\" " +
+                        "office:string-value=\"b\"/><table:table-cell/>" +
+                        "<table:table-cell table:number-columns-repeated=\"2\" " +
+                        "office:value-type=\"string\" office:string-value=\"b\"/>" +
+                        "</table:table-row>");
+    }
+
     @Test
     public final void testAppendRowOpenTag() throws IOException {
         PowerMock.resetAll();
@@ -0,0 +1,222 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.datastyle.DataStyle;
+import com.github.jferard.fastods.datastyle.DataStylesBuilder;
+import com.github.jferard.fastods.style.TableCellStyle;
+import com.github.jferard.fastods.style.TableColumnStyle;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+public class TableRowWriterTest {
+    private static final long TIME_IN_MILLIS = 1234567891011L;
+    private final TableCellStyle style = TableCellStyle.builder("s").fontWeightBold().build();
+    private final TableCellStyle columnCellStyle =
+            TableCellStyle.builder("cs").fontStyleItalic().build();
+    private final DataStyle dataStyle =
+            DataStylesBuilder.create(Locale.FRANCE).build().getFloatDataStyle();
+
+    @Test
+    public void testSameXMLAsCells() throws IOException {
+        Assert.assertEquals(this.getContent(false, false, false),
+                this.getContent(true, false, false));
+    }
+
+    @Test
+    public void testSameXMLAsCellsLOMode() throws IOException {
+        Assert.assertEquals(this.getContent(false, false, true),
+                this.getContent(true, false, true));
+    }
+
+    @Test
+    public void testSameXMLAsCellsCompact() throws IOException {
+        Assert.assertEquals(this.getContent(false, true, true),
+                this.getContent(true, true, true));
+    }
+
+    @Test
+    public void testTypedValues() throws IOException {
+        final Table table = this.createWriter(false, false).document().addTable("t");
+        final TableRowWriter rowWriter = table.rowWriter(
+                ColumnSchema.builder().column(CellType.FLOAT).column(CellType.DATE)
+                        .column(CellType.STRING).column(CellType.BOOLEAN).build());
+        rowWriter.add(1.5).add(new Date(TIME_IN_MILLIS)).add("a").add(true).endRow();
+        rowWriter.add(2L).add(TIME_IN_MILLIS).addEmpty().endRow();
+        rowWriter.endRow();
+        rowWriter.addRows(Arrays.asList(new Object[]{3}, new Object[]{null, null, "b"}));
+
+        Assert.assertEquals(5, table.getRowCount());
+        Assert.assertEquals(4, table.getRow(0).getColumnCount());
+        Assert.assertEquals(2, table.getRow(1).getColumnCount());
+        Assert.assertEquals(0, table.getRow(2).getColumnCount());
+        Assert.assertEquals(1, table.getRow(3).getColumnCount());
+        Assert.assertEquals(3, table.getRow(4).getColumnCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTypeMismatch() throws IOException {
+        final Table table = this.createWriter(false, false).document().addTable("t");
+        final TableRowWriter rowWriter =
+                table.rowWriter(ColumnSchema.builder().column(CellType.FLOAT).build());
+        rowWriter.add("a");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testObjectTypeMismatch() throws IOException {
+        final Table table = this.createWriter(false, false).document().addTable("t");
+        final TableRowWriter rowWriter =
+                table.rowWriter(ColumnSchema.builder().column(CellType.BOOLEAN).build());
+        rowWriter.addRow("true");
+    }
+
+    @Test
+    public void testDateOnFloatColumn() throws IOException {
+        final Table table = this.createWriter(false, false).document().addTable("t");
+        final TableRowWriter rowWriter =
+                table.rowWriter(ColumnSchema.builder().column(CellType.FLOAT).build());
+        try {
+            rowWriter.add(new Date(TIME_IN_MILLIS));
+            Assert.fail();
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            rowWriter.addRow(new Date(TIME_IN_MILLIS));
+            Assert.fail();
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+        Assert.assertEquals(0, table.getRowCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTooManyValues() throws IOException {
+        final Table table = this.createWriter(false, false).document().addTable("t");
+        final TableRowWriter rowWriter =
+                table.rowWriter(ColumnSchema.builder().column(CellType.FLOAT).build());
+        rowWriter.addRow(1, 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedType() {
+        ColumnSchema.builder().column(CellType.CURRENCY);
+    }
+
+    private String getContent(final boolean useRowWriter, final boolean compactRows,
+                              final boolean libreOfficeMode) throws IOException {
+        final AnonymousOdsFileWriter writer = this.createWriter(compactRows, libreOfficeMode);
+        final Table table = writer.document().addTable("t");
+        table.setColumnStyle(5,
+                TableColumnStyle.builder("co").defaultCellStyle(this.columnCellStyle).build());
+        final Object[][] rows = new Object[3][];
+        for (int r = 0; r < 3; r++) {
+            rows[r] = new Object[]{r % 2 == 0, new Date(TIME_IN_MILLIS * r), 0.1 * r, r,
+                    new BigDecimal("1.25"), 0.25, "<a & \"b\">", null, "end", r * 1.5};
+        }
+        if (useRowWriter) {
+            final TableRowWriter rowWriter = table.rowWriter(ColumnSchema.builder()
+                    .column(CellType.BOOLEAN).column(CellType.DATE).column(CellType.FLOAT)
+                    .column(CellType.FLOAT, this.style)
+                    .column(CellType.FLOAT, null, this.dataStyle)
+                    .column(CellType.PERCENTAGE)
+                    .column(CellType.STRING, this.style)
+                    .column(CellType.STRING)
+                    .column(CellType.STRING)
+                    .column(CellType.FLOAT, this.style, this.dataStyle).build());
+            rowWriter.addRows(rows);
+        } else {
+            for (final Object[] values : rows) {
+                final TableRowImpl row = table.nextRow();
+                int c = 0;
+                row.getOrCreateCell(c++).setBooleanValue((Boolean) values[0]);
+                row.getOrCreateCell(c++).setDateValue((Date) values[1]);
+                row.getOrCreateCell(c++).setFloatValue(((Double) values[2]).doubleValue());
+                TableCell cell = row.getOrCreateCell(c++);
+                cell.setStyle(this.style);
+                cell.setFloatValue(((Integer) values[3]).intValue());
+                cell = row.getOrCreateCell(c++);
+                cell.setFloatValue((BigDecimal) values[4]);
+                cell.setDataStyle(this.dataStyle);
+                row.getOrCreateCell(c++).setPercentageValue(((Double) values[5]).doubleValue());
+                cell = row.getOrCreateCell(c++);
+                cell.setStyle(this.style);
+                cell.setStringValue((String) values[6]);
+                c++; // a blank cell
+                row.getOrCreateCell(c++).setStringValue((String) values[8]);
+                cell = row.getOrCreateCell(c++);
+                cell.setStyle(this.style);
+                cell.setFloatValue(((Double) values[9]).doubleValue());
+                cell.setDataStyle(this.dataStyle);
+            }
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.save(out);
+        return this.getEntry(out.toByteArray(), "content.xml");
+    }
+
+    private AnonymousOdsFileWriter createWriter(final boolean compactRows,
+                                                final boolean libreOfficeMode) {
+        OdsFactory odsFactory = OdsFactory.create(Logger.getLogger("test"), Locale.US);
+        if (compactRows) {
+            odsFactory = odsFactory.compactRows();
+        }
+        if (!libreOfficeMode) {
+            odsFactory = odsFactory.noLibreOfficeMode();
+        }
+        return odsFactory.createWriter();
+    }
+
+    private String getEntry(final byte[] bytes, final String name) throws IOException {
+        final ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(bytes));
+        ZipEntry entry = in.getNextEntry();
+        while (entry != null) {
+            if (entry.getName().equals(name)) {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[8192];
+                int count = in.read(buffer);
+                while (count != -1) {
+                    out.write(buffer, 0, count);
+                    count = in.read(buffer);
+                }
+                return new String(out.toByteArray(), ZipUTF8Writer.UTF_8);
+            }
+            entry = in.getNextEntry();
+        }
+        throw new IOException("No entry " + name);
+    }
+}
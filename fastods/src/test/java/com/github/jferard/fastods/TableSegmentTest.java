@@ -0,0 +1,194 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+public class TableSegmentTest {
+    private static final int TABLE_COUNT = 4;
+    private static final int ROW_COUNT = 3000;
+
+    private File file;
+    private OdsFactory odsFactory;
+
+    @Before
+    public void setUp() throws IOException {
+        this.file = File.createTempFile("segment_test", ".ods");
+        this.odsFactory = OdsFactory.create(Logger.getLogger("test"), Locale.US);
+    }
+
+    @After
+    public void tearDown() {
+        this.file.delete();
+    }
+
+    @Test
+    public void testConcurrentTablesSameAsAnonymous() throws Exception {
+        final AnonymousOdsFileWriter anonymousWriter = this.odsFactory.createWriter();
+        for (int t = 0; t < TABLE_COUNT; t++) {
+            this.fill(anonymousWriter.document().addTable("t" + t));
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        anonymousWriter.save(out);
+        final File expectedFile = File.createTempFile("segment_test", ".ods");
+        try {
+            final FileOutputStream fileOut = new FileOutputStream(expectedFile);
+            fileOut.write(out.toByteArray());
+            fileOut.close();
+
+            final NamedOdsFileWriter writer = this.odsFactory.createWriter(this.file);
+            final NamedOdsDocument document = writer.document();
+            final List<Thread> threads = new ArrayList<Thread>();
+            final List<Throwable> errors = new ArrayList<Throwable>();
+            for (int t = 0; t < TABLE_COUNT; t++) {
+                final Table table = document.addConcurrentTable("t" + t);
+                threads.add(new Thread() {
+                    @Override
+                    public void run() {
+                        try {
+                            TableSegmentTest.this.fill(table);
+                        } catch (final Throwable e) {
+                            synchronized (errors) {
+                                errors.add(e);
+                            }
+                        }
+                    }
+                });
+            }
+            for (final Thread thread : threads) {
+                thread.start();
+            }
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+            document.save();
+            writer.close();
+
+            Assert.assertEquals(new ArrayList<Throwable>(), errors);
+            Assert.assertEquals(this.getContent(expectedFile), this.getContent(this.file));
+        } finally {
+            expectedFile.delete();
+        }
+    }
+
+    @Test
+    public void testTablesOrder() throws IOException {
+        final NamedOdsFileWriter writer = this.odsFactory.createWriter(this.file);
+        final NamedOdsDocument document = writer.document();
+        final Table a = document.addConcurrentTable("a");
+        a.getRow(0).getOrCreateCell(0).setStringValue("a");
+        final Table b = document.addConcurrentTable("b");
+        final Table c = document.addConcurrentTable("c");
+        final Table d = document.addTable("d");
+        d.getRow(0).getOrCreateCell(0).setStringValue("d");
+        c.getRow(0).getOrCreateCell(0).setStringValue("c");
+        b.getRow(0).getOrCreateCell(0).setStringValue("b");
+        document.save();
+        writer.close();
+
+        final String content = this.getContent(this.file);
+        final int ia = content.indexOf("table:name=\"a\"");
+        final int ib = content.indexOf("table:name=\"b\"");
+        final int ic = content.indexOf("table:name=\"c\"");
+        final int id = content.indexOf("table:name=\"d\"");
+        Assert.assertTrue(0 < ia && ia < ib && ib < ic && ic < id);
+        Assert.assertTrue(ib < content.indexOf("office:string-value=\"b\"") &&
+                content.indexOf("office:string-value=\"b\"") < ic);
+    }
+
+    @Test
+    public void testConcurrentAfterSequential() throws IOException {
+        final NamedOdsFileWriter writer = this.odsFactory.createWriter(this.file);
+        final NamedOdsDocument document = writer.document();
+        final Table a = document.addTable("a");
+        a.getRow(0).getOrCreateCell(0).setFloatValue(1);
+        try {
+            document.addConcurrentTable("b");
+            Assert.fail();
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+        document.save();
+        writer.close();
+
+        final String content = this.getContent(this.file);
+        Assert.assertFalse(content.contains("table:name=\"b\""));
+        Assert.assertTrue(content.contains("office:value=\"1\""));
+    }
+
+    @Test
+    public void testDuplicateName() throws IOException {
+        final NamedOdsFileWriter writer = this.odsFactory.createWriter(this.file);
+        final NamedOdsDocument document = writer.document();
+        Assert.assertNotNull(document.addConcurrentTable("a"));
+        Assert.assertNull(document.addConcurrentTable("a"));
+        document.save();
+        writer.close();
+    }
+
+    private void fill(final Table table) throws IOException {
+        final TableCellWalker walker = table.getWalker();
+        for (int r = 0; r < ROW_COUNT; r++) {
+            walker.setStringValue(table.getName() + " " + r);
+            walker.next();
+            walker.setFloatValue(r);
+            walker.nextRow();
+        }
+    }
+
+    private String getContent(final File f) throws IOException {
+        final ZipFile zipFile = new ZipFile(f);
+        try {
+            final ZipEntry entry = zipFile.getEntry("content.xml");
+            final InputStream in = zipFile.getInputStream(entry);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int count = in.read(buffer);
+            while (count != -1) {
+                out.write(buffer, 0, count);
+                count = in.read(buffer);
+            }
+            in.close();
+            return new String(out.toByteArray(), ZipUTF8Writer.UTF_8);
+        } finally {
+            zipFile.close();
+        }
+    }
+}
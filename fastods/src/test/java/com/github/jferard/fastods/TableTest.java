@@ -74,7 +74,7 @@ public class TableTest {
         this.ds = DataStylesBuilder.create(Locale.US).build();
         this.table =
                 Table.create(this.ce, positionUtil, WriteUtil.create(), xmlUtil, "my_table", 10,
-                        100, this.stc, this.ds, false);
+                        100, this.stc, this.ds, false, null, false, null, null);
         this.xmlUtil = xmlUtil;
         this.sb = new StringBuilder();
 
@@ -187,9 +187,6 @@ public class TableTest {
 
         PowerMock.replayAll();
         this.table.setRowsSpanned(10, 9, 8);
-        final String ROW = "<table:table-row table:style-name=\"ro1\"><table:table-cell " +
-                "table:number-columns-repeated=\"9\"/><table:covered-table-cell/></table:table" +
-                "-row>";
         this.assertTableXMLEquals("<table:table table:name=\"my_table\" table:style-name=\"ta1\" " +
                 "table:print=\"false\">" + "<office:forms form:automatic-focus=\"false\" " +
                 "form:apply-design-mode=\"false\"/>" +
@@ -200,8 +197,10 @@ public class TableTest {
                 "<table:table-cell/>" + "</table:table-row>" +
                 "<table:table-row table:style-name=\"ro1\">" + "<table:table-cell " +
                 "table:number-columns-repeated=\"9\"/>" + "<table:table-cell " +
-                "table:number-rows-spanned=\"8\"/>" + "</table:table-row>" + ROW + ROW + ROW + ROW +
-                ROW + ROW + ROW + "</table:table>");
+                "table:number-rows-spanned=\"8\"/>" + "</table:table-row>" +
+                "<table:table-row table:number-rows-repeated=\"7\" table:style-name=\"ro1\">" +
+                "<table:table-cell table:number-columns-repeated=\"9\"/>" +
+                "<table:covered-table-cell/></table:table-row></table:table>");
 
         PowerMock.verifyAll();
     }
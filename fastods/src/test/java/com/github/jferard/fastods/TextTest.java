@@ -125,7 +125,7 @@ public class TextTest {
     public void linkTable() throws Exception {
         final Table table =
                 Table.create(this.ce, PositionUtil.create(), null, null, "n", 0, 0, null, null,
-                        false);
+                        false, null, false, null, null);
         final Text t = TextBuilder.create().par().link("a", table).build();
         Assert.assertEquals("n", table.getName());
         TestHelper.assertXMLEquals(
@@ -136,7 +136,7 @@ public class TextTest {
     public void styledLinkTable() throws Exception {
         final Table table =
                 Table.create(this.ce, PositionUtil.create(), null, null, "n", 0, 0, null, null,
-                        false);
+                        false, null, false, null, null);
         final Text t = TextBuilder.create().par().styledLink("a", this.ts, table).build();
         TestHelper.assertXMLEquals("<text:p><text:a text:style-name=\"ts\" xlink:href=\"#n\" " +
                 "xlink:type=\"simple\">a</text:a></text:p>", t);
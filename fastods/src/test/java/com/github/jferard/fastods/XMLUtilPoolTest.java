@@ -0,0 +1,51 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods;
+
+import com.github.jferard.fastods.util.XMLUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class XMLUtilPoolTest {
+    @Test
+    public void testBorrowCopy() {
+        final XMLUtil util = XMLUtil.create();
+        final XMLUtilPool pool = new XMLUtilPool(util);
+
+        final XMLUtil copy1 = pool.borrow();
+        final XMLUtil copy2 = pool.borrow();
+        Assert.assertNotSame(util, copy1);
+        Assert.assertNotSame(util, copy2);
+        Assert.assertNotSame(copy1, copy2);
+    }
+
+    @Test
+    public void testGiveBack() {
+        final XMLUtilPool pool = new XMLUtilPool(XMLUtil.create());
+
+        final XMLUtil copy = pool.borrow();
+        pool.giveBack(copy);
+        Assert.assertSame(copy, pool.borrow());
+    }
+}
@@ -61,7 +61,7 @@ public class ContentElementTest {
         this.format = DataStylesBuilder.create(Locale.US).build();
         this.content =
                 new ContentElement(PositionUtil.create(), XMLUtil.create(), WriteUtil.create(),
-                        this.format, true, this.container);
+                        this.format, true, this.container, null, false, null, null);
         this.settingsElement = PowerMock.createMock(SettingsElement.class);
         this.xmlUtil = XMLUtil.create();
     }
@@ -0,0 +1,155 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.DataWrapper;
+import com.github.jferard.fastods.NamedOdsDocument;
+import com.github.jferard.fastods.NamedOdsFileWriter;
+import com.github.jferard.fastods.OdsFactory;
+import com.github.jferard.fastods.TableCellWalker;
+import com.github.jferard.fastods.testlib.ResultSetTester;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.api.easymock.PowerMock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+import java.util.zip.ZipFile;
+
+public class ConcurrentTableFillerTest {
+    private File file;
+    private OdsFactory odsFactory;
+    private ExecutorService executor;
+    private ExecutorService prefetchExecutor;
+
+    @Before
+    public void setUp() throws IOException {
+        this.file = File.createTempFile("filler_test", ".ods");
+        this.odsFactory = OdsFactory.create(Logger.getLogger("test"), Locale.US);
+        this.executor = Executors.newFixedThreadPool(2);
+        this.prefetchExecutor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.shutdown();
+        this.prefetchExecutor.shutdown();
+        this.file.delete();
+    }
+
+    @Test
+    public void testFill() throws IOException {
+        final ResultSetTester tester = ResultSetTester.create();
+        final NamedOdsFileWriter writer = this.odsFactory.createWriter(this.file);
+        final NamedOdsDocument document = writer.document();
+        final ConcurrentTableFiller filler = ConcurrentTableFiller.create(document, this.executor);
+        for (final String name : Arrays.asList("q1", "q2", "q3")) {
+            final List<List<Object>> rows = new ArrayList<List<Object>>();
+            for (int i = 0; i < 1000; i++) {
+                rows.add(Arrays.<Object>asList(i, name + "-" + i));
+            }
+            final ResultSet rs = tester.createResultSet(Arrays.asList("n", "s"), rows);
+            Assert.assertNotNull(filler.fill(name, ResultSetDataWrapper.builder(name, rs)
+                    .prefetch(this.prefetchExecutor, 100, 2).build()));
+        }
+        filler.await();
+        document.save();
+        writer.close();
+
+        final String content = this.getContent(this.file);
+        final int i1 = content.indexOf("table:name=\"q1\"");
+        final int i2 = content.indexOf("table:name=\"q2\"");
+        final int i3 = content.indexOf("table:name=\"q3\"");
+        Assert.assertTrue(0 < i1 && i1 < i2 && i2 < i3);
+        Assert.assertTrue(content.indexOf("office:string-value=\"q2-999\"") > i2);
+        Assert.assertTrue(content.indexOf("office:string-value=\"q2-999\"") < i3);
+    }
+
+    @Test
+    public void testDuplicateName() throws IOException {
+        final DataWrapper data = PowerMock.createNiceMock(DataWrapper.class);
+        final NamedOdsFileWriter writer = this.odsFactory.createWriter(this.file);
+        final ConcurrentTableFiller filler =
+                ConcurrentTableFiller.create(writer.document(), this.executor);
+
+        PowerMock.replayAll();
+        Assert.assertNotNull(filler.fill("a", data));
+        Assert.assertNull(filler.fill("a", data));
+        filler.await();
+
+        PowerMock.verifyAll();
+        writer.close();
+    }
+
+    @Test(expected = IOException.class)
+    public void testError() throws IOException {
+        final DataWrapper data = PowerMock.createMock(DataWrapper.class);
+        final NamedOdsFileWriter writer = this.odsFactory.createWriter(this.file);
+        final ConcurrentTableFiller filler =
+                ConcurrentTableFiller.create(writer.document(), this.executor);
+
+        PowerMock.resetAll();
+        EasyMock.expect(data.addToTable(EasyMock.isA(TableCellWalker.class)))
+                .andThrow(new IOException());
+
+        PowerMock.replayAll();
+        filler.fill("a", data);
+        try {
+            filler.await();
+        } finally {
+            writer.close();
+        }
+    }
+
+    private String getContent(final File file) throws IOException {
+        final ZipFile zipFile = new ZipFile(file);
+        try {
+            final InputStream in = zipFile.getInputStream(zipFile.getEntry("content.xml"));
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buf = new byte[8192];
+            int n = in.read(buf);
+            while (n != -1) {
+                out.write(buf, 0, n);
+                n = in.read(buf);
+            }
+            return new String(out.toByteArray(), ZipUTF8Writer.UTF_8);
+        } finally {
+            zipFile.close();
+        }
+    }
+}
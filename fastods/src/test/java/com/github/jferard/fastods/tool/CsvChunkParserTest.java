@@ -0,0 +1,129 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.ColumnSchema;
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.util.DateAppender;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class CsvChunkParserTest {
+    @Test
+    public void testInfer() {
+        final CsvChunk chunk = this.parse("a,1,-2.5,12.5%,2020-01-15,2020-01-15 10:20:30,\n",
+                null, false);
+        Assert.assertEquals(1, chunk.getRecordCount());
+        Assert.assertEquals(7, chunk.getRecordEnd(0));
+        Assert.assertEquals(CsvChunk.STRING, chunk.getKind(0));
+        Assert.assertEquals("a", chunk.getString(0));
+        Assert.assertEquals(CsvChunk.LONG, chunk.getKind(1));
+        Assert.assertEquals(1L, chunk.getValue(1));
+        Assert.assertEquals(CsvChunk.DOUBLE, chunk.getKind(2));
+        Assert.assertEquals(-2.5, Double.longBitsToDouble(chunk.getValue(2)), 0.0);
+        Assert.assertEquals(CsvChunk.PERCENTAGE, chunk.getKind(3));
+        Assert.assertEquals(0.125, Double.longBitsToDouble(chunk.getValue(3)), 0.0);
+        Assert.assertEquals(CsvChunk.DATE, chunk.getKind(4));
+        Assert.assertEquals(DateAppender.toEpochMillis(2020, 1, 15, 0, 0, 0, 0),
+                chunk.getValue(4));
+        Assert.assertEquals(CsvChunk.DATE, chunk.getKind(5));
+        Assert.assertEquals(DateAppender.toEpochMillis(2020, 1, 15, 10, 20, 30, 0),
+                chunk.getValue(5));
+        Assert.assertEquals(CsvChunk.EMPTY, chunk.getKind(6));
+    }
+
+    @Test
+    public void testNotInferred() {
+        final CsvChunk chunk = this.parse("1.2.3,2020-13-01,12345678901234567890,-,%,1e\n",
+                null, false);
+        Assert.assertEquals(CsvChunk.STRING, chunk.getKind(0));
+        Assert.assertEquals(CsvChunk.STRING, chunk.getKind(1));
+        Assert.assertEquals(CsvChunk.DOUBLE, chunk.getKind(2));
+        Assert.assertEquals(CsvChunk.STRING, chunk.getKind(3));
+        Assert.assertEquals(CsvChunk.STRING, chunk.getKind(4));
+        Assert.assertEquals(CsvChunk.STRING, chunk.getKind(5));
+    }
+
+    @Test
+    public void testQuotes() {
+        final CsvChunk chunk =
+                this.parse("\"a,b\",\"say \"\"hi\"\"\"\r\n\"multi\nline\",x", null, false);
+        Assert.assertEquals(2, chunk.getRecordCount());
+        Assert.assertEquals("a,b", chunk.getString(0));
+        Assert.assertEquals("say \"hi\"", chunk.getString(1));
+        Assert.assertEquals(2, chunk.getRecordStart(1));
+        Assert.assertEquals("multi\nline", chunk.getString(2));
+        Assert.assertEquals("x", chunk.getString(3));
+    }
+
+    @Test
+    public void testEmptyRecord() {
+        final CsvChunk chunk = this.parse("\n1\n", null, false);
+        Assert.assertEquals(2, chunk.getRecordCount());
+        Assert.assertEquals(CsvChunk.EMPTY, chunk.getKind(0));
+        Assert.assertEquals(CsvChunk.LONG, chunk.getKind(1));
+    }
+
+    @Test
+    public void testHeader() {
+        final CsvChunk chunk = this.parse("1,2\n3,4\n", null, true);
+        Assert.assertEquals(CsvChunk.STRING, chunk.getKind(0));
+        Assert.assertEquals("1", chunk.getString(0));
+        Assert.assertEquals(CsvChunk.LONG, chunk.getKind(2));
+    }
+
+    @Test
+    public void testSchema() {
+        final ColumnSchema schema =
+                ColumnSchema.builder().column(CellType.FLOAT).column(CellType.PERCENTAGE)
+                        .column(CellType.PERCENTAGE).column(CellType.DATE)
+                        .column(CellType.BOOLEAN).column(CellType.STRING).build();
+        final CsvChunk chunk = this.parse("1.5,25%,0.5,2020-01-01,true,12\n", schema, false);
+        Assert.assertEquals(CsvChunk.DOUBLE, chunk.getKind(0));
+        Assert.assertEquals(CsvChunk.PERCENTAGE, chunk.getKind(1));
+        Assert.assertEquals(0.25, Double.longBitsToDouble(chunk.getValue(1)), 0.0);
+        Assert.assertEquals(CsvChunk.PERCENTAGE, chunk.getKind(2));
+        Assert.assertEquals(0.5, Double.longBitsToDouble(chunk.getValue(2)), 0.0);
+        Assert.assertEquals(CsvChunk.DATE, chunk.getKind(3));
+        Assert.assertEquals(CsvChunk.BOOLEAN, chunk.getKind(4));
+        Assert.assertEquals(1L, chunk.getValue(4));
+        Assert.assertEquals(CsvChunk.STRING, chunk.getKind(5));
+        Assert.assertEquals("12", chunk.getString(5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSchemaMismatch() {
+        final ColumnSchema schema = ColumnSchema.builder().column(CellType.FLOAT).build();
+        this.parse("1\nabc\n", schema, false);
+    }
+
+    private CsvChunk parse(final String csv, final ColumnSchema schema, final boolean header) {
+        final ByteBuffer buffer = ByteBuffer.wrap(csv.getBytes(ZipUTF8Writer.UTF_8));
+        return new CsvChunkParser(buffer, 0, (byte) ',', (byte) '"', ZipUTF8Writer.UTF_8, schema,
+                header).call();
+    }
+}
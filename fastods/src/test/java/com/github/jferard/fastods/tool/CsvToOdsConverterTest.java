@@ -0,0 +1,175 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.AnonymousOdsFileWriter;
+import com.github.jferard.fastods.ColumnSchema;
+import com.github.jferard.fastods.OdsFactory;
+import com.github.jferard.fastods.Table;
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+public class CsvToOdsConverterTest {
+    private static final int RECORD_COUNT = 200;
+
+    private File file;
+    private OdsFactory odsFactory;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws IOException {
+        this.file = File.createTempFile("csv_test", ".csv");
+        this.odsFactory = OdsFactory.create(Logger.getLogger("test"), Locale.US);
+        this.executor = Executors.newFixedThreadPool(3);
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.shutdown();
+        this.file.delete();
+    }
+
+    @Test
+    public void testSmallChunksSameAsOneChunk() throws IOException {
+        final StringBuilder sb = new StringBuilder("id,value,rate,day,label\n");
+        for (int r = 0; r < RECORD_COUNT; r++) {
+            sb.append(r).append(',').append(r * 0.5).append(',').append(r % 100).append("%,")
+                    .append("2020-01-").append(r % 20 + 10).append(',');
+            if (r % 3 == 0) {
+                sb.append("\"a \"\"quoted\"\", multi\nline ").append(r).append('"');
+            } else {
+                sb.append("label ").append(r);
+            }
+            sb.append(r % 2 == 0 ? "\n" : "\r\n");
+        }
+        this.writeFile(sb.toString());
+
+        final String expected = this.convert(
+                CsvToOdsConverter.builder().executor(this.executor, 1).chunkSize(1 << 20),
+                RECORD_COUNT);
+        final String actual =
+                this.convert(CsvToOdsConverter.builder().executor(this.executor, 4).chunkSize(7),
+                        RECORD_COUNT);
+        Assert.assertEquals(expected, actual);
+        Assert.assertTrue(actual.contains("office:string-value=\"label\""));
+        Assert.assertTrue(actual.contains("office:value=\"0.99\""));
+        Assert.assertTrue(actual.contains("office:date-value=\"2020-01-29T00:00:00"));
+        Assert.assertTrue(actual.contains("a &quot;quoted&quot;, multi"));
+    }
+
+    @Test
+    public void testSchema() throws IOException {
+        this.writeFile("1,true,10%,2020-02-03,a\n,false,,,\n2.5,0,1.5,2020-02-04\n");
+        final ColumnSchema schema =
+                ColumnSchema.builder().column(CellType.FLOAT).column(CellType.BOOLEAN)
+                        .column(CellType.PERCENTAGE).column(CellType.DATE)
+                        .column(CellType.STRING).build();
+        final String content =
+                this.convert(CsvToOdsConverter.builder().noHeader().schema(schema), 3);
+        Assert.assertTrue(content.contains("office:boolean-value=\"true\""));
+        Assert.assertTrue(content.contains("office:boolean-value=\"false\""));
+        Assert.assertTrue(content.contains("office:value=\"0.1\""));
+        Assert.assertTrue(content.contains("office:date-value=\"2020-02-03T00:00:00"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSchemaTooManyFields() throws IOException {
+        this.writeFile("1,2\n");
+        final ColumnSchema schema = ColumnSchema.builder().column(CellType.FLOAT).build();
+        this.convert(CsvToOdsConverter.builder().noHeader().schema(schema), 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSchemaMismatch() throws IOException {
+        this.writeFile("x\n1\nb\n");
+        final ColumnSchema schema = ColumnSchema.builder().column(CellType.FLOAT).build();
+        this.convert(CsvToOdsConverter.builder().schema(schema).executor(this.executor, 2)
+                .chunkSize(1), 1);
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        this.writeFile("");
+        this.convert(CsvToOdsConverter.builder(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonAsciiDelimiter() {
+        CsvToOdsConverter.builder().delimiter('§');
+    }
+
+    private String convert(final CsvToOdsConverterBuilder builder, final int expectedCount)
+            throws IOException {
+        final AnonymousOdsFileWriter writer = this.odsFactory.createWriter();
+        final Table table = writer.document().addTable("csv");
+        Assert.assertEquals(expectedCount, builder.build().convert(this.file, table));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.save(out);
+        return this.getEntry(out.toByteArray(), "content.xml");
+    }
+
+    private void writeFile(final String csv) throws IOException {
+        final FileOutputStream out = new FileOutputStream(this.file);
+        try {
+            out.write(csv.getBytes(ZipUTF8Writer.UTF_8));
+        } finally {
+            out.close();
+        }
+    }
+
+    private String getEntry(final byte[] bytes, final String name) throws IOException {
+        final ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(bytes));
+        ZipEntry entry = in.getNextEntry();
+        while (entry != null) {
+            if (entry.getName().equals(name)) {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[8192];
+                int count = in.read(buffer);
+                while (count != -1) {
+                    out.write(buffer, 0, count);
+                    count = in.read(buffer);
+                }
+                return new String(out.toByteArray(), ZipUTF8Writer.UTF_8);
+            }
+            entry = in.getNextEntry();
+        }
+        throw new IOException("No entry " + name);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.AnonymousOdsFileWriter;
+import com.github.jferard.fastods.OdsDocument;
+import com.github.jferard.fastods.OdsFactory;
+import com.github.jferard.fastods.Table;
+import com.github.jferard.fastods.style.GraphicStyle;
+import com.github.jferard.fastods.util.RawZipEntry;
+import com.github.jferard.fastods.util.SVGRectangle;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.api.easymock.PowerMock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+public class LazyOdsArchiveExplorerTest {
+    private static final String MANIFEST = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+            "<manifest:manifest xmlns:manifest=\"urn:oasis:names:tc:opendocument:xmlns" +
+            ":manifest:1.0\">" +
+            "<manifest:file-entry manifest:full-path=\"/\" " +
+            "manifest:media-type=\"application/vnd.oasis.opendocument.spreadsheet\"/>" +
+            "<manifest:file-entry manifest:full-path=\"content.xml\" " +
+            "manifest:media-type=\"text/xml\"/>" +
+            "</manifest:manifest>";
+    private static final String CONTENT = "<office:document-content/>";
+
+    private File sourceFile;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        this.sourceFile = File.createTempFile("explorer_test", ".ods");
+        this.file = File.createTempFile("explorer_test_out", ".ods");
+        final ZipOutputStream zipOut = new ZipOutputStream(new FileOutputStream(this.sourceFile));
+        try {
+            this.putEntry(zipOut, "mimetype", "application/vnd.oasis.opendocument.spreadsheet");
+            this.putEntry(zipOut, "META-INF/manifest.xml", MANIFEST);
+            this.putEntry(zipOut, "content.xml", CONTENT);
+        } finally {
+            zipOut.close();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        this.sourceFile.delete();
+        this.file.delete();
+    }
+
+    @Test
+    public void testExplore() throws IOException {
+        final OdsDocument document = PowerMock.createMock(OdsDocument.class);
+        final Map<String, OdsArchiveExplorer.OdsFile> fileByName =
+                new LazyOdsArchiveExplorer(this.sourceFile).explore();
+
+        PowerMock.resetAll();
+        document.addExtraRawFile(EasyMock.eq("Object 1/content.xml"), EasyMock.eq("text/xml"),
+                EasyMock.isA(RawZipEntry.class));
+
+        PowerMock.replayAll();
+        Assert.assertEquals(4, fileByName.size());
+        fileByName.get("content.xml").addToDocument(document, "Object 1/");
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testInsertObject() throws IOException {
+        final OdsFactory odsFactory = OdsFactory.create(Logger.getLogger("test"), Locale.US);
+        final AnonymousOdsFileWriter writer = odsFactory.createWriter();
+        final OdsDocument document = writer.document();
+        final Table table = document.addTable("test");
+        InsertHelper.create().insertObject(document, table, "embed", "Object 1",
+                "application/vnd.oasis.opendocument.spreadsheet", "1.2", this.sourceFile,
+                SVGRectangle.cm(1, 1, 7, 2), GraphicStyle.builder("gs").build());
+        writer.saveAs(this.file);
+
+        final ZipFile zipFile = new ZipFile(this.file);
+        try {
+            Assert.assertEquals(CONTENT, this.read(zipFile, "Object 1/content.xml"));
+            Assert.assertNull(zipFile.getEntry("Object 1/mimetype"));
+            Assert.assertTrue(this.read(zipFile, "META-INF/manifest.xml")
+                    .contains("manifest:full-path=\"Object 1/content.xml\""));
+        } finally {
+            zipFile.close();
+        }
+    }
+
+    private void putEntry(final ZipOutputStream zipOut, final String name, final String text)
+            throws IOException {
+        zipOut.putNextEntry(new ZipEntry(name));
+        zipOut.write(text.getBytes(ZipUTF8Writer.UTF_8));
+        zipOut.closeEntry();
+    }
+
+    private String read(final ZipFile zipFile, final String name) throws IOException {
+        final InputStream in = zipFile.getInputStream(zipFile.getEntry(name));
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int count = in.read(buffer);
+            while (count != -1) {
+                out.write(buffer, 0, count);
+                count = in.read(buffer);
+            }
+            return new String(out.toByteArray(), ZipUTF8Writer.UTF_8);
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.AnonymousOdsFileWriter;
+import com.github.jferard.fastods.OdsDocument;
+import com.github.jferard.fastods.OdsFactory;
+import com.github.jferard.fastods.Table;
+import com.github.jferard.fastods.TableCellWalker;
+import com.github.jferard.fastods.attribute.CellType;
+import com.github.jferard.fastods.util.DateAppender;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class OdsStreamReaderTest {
+    private static final long TIME_IN_MILLIS = 1234567891000L;
+
+    private OdsFactory odsFactory;
+
+    @Before
+    public void setUp() {
+        this.odsFactory = OdsFactory.create(Logger.getLogger("test"), Locale.US);
+    }
+
+    @Test
+    public void testReadOwnOutput() throws IOException {
+        final AnonymousOdsFileWriter writer = this.odsFactory.createWriter();
+        final OdsDocument document = writer.document();
+        final TableCellWalker walker = document.addTable("first").getWalker();
+        walker.setStringValue("a & b");
+        walker.next();
+        walker.setFloatValue(10.5);
+        walker.next();
+        walker.setPercentageValue(0.25);
+        walker.next();
+        walker.setBooleanValue(true);
+        walker.next();
+        walker.setDateValue(TIME_IN_MILLIS);
+        walker.next();
+        walker.setFloatValue(123456789012L);
+        for (int r = 0; r < 1000; r++) { // identical rows, written as repeated rows
+            walker.nextRow();
+            for (int c = 0; c < 3; c++) {
+                walker.setFloatValue(7);
+                walker.next();
+            }
+        }
+        walker.nextRow();
+        walker.setStringValue("last");
+        document.addTable("second").getRow(2).getOrCreateCell(1).setStringValue("x");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.save(out);
+
+        final OdsStreamReader reader =
+                OdsStreamReader.open(new ByteArrayInputStream(out.toByteArray()));
+        try {
+            Assert.assertTrue(reader.nextTable());
+            Assert.assertEquals("first", reader.getTableName());
+            Assert.assertTrue(reader.nextRow());
+            Assert.assertEquals(0, reader.getRowIndex());
+            Assert.assertEquals(6, reader.getCellCount());
+            Assert.assertEquals(CellType.STRING, reader.getCellType(0));
+            Assert.assertEquals("a & b", reader.getString(0));
+            Assert.assertEquals(10.5, reader.getDouble(1), 0.0);
+            Assert.assertEquals(CellType.PERCENTAGE, reader.getCellType(2));
+            Assert.assertEquals(0.25, reader.getDouble(2), 0.0);
+            Assert.assertTrue(reader.getBoolean(3));
+            Assert.assertEquals(TIME_IN_MILLIS, reader.getDateMillis(4));
+            Assert.assertEquals(123456789012L, reader.getLong(5));
+            Assert.assertEquals(CellType.VOID, reader.getCellType(6));
+
+            for (int r = 1; r <= 1000; r++) {
+                Assert.assertTrue(reader.nextRow());
+                Assert.assertEquals(r, reader.getRowIndex());
+                Assert.assertEquals(1001 - r, reader.getRowsRepeated());
+                Assert.assertEquals(3, reader.getCellCount());
+                Assert.assertEquals(7L, reader.getLong(2));
+            }
+            Assert.assertTrue(reader.nextRow());
+            Assert.assertEquals("last", reader.getString(0));
+            while (reader.nextRow()) {
+                Assert.assertEquals(0, reader.getCellCount());
+                reader.skipRepeatedRows();
+            }
+
+            Assert.assertTrue(reader.nextTable());
+            Assert.assertEquals("second", reader.getTableName());
+            Assert.assertTrue(reader.nextRow());
+            Assert.assertEquals(0, reader.getCellCount());
+            Assert.assertTrue(reader.nextRow());
+            Assert.assertTrue(reader.nextRow());
+            Assert.assertEquals(2, reader.getRowIndex());
+            Assert.assertEquals(CellType.VOID, reader.getCellType(0));
+            Assert.assertEquals("x", reader.getString(1));
+            Assert.assertFalse(reader.nextTable());
+            Assert.assertFalse(reader.nextRow());
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testReadLibreOfficeLikeContent() throws IOException {
+        final String content = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+                "<office:document-content " +
+                "xmlns:office=\"urn:oasis:names:tc:opendocument:xmlns:office:1.0\" " +
+                "xmlns:table=\"urn:oasis:names:tc:opendocument:xmlns:table:1.0\" " +
+                "xmlns:text=\"urn:oasis:names:tc:opendocument:xmlns:text:1.0\" " +
+                "xmlns:calcext=\"urn:org:documentfoundation:names:experimental:calc:xmlns" +
+                ":calcext:1.0\"><office:body><office:spreadsheet>" +
+                "<table:table table:name=\"s\"><table:table-column/>" +
+                "<table:table-header-rows><table:table-row>" +
+                "<table:table-cell office:value-type=\"string\" calcext:value-type=\"string\">" +
+                "<office:annotation><text:p>comment</text:p></office:annotation>" +
+                "<text:p>a<text:s text:c=\"2\"/>b<text:span>c</text:span></text:p>" +
+                "<text:p>d<text:tab/>e</text:p></table:table-cell>" +
+                "<table:table-cell table:number-columns-repeated=\"3\" " +
+                "office:value-type=\"date\" office:date-value=\"2020-01-15\">" +
+                "<text:p>01/15/20</text:p></table:table-cell>" +
+                "<table:table-cell table:number-columns-repeated=\"1020\"/>" +
+                "</table:table-row></table:table-header-rows>" +
+                "<table:table-row table:number-rows-repeated=\"1048575\">" +
+                "<table:table-cell table:number-columns-repeated=\"1024\"/></table:table-row>" +
+                "</table:table></office:spreadsheet></office:body></office:document-content>";
+        final File file = File.createTempFile("reader_test", ".ods");
+        try {
+            final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file));
+            out.putNextEntry(new ZipEntry("content.xml"));
+            out.write(content.getBytes(ZipUTF8Writer.UTF_8));
+            out.closeEntry();
+            out.close();
+
+            final OdsStreamReader reader = OdsStreamReader.open(file);
+            try {
+                Assert.assertTrue(reader.nextTable());
+                Assert.assertTrue(reader.nextRow());
+                Assert.assertEquals(4, reader.getCellCount());
+                Assert.assertEquals("a  bc\nd\te", reader.getString(0));
+                Assert.assertEquals(CellType.DATE, reader.getCellType(3));
+                Assert.assertEquals(DateAppender.toEpochMillis(2020, 1, 15, 0, 0, 0, 0),
+                        reader.getDateMillis(3));
+                Assert.assertEquals("01/15/20", reader.getText(2));
+                Assert.assertEquals("2020-01-15", reader.getRawValue(1));
+                Assert.assertNull(reader.getString(500));
+
+                Assert.assertTrue(reader.nextRow());
+                Assert.assertEquals(1048575, reader.getRowsRepeated());
+                reader.skipRepeatedRows();
+                Assert.assertEquals(1048575, reader.getRowIndex());
+                Assert.assertFalse(reader.nextRow());
+                Assert.assertFalse(reader.nextTable());
+            } finally {
+                reader.close();
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNotADate() {
+        OdsStreamReader.parseDate("2020/01/01");
+    }
+
+    @Test
+    public void testParseDate() {
+        Assert.assertEquals(DateAppender.toEpochMillis(2009, 2, 13, 23, 31, 30, 120),
+                OdsStreamReader.parseDate("2009-02-13T23:31:30.12Z"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testNoContent() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ZipOutputStream out = new ZipOutputStream(bytes);
+        out.putNextEntry(new ZipEntry("mimetype"));
+        out.closeEntry();
+        out.close();
+        OdsStreamReader.open(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+}
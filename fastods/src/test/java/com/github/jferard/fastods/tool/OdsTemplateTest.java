@@ -0,0 +1,178 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.AnonymousOdsFileWriter;
+import com.github.jferard.fastods.OdsDocument;
+import com.github.jferard.fastods.OdsFactory;
+import com.github.jferard.fastods.util.RawZipEntry;
+import com.github.jferard.fastods.util.ZipUTF8Writer;
+import com.github.jferard.fastods.util.ZipUTF8WriterImpl;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.api.easymock.PowerMock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+public class OdsTemplateTest {
+    private static final String MANIFEST = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+            "<manifest:manifest xmlns:manifest=\"urn:oasis:names:tc:opendocument:xmlns" +
+            ":manifest:1.0\">" +
+            "<manifest:file-entry manifest:full-path=\"/\" " +
+            "manifest:media-type=\"application/vnd.oasis.opendocument.spreadsheet\"/>" +
+            "<manifest:file-entry manifest:full-path=\"content.xml\" " +
+            "manifest:media-type=\"text/xml\"/>" +
+            "<manifest:file-entry manifest:full-path=\"Pictures/image.png\" " +
+            "manifest:media-type=\"image/png\"/>" +
+            "<manifest:file-entry manifest:full-path=\"Configurations2/\" " +
+            "manifest:media-type=\"application/vnd.sun.xml.ui.configuration\"/>" +
+            "<manifest:file-entry manifest:full-path=\"Configurations2/accelerator/current.xml\" " +
+            "manifest:media-type=\"\"/>" +
+            "<manifest:file-entry manifest:full-path=\"Object 1/\" " +
+            "manifest:media-type=\"application/vnd.oasis.opendocument.chart\"/>" +
+            "</manifest:manifest>";
+
+    private File templateFile;
+    private File file;
+    private byte[] image;
+
+    @Before
+    public void setUp() throws IOException {
+        this.templateFile = File.createTempFile("template_test", ".ods");
+        this.file = File.createTempFile("template_test_out", ".ods");
+        this.image = new byte[50000];
+        for (int i = 0; i < this.image.length; i++) {
+            this.image[i] = (byte) ((i * 31) % 17);
+        }
+
+        final ZipOutputStream zipOut = new ZipOutputStream(new FileOutputStream(this.templateFile));
+        try {
+            this.putEntry(zipOut, "META-INF/manifest.xml", MANIFEST.getBytes(ZipUTF8Writer.UTF_8));
+            this.putEntry(zipOut, "content.xml", "<content/>".getBytes(ZipUTF8Writer.UTF_8));
+            this.putEntry(zipOut, "Thumbnails/thumbnail.png", new byte[]{1, 2, 3});
+            this.putEntry(zipOut, "Configurations2/", new byte[0]);
+            this.putEntry(zipOut, "Configurations2/accelerator/current.xml", new byte[0]);
+            this.putEntry(zipOut, "Basic/", new byte[0]);
+            this.putEntry(zipOut, "Pictures/image.png", this.image);
+        } finally {
+            zipOut.close();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        this.templateFile.delete();
+        this.file.delete();
+    }
+
+    @Test
+    public void testAddToDocument() throws IOException {
+        final OdsTemplate template = OdsTemplate.open(this.templateFile);
+        final OdsDocument document = PowerMock.createMock(OdsDocument.class);
+
+        PowerMock.resetAll();
+        document.addExtraObject("Configurations2/", "application/vnd.sun.xml.ui.configuration",
+                null);
+        document.addExtraRawFile(EasyMock.eq("Configurations2/accelerator/current.xml"),
+                EasyMock.eq(""), EasyMock.isA(RawZipEntry.class));
+        document.addExtraDir("Basic/");
+        document.addExtraRawFile(EasyMock.eq("Pictures/image.png"), EasyMock.eq("image/png"),
+                EasyMock.isA(RawZipEntry.class));
+        document.addExtraObject("Object 1/", "application/vnd.oasis.opendocument.chart", null);
+
+        PowerMock.replayAll();
+        Assert.assertEquals(7, template.getEntries().size());
+        template.addToDocument(document);
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testSave() throws IOException {
+        final OdsTemplate template = OdsTemplate.open(this.templateFile);
+        final OdsFactory odsFactory = OdsFactory.create(Logger.getLogger("test"), Locale.US);
+        final AnonymousOdsFileWriter writer = odsFactory.createWriter();
+        template.addToDocument(writer.document());
+        writer.document().addTable("table").getRow(0).getOrCreateCell(0).setStringValue("a");
+        writer.saveAs(this.file, ZipUTF8WriterImpl.builder().parallelDeflate(2, 1 << 16));
+
+        final ZipFile templateZip = new ZipFile(this.templateFile);
+        final ZipFile zipFile = new ZipFile(this.file);
+        try {
+            final ZipEntry templateEntry = templateZip.getEntry("Pictures/image.png");
+            final ZipEntry entry = zipFile.getEntry("Pictures/image.png");
+            Assert.assertEquals(templateEntry.getCompressedSize(), entry.getCompressedSize());
+            Assert.assertEquals(templateEntry.getCrc(), entry.getCrc());
+            Assert.assertArrayEquals(this.image, this.read(zipFile, "Pictures/image.png"));
+            Assert.assertNull(zipFile.getEntry("Thumbnails/thumbnail.png"));
+
+            final String manifest = new String(this.read(zipFile, "META-INF/manifest.xml"),
+                    ZipUTF8Writer.UTF_8);
+            Assert.assertTrue(manifest.contains(
+                    "manifest:full-path=\"Pictures/image.png\" manifest:media-type=\"image/png\""));
+            final String current = "\"Configurations2/accelerator/current.xml\"";
+            Assert.assertEquals(manifest.indexOf(current), manifest.lastIndexOf(current));
+            final String content = new String(this.read(zipFile, "content.xml"),
+                    ZipUTF8Writer.UTF_8);
+            Assert.assertTrue(content.contains("table:name=\"table\""));
+        } finally {
+            zipFile.close();
+            templateZip.close();
+        }
+    }
+
+    private void putEntry(final ZipOutputStream zipOut, final String name, final byte[] bytes)
+            throws IOException {
+        zipOut.putNextEntry(new ZipEntry(name));
+        zipOut.write(bytes);
+        zipOut.closeEntry();
+    }
+
+    private byte[] read(final ZipFile zipFile, final String name) throws IOException {
+        final InputStream in = zipFile.getInputStream(zipFile.getEntry(name));
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int count = in.read(buffer);
+            while (count != -1) {
+                out.write(buffer, 0, count);
+                count = in.read(buffer);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.tool;
+
+import com.github.jferard.fastods.FastOdsException;
+import com.github.jferard.fastods.ObjectToCellValueConverter;
+import com.github.jferard.fastods.PercentageValue;
+import com.github.jferard.fastods.StringValue;
+import com.github.jferard.fastods.TableCellWalker;
+import com.github.jferard.fastods.TimeValue;
+import com.github.jferard.fastods.ToCellValueConverter;
+import com.github.jferard.fastods.attribute.CellType;
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.api.easymock.PowerMock;
+
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+
+public class ResultSetColumnReaderTest {
+    private ResultSet rs;
+    private TableCellWalker walker;
+    private ToCellValueConverter converter;
+
+    @Before
+    public void setUp() {
+        this.rs = PowerMock.createMock(ResultSet.class);
+        this.walker = PowerMock.createMock(TableCellWalker.class);
+        this.converter = SQLToCellValueConverter.create(
+                SQLToCellValueConverter.NO_INTERVAL_CONVERTER, "USD", Charset.forName("US-ASCII"));
+    }
+
+    @Test
+    public void testDouble() throws SQLException, FastOdsException {
+        final ResultSetColumnReader reader =
+                ResultSetColumnReader.create(Types.DOUBLE, this.converter, null);
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.rs.getDouble(2)).andReturn(1.5);
+        EasyMock.expect(this.rs.wasNull()).andReturn(false);
+        this.walker.setFloatValue(1.5);
+
+        PowerMock.replayAll();
+        Assert.assertTrue(reader.read(this.rs, 2, this.walker));
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testLongNull() throws SQLException, FastOdsException {
+        final ResultSetColumnReader reader =
+                ResultSetColumnReader.create(Types.INTEGER, this.converter, null);
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.rs.getLong(1)).andReturn(0L);
+        EasyMock.expect(this.rs.wasNull()).andReturn(true);
+
+        PowerMock.replayAll();
+        Assert.assertFalse(reader.read(this.rs, 1, this.walker));
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testLong() throws SQLException, FastOdsException {
+        final ResultSetColumnReader reader =
+                ResultSetColumnReader.create(Types.BIGINT, this.converter, null);
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.rs.getLong(1)).andReturn(10000000000L);
+        EasyMock.expect(this.rs.wasNull()).andReturn(false);
+        this.walker.setFloatValue(10000000000L);
+
+        PowerMock.replayAll();
+        Assert.assertTrue(reader.read(this.rs, 1, this.walker));
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testReal() throws SQLException, FastOdsException {
+        final ResultSetColumnReader reader =
+                ResultSetColumnReader.create(Types.REAL, this.converter, null);
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.rs.getFloat(1)).andReturn(0.1f);
+        EasyMock.expect(this.rs.wasNull()).andReturn(false);
+        this.walker.setFloatValue(0.1f);
+
+        PowerMock.replayAll();
+        Assert.assertTrue(reader.read(this.rs, 1, this.walker));
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testBoolean() throws SQLException, FastOdsException {
+        final ResultSetColumnReader reader =
+                ResultSetColumnReader.create(Types.BIT, this.converter, null);
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.rs.getBoolean(1)).andReturn(true);
+        EasyMock.expect(this.rs.wasNull()).andReturn(false);
+        this.walker.setBooleanValue(true);
+
+        PowerMock.replayAll();
+        Assert.assertTrue(reader.read(this.rs, 1, this.walker));
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testTimestamp() throws SQLException, FastOdsException {
+        final ResultSetColumnReader reader =
+                ResultSetColumnReader.create(Types.TIMESTAMP, this.converter, null);
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.rs.getTimestamp(1)).andReturn(new Timestamp(1000L));
+        this.walker.setDateValue(1000L);
+
+        PowerMock.replayAll();
+        Assert.assertTrue(reader.read(this.rs, 1, this.walker));
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testDateNull() throws SQLException, FastOdsException {
+        final ResultSetColumnReader reader =
+                ResultSetColumnReader.create(Types.DATE, this.converter, null);
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.rs.getDate(1)).andReturn(null);
+
+        PowerMock.replayAll();
+        Assert.assertFalse(reader.read(this.rs, 1, this.walker));
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testString() throws SQLException, FastOdsException {
+        final ResultSetColumnReader reader =
+                ResultSetColumnReader.create(Types.NVARCHAR, this.converter, null);
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.rs.getString(1)).andReturn("a");
+        this.walker.setStringValue("a");
+
+        PowerMock.replayAll();
+        Assert.assertTrue(reader.read(this.rs, 1, this.walker));
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testDecimalKeepsPrecision() throws SQLException, FastOdsException {
+        final ResultSetColumnReader reader =
+                ResultSetColumnReader.create(Types.DECIMAL, this.converter, null);
+        final BigDecimal value = new BigDecimal("12345678901234567890.123");
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.rs.getObject(1)).andReturn(value);
+        this.walker.setCellValue(this.converter.from(value));
+
+        PowerMock.replayAll();
+        Assert.assertTrue(reader.read(this.rs, 1, this.walker));
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testHint() throws SQLException, FastOdsException {
+        final ResultSetColumnReader reader =
+                ResultSetColumnReader.create(Types.DOUBLE, this.converter, CellType.PERCENTAGE);
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.rs.getObject(1)).andReturn(0.13);
+        this.walker.setCellValue(PercentageValue.from(0.13));
+
+        PowerMock.replayAll();
+        Assert.assertTrue(reader.read(this.rs, 1, this.walker));
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testOther() throws SQLException, FastOdsException {
+        final ResultSetColumnReader reader =
+                ResultSetColumnReader.create(Types.OTHER, this.converter, null);
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.rs.getObject(1)).andReturn("b");
+        this.walker.setCellValue(StringValue.from("b"));
+
+        PowerMock.replayAll();
+        Assert.assertTrue(reader.read(this.rs, 1, this.walker));
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testCustomConverter() throws SQLException, FastOdsException {
+        final ResultSetColumnReader reader = ResultSetColumnReader
+                .create(Types.DOUBLE, new ObjectToCellValueConverter("USD"), null);
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.rs.getObject(1)).andReturn(1.5);
+        this.walker.setCellValue(new ObjectToCellValueConverter("USD").from(1.5));
+
+        PowerMock.replayAll();
+        Assert.assertTrue(reader.read(this.rs, 1, this.walker));
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testCustomIntervalConverter() throws SQLException, FastOdsException {
+        final TimeValue timeValue = new TimeValue(false, 0, 0, 0, 0, 0, 1);
+        final SQLToCellValueConverter.IntervalConverter intervalConverter =
+                new SQLToCellValueConverter.IntervalConverter() {
+                    @Override
+                    public TimeValue castToInterval(final Object o) {
+                        return "1s".equals(o) ? timeValue : null;
+                    }
+                };
+        final ToCellValueConverter sqlConverter = SQLToCellValueConverter
+                .create(intervalConverter, "USD", Charset.forName("US-ASCII"));
+        final ResultSetColumnReader reader =
+                ResultSetColumnReader.create(Types.VARCHAR, sqlConverter, null);
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.rs.getObject(1)).andReturn("1s");
+        this.walker.setCellValue(timeValue);
+
+        PowerMock.replayAll();
+        Assert.assertTrue(reader.read(this.rs, 1, this.walker));
+
+        PowerMock.verifyAll();
+    }
+
+    @Test
+    public void testFetchWrite() throws SQLException, FastOdsException {
+        final ResultSetColumnReader doubleReader =
+                ResultSetColumnReader.create(Types.DOUBLE, this.converter, null);
+        final ResultSetColumnReader stringReader =
+                ResultSetColumnReader.create(Types.VARCHAR, this.converter, null);
+        final ResultSetRowBatch batch = new ResultSetRowBatch(2, 1);
+
+        PowerMock.resetAll();
+        EasyMock.expect(this.rs.getDouble(1)).andReturn(-0.25);
+        EasyMock.expect(this.rs.wasNull()).andReturn(false);
+        EasyMock.expect(this.rs.getString(2)).andReturn(null);
+        this.walker.setFloatValue(-0.25);
+
+        PowerMock.replayAll();
+        doubleReader.fetch(this.rs, 1, batch, batch.slot(0, 0));
+        stringReader.fetch(this.rs, 2, batch, batch.slot(0, 1));
+        Assert.assertTrue(doubleReader.write(batch, batch.slot(0, 0), this.walker));
+        Assert.assertFalse(stringReader.write(batch, batch.slot(0, 1), this.walker));
+
+        PowerMock.verifyAll();
+    }
+}
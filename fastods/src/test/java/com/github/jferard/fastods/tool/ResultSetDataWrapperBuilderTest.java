@@ -71,4 +71,36 @@ public class ResultSetDataWrapperBuilderTest {
 
         PowerMock.verifyAll();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFetchSize() throws IOException, SQLException {
+        final TableCellWalker walker = PowerMock.createMock(TableCellWalker.class);
+        final ResultSet rs = PowerMock.createMock(ResultSet.class);
+        final ResultSetMetaData md = PowerMock.createMock(ResultSetMetaData.class);
+
+        final ResultSetDataWrapper b =
+                ResultSetDataWrapper.builder("range", rs).fetchSize(500).noAutoFilter().build();
+
+        PowerMock.resetAll();
+        EasyMock.expect(walker.rowIndex()).andReturn(0);
+        EasyMock.expect(walker.colIndex()).andReturn(0);
+        EasyMock.expect(rs.getMetaData()).andReturn(md);
+        EasyMock.expect(md.getColumnCount()).andReturn(0).anyTimes();
+        rs.setFetchSize(500);
+        EasyMock.expect(rs.next()).andReturn(false);
+        walker.nextRow();
+        walker.to(0);
+        walker.nextRow();
+
+        PowerMock.replayAll();
+        b.addToTable(walker);
+
+        PowerMock.verifyAll();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeFetchSize() {
+        final ResultSet rs = PowerMock.createMock(ResultSet.class);
+        ResultSetDataWrapper.builder("range", rs).fetchSize(-1);
+    }
+}
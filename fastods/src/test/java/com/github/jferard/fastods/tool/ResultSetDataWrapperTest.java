@@ -52,6 +52,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -373,6 +375,119 @@ public class ResultSetDataWrapperTest {
         PowerMock.verifyAll();
     }
 
+    @Test
+    public final void testPrefetchMax() throws IOException {
+        final Collection<List<Object>> r = new ArrayList<List<Object>>();
+        for (int v = FROM; v < TO; v++) {
+            r.add(Arrays.<Object>asList(v, "a" + v));
+        }
+        final MockResultSet rs =
+                this.tester.createResultSet(Arrays.asList("number", "word"), r);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final DataWrapper wrapper =
+                    ResultSetDataWrapper.builder("range", rs).logger(this.logger)
+                            .headerStyle(this.tcls).max(3).noAutoFilter().prefetch(executor, 2, 1)
+                            .build();
+
+            PowerMock.resetAll();
+            EasyMock.expect(this.walker.rowIndex()).andReturn(0);
+            EasyMock.expect(this.walker.colIndex()).andReturn(10);
+            this.walker.setStringValue("number");
+            this.walker.setStyle(this.tcls);
+            this.walker.next();
+            this.walker.setStringValue("word");
+            this.walker.setStyle(this.tcls);
+            this.walker.next();
+            for (int v = FROM; v < FROM + 3; v++) {
+                this.walker.nextRow();
+                this.walker.to(10);
+                this.walker.setCellValue(this.converter.from(v));
+                this.walker.next();
+                this.walker.setCellValue(this.converter.from("a" + v));
+                this.walker.next();
+            }
+            this.walker.nextRow();
+            this.walker.to(10);
+            this.walker.setStringValue("... (2 rows remaining)");
+            this.walker.next();
+            this.walker.setStringValue("... (2 rows remaining)");
+            this.walker.next();
+            this.walker.nextRow();
+
+            PowerMock.replayAll();
+            wrapper.addToTable(this.walker);
+
+            PowerMock.verifyAll();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public final void testPrefetchNullValue() throws IOException {
+        final List<Object> l = new ArrayList<Object>(1);
+        l.add(null);
+        final MockResultSet rs = this.tester.createResultSet(Collections.singletonList("value"),
+                Collections.singletonList(l));
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final DataWrapper wrapper =
+                    ResultSetDataWrapper.builder("range", rs).logger(this.logger)
+                            .headerStyle(this.tcls).max(100).noAutoFilter().prefetch(executor)
+                            .build();
+
+            PowerMock.resetAll();
+            EasyMock.expect(this.walker.rowIndex()).andReturn(0);
+            EasyMock.expect(this.walker.colIndex()).andReturn(0);
+            this.walker.setStringValue("value");
+            this.walker.setStyle(this.tcls);
+            this.walker.next();
+            this.walker.nextRow();
+            this.walker.to(0);
+            this.walker.setCellValue(new StringValue("<NULL>"));
+            this.walker.next();
+            this.walker.nextRow();
+
+            PowerMock.replayAll();
+            wrapper.addToTable(this.walker);
+
+            PowerMock.verifyAll();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public final void testPrefetchRSException() throws SQLException, IOException {
+        final ResultSet rs = PowerMock.createMock(ResultSet.class);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final ResultSetDataWrapper wrapper =
+                    ResultSetDataWrapper.builder("range", rs).logger(this.logger)
+                            .headerStyle(this.tcls).max(100).noAutoFilter().prefetch(executor)
+                            .build();
+            final SQLException e = new SQLException();
+            final ResultSetMetaData metaData = PowerMock.createMock(ResultSetMetaData.class);
+
+            PowerMock.resetAll();
+            EasyMock.expect(this.walker.rowIndex()).andReturn(0);
+            EasyMock.expect(this.walker.colIndex()).andReturn(0);
+            EasyMock.expect(rs.getMetaData()).andReturn(metaData);
+            EasyMock.expect(metaData.getColumnCount()).andReturn(0).anyTimes();
+
+            EasyMock.expect(rs.next()).andThrow(e);
+            this.logger.log(EasyMock.eq(Level.SEVERE), EasyMock.anyString(), EasyMock.eq(e));
+
+            PowerMock.replayAll();
+            wrapper.addToTable(this.walker);
+
+            PowerMock.verifyAll();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     private DataWrapper createWrapper(final Iterable<String> head,
                                       final Iterable<List<Object>> rows, final int max) {
         final MockResultSet rs = this.tester.createResultSet(head, rows);
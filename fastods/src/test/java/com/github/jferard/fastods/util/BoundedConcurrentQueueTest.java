@@ -0,0 +1,123 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BoundedConcurrentQueueTest {
+    @Test
+    public void testCapacity() {
+        Assert.assertEquals(1, BoundedConcurrentQueue.create(1).capacity());
+        Assert.assertEquals(8, BoundedConcurrentQueue.create(5).capacity());
+        Assert.assertEquals(1024, BoundedConcurrentQueue.create(1024).capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadCapacity() {
+        BoundedConcurrentQueue.create(0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testOfferNull() {
+        BoundedConcurrentQueue.create(1).offer(null);
+    }
+
+    @Test
+    public void testFifo() {
+        final BoundedConcurrentQueue<Integer> queue = BoundedConcurrentQueue.create(4);
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertNull(queue.peek());
+        Assert.assertNull(queue.poll());
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(queue.offer(2 * i));
+            Assert.assertTrue(queue.offer(2 * i + 1));
+            Assert.assertEquals(2, queue.size());
+            Assert.assertEquals(Integer.valueOf(2 * i), queue.peek());
+            Assert.assertEquals(Integer.valueOf(2 * i), queue.poll());
+            Assert.assertEquals(Integer.valueOf(2 * i + 1), queue.poll());
+        }
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testFull() {
+        final BoundedConcurrentQueue<String> queue = BoundedConcurrentQueue.create(2);
+        Assert.assertTrue(queue.offer("a"));
+        Assert.assertTrue(queue.offer("b"));
+        Assert.assertFalse(queue.offer("c"));
+        Assert.assertEquals(2, queue.size());
+        Assert.assertEquals("a", queue.poll());
+        Assert.assertTrue(queue.offer("c"));
+    }
+
+    @Test
+    public void testProducers() throws InterruptedException {
+        final int producerCount = 4;
+        final int count = 50000;
+        final BoundedConcurrentQueue<Integer> queue = BoundedConcurrentQueue.create(64);
+        final List<Thread> producers = new ArrayList<Thread>();
+        for (int p = 0; p < producerCount; p++) {
+            final int producer = p;
+            final Thread t = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < count; i++) {
+                        final Integer element = producer * count + i;
+                        while (!queue.offer(element)) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            };
+            producers.add(t);
+            t.start();
+        }
+
+        final int[] last = new int[producerCount];
+        for (int p = 0; p < producerCount; p++) {
+            last[p] = -1;
+        }
+        int received = 0;
+        while (received < producerCount * count) {
+            final Integer element = queue.poll();
+            if (element == null) {
+                Thread.yield();
+                continue;
+            }
+            final int producer = element / count;
+            final int i = element % count;
+            Assert.assertEquals(last[producer] + 1, i); // per producer order
+            last[producer] = i;
+            received++;
+        }
+        for (final Thread t : producers) {
+            t.join();
+        }
+        Assert.assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.jferard.fastods.util;
+
+import com.github.jferard.fastods.attribute.CellType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CellTagFragmentsTest {
+    private CellTagFragments fragments;
+
+    @Before
+    public void setUp() {
+        this.fragments = XMLUtil.create().getCellTagFragments();
+    }
+
+    @Test
+    public void testFragment() {
+        Assert.assertEquals(" table:style-name=\"a&amp;b\" office:value-type=\"float\" " +
+                "office:value=\"", text(this.fragments.getFragment("a&b", CellType.FLOAT)));
+        Assert.assertEquals(" office:value-type=\"string\" office:string-value=\"",
+                text(this.fragments.getFragment(null, CellType.STRING)));
+        Assert.assertEquals(" table:style-name=\"s\"",
+                text(this.fragments.getFragment("s", null)));
+        Assert.assertEquals("", text(this.fragments.getFragment(null, null)));
+    }
+
+    @Test
+    public void testCached() {
+        final XMLUtil util = XMLUtil.create();
+        final CellTagFragments utilFragments = util.getCellTagFragments();
+        Assert.assertSame(utilFragments, util.getCellTagFragments());
+
+        final byte[] fragment = utilFragments.getFragment("s", CellType.DATE);
+        utilFragments.getFragment("t", CellType.DATE);
+        Assert.assertSame(fragment, utilFragments.getFragment(new String("s"), CellType.DATE));
+    }
+
+    @Test
+    public void testCurrency() {
+        final byte[] fragment = this.fragments.getCurrencyFragment("€<");
+        Assert.assertEquals(" office:currency=\"€&lt;\"", text(fragment));
+        Assert.assertSame(fragment, this.fragments.getCurrencyFragment("€<"));
+    }
+
+    private static String text(final byte[] bytes) {
+        return new String(bytes, ZipUTF8Writer.UTF_8);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+public class DateAppenderTest {
+    @Test
+    public void testEpoch() throws IOException {
+        Assert.assertEquals("1970-01-01T00:00:00.000Z", this.toString(0L));
+        Assert.assertEquals("1969-12-31T23:59:59.999Z", this.toString(-1L));
+        Assert.assertEquals("2009-02-13T23:31:31.011Z", this.toString(1234567891011L));
+        Assert.assertEquals("2000-02-29T12:00:00.000Z",
+                this.toString(DateAppender.toEpochMillis(2000, 2, 29, 12, 0, 0, 0)));
+    }
+
+    @Test
+    public void testSameAsSimpleDateFormat() throws IOException {
+        final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        final Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            // 1653 to 2286, gregorian calendar
+            final long millis = (long) ((random.nextDouble() - 0.5) * 2 * 10000000000000L);
+            Assert.assertEquals(format.format(new Date(millis)), this.toString(millis));
+        }
+    }
+
+    @Test
+    public void testToEpochMillis() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            final long millis = (long) ((random.nextDouble() - 0.5) * 2 * 10000000000000L);
+            final Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+            cal.setTimeInMillis(millis);
+            Assert.assertEquals(millis, DateAppender.toEpochMillis(cal.get(Calendar.YEAR),
+                    cal.get(Calendar.MONTH) + 1, cal.get(Calendar.DAY_OF_MONTH),
+                    cal.get(Calendar.HOUR_OF_DAY), cal.get(Calendar.MINUTE),
+                    cal.get(Calendar.SECOND), cal.get(Calendar.MILLISECOND)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadMonth() {
+        DateAppender.toEpochMillis(2000, 0, 1, 0, 0, 0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadDayOfMonth() {
+        DateAppender.toEpochMillis(2000, 4, 31, 0, 0, 0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadDayOfFebruary() {
+        DateAppender.toEpochMillis(1900, 2, 29, 0, 0, 0, 0);
+    }
+
+    @Test
+    public void testLeapDay() throws IOException {
+        Assert.assertEquals("2004-02-29T00:00:00.000Z",
+                this.toString(DateAppender.toEpochMillis(2004, 2, 29, 0, 0, 0, 0)));
+        Assert.assertEquals("2001-12-31T00:00:00.000Z",
+                this.toString(DateAppender.toEpochMillis(2001, 12, 31, 0, 0, 0, 0)));
+    }
+
+    private String toString(final long millis) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        DateAppender.appendDateTime(sb, millis);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+public class DecimalAppenderTest {
+    @Test
+    public void testLong() throws IOException {
+        Assert.assertEquals("0", this.toString(0L));
+        Assert.assertEquals("7", this.toString(7L));
+        Assert.assertEquals("-10", this.toString(-10L));
+        Assert.assertEquals("1000000000000000000", this.toString(1000000000000000000L));
+        Assert.assertEquals("9223372036854775807", this.toString(Long.MAX_VALUE));
+        Assert.assertEquals("-9223372036854775808", this.toString(Long.MIN_VALUE));
+    }
+
+    @Test
+    public void testShortDouble() throws IOException {
+        Assert.assertEquals("0", this.toString(0.0));
+        Assert.assertEquals("-0", this.toString(-0.0));
+        Assert.assertEquals("10", this.toString(10.0));
+        Assert.assertEquals("0.1", this.toString(0.1));
+        Assert.assertEquals("-18.7", this.toString(-18.7));
+        Assert.assertEquals("0.001", this.toString(0.001));
+        Assert.assertEquals("123456.789", this.toString(123456.789));
+        Assert.assertEquals("9007199254740991", this.toString(9007199254740991.0));
+    }
+
+    @Test
+    public void testOtherDouble() throws IOException {
+        Assert.assertEquals("NaN", this.toString(Double.NaN));
+        Assert.assertEquals("-Infinity", this.toString(Double.NEGATIVE_INFINITY));
+        Assert.assertEquals("1.0E20", this.toString(1e20));
+        Assert.assertEquals("1.0E-300", this.toString(1e-300));
+        Assert.assertEquals("0.30000000000000004", this.toString(0.1 + 0.2));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            final double d = random.nextDouble() * Math.pow(10, random.nextInt(20) - 10);
+            Assert.assertEquals(d, Double.parseDouble(this.toString(d)), 0.0);
+            final double rounded = Math.rint(d * 1000) / 1000;
+            final String s = this.toString(rounded);
+            Assert.assertEquals(rounded, Double.parseDouble(s), 0.0);
+            Assert.assertEquals(s, -1, s.indexOf('E')); // at most 3 fraction digits
+        }
+    }
+
+    private String toString(final long value) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        DecimalAppender.appendLong(sb, value);
+        return sb.toString();
+    }
+
+    private String toString(final double value) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        DecimalAppender.appendDouble(sb, value);
+        return sb.toString();
+    }
+}
@@ -91,4 +91,29 @@ public class FastFullListTest {
         fl.set(1, null);
         Assert.assertEquals(0, fl.usedSize());
     }
+
+    @Test
+    public final void testRemoveHead() {
+        final FastFullList<String> fl = FastFullList.<String>builder().build();
+        fl.set(0, "0");
+        fl.set(1, "1");
+        fl.set(3, "3");
+        fl.removeHead(2);
+        Assert.assertEquals(2, fl.usedSize());
+        Assert.assertNull(fl.get(0));
+        Assert.assertEquals("3", fl.get(1));
+        Assert.assertNull(fl.get(2));
+        Assert.assertNull(fl.get(3));
+    }
+
+    @Test
+    public final void testRemoveHeadAll() {
+        final FastFullList<String> fl = FastFullList.<String>builder().build();
+        fl.set(0, "0");
+        fl.set(1, "1");
+        fl.removeHead(5);
+        Assert.assertEquals(0, fl.usedSize());
+        Assert.assertNull(fl.get(0));
+        Assert.assertNull(fl.get(1));
+    }
 }
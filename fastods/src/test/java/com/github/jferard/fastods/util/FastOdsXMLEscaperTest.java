@@ -166,6 +166,67 @@ public class FastOdsXMLEscaperTest {
         this.assertEqualsToContentEscaped("'abcde", "'abcde");
     }
 
+    @Test
+    public final void testCacheCounters() {
+        final FastOdsXMLEscaper escaper = FastOdsXMLEscaper.create(2);
+        Assert.assertEquals("&lt;", escaper.escapeXMLContent("<"));
+        Assert.assertEquals("&lt;", escaper.escapeXMLContent("<"));
+        Assert.assertEquals("&lt;", escaper.escapeXMLAttribute("<"));
+        Assert.assertEquals(1, escaper.getCacheHitCount());
+        Assert.assertEquals(2, escaper.getCacheMissCount());
+    }
+
+    @Test
+    public final void testCacheEviction() {
+        final FastOdsXMLEscaper escaper = FastOdsXMLEscaper.create(2);
+        escaper.escapeXMLContent("a");
+        escaper.escapeXMLContent("b");
+        escaper.escapeXMLContent("a"); // hit: b is now the eldest
+        escaper.escapeXMLContent("c"); // evicts b
+        escaper.escapeXMLContent("a"); // hit
+        Assert.assertEquals(2, escaper.getCacheHitCount());
+        escaper.escapeXMLContent("b"); // miss
+        Assert.assertEquals(2, escaper.getCacheHitCount());
+        Assert.assertEquals(4, escaper.getCacheMissCount());
+    }
+
+    @Test
+    public final void testNoCache() {
+        final FastOdsXMLEscaper escaper = FastOdsXMLEscaper.create(FastOdsXMLEscaper.NO_CACHE);
+        Assert.assertEquals("&amp;", escaper.escapeXMLContent("&"));
+        Assert.assertEquals("&amp;", escaper.escapeXMLContent("&"));
+        Assert.assertEquals("&apos;", escaper.escapeXMLAttribute("'"));
+        Assert.assertEquals(0, escaper.getCacheHitCount());
+        Assert.assertEquals(3, escaper.getCacheMissCount());
+    }
+
+    @Test
+    public final void testCopy() {
+        final FastOdsXMLEscaper escaper = FastOdsXMLEscaper.create(FastOdsXMLEscaper.NO_CACHE);
+        final FastOdsXMLEscaper copy = escaper.copy();
+        Assert.assertNotSame(escaper, copy);
+        Assert.assertEquals("&amp;", copy.escapeXMLContent("&"));
+        Assert.assertEquals("&amp;", copy.escapeXMLContent("&"));
+        Assert.assertEquals(0, copy.getCacheHitCount());
+        Assert.assertEquals(0, escaper.getCacheMissCount());
+    }
+
+    @Test
+    public final void testCopyHasEmptyCaches() {
+        final FastOdsXMLEscaper escaper = FastOdsXMLEscaper.create();
+        escaper.escapeXMLContent("&");
+        final FastOdsXMLEscaper copy = escaper.copy();
+        copy.escapeXMLContent("&");
+        copy.escapeXMLContent("&");
+        Assert.assertEquals(1, copy.getCacheHitCount());
+        Assert.assertEquals(1, copy.getCacheMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testNegativeCacheSize() {
+        new FastOdsXMLEscaper(1024, -1);
+    }
+
     private void assertEqualsToAttrEscaped(final String expected, final String actualToEscape) {
         Assert.assertEquals(expected, this.escaper.escapeXMLAttribute(actualToEscape));
     }
@@ -0,0 +1,119 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+public class FastUTF8WriterTest {
+    private static final String TEXT =
+            "<table:table-cell office:value-type=\"string\">ascii, é, €, 😀</cell>";
+
+    private ByteArrayOutputStream out;
+
+    @Before
+    public void setUp() {
+        this.out = new ByteArrayOutputStream();
+    }
+
+    @Test
+    public final void testAppend() throws IOException {
+        final Writer writer = new FastUTF8Writer(this.out, 8192);
+        writer.append(TEXT);
+        writer.close();
+        Assert.assertArrayEquals(TEXT.getBytes(ZipUTF8Writer.UTF_8), this.out.toByteArray());
+    }
+
+    @Test
+    public final void testSmallBuffer() throws IOException {
+        final Writer writer = new FastUTF8Writer(this.out, 0);
+        for (int i = 0; i < 10; i++) {
+            writer.append(new StringBuilder(TEXT));
+        }
+        writer.close();
+        Assert.assertArrayEquals(this.repeat(10).getBytes(ZipUTF8Writer.UTF_8),
+                this.out.toByteArray());
+    }
+
+    @Test
+    public final void testWriteCharArray() throws IOException {
+        final Writer writer = new FastUTF8Writer(this.out, 7);
+        final char[] chars = TEXT.toCharArray();
+        writer.write(chars, 0, 5);
+        writer.write(chars, 5, chars.length - 5);
+        writer.close();
+        Assert.assertArrayEquals(TEXT.getBytes(ZipUTF8Writer.UTF_8), this.out.toByteArray());
+    }
+
+    @Test
+    public final void testSplitSurrogatePair() throws IOException {
+        final Writer writer = new FastUTF8Writer(this.out, 8192);
+        writer.append("a\ud83d");
+        writer.flush();
+        writer.write('\ude00');
+        writer.append('b');
+        writer.close();
+        Assert.assertArrayEquals("a😀b".getBytes(ZipUTF8Writer.UTF_8),
+                this.out.toByteArray());
+    }
+
+    @Test
+    public final void testMalformedSurrogates() throws IOException {
+        final String malformed = "a\ude00b\ud83dc\ud83d😀d\ud83d";
+        final Writer writer = new FastUTF8Writer(this.out, 8192);
+        writer.append(malformed);
+        writer.close();
+
+        final ByteArrayOutputStream expectedOut = new ByteArrayOutputStream();
+        final Writer expectedWriter = new OutputStreamWriter(expectedOut, ZipUTF8Writer.UTF_8);
+        expectedWriter.append(malformed);
+        expectedWriter.close();
+        Assert.assertArrayEquals(expectedOut.toByteArray(), this.out.toByteArray());
+    }
+
+    @Test
+    public final void testAppendRangeAndNull() throws IOException {
+        final Writer writer = new FastUTF8Writer(this.out, 8192);
+        writer.append(TEXT, 1, 6);
+        writer.append(null);
+        writer.write("12345", 1, 2);
+        writer.close();
+        Assert.assertArrayEquals("tablenull23".getBytes(ZipUTF8Writer.UTF_8),
+                this.out.toByteArray());
+    }
+
+    private String repeat(final int times) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            sb.append(TEXT);
+        }
+        return sb.toString();
+    }
+}
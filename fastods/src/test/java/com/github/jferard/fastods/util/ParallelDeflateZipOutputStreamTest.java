@@ -0,0 +1,221 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+public class ParallelDeflateZipOutputStreamTest {
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    private ByteArrayOutputStream out;
+    private ZipOutputStream zipOut;
+
+    @Before
+    public void setUp() {
+        this.out = new ByteArrayOutputStream();
+        this.zipOut = new ParallelDeflateZipOutputStream(this.out, 2, 1000);
+    }
+
+    @Test
+    public final void testIsSupported() {
+        Assert.assertTrue(ParallelDeflateZipOutputStream.isSupported());
+    }
+
+    @Test
+    public final void testCrc32Combine() {
+        final byte[] bytes = this.randomText(10000);
+        final long crc1 = this.crc(bytes, 0, 3333);
+        final long crc2 = this.crc(bytes, 3333, 10000 - 3333);
+        Assert.assertEquals(this.crc(bytes, 0, 10000),
+                ParallelDeflateZipOutputStream.crc32Combine(crc1, crc2, 10000 - 3333));
+        Assert.assertEquals(crc1, ParallelDeflateZipOutputStream.crc32Combine(crc1, 0, 0));
+    }
+
+    @Test
+    public final void testReadBack() throws IOException {
+        final byte[] bytes = this.randomText(54321);
+        this.zipOut.setComment("comment");
+        this.zipOut.putNextEntry(new ZipEntry("a"));
+        this.zipOut.write(bytes, 0, 10);
+        this.zipOut.write(bytes, 10, bytes.length - 10);
+        this.zipOut.closeEntry();
+        this.zipOut.putNextEntry(new ZipEntry("empty/"));
+        this.zipOut.putNextEntry(new ZipEntry("b"));
+        this.zipOut.write('b');
+        this.zipOut.close();
+
+        final ZipInputStream in = this.getZipInputStream();
+        ZipEntry entry = in.getNextEntry();
+        Assert.assertEquals("a", entry.getName());
+        Assert.assertArrayEquals(bytes, this.readEntry(in));
+        Assert.assertEquals(this.crc(bytes, 0, bytes.length), entry.getCrc());
+        Assert.assertEquals(bytes.length, entry.getSize());
+        Assert.assertTrue(entry.getCompressedSize() < bytes.length);
+
+        entry = in.getNextEntry();
+        Assert.assertEquals("empty/", entry.getName());
+        Assert.assertArrayEquals(new byte[0], this.readEntry(in));
+
+        entry = in.getNextEntry();
+        Assert.assertEquals("b", entry.getName());
+        Assert.assertArrayEquals(new byte[]{'b'}, this.readEntry(in));
+        Assert.assertNull(in.getNextEntry());
+    }
+
+    @Test
+    public final void testStored() throws IOException {
+        final byte[] bytes = "stored".getBytes(ZipUTF8Writer.UTF_8);
+        final ZipEntry storedEntry = new ZipEntry("s");
+        storedEntry.setMethod(ZipEntry.STORED);
+        storedEntry.setSize(bytes.length);
+        storedEntry.setCrc(this.crc(bytes, 0, bytes.length));
+        this.zipOut.putNextEntry(storedEntry);
+        this.zipOut.write(bytes);
+        this.zipOut.close();
+
+        final ZipInputStream in = this.getZipInputStream();
+        final ZipEntry entry = in.getNextEntry();
+        Assert.assertEquals(ZipEntry.STORED, entry.getMethod());
+        Assert.assertArrayEquals(bytes, this.readEntry(in));
+    }
+
+    @Test
+    public final void testStoredBadCrc() throws IOException {
+        final ZipEntry storedEntry = new ZipEntry("s");
+        storedEntry.setMethod(ZipEntry.STORED);
+        storedEntry.setSize(1);
+        storedEntry.setCrc(0);
+        this.zipOut.putNextEntry(storedEntry);
+        this.zipOut.write('s');
+        this.thrown.expect(ZipException.class);
+        this.thrown.expectMessage("invalid entry crc-32 for s");
+        this.zipOut.closeEntry();
+    }
+
+    @Test
+    public final void testDuplicateEntry() throws IOException {
+        this.zipOut.putNextEntry(new ZipEntry("a"));
+        this.thrown.expect(ZipException.class);
+        this.thrown.expectMessage("duplicate entry: a");
+        this.zipOut.putNextEntry(new ZipEntry("a"));
+    }
+
+    @Test
+    public final void testNoEntry() throws IOException {
+        this.thrown.expect(ZipException.class);
+        this.thrown.expectMessage("no current ZIP entry");
+        this.zipOut.write('a');
+    }
+
+    @Test
+    public final void testClosed() throws IOException {
+        this.zipOut.close();
+        this.zipOut.close();
+        this.thrown.expect(IOException.class);
+        this.thrown.expectMessage("Stream closed");
+        this.zipOut.putNextEntry(new ZipEntry("a"));
+    }
+
+    @Test
+    public final void testRawEntry() throws IOException {
+        final byte[] bytes = this.randomText(54321);
+        final File file = File.createTempFile("raw_entry_test", ".zip");
+        final List<RawZipEntry> rawEntries;
+        try {
+            RawZipDirectoryTest.createZip(file, "stored".getBytes(ZipUTF8Writer.UTF_8), bytes);
+            rawEntries = RawZipDirectory.read(file);
+            this.zipOut.putNextEntry(new ZipEntry("a"));
+            this.zipOut.write('a');
+            for (final RawZipEntry rawEntry : rawEntries) {
+                ((ParallelDeflateZipOutputStream) this.zipOut)
+                        .putRawEntry("copy/" + rawEntry.getName(), rawEntry);
+            }
+            this.zipOut.close();
+        } finally {
+            file.delete();
+        }
+
+        final ZipInputStream in = this.getZipInputStream();
+        Assert.assertEquals("a", in.getNextEntry().getName());
+        Assert.assertArrayEquals(new byte[]{'a'}, this.readEntry(in));
+        ZipEntry entry = in.getNextEntry();
+        Assert.assertEquals("copy/mimetype", entry.getName());
+        Assert.assertEquals(ZipEntry.STORED, entry.getMethod());
+        Assert.assertArrayEquals("stored".getBytes(ZipUTF8Writer.UTF_8), this.readEntry(in));
+        Assert.assertEquals("copy/dir/", in.getNextEntry().getName());
+        entry = in.getNextEntry();
+        Assert.assertEquals("copy/dir/a.txt", entry.getName());
+        Assert.assertEquals(rawEntries.get(2).getCompressedSize(), entry.getCompressedSize());
+        Assert.assertEquals(this.crc(bytes, 0, bytes.length), entry.getCrc());
+        Assert.assertArrayEquals(bytes, this.readEntry(in));
+        Assert.assertNull(in.getNextEntry());
+    }
+
+    private ZipInputStream getZipInputStream() {
+        return new ZipInputStream(new ByteArrayInputStream(this.out.toByteArray()));
+    }
+
+    private byte[] randomText(final int length) {
+        final Random random = new Random(0);
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) ('a' + random.nextInt(8));
+        }
+        return bytes;
+    }
+
+    private long crc(final byte[] bytes, final int off, final int len) {
+        final CRC32 crc32 = new CRC32();
+        crc32.update(bytes, off, len);
+        return crc32.getValue();
+    }
+
+    private byte[] readEntry(final ZipInputStream in) throws IOException {
+        final ByteArrayOutputStream entryOut = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int count = in.read(buffer);
+        while (count != -1) {
+            entryOut.write(buffer, 0, count);
+            count = in.read(buffer);
+        }
+        return entryOut.toByteArray();
+    }
+}
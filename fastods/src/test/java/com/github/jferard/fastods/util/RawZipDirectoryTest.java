@@ -0,0 +1,180 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.jferard.fastods.util;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+public class RawZipDirectoryTest {
+    /**
+     * Create a zip file with a stored entry, a directory and a deflated entry
+     *
+     * @param file     the destination
+     * @param stored   the content of the stored entry "mimetype"
+     * @param deflated the content of the deflated entry "dir/a.txt"
+     * @throws IOException if an I/O error occurs
+     */
+    static void createZip(final File file, final byte[] stored, final byte[] deflated)
+            throws IOException {
+        final ZipOutputStream zipOut = new ZipOutputStream(new FileOutputStream(file));
+        try {
+            final ZipEntry storedEntry = new ZipEntry("mimetype");
+            storedEntry.setMethod(ZipEntry.STORED);
+            storedEntry.setSize(stored.length);
+            final CRC32 crc32 = new CRC32();
+            crc32.update(stored);
+            storedEntry.setCrc(crc32.getValue());
+            storedEntry.setExtra(new byte[]{1, 2, 3, 4});
+            zipOut.putNextEntry(storedEntry);
+            zipOut.write(stored);
+            zipOut.putNextEntry(new ZipEntry("dir/"));
+            zipOut.putNextEntry(new ZipEntry("dir/a.txt"));
+            zipOut.write(deflated);
+            zipOut.setComment("a comment");
+        } finally {
+            zipOut.close();
+        }
+    }
+
+    static byte[] read(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int count = in.read(buffer);
+        while (count != -1) {
+            out.write(buffer, 0, count);
+            count = in.read(buffer);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] readAndClose(final InputStream in) throws IOException {
+        try {
+            return read(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    static byte[] text(final int length) {
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) ('a' + (i * 7) % 13);
+        }
+        return bytes;
+    }
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        this.file = File.createTempFile("raw_zip_test", ".zip");
+    }
+
+    @After
+    public void tearDown() {
+        this.file.delete();
+    }
+
+    @Test
+    public final void testRead() throws IOException {
+        final byte[] stored = "application/vnd.oasis.opendocument.spreadsheet"
+                .getBytes(ZipUTF8Writer.UTF_8);
+        final byte[] deflated = text(10000);
+        createZip(this.file, stored, deflated);
+
+        final List<RawZipEntry> entries = RawZipDirectory.read(this.file);
+        Assert.assertEquals(3, entries.size());
+
+        final RawZipEntry storedEntry = entries.get(0);
+        Assert.assertEquals("mimetype", storedEntry.getName());
+        Assert.assertEquals(ZipEntry.STORED, storedEntry.getMethod());
+        Assert.assertEquals(stored.length, storedEntry.getSize());
+        Assert.assertEquals(stored.length, storedEntry.getCompressedSize());
+        Assert.assertFalse(storedEntry.isDirectory());
+        Assert.assertArrayEquals(stored, readAndClose(storedEntry.openRawStream()));
+
+        Assert.assertTrue(entries.get(1).isDirectory());
+
+        final RawZipEntry deflatedEntry = entries.get(2);
+        Assert.assertEquals("dir/a.txt", deflatedEntry.getName());
+        Assert.assertEquals(ZipEntry.DEFLATED, deflatedEntry.getMethod());
+        Assert.assertEquals(deflated.length, deflatedEntry.getSize());
+        Assert.assertTrue(deflatedEntry.getCompressedSize() < deflated.length);
+        final CRC32 crc32 = new CRC32();
+        crc32.update(deflated);
+        Assert.assertEquals(crc32.getValue(), deflatedEntry.getCrc());
+        final byte[] raw = readAndClose(deflatedEntry.openRawStream());
+        Assert.assertEquals(deflatedEntry.getCompressedSize(), raw.length);
+        Assert.assertArrayEquals(deflated,
+                read(new InflaterInputStream(new ByteArrayInputStream(raw),
+                        new Inflater(true))));
+    }
+
+    @Test
+    public final void testToZipEntry() throws IOException {
+        createZip(this.file, new byte[]{'a'}, text(10));
+
+        final RawZipEntry rawEntry = RawZipDirectory.read(this.file).get(2);
+        final ZipEntry entry = rawEntry.toZipEntry("b.txt");
+        Assert.assertEquals("b.txt", entry.getName());
+        Assert.assertEquals(ZipEntry.DEFLATED, entry.getMethod());
+        Assert.assertEquals(rawEntry.getCrc(), entry.getCrc());
+        Assert.assertEquals(10, entry.getSize());
+        Assert.assertTrue(Math.abs(System.currentTimeMillis() - entry.getTime()) < 60000);
+    }
+
+    @Test
+    public final void testNotAZip() throws IOException {
+        final FileOutputStream out = new FileOutputStream(this.file);
+        try {
+            out.write(text(100));
+        } finally {
+            out.close();
+        }
+
+        this.thrown.expect(ZipException.class);
+        this.thrown.expectMessage("End of central directory not found");
+        RawZipDirectory.read(this.file);
+    }
+}
@@ -39,6 +39,27 @@ public class XMLUtilTest {
         this.sb = new StringBuilder();
     }
 
+    @Test
+    public void testCopy() throws IOException {
+        final XMLEscaper escaper = new XMLEscaper() {
+            @Override
+            public String escapeXMLAttribute(final String s) {
+                return "attr:" + s;
+            }
+
+            @Override
+            public String escapeXMLContent(final String s) {
+                return "content:" + s;
+            }
+        };
+        final XMLUtil util = XMLUtil.create(escaper);
+        final XMLUtil copy = util.copy();
+        Assert.assertNotSame(util, copy);
+        Assert.assertNotSame(util.getCellTagFragments(), copy.getCellTagFragments());
+        copy.appendEAttribute(this.sb, "a", "v");
+        Assert.assertEquals(" a=\"attr:v\"", this.sb.toString());
+    }
+
     @Test
     public void testBooleanAttr() throws IOException {
         this.xu.appendAttribute(this.sb, "attr", true);
@@ -0,0 +1,117 @@
+/*
+ * FastODS - A very fast and lightweight (no dependency) library for creating ODS
+ *    (Open Document Spreadsheet, mainly for Calc) files in Java.
+ *    It's a Martin Schulz's SimpleODS fork
+ *    Copyright (C) 2016-2019 J. Férard <https://github.com/jferard>
+ * SimpleODS - A lightweight java library to create simple OpenOffice spreadsheets
+ *    Copyright (C) 2008-2013 Martin Schulz <mtschulz at users.sourceforge.net>
+ *
+ * This file is part of FastODS.
+ *
+ * FastODS is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * FastODS is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.jferard.fastods.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+
+public class XmlByteWriterTest {
+    private static final String TEXT =
+            "<table:table-cell office:value-type=\"string\">ascii, é, €, 😀</cell>";
+
+    @Test
+    public final void testAppend() throws IOException {
+        final XmlByteWriter writer = new XmlByteWriter(0);
+        writer.append(TEXT.substring(0, 10)).append(new StringBuilder(TEXT), 10, 60)
+                .append(TEXT.charAt(60)).append(TEXT.substring(61));
+        Assert.assertEquals(TEXT, writer.toString());
+        Assert.assertEquals(TEXT.getBytes(ZipUTF8Writer.UTF_8).length, writer.length());
+    }
+
+    @Test
+    public final void testMalformedSurrogates() {
+        final XmlByteWriter writer = XmlByteWriter.create();
+        writer.append("a\ude00b\ud83d").append('\ude00').append('\ud83d');
+        writer.write(XmlByteWriter.encode("c"));
+        Assert.assertEquals("a?b😀?c", writer.toString());
+    }
+
+    @Test
+    public final void testNumbers() throws IOException {
+        final XmlByteWriter writer = XmlByteWriter.create();
+        writer.write(XmlByteWriter.encode("<n v=\""));
+        writer.writeInt(0);
+        writer.append(' ');
+        writer.writeInt(-1234567);
+        writer.append(' ');
+        writer.writeLong(Long.MAX_VALUE);
+        writer.append(' ');
+        writer.writeLong(Long.MIN_VALUE);
+        writer.append(' ');
+        writer.writeDouble(10.25);
+        writer.append('"');
+        Assert.assertEquals("<n v=\"0 -1234567 " + Long.MAX_VALUE + " " + Long.MIN_VALUE +
+                " 10.25\"", writer.toString());
+    }
+
+    @Test
+    public final void testCompare() {
+        final XmlByteWriter writer = XmlByteWriter.create();
+        final XmlByteWriter other = XmlByteWriter.create();
+        writer.append("<row>é</row>");
+        other.append("<row>e</row>");
+        Assert.assertTrue(writer.startsWith(XmlByteWriter.encode("<row")));
+        Assert.assertFalse(writer.startsWith(XmlByteWriter.encode("<row>é</row>!")));
+        Assert.assertFalse(writer.contentEquals(other));
+
+        other.reset();
+        other.append("<row>é</row>");
+        Assert.assertTrue(writer.contentEquals(other));
+    }
+
+    @Test
+    public final void testWriteTo() throws IOException {
+        final XmlByteWriter writer = XmlByteWriter.create();
+        writer.append(TEXT);
+
+        final StringBuilder sb = new StringBuilder();
+        writer.writeTo(sb, 1, writer.length());
+        Assert.assertEquals(TEXT.substring(1), sb.toString());
+
+        final XmlByteWriter other = XmlByteWriter.create();
+        writer.writeTo(other);
+        Assert.assertTrue(writer.contentEquals(other));
+    }
+
+    @Test
+    public final void testWriteToZipUTF8Writer() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Writer fastWriter = new FastUTF8Writer(out, 16);
+        final ZipUTF8Writer zipWriter = new ZipUTF8WriterImpl(null, fastWriter);
+        final XmlByteWriter writer = XmlByteWriter.create();
+        writer.append(TEXT);
+
+        zipWriter.append("é");
+        writer.writeTo(zipWriter);
+        zipWriter.append('!');
+        writer.writeTo(zipWriter, 0, 5);
+        fastWriter.close();
+        Assert.assertEquals("é" + TEXT + "!" + TEXT.substring(0, 5),
+                new String(out.toByteArray(), ZipUTF8Writer.UTF_8));
+    }
+}
@@ -29,9 +29,13 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.powermock.api.easymock.PowerMock;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 public class ZipUTF8WriterBuilderTest {
     public static final int C_SIZE = 118;
@@ -115,6 +119,84 @@ public class ZipUTF8WriterBuilderTest {
         this.builder.zipBuffer(-1).build(this.out);
     }
 
+    @Test
+    public final void testParallelDeflate() throws IOException {
+        final ZipUTF8Writer writer = this.builder.parallelDeflate(2, 16).build(this.out);
+        writer.putNextEntry(new ZipEntry("a"));
+        writer.append("some long text that can be zipped some long text that can be zipped");
+        writer.closeEntry();
+        writer.close();
+
+        final ZipInputStream in =
+                new ZipInputStream(new ByteArrayInputStream(this.out.toByteArray()));
+        Assert.assertEquals("a", in.getNextEntry().getName());
+        final byte[] buffer = new byte[100];
+        final int count = in.read(buffer);
+        Assert.assertEquals("some long text that can be zipped some long text that can be zipped",
+                new String(buffer, 0, count, ZipUTF8Writer.UTF_8));
+    }
+
+    @Test
+    public final void testBadParallelDeflate() {
+        this.thrown.expect(IllegalArgumentException.class);
+        this.builder.parallelDeflate(0, 16);
+    }
+
+    @Test
+    public final void testFastUTF8Writer() throws IOException {
+        final ZipUTF8Writer writer = this.builder.fastUTF8Writer().build(this.out);
+        writer.putNextEntry(new ZipEntry("a"));
+        writer.append("text: \u00e9\u20ac");
+        writer.closeEntry();
+        writer.close();
+
+        final ZipInputStream in =
+                new ZipInputStream(new ByteArrayInputStream(this.out.toByteArray()));
+        Assert.assertEquals("a", in.getNextEntry().getName());
+        final byte[] buffer = new byte[100];
+        final int count = in.read(buffer);
+        Assert.assertEquals("text: \u00e9\u20ac", new String(buffer, 0, count, ZipUTF8Writer.UTF_8));
+    }
+
+    @Test
+    public final void testWriteUTF8() throws IOException {
+        final int[] flushCount = {0};
+        final OutputStream countingOut = new FilterOutputStream(this.out) {
+            @Override
+            public void flush() throws IOException {
+                flushCount[0]++;
+                super.flush();
+            }
+        };
+        final ZipUTF8Writer writer = this.builder.noZipBuffer().build(countingOut);
+        final byte[] bytes = "-\u00e9\u20ac-".getBytes(ZipUTF8Writer.UTF_8);
+        writer.putNextEntry(new ZipEntry("a"));
+        writer.append("text: ");
+        writer.writeUTF8(bytes, 1, bytes.length - 2);
+        writer.append('!');
+        Assert.assertEquals(0, flushCount[0]);
+        writer.closeEntry();
+        writer.close();
+
+        final ZipInputStream in =
+                new ZipInputStream(new ByteArrayInputStream(this.out.toByteArray()));
+        Assert.assertEquals("a", in.getNextEntry().getName());
+        final byte[] buffer = new byte[100];
+        final int count = in.read(buffer);
+        Assert.assertEquals("text: \u00e9\u20ac!",
+                new String(buffer, 0, count, ZipUTF8Writer.UTF_8));
+    }
+
+    @Test
+    public final void testFastUTF8WriterNoBuffer() throws IOException {
+        final ZipUTF8Writer writer =
+                this.builder.fastUTF8Writer().noWriterBuffer().build(this.out);
+        writer.putNextEntry(new ZipEntry("a"));
+        writer.append('c');
+        writer.close();
+        Assert.assertEquals(C_SIZE, this.out.size());
+    }
+
     @Test
     public final void testLevel0() throws IOException {
         final ZipUTF8Writer writer = this.builder.level(0).build(this.out);
@@ -27,10 +27,16 @@ import org.junit.Before;
 import org.junit.Test;
 import org.powermock.api.easymock.PowerMock;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
 public class ZipUTF8WriterTest {
@@ -58,4 +64,63 @@ public class ZipUTF8WriterTest {
         this.zipUTF8Writer.finish();
     }
 
+    @Test
+    public final void testWriteUTF8WithByteSink() throws IOException {
+        final int[] writeCount = {0};
+        final ZipOutputStream zipOut = new ZipOutputStream(this.out) {
+            @Override
+            public synchronized void write(final byte[] b, final int off, final int len)
+                    throws IOException {
+                writeCount[0]++;
+                super.write(b, off, len);
+            }
+        };
+        final OutputStream byteSink = new BufferedOutputStream(new NonFlushingOutputStream(zipOut));
+        final ZipUTF8Writer writer = new ZipUTF8WriterImpl(zipOut,
+                new OutputStreamWriter(new NonFlushingOutputStream(byteSink), ZipUTF8Writer.UTF_8),
+                byteSink);
+        final byte[] bytes = "<row />".getBytes(ZipUTF8Writer.UTF_8);
+        writer.putNextEntry(new ZipEntry("a"));
+        for (int i = 0; i < 100; i++) {
+            writer.append('-');
+            writer.writeUTF8(bytes, 0, bytes.length);
+        }
+        Assert.assertEquals(0, writeCount[0]);
+        writer.closeEntry();
+        Assert.assertEquals(1, writeCount[0]);
+        writer.close();
+
+        final ZipInputStream in =
+                new ZipInputStream(new ByteArrayInputStream(this.out.toByteArray()));
+        in.getNextEntry();
+        Assert.assertEquals(800, RawZipDirectoryTest.read(in).length);
+    }
+
+    @Test
+    public final void testRawEntry() throws IOException {
+        final byte[] bytes = RawZipDirectoryTest.text(10000);
+        final File file = File.createTempFile("raw_entry_test", ".zip");
+        try {
+            RawZipDirectoryTest.createZip(file, "stored".getBytes(ZipUTF8Writer.UTF_8), bytes);
+            for (final RawZipEntry rawEntry : RawZipDirectory.read(file)) {
+                this.zipUTF8Writer.putRawEntry(rawEntry.getName(), rawEntry);
+            }
+            this.zipUTF8Writer.finish();
+        } finally {
+            file.delete();
+        }
+
+        final ZipInputStream in =
+                new ZipInputStream(new ByteArrayInputStream(this.out.toByteArray()));
+        ZipEntry entry = in.getNextEntry();
+        Assert.assertEquals("mimetype", entry.getName());
+        Assert.assertEquals(ZipEntry.STORED, entry.getMethod());
+        Assert.assertArrayEquals("stored".getBytes(ZipUTF8Writer.UTF_8),
+                RawZipDirectoryTest.read(in));
+        Assert.assertEquals("dir/", in.getNextEntry().getName());
+        entry = in.getNextEntry();
+        Assert.assertEquals("dir/a.txt", entry.getName());
+        Assert.assertArrayEquals(bytes, RawZipDirectoryTest.read(in));
+        Assert.assertNull(in.getNextEntry());
+    }
 }